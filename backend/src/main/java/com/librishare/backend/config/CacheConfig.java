@@ -0,0 +1,157 @@
+package com.librishare.backend.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.librishare.backend.config.cache.InMemoryCacheTier;
+import com.librishare.backend.config.cache.RedisCacheTier;
+import com.librishare.backend.config.cache.RemoteCacheTier;
+import com.librishare.backend.config.cache.TwoTierCache;
+import com.librishare.backend.modules.book.dto.BookResponseDTO;
+import com.librishare.backend.modules.cache.service.CacheInvalidationBus;
+import com.librishare.backend.modules.idempotency.dto.IdempotentResponse;
+import com.librishare.backend.modules.library.dto.UserLibraryStatsDTO;
+import com.librishare.backend.modules.user.dto.UserProfile;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Caches de leitura em dois níveis. O segundo nível é escolhido por
+ * {@code librishare.cache.remote.type}: {@code redis}, {@code memory} (substituto
+ * local, para testes) ou {@code none}, que deixa só o nível em memória.
+ */
+@Configuration
+public class CacheConfig {
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "librishare.cache.remote.type", havingValue = "redis")
+    public RedisCacheTier redisCacheTier(@Value("${librishare.cache.remote.redis.host:localhost}") String host,
+                                         @Value("${librishare.cache.remote.redis.port:6379}") int port,
+                                         @Value("${librishare.cache.remote.redis.password:}") String password,
+                                         @Value("${librishare.cache.remote.redis.database:0}") int database,
+                                         @Value("${librishare.cache.remote.redis.key-prefix:librishare:}") String keyPrefix,
+                                         @Value("${librishare.cache.remote.redis.timeout-ms:200}") long timeoutMs,
+                                         @Value("${librishare.cache.remote.redis.retry-after-ms:5000}") long retryAfterMs,
+                                         @Value("${librishare.cache.remote.redis.pool-size:16}") int poolSize) {
+        return new RedisCacheTier(host, port, password, database, keyPrefix,
+                Duration.ofMillis(timeoutMs), Duration.ofMillis(retryAfterMs), poolSize);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "librishare.cache.remote.type", havingValue = "memory")
+    public InMemoryCacheTier inMemoryCacheTier() {
+        return new InMemoryCacheTier();
+    }
+
+    @Bean
+    public TwoTierCache<Long, BookResponseDTO> bookCache(@Value("${librishare.cache.books.ttl-seconds:3600}") long ttlSeconds,
+                                                         @Value("${librishare.cache.books.max-size:10000}") int maxSize,
+                                                         ObjectProvider<RemoteCacheTier> remote,
+                                                         ObjectMapper objectMapper,
+                                                         CacheInvalidationBus invalidationBus,
+                                                         ObjectProvider<MeterRegistry> meterRegistry) {
+        return TwoTierCache.<Long, BookResponseDTO>builder()
+                .name("books")
+                .valueType(BookResponseDTO.class)
+                .ttl(Duration.ofSeconds(ttlSeconds))
+                .maxSize(maxSize)
+                .remote(remote.getIfAvailable())
+                .objectMapper(objectMapper)
+                .invalidationBus(invalidationBus)
+                .region(CacheInvalidationBus.BOOK)
+                .keyParser(Long::valueOf)
+                .meterRegistry(meterRegistry.getIfAvailable())
+                .build();
+    }
+
+    @Bean
+    public TwoTierCache<Long, UserProfile> userProfileCache(@Value("${librishare.cache.users.ttl-seconds:600}") long ttlSeconds,
+                                                            @Value("${librishare.cache.users.max-size:10000}") int maxSize,
+                                                            ObjectProvider<RemoteCacheTier> remote,
+                                                            ObjectMapper objectMapper,
+                                                            CacheInvalidationBus invalidationBus,
+                                                            ObjectProvider<MeterRegistry> meterRegistry) {
+        return TwoTierCache.<Long, UserProfile>builder()
+                .name("users")
+                .valueType(UserProfile.class)
+                .ttl(Duration.ofSeconds(ttlSeconds))
+                .maxSize(maxSize)
+                .remote(remote.getIfAvailable())
+                .objectMapper(objectMapper)
+                .invalidationBus(invalidationBus)
+                .region(CacheInvalidationBus.USER)
+                .keyParser(Long::valueOf)
+                .meterRegistry(meterRegistry.getIfAvailable())
+                .build();
+    }
+
+    // Índice email normalizado -> id; o perfil em si fica em userProfileCache
+    @Bean
+    public TwoTierCache<String, Long> userEmailCache(@Value("${librishare.cache.user-emails.ttl-seconds:600}") long ttlSeconds,
+                                                     @Value("${librishare.cache.user-emails.max-size:10000}") int maxSize,
+                                                     ObjectProvider<RemoteCacheTier> remote,
+                                                     ObjectMapper objectMapper,
+                                                     CacheInvalidationBus invalidationBus,
+                                                     ObjectProvider<MeterRegistry> meterRegistry) {
+        return TwoTierCache.<String, Long>builder()
+                .name("user-emails")
+                .valueType(Long.class)
+                .ttl(Duration.ofSeconds(ttlSeconds))
+                .maxSize(maxSize)
+                .remote(remote.getIfAvailable())
+                .objectMapper(objectMapper)
+                .invalidationBus(invalidationBus)
+                .region(CacheInvalidationBus.USER_EMAIL)
+                .keyParser(Function.identity())
+                .meterRegistry(meterRegistry.getIfAvailable())
+                .build();
+    }
+
+    @Bean
+    public TwoTierCache<Long, UserLibraryStatsDTO> libraryStatsCache(@Value("${librishare.cache.library-stats.ttl-seconds:300}") long ttlSeconds,
+                                                                     @Value("${librishare.cache.library-stats.max-size:10000}") int maxSize,
+                                                                     ObjectProvider<RemoteCacheTier> remote,
+                                                                     ObjectMapper objectMapper,
+                                                                     CacheInvalidationBus invalidationBus,
+                                                                     ObjectProvider<MeterRegistry> meterRegistry) {
+        return TwoTierCache.<Long, UserLibraryStatsDTO>builder()
+                .name("library-stats")
+                .valueType(UserLibraryStatsDTO.class)
+                .ttl(Duration.ofSeconds(ttlSeconds))
+                .maxSize(maxSize)
+                .remote(remote.getIfAvailable())
+                .objectMapper(objectMapper)
+                .invalidationBus(invalidationBus)
+                .region(CacheInvalidationBus.LIBRARY)
+                .keyParser(Long::valueOf)
+                .meterRegistry(meterRegistry.getIfAvailable())
+                .build();
+    }
+
+    // Respostas concluídas não mudam: o cache só evita a leitura do banco nas repetições
+    @Bean
+    public TwoTierCache<String, IdempotentResponse> idempotencyCache(@Value("${librishare.idempotency.ttl-hours:24}") long ttlHours,
+                                                                     @Value("${librishare.cache.idempotency.max-size:10000}") int maxSize,
+                                                                     ObjectProvider<RemoteCacheTier> remote,
+                                                                     ObjectMapper objectMapper,
+                                                                     CacheInvalidationBus invalidationBus,
+                                                                     ObjectProvider<MeterRegistry> meterRegistry) {
+        return TwoTierCache.<String, IdempotentResponse>builder()
+                .name("idempotency")
+                .valueType(IdempotentResponse.class)
+                .ttl(Duration.ofHours(ttlHours))
+                .maxSize(maxSize)
+                .remote(remote.getIfAvailable())
+                .objectMapper(objectMapper)
+                .invalidationBus(invalidationBus)
+                .region(CacheInvalidationBus.IDEMPOTENCY)
+                .keyParser(Function.identity())
+                .meterRegistry(meterRegistry.getIfAvailable())
+                .build();
+    }
+}
@@ -0,0 +1,45 @@
+package com.librishare.backend.config;
+
+import com.librishare.backend.config.concurrency.AdaptiveConcurrencyLimiter;
+import com.librishare.backend.config.concurrency.ConcurrencyLimitInterceptor;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Limite adaptativo de concorrência nas rotas da API, para que uma lentidão do
+ * banco vire 503 rápidos em vez de threads presas esperando conexão.
+ * Desligado com {@code librishare.concurrency.enabled=false}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "librishare.concurrency.enabled", havingValue = "true", matchIfMissing = true)
+public class ConcurrencyLimitConfig implements WebMvcConfigurer {
+
+    private final AdaptiveConcurrencyLimiter limiter;
+
+    public ConcurrencyLimitConfig(ObjectProvider<MeterRegistry> meterRegistry,
+                                  @Value("${librishare.concurrency.initial-limit:20}") int initialLimit,
+                                  @Value("${librishare.concurrency.min-limit:4}") int minLimit,
+                                  @Value("${librishare.concurrency.max-limit:200}") int maxLimit,
+                                  @Value("${librishare.concurrency.latency-threshold-ms:500}") long latencyThresholdMillis,
+                                  @Value("${librishare.concurrency.backoff-ratio:0.9}") double backoffRatio,
+                                  @Value("${librishare.concurrency.read-share:0.8}") double readShare) {
+        this.limiter = new AdaptiveConcurrencyLimiter(initialLimit, minLimit, maxLimit, latencyThresholdMillis,
+                backoffRatio, readShare, meterRegistry.getIfAvailable());
+    }
+
+    @Bean
+    public AdaptiveConcurrencyLimiter adaptiveConcurrencyLimiter() {
+        return limiter;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new ConcurrencyLimitInterceptor(limiter)).addPathPatterns("/api/**");
+    }
+}
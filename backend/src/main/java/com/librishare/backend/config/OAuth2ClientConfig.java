@@ -0,0 +1,146 @@
+package com.librishare.backend.config;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.librishare.backend.config.security.LazyClientRegistrationRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.security.oauth2.client.OAuth2ClientProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.security.oauth2.client.registration.ClientRegistration;
+import org.springframework.security.oauth2.client.registration.ClientRegistrations;
+import org.springframework.security.oauth2.core.AuthenticationMethod;
+import org.springframework.security.oauth2.core.AuthorizationGrantType;
+import org.springframework.security.oauth2.core.ClientAuthenticationMethod;
+import org.springframework.security.oauth2.core.oidc.IdTokenClaimNames;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Registros OAuth2 sem acesso à rede na inicialização. Com {@code issuer-uri}, o
+ * Spring Boot busca o documento de discovery do provedor ao subir a aplicação;
+ * aqui os metadados vêm de {@code {metadata-location}/{provider}.json}, empacotado
+ * com a aplicação. Sem esse arquivo, o discovery pelo {@code issuer-uri} só
+ * acontece no primeiro uso do registro.
+ *
+ * <p>As propriedades {@code spring.security.oauth2.client.*} continuam valendo e
+ * têm precedência sobre os metadados do arquivo.</p>
+ */
+@Slf4j
+@Configuration
+@EnableConfigurationProperties(OAuth2ClientProperties.class)
+public class OAuth2ClientConfig {
+
+    private static final String DEFAULT_REDIRECT_URI = "{baseUrl}/{action}/oauth2/code/{registrationId}";
+
+    @Bean
+    public LazyClientRegistrationRepository clientRegistrationRepository(OAuth2ClientProperties properties,
+                                                                         ObjectMapper objectMapper,
+                                                                         ResourceLoader resourceLoader,
+                                                                         @Value("${librishare.oauth2.metadata-location:classpath:oauth2/}") String metadataLocation) {
+        Map<String, Supplier<ClientRegistration>> loaders = new LinkedHashMap<>();
+        properties.getRegistration().forEach((registrationId, registration) -> {
+            String providerId = StringUtils.hasText(registration.getProvider()) ? registration.getProvider() : registrationId;
+            OAuth2ClientProperties.Provider provider = properties.getProvider().get(providerId);
+            Resource metadata = resourceLoader.getResource(metadataLocation + providerId + ".json");
+
+            if (metadata.exists()) {
+                // Arquivo local: monta já, para falhar cedo se estiver mal configurado
+                ClientRegistration built = apply(fromMetadata(registrationId, read(objectMapper, metadata)),
+                        registration, provider).build();
+                loaders.put(registrationId, () -> built);
+                log.info("OAuth2 '{}': metadados de {}", registrationId, metadata.getDescription());
+            } else if (provider != null && StringUtils.hasText(provider.getIssuerUri())) {
+                String issuerUri = provider.getIssuerUri();
+                loaders.put(registrationId, () -> apply(
+                        ClientRegistrations.fromIssuerLocation(issuerUri).registrationId(registrationId),
+                        registration, provider).build());
+                log.info("OAuth2 '{}': discovery em {} adiado para o primeiro uso", registrationId, issuerUri);
+            } else {
+                ClientRegistration built = apply(ClientRegistration.withRegistrationId(registrationId)
+                        .authorizationGrantType(AuthorizationGrantType.AUTHORIZATION_CODE)
+                        .redirectUri(DEFAULT_REDIRECT_URI), registration, provider).build();
+                loaders.put(registrationId, () -> built);
+                log.info("OAuth2 '{}': endpoints das propriedades", registrationId);
+            }
+        });
+        return new LazyClientRegistrationRepository(loaders);
+    }
+
+    private static Map<String, Object> read(ObjectMapper objectMapper, Resource metadata) {
+        try (InputStream in = metadata.getInputStream()) {
+            return objectMapper.readValue(in, new TypeReference<>() {});
+        } catch (IOException e) {
+            throw new UncheckedIOException("Metadados OAuth2 inválidos: " + metadata.getDescription(), e);
+        }
+    }
+
+    private static ClientRegistration.Builder fromMetadata(String registrationId, Map<String, Object> metadata) {
+        return ClientRegistration.withRegistrationId(registrationId)
+                .issuerUri((String) metadata.get("issuer"))
+                .authorizationUri((String) metadata.get("authorization_endpoint"))
+                .tokenUri((String) metadata.get("token_endpoint"))
+                .userInfoUri((String) metadata.get("userinfo_endpoint"))
+                .jwkSetUri((String) metadata.get("jwks_uri"))
+                .userNameAttributeName(IdTokenClaimNames.SUB)
+                .providerConfigurationMetadata(metadata)
+                .clientAuthenticationMethod(ClientAuthenticationMethod.CLIENT_SECRET_BASIC)
+                .authorizationGrantType(AuthorizationGrantType.AUTHORIZATION_CODE)
+                .redirectUri(DEFAULT_REDIRECT_URI);
+    }
+
+    private static ClientRegistration.Builder apply(ClientRegistration.Builder builder,
+                                                    OAuth2ClientProperties.Registration registration,
+                                                    OAuth2ClientProperties.Provider provider) {
+        if (provider != null) {
+            if (StringUtils.hasText(provider.getAuthorizationUri())) {
+                builder.authorizationUri(provider.getAuthorizationUri());
+            }
+            if (StringUtils.hasText(provider.getTokenUri())) {
+                builder.tokenUri(provider.getTokenUri());
+            }
+            if (StringUtils.hasText(provider.getUserInfoUri())) {
+                builder.userInfoUri(provider.getUserInfoUri());
+            }
+            if (StringUtils.hasText(provider.getUserInfoAuthenticationMethod())) {
+                builder.userInfoAuthenticationMethod(new AuthenticationMethod(provider.getUserInfoAuthenticationMethod()));
+            }
+            if (StringUtils.hasText(provider.getUserNameAttribute())) {
+                builder.userNameAttributeName(provider.getUserNameAttribute());
+            }
+            if (StringUtils.hasText(provider.getJwkSetUri())) {
+                builder.jwkSetUri(provider.getJwkSetUri());
+            }
+        }
+        builder.clientId(registration.getClientId());
+        if (StringUtils.hasText(registration.getClientSecret())) {
+            builder.clientSecret(registration.getClientSecret());
+        }
+        if (StringUtils.hasText(registration.getClientAuthenticationMethod())) {
+            builder.clientAuthenticationMethod(new ClientAuthenticationMethod(registration.getClientAuthenticationMethod()));
+        }
+        if (StringUtils.hasText(registration.getAuthorizationGrantType())) {
+            builder.authorizationGrantType(new AuthorizationGrantType(registration.getAuthorizationGrantType()));
+        }
+        if (StringUtils.hasText(registration.getRedirectUri())) {
+            builder.redirectUri(registration.getRedirectUri());
+        }
+        if (registration.getScope() != null) {
+            builder.scope(registration.getScope());
+        }
+        if (StringUtils.hasText(registration.getClientName())) {
+            builder.clientName(registration.getClientName());
+        }
+        return builder;
+    }
+}
@@ -0,0 +1,25 @@
+package com.librishare.backend.config;
+
+import com.librishare.backend.config.ratelimit.RateLimitFilter;
+import com.librishare.backend.config.ratelimit.RateLimitProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Limite de requisições por usuário ou IP, registrado como filtro de servlet.
+ * Desligado com {@code librishare.ratelimit.enabled=false}.
+ */
+@Configuration
+@EnableConfigurationProperties(RateLimitProperties.class)
+@ConditionalOnProperty(name = "librishare.ratelimit.enabled", havingValue = "true", matchIfMissing = true)
+public class RateLimitConfig {
+
+    @Bean
+    public RateLimitFilter rateLimitFilter(RateLimitProperties properties, ObjectProvider<MeterRegistry> meterRegistry) {
+        return new RateLimitFilter(properties, meterRegistry.getIfAvailable());
+    }
+}
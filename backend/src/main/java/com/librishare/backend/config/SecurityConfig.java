@@ -1,17 +1,34 @@
 package com.librishare.backend.config;
 
+import com.librishare.backend.config.security.AccessTokenFilter;
+import com.librishare.backend.config.security.AccessTokenService;
+import com.librishare.backend.config.security.AuthenticatedUser;
+import com.librishare.backend.modules.idempotency.filter.IdempotencyFilter;
+import com.librishare.backend.modules.user.controller.UserController;
+import com.librishare.backend.modules.user.service.UserProfileLookup;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
+import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
 import java.util.Arrays;
+import java.util.List;
 
 @Configuration
 public class SecurityConfig {
@@ -23,29 +40,66 @@ public class SecurityConfig {
     };
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${librishare.security.bcrypt.strength:10}") int strength) {
+        return new BCryptPasswordEncoder(strength);
     }
 
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http,
+                                                   AccessTokenService accessTokenService,
+                                                   UserProfileLookup userProfiles,
+                                                   @Value("${librishare.security.token.required:false}") boolean tokenRequired) throws Exception {
+        AuthorizationManager<RequestAuthorizationContext> owner = ownerOnly(tokenRequired);
         http
                 .cors(cors -> cors.configurationSource(corsConfigurationSource()))
                 .csrf(AbstractHttpConfigurer::disable)
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                .addFilterBefore(new AccessTokenFilter(accessTokenService, userProfiles::exists), UsernamePasswordAuthenticationFilter.class)
+                .exceptionHandling(exceptions -> exceptions
+                        .authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED)))
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers(SWAGGER_WHITELIST).permitAll()
+                        .requestMatchers("/api/v1/admin/**").hasRole("ADMIN")
+                        .requestMatchers(HttpMethod.POST, "/api/v1/users", "/api/v1/users/login").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/api/v1/users").access(signedIn(tokenRequired))
+                        .requestMatchers(HttpMethod.GET, "/api/v1/users/search", "/api/v1/users/{userId}").permitAll()
+                        .requestMatchers("/api/v1/users/{userId}", "/api/v1/users/{userId}/**").access(owner)
                         .anyRequest().permitAll()
                 );
 
         return http.build();
     }
 
+    /**
+     * Rotas de um usuário só aceitam o token dele. Sem token, seguem liberadas
+     * enquanto {@code librishare.security.token.required} estiver desligado, para
+     * clientes que ainda não enviam o cabeçalho.
+     */
+    private static AuthorizationManager<RequestAuthorizationContext> ownerOnly(boolean tokenRequired) {
+        return (authentication, context) -> {
+            String userId = context.getVariables().get("userId");
+            if (authentication.get().getPrincipal() instanceof AuthenticatedUser user) {
+                return new AuthorizationDecision(user.id().toString().equals(userId));
+            }
+            return new AuthorizationDecision(!tokenRequired);
+        };
+    }
+
+    /** Qualquer usuário com token; sem token, segue a mesma regra de {@link #ownerOnly}. */
+    private static AuthorizationManager<RequestAuthorizationContext> signedIn(boolean tokenRequired) {
+        return (authentication, context) -> new AuthorizationDecision(
+                authentication.get().getPrincipal() instanceof AuthenticatedUser || !tokenRequired);
+    }
+
     @Bean
     public CorsConfigurationSource corsConfigurationSource() {
         CorsConfiguration configuration = new CorsConfiguration();
         configuration.setAllowedOriginPatterns(Arrays.asList("*"));
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS"));
         configuration.setAllowedHeaders(Arrays.asList("*"));
+        // Sem isto o navegador esconde do front-end os cabeçalhos de paginação, cache e nova tentativa
+        configuration.setExposedHeaders(List.of(UserController.NEXT_CURSOR_HEADER, HttpHeaders.ETAG,
+                HttpHeaders.RETRY_AFTER, IdempotencyFilter.REPLAYED_HEADER));
         configuration.setAllowCredentials(true);
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
         source.registerCorsConfiguration("/**", configuration);
@@ -0,0 +1,66 @@
+package com.librishare.backend.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.context.ApplicationListener;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Relatório de tempo de inicialização: total até a aplicação ficar pronta e os
+ * beans mais lentos para instanciar, lidos da linha do tempo gravada por
+ * {@link BufferingApplicationStartup}. A linha do tempo completa continua
+ * disponível em {@code /actuator/startup}.
+ */
+@Slf4j
+@Component
+public class StartupTimingReport implements ApplicationListener<ApplicationReadyEvent> {
+
+    private static final String BEAN_INSTANTIATE = "spring.beans.instantiate";
+
+    private final int top;
+
+    public StartupTimingReport(@Value("${librishare.startup.report.top:10}") int top) {
+        this.top = top;
+    }
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        log.info("Inicialização concluída em {} ms (JVM no ar há {} ms)",
+                event.getTimeTaken() != null ? event.getTimeTaken().toMillis() : -1,
+                ManagementFactory.getRuntimeMXBean().getUptime());
+
+        ApplicationStartup startup = event.getApplicationContext().getApplicationStartup();
+        if (!(startup instanceof BufferingApplicationStartup buffering) || top <= 0) {
+            return;
+        }
+        for (StartupTimeline.TimelineEvent step : slowestBeans(buffering.getBufferedTimeline(), top)) {
+            log.info("  {} ms  {}", step.getDuration().toMillis(), beanName(step.getStartupStep()));
+        }
+    }
+
+    static List<StartupTimeline.TimelineEvent> slowestBeans(StartupTimeline timeline, int top) {
+        return timeline.getEvents().stream()
+                .filter(e -> BEAN_INSTANTIATE.equals(e.getStartupStep().getName()))
+                .sorted(Comparator.comparing(StartupTimeline.TimelineEvent::getDuration).reversed())
+                .limit(top)
+                .toList();
+    }
+
+    private static String beanName(StartupStep step) {
+        for (StartupStep.Tag tag : step.getTags()) {
+            if ("beanName".equals(tag.getKey())) {
+                return tag.getValue();
+            }
+        }
+        return step.getName();
+    }
+}
@@ -0,0 +1,56 @@
+package com.librishare.backend.config.cache;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Substituto do Redis dentro do próprio processo, para testes e ambientes de
+ * uma instância só. Mantém a mesma semântica de expiração e de versões do
+ * segundo nível.
+ */
+public class InMemoryCacheTier implements RemoteCacheTier {
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<String, Long> versions = new ConcurrentHashMap<>();
+
+    @Override
+    public String get(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt() - System.nanoTime() <= 0) {
+            entries.remove(key, entry);
+            return null;
+        }
+        return entry.value();
+    }
+
+    @Override
+    public long version(String key) {
+        return versions.getOrDefault(key, 0L);
+    }
+
+    @Override
+    public synchronized boolean putIfVersion(String key, String value, long version, Duration ttl) {
+        if (version(key) != version || get(key) != null) {
+            return false;
+        }
+        entries.put(key, new Entry(value, System.nanoTime() + ttl.toNanos()));
+        return true;
+    }
+
+    @Override
+    public synchronized void evict(String key) {
+        entries.remove(key);
+        versions.merge(key, 1L, Long::sum);
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    private record Entry(String value, long expiresAt) {
+    }
+}
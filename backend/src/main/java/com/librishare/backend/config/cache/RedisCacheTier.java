@@ -0,0 +1,234 @@
+package com.librishare.backend.config.cache;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Segundo nível em um servidor compatível com o protocolo do Redis (RESP2),
+ * por um pool pequeno de conexões. A versão de cada chave fica em
+ * {@code <chave>:v}; a gravação condicional e a invalidação são scripts Lua,
+ * para que a comparação com a versão e a escrita sejam atômicas no servidor.
+ *
+ * <p>Um servidor fora do ar não pode atrasar todas as requisições: após uma
+ * falha de conexão, o tier fica indisponível por {@code retryAfter} e as
+ * chamadas falham na hora, caindo para o banco.</p>
+ */
+@Slf4j
+public class RedisCacheTier implements RemoteCacheTier {
+
+    // SET NX só se a versão não mudou desde a leitura feita antes da carga
+    static final String PUT_IF_VERSION_SCRIPT =
+            "if (redis.call('GET', KEYS[2]) or '0') ~= ARGV[1] then return 0 end "
+                    + "if redis.call('SET', KEYS[1], ARGV[2], 'PX', ARGV[3], 'NX') then return 1 end "
+                    + "return 0";
+    static final String EVICT_SCRIPT =
+            "redis.call('DEL', KEYS[1]) "
+                    + "redis.call('INCR', KEYS[2]) "
+                    + "return redis.call('PEXPIRE', KEYS[2], ARGV[1])";
+    // Bem maior que qualquer carga; ao expirar, a versão volta a zero
+    private static final Duration VERSION_TTL = Duration.ofDays(1);
+
+    private final String host;
+    private final int port;
+    private final String password;
+    private final int database;
+    private final String keyPrefix;
+    private final int timeoutMillis;
+    private final long retryAfterNanos;
+    private final BlockingQueue<Connection> idle;
+
+    private volatile long unavailableUntil;
+
+    public RedisCacheTier(String host, int port, String password, int database, String keyPrefix,
+                          Duration timeout, Duration retryAfter, int poolSize) {
+        this.host = host;
+        this.port = port;
+        this.password = password;
+        this.database = database;
+        this.keyPrefix = keyPrefix;
+        this.timeoutMillis = (int) timeout.toMillis();
+        this.retryAfterNanos = retryAfter.toNanos();
+        this.idle = new ArrayBlockingQueue<>(poolSize);
+    }
+
+    @Override
+    public String get(String key) {
+        return execute("GET", keyPrefix + key);
+    }
+
+    @Override
+    public long version(String key) {
+        String version = execute("GET", versionKey(key));
+        return version != null ? Long.parseLong(version) : 0;
+    }
+
+    @Override
+    public boolean putIfVersion(String key, String value, long version, Duration ttl) {
+        String stored = execute("EVAL", PUT_IF_VERSION_SCRIPT, "2", keyPrefix + key, versionKey(key),
+                Long.toString(version), value, Long.toString(Math.max(1, ttl.toMillis())));
+        return "1".equals(stored);
+    }
+
+    @Override
+    public void evict(String key) {
+        execute("EVAL", EVICT_SCRIPT, "2", keyPrefix + key, versionKey(key),
+                Long.toString(VERSION_TTL.toMillis()));
+    }
+
+    private String versionKey(String key) {
+        return keyPrefix + key + ":v";
+    }
+
+    private String execute(String... command) {
+        if (unavailableUntil - System.nanoTime() > 0) {
+            throw new RemoteCacheException("Redis indisponível");
+        }
+
+        Connection connection = idle.poll();
+        String reply;
+        try {
+            if (connection == null) {
+                connection = connect();
+            }
+            reply = connection.call(command);
+        } catch (IOException e) {
+            if (connection != null) {
+                connection.close();
+            }
+            unavailableUntil = System.nanoTime() + retryAfterNanos;
+            throw new RemoteCacheException("Falha na comunicação com o Redis em " + host + ":" + port, e);
+        } catch (RemoteCacheException e) {
+            release(connection);
+            throw e;
+        }
+        release(connection);
+        return reply;
+    }
+
+    private void release(Connection connection) {
+        if (connection != null && !idle.offer(connection)) {
+            connection.close();
+        }
+    }
+
+    private Connection connect() throws IOException {
+        Socket socket = new Socket();
+        try {
+            socket.connect(new InetSocketAddress(host, port), timeoutMillis);
+            socket.setSoTimeout(timeoutMillis);
+            socket.setTcpNoDelay(true);
+            Connection connection = new Connection(socket);
+            if (password != null && !password.isEmpty()) {
+                connection.call("AUTH", password);
+            }
+            if (database != 0) {
+                connection.call("SELECT", Integer.toString(database));
+            }
+            return connection;
+        } catch (IOException | RuntimeException e) {
+            socket.close();
+            throw e;
+        }
+    }
+
+    public void close() {
+        Connection connection;
+        while ((connection = idle.poll()) != null) {
+            connection.close();
+        }
+    }
+
+    private static final class Connection {
+        private final Socket socket;
+        private final InputStream in;
+        private final OutputStream out;
+
+        Connection(Socket socket) throws IOException {
+            this.socket = socket;
+            this.in = new BufferedInputStream(socket.getInputStream());
+            this.out = socket.getOutputStream();
+        }
+
+        String call(String... args) throws IOException {
+            ByteArrayOutputStream request = new ByteArrayOutputStream();
+            writeLine(request, "*" + args.length);
+            for (String arg : args) {
+                byte[] bytes = arg.getBytes(StandardCharsets.UTF_8);
+                writeLine(request, "$" + bytes.length);
+                request.write(bytes);
+                writeLine(request, "");
+            }
+            out.write(request.toByteArray());
+            out.flush();
+            return readReply();
+        }
+
+        private String readReply() throws IOException {
+            int type = in.read();
+            if (type == -1) {
+                throw new IOException("Conexão encerrada pelo servidor");
+            }
+            String line = readLine();
+            switch (type) {
+                case '+':
+                case ':':
+                    return line;
+                case '-':
+                    // Erro do comando: a conexão continua utilizável, mas o valor não
+                    throw new RemoteCacheException("Redis respondeu com erro: " + line);
+                case '$':
+                    int length = Integer.parseInt(line);
+                    if (length < 0) {
+                        return null;
+                    }
+                    byte[] data = in.readNBytes(length + 2);
+                    if (data.length < length + 2) {
+                        throw new IOException("Resposta incompleta do servidor");
+                    }
+                    return new String(data, 0, length, StandardCharsets.UTF_8);
+                default:
+                    throw new IOException("Tipo de resposta não suportado: " + (char) type);
+            }
+        }
+
+        private String readLine() throws IOException {
+            ByteArrayOutputStream line = new ByteArrayOutputStream();
+            int b;
+            while ((b = in.read()) != '\r') {
+                if (b == -1) {
+                    throw new IOException("Conexão encerrada pelo servidor");
+                }
+                line.write(b);
+            }
+            if (in.read() != '\n') {
+                throw new IOException("Resposta malformada do servidor");
+            }
+            return line.toString(StandardCharsets.UTF_8);
+        }
+
+        private static void writeLine(ByteArrayOutputStream request, String line) {
+            request.writeBytes(line.getBytes(StandardCharsets.UTF_8));
+            request.write('\r');
+            request.write('\n');
+        }
+
+        void close() {
+            try {
+                socket.close();
+            } catch (IOException ignored) {
+                // Conexão descartada de qualquer forma
+            }
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.librishare.backend.config.cache;
+
+import java.time.Duration;
+
+/**
+ * Segundo nível de cache, compartilhado entre as instâncias da aplicação. Os
+ * valores já chegam serializados; falhas são lançadas como
+ * {@link RemoteCacheException} e o {@link TwoTierCache} as trata como ausência.
+ *
+ * <p>Cada chave tem uma versão que avança a cada {@link #evict}. Quem vai
+ * carregar um valor do banco lê a versão antes e grava com
+ * {@link #putIfVersion}; se outra instância invalidou a chave no meio da carga,
+ * o valor antigo é recusado em vez de ficar no L2 até expirar.</p>
+ */
+public interface RemoteCacheTier {
+
+    /** Valor armazenado, ou {@code null} se ausente ou expirado. */
+    String get(String key);
+
+    /** Versão atual da chave; {@code 0} se ela nunca foi invalidada. */
+    long version(String key);
+
+    /**
+     * Grava o valor só se a chave ainda estiver na versão informada e sem valor.
+     * Devolve se gravou.
+     */
+    boolean putIfVersion(String key, String value, long version, Duration ttl);
+
+    /** Remove o valor e avança a versão da chave. */
+    void evict(String key);
+}
@@ -0,0 +1,332 @@
+package com.librishare.backend.config.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.librishare.backend.modules.cache.service.CacheInvalidationBus;
+import com.librishare.backend.modules.cache.service.InvalidationListener;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.Builder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Cache de leitura em dois níveis: um LRU em memória (L1), limitado a
+ * {@code maxSize} entradas, e um {@link RemoteCacheTier} opcional (L2)
+ * compartilhado entre as instâncias. Uma leitura procura no L1, depois no L2 e,
+ * só então, chama o loader; assim, cada réplica nova aproveita o que as outras já
+ * carregaram em vez de repetir as consultas ao banco.
+ *
+ * <p>Chamadas simultâneas para a mesma chave ausente esperam uma única carga.
+ * Uma invalidação da chave durante a carga impede que o valor carregado seja
+ * guardado no L1; cargas de outras chaves seguem normalmente. No L2, o valor
+ * só é gravado se a chave continuar na versão lida antes da carga (ver
+ * {@link RemoteCacheTier}), o que cobre invalidações vindas de outras
+ * instâncias.</p>
+ *
+ * <p>{@link #evict} remove dos dois níveis na hora e de novo ao fim da transação
+ * corrente, para descartar o que outra requisição tenha carregado antes do
+ * commit, e avisa as demais instâncias pela região no
+ * {@link CacheInvalidationBus}; elas descartam apenas o seu L1.</p>
+ *
+ * <p>Métricas, todas com a tag {@code cache}: {@code librishare.cache.gets}
+ * (tag {@code result}: {@code l1_hit}, {@code l2_hit}, {@code miss}),
+ * {@code librishare.cache.loads}, {@code librishare.cache.evictions},
+ * {@code librishare.cache.remote.errors} e {@code librishare.cache.size}.</p>
+ */
+@Slf4j
+public class TwoTierCache<K, V> implements InvalidationListener {
+
+    private final String name;
+    private final Class<V> valueType;
+    private final Duration ttl;
+    private final RemoteCacheTier remote;
+    private final ObjectMapper objectMapper;
+    private final CacheInvalidationBus invalidationBus;
+    private final String region;
+    private final Function<String, K> keyParser;
+
+    private final Map<K, Entry<V>> local;
+    // Uma invalidação tira a carga daqui; ela só guarda o valor se ainda estiver registrada
+    private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    private final Counter l1Hits;
+    private final Counter l2Hits;
+    private final Counter misses;
+    private final Counter evictions;
+    private final Counter remoteErrors;
+    private final Timer loads;
+
+    @Builder
+    private TwoTierCache(String name, Class<V> valueType, Duration ttl, int maxSize, RemoteCacheTier remote,
+                         ObjectMapper objectMapper, CacheInvalidationBus invalidationBus, String region,
+                         Function<String, K> keyParser, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.valueType = valueType;
+        this.ttl = ttl;
+        this.remote = remote;
+        this.objectMapper = objectMapper;
+        this.invalidationBus = invalidationBus;
+        this.region = region;
+        this.keyParser = keyParser;
+        this.local = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                return size() > maxSize;
+            }
+        };
+
+        if (meterRegistry != null) {
+            this.l1Hits = getsCounter(meterRegistry, "l1_hit");
+            this.l2Hits = getsCounter(meterRegistry, "l2_hit");
+            this.misses = getsCounter(meterRegistry, "miss");
+            this.evictions = Counter.builder("librishare.cache.evictions")
+                    .description("Chaves invalidadas por alterações")
+                    .tag("cache", name)
+                    .register(meterRegistry);
+            this.remoteErrors = Counter.builder("librishare.cache.remote.errors")
+                    .description("Falhas de acesso ao segundo nível, tratadas como ausência")
+                    .tag("cache", name)
+                    .register(meterRegistry);
+            this.loads = Timer.builder("librishare.cache.loads")
+                    .description("Tempo de carga dos valores ausentes nos dois níveis")
+                    .tag("cache", name)
+                    .register(meterRegistry);
+            Gauge.builder("librishare.cache.size", this, TwoTierCache::localSize)
+                    .description("Entradas no primeiro nível (memória)")
+                    .tag("cache", name)
+                    .register(meterRegistry);
+        } else {
+            this.l1Hits = null;
+            this.l2Hits = null;
+            this.misses = null;
+            this.evictions = null;
+            this.remoteErrors = null;
+            this.loads = null;
+        }
+    }
+
+    private Counter getsCounter(MeterRegistry registry, String result) {
+        return Counter.builder("librishare.cache.gets")
+                .description("Leituras do cache por nível em que o valor foi encontrado")
+                .tag("cache", name)
+                .tag("result", result)
+                .register(registry);
+    }
+
+    public String name() {
+        return name;
+    }
+
+    /**
+     * Devolve o valor da chave, carregando-o com {@code loader} se não estiver em
+     * nenhum dos níveis. Exceções do loader chegam a todos os que aguardavam a
+     * mesma carga; um loader que devolve {@code null} não é guardado.
+     */
+    public V get(K key, Supplier<V> loader) {
+        V cached = localGet(key);
+        if (cached != null) {
+            increment(l1Hits);
+            return cached;
+        }
+
+        CompletableFuture<V> load = new CompletableFuture<>();
+        CompletableFuture<V> running = inFlight.putIfAbsent(key, load);
+        if (running != null) {
+            return await(running);
+        }
+
+        try {
+            V value = remoteGet(key);
+            boolean fromRemote = value != null;
+            long remoteVersion = -1;
+            if (fromRemote) {
+                increment(l2Hits);
+            } else {
+                increment(misses);
+                remoteVersion = remoteVersion(key);
+                value = timedLoad(loader);
+            }
+
+            if (value != null && localPutIfCurrent(key, value, load) && remoteVersion >= 0) {
+                remotePut(key, value, remoteVersion);
+            }
+            load.complete(value);
+            return value;
+        } catch (RuntimeException e) {
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, load);
+        }
+    }
+
+    public void evict(K key) {
+        evictTiers(key);
+        invalidationBus.broadcast(region, key);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evictTiers(key);
+                }
+            });
+        }
+    }
+
+    @Override
+    public boolean listensTo(String region) {
+        return this.region.equals(region);
+    }
+
+    // Aviso de outra instância: o L2 já foi limpo por quem alterou
+    @Override
+    public void evict(String region, String key) {
+        evictLocal(keyParser.apply(key));
+    }
+
+    @Override
+    public void evictAll() {
+        synchronized (local) {
+            inFlight.clear();
+            local.clear();
+        }
+    }
+
+    private void evictTiers(K key) {
+        evictLocal(key);
+        if (remote != null) {
+            try {
+                remote.evict(remoteKey(key));
+            } catch (RemoteCacheException e) {
+                increment(remoteErrors);
+                log.warn("Cache {}: falha ao remover {} do segundo nível", name, key, e);
+            }
+        }
+    }
+
+    private void evictLocal(K key) {
+        synchronized (local) {
+            inFlight.remove(key);
+            local.remove(key);
+        }
+        increment(evictions);
+    }
+
+    private V localGet(K key) {
+        synchronized (local) {
+            Entry<V> entry = local.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (entry.expiresAt() - System.nanoTime() <= 0) {
+                local.remove(key);
+                return null;
+            }
+            return entry.value();
+        }
+    }
+
+    // Valores vindos do L2 ganham o TTL inteiro no L1; a defasagem máxima fica em duas vezes o TTL
+    private boolean localPutIfCurrent(K key, V value, CompletableFuture<V> load) {
+        synchronized (local) {
+            if (inFlight.get(key) != load) {
+                return false;
+            }
+            local.put(key, new Entry<>(value, System.nanoTime() + ttl.toNanos()));
+            return true;
+        }
+    }
+
+    private V remoteGet(K key) {
+        if (remote == null) {
+            return null;
+        }
+        try {
+            String json = remote.get(remoteKey(key));
+            return json != null ? objectMapper.readValue(json, valueType) : null;
+        } catch (RemoteCacheException | JsonProcessingException e) {
+            increment(remoteErrors);
+            log.warn("Cache {}: falha ao ler {} do segundo nível", name, key, e);
+            return null;
+        }
+    }
+
+    // -1 quando não há L2 ou ele falhou: a carga não será gravada lá
+    private long remoteVersion(K key) {
+        if (remote == null) {
+            return -1;
+        }
+        try {
+            return remote.version(remoteKey(key));
+        } catch (RemoteCacheException e) {
+            increment(remoteErrors);
+            log.warn("Cache {}: falha ao ler a versão de {} no segundo nível", name, key, e);
+            return -1;
+        }
+    }
+
+    private void remotePut(K key, V value, long version) {
+        try {
+            remote.putIfVersion(remoteKey(key), objectMapper.writeValueAsString(value), version, ttl);
+        } catch (RemoteCacheException | JsonProcessingException e) {
+            increment(remoteErrors);
+            log.warn("Cache {}: falha ao gravar {} no segundo nível", name, key, e);
+        }
+    }
+
+    private V timedLoad(Supplier<V> loader) {
+        if (loads == null) {
+            return loader.get();
+        }
+        long start = System.nanoTime();
+        try {
+            return loader.get();
+        } finally {
+            loads.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private V await(CompletableFuture<V> running) {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private String remoteKey(K key) {
+        return name + ":" + key;
+    }
+
+    private int localSize() {
+        synchronized (local) {
+            return local.size();
+        }
+    }
+
+    private static void increment(Counter counter) {
+        if (counter != null) {
+            counter.increment();
+        }
+    }
+
+    private record Entry<V>(V value, long expiresAt) {
+    }
+}
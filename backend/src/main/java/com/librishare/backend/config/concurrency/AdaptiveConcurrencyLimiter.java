@@ -0,0 +1,126 @@
+package com.librishare.backend.config.concurrency;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Limite de requisições simultâneas que se ajusta pela latência observada (AIMD).
+ * Cada requisição concluída abaixo de {@code latencyThreshold} com pelo menos
+ * metade do limite em uso (contando ela mesma) aumenta o limite em 1; uma acima
+ * dele, ou com erro 5xx, multiplica o limite por {@code backoffRatio}, no máximo
+ * uma vez por {@code latencyThreshold}, para que uma leva de respostas lentas
+ * conte como um único sinal. O limite fica entre {@code minLimit} e {@code maxLimit}.
+ *
+ * <p>Leituras só entram enquanto houver menos de {@code readShare} do limite em
+ * uso; o restante fica reservado para escritas. Acima disso a requisição é
+ * recusada na hora, sem esperar por conexão com o banco.</p>
+ *
+ * <p>Métricas: {@code librishare.concurrency.limit}, {@code librishare.concurrency.inflight}
+ * e {@code librishare.concurrency.rejected} (tag {@code priority}).</p>
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    // Fração do limite que precisa estar em uso para uma resposta rápida aumentá-lo
+    private static final double GROWTH_UTILIZATION = 0.5;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdNanos;
+    private final double backoffRatio;
+    private final double readShare;
+
+    private final AtomicInteger inflight = new AtomicInteger();
+    private volatile double limit;
+    private long lastDecreaseNanos;
+
+    private final Map<RequestPriority, Counter> rejected = new EnumMap<>(RequestPriority.class);
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, long latencyThresholdMillis,
+                                      double backoffRatio, double readShare, MeterRegistry meterRegistry) {
+        if (minLimit < 1 || maxLimit < minLimit || backoffRatio <= 0 || backoffRatio >= 1
+                || readShare <= 0 || readShare > 1) {
+            throw new IllegalArgumentException("Configuração inválida do limite de concorrência.");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyThresholdNanos = TimeUnit.MILLISECONDS.toNanos(latencyThresholdMillis);
+        this.backoffRatio = backoffRatio;
+        this.readShare = readShare;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        this.lastDecreaseNanos = System.nanoTime() - latencyThresholdNanos;
+
+        if (meterRegistry != null) {
+            Gauge.builder("librishare.concurrency.limit", this, AdaptiveConcurrencyLimiter::limit)
+                    .description("Limite atual de requisições simultâneas")
+                    .register(meterRegistry);
+            Gauge.builder("librishare.concurrency.inflight", inflight, AtomicInteger::get)
+                    .description("Requisições em execução, incluindo as que aguardam conexão com o banco")
+                    .register(meterRegistry);
+            for (RequestPriority priority : RequestPriority.values()) {
+                rejected.put(priority, Counter.builder("librishare.concurrency.rejected")
+                        .description("Requisições recusadas com 503 pelo limite de concorrência")
+                        .tag("priority", priority.name().toLowerCase())
+                        .register(meterRegistry));
+            }
+        }
+    }
+
+    public int limit() {
+        return (int) limit;
+    }
+
+    public int inflight() {
+        return inflight.get();
+    }
+
+    /**
+     * Reserva uma vaga para a requisição. Quem recebe {@code true} deve chamar
+     * {@link #release} ao terminar.
+     */
+    public boolean tryAcquire(RequestPriority priority) {
+        double current = limit;
+        int allowed = priority == RequestPriority.READ ? Math.max(1, (int) (current * readShare)) : (int) current;
+        while (true) {
+            int running = inflight.get();
+            if (running >= allowed) {
+                Counter counter = rejected.get(priority);
+                if (counter != null) {
+                    counter.increment();
+                }
+                return false;
+            }
+            if (inflight.compareAndSet(running, running + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /** Libera a vaga; {@code latencyNanos} negativo só libera, sem ajustar o limite. */
+    public void release(long latencyNanos, boolean failed) {
+        release(latencyNanos, failed, System.nanoTime());
+    }
+
+    void release(long latencyNanos, boolean failed, long now) {
+        int running = inflight.getAndDecrement();
+        if (latencyNanos < 0) {
+            return;
+        }
+        synchronized (this) {
+            if (failed || latencyNanos > latencyThresholdNanos) {
+                if (now - lastDecreaseNanos >= latencyThresholdNanos) {
+                    limit = Math.max(minLimit, limit * backoffRatio);
+                    lastDecreaseNanos = now;
+                }
+            } else if (running >= limit * GROWTH_UTILIZATION) {
+                // Com pouca carga a latência não diz nada sobre a capacidade: o limite não cresce
+                limit = Math.min(maxLimit, limit + 1);
+            }
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.librishare.backend.config.concurrency;
+
+import com.librishare.backend.exception.ServiceUnavailableException;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+/**
+ * Aplica o {@link AdaptiveConcurrencyLimiter} em volta da execução dos
+ * controllers. Sem vaga, a requisição recebe 503 com {@code Retry-After} pelo
+ * {@code GlobalExceptionHandler}, sem chegar ao serviço.
+ *
+ * <p>Respostas assíncronas (SSE, exportação em NDJSON) liberam a vaga quando o
+ * processamento assíncrono começa, sem ajustar o limite: a duração da conexão
+ * não diz nada sobre a carga do banco.</p>
+ */
+@RequiredArgsConstructor
+public class ConcurrencyLimitInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String STARTED_AT = ConcurrencyLimitInterceptor.class.getName() + ".startedAt";
+    private static final long RETRY_AFTER_SECONDS = 1;
+
+    private final AdaptiveConcurrencyLimiter limiter;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod) || request.getDispatcherType() == DispatcherType.ASYNC) {
+            return true;
+        }
+        if (!limiter.tryAcquire(RequestPriority.of(request.getMethod()))) {
+            throw new ServiceUnavailableException("Servidor sobrecarregado. Tente novamente em instantes.",
+                    RETRY_AFTER_SECONDS);
+        }
+        request.setAttribute(STARTED_AT, System.nanoTime());
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (request.getAttribute(STARTED_AT) instanceof Long startedAt) {
+            request.removeAttribute(STARTED_AT);
+            limiter.release(System.nanoTime() - startedAt, ex != null || response.getStatus() >= 500);
+        }
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getAttribute(STARTED_AT) != null) {
+            request.removeAttribute(STARTED_AT);
+            limiter.release(-1, false);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.librishare.backend.config.concurrency;
+
+import org.springframework.http.HttpMethod;
+
+/**
+ * Prioridade de uma requisição no {@link AdaptiveConcurrencyLimiter}. Leituras
+ * podem ser repetidas pelo cliente sem efeito colateral e são as primeiras a
+ * ser recusadas; escritas podem ocupar o limite inteiro.
+ */
+public enum RequestPriority {
+    READ,
+    WRITE;
+
+    public static RequestPriority of(String method) {
+        return HttpMethod.GET.matches(method) || HttpMethod.HEAD.matches(method) || HttpMethod.OPTIONS.matches(method)
+                ? READ
+                : WRITE;
+    }
+}
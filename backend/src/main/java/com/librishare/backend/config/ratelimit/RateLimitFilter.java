@@ -0,0 +1,141 @@
+package com.librishare.backend.config.ratelimit;
+
+import com.librishare.backend.config.security.AuthenticatedUser;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.UrlPathHelper;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limita as requisições de cada usuário autenticado, ou de cada IP quando não há
+ * token, com um balde de tokens por grupo de rotas ({@link RateLimitProperties}).
+ * Sem token disponível, responde 429 com {@code Retry-After} antes de a
+ * requisição chegar ao controller e ao pool de conexões.
+ *
+ * <p>Roda depois da segurança, para conhecer o usuário, e antes do
+ * {@code IdempotencyFilter}. A verificação não aloca objetos: o usuário e o IP
+ * viram chaves {@code long} e o caminho é comparado por índices.</p>
+ *
+ * <p>Os grupos são comparados com o caminho que o Spring MVC usa para escolher o
+ * controller: decodificado, sem parâmetros {@code ;...} e sem barras repetidas.
+ * Assim, {@code /api/v1/books;jsessionid=x} não escapa do grupo de
+ * {@code /api/v1/books}. Só URIs com esses casos são normalizadas.</p>
+ */
+@Order(Ordered.LOWEST_PRECEDENCE - 10)
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    // IPs e ids de usuário na mesma tabela: o bit 62 marca os IPs
+    private static final long IP_TAG = 1L << 62;
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    // Decodifica e remove o conteúdo após ';', como no mapeamento dos controllers
+    private static final UrlPathHelper PATH_HELPER = new UrlPathHelper();
+
+    private final RateLimitGroup[] groups;
+
+    public RateLimitFilter(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this.groups = properties.getGroups().stream()
+                .map(group -> new RateLimitGroup(group, properties.getStripes(), properties.getSlotsPerStripe(), meterRegistry))
+                .toArray(RateLimitGroup[]::new);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RateLimitGroup group = groupFor(pathOf(request));
+        if (group == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        long waitNanos = group.buckets().tryAcquire(callerKey(request), System.nanoTime());
+        if (waitNanos == 0) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        group.recordRejection();
+        long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfter));
+        response.sendError(HttpStatus.TOO_MANY_REQUESTS.value(),
+                "Limite de requisições excedido. Tente novamente em " + retryAfter + " s.");
+    }
+
+    private static String pathOf(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        return request.getContextPath().isEmpty() && isNormalized(uri) ? uri : PATH_HELPER.getPathWithinApplication(request);
+    }
+
+    private static boolean isNormalized(String uri) {
+        for (int i = 0; i < uri.length(); i++) {
+            char c = uri.charAt(i);
+            if (c == ';' || c == '%' || (c == '/' && i > 0 && uri.charAt(i - 1) == '/')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private RateLimitGroup groupFor(String path) {
+        for (RateLimitGroup group : groups) {
+            if (group.matches(path)) {
+                return group;
+            }
+        }
+        return null;
+    }
+
+    private static long callerKey(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof AuthenticatedUser user) {
+            return user.id();
+        }
+        return IP_TAG | (ipBits(request.getRemoteAddr()) & (IP_TAG - 1));
+    }
+
+    // IPv4 vira o próprio endereço de 32 bits; outros formatos, um hash FNV-1a
+    private static long ipBits(String address) {
+        long ipv4 = 0;
+        int octet = 0;
+        int dots = 0;
+        boolean digits = false;
+        for (int i = 0; i < address.length(); i++) {
+            char c = address.charAt(i);
+            if (c >= '0' && c <= '9' && octet < 256) {
+                octet = octet * 10 + (c - '0');
+                digits = true;
+            } else if (c == '.' && digits && octet < 256) {
+                ipv4 = (ipv4 << 8) | octet;
+                octet = 0;
+                dots++;
+                digits = false;
+            } else {
+                return fnv(address);
+            }
+        }
+        if (dots != 3 || !digits || octet > 255) {
+            return fnv(address);
+        }
+        return (ipv4 << 8) | octet;
+    }
+
+    private static long fnv(String value) {
+        long hash = FNV_OFFSET;
+        for (int i = 0; i < value.length(); i++) {
+            hash = (hash ^ value.charAt(i)) * FNV_PRIME;
+        }
+        return hash;
+    }
+}
@@ -0,0 +1,80 @@
+package com.librishare.backend.config.ratelimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.Arrays;
+
+/**
+ * Um grupo configurado em {@link RateLimitProperties}: os padrões de caminho já
+ * quebrados em segmentos e a tabela de baldes do grupo.
+ */
+final class RateLimitGroup {
+
+    private final String name;
+    private final String[][] patterns;
+    private final TokenBucketTable buckets;
+    private final Counter rejected;
+
+    RateLimitGroup(RateLimitProperties.Group group, int stripes, int slotsPerStripe, MeterRegistry meterRegistry) {
+        this.name = group.getName();
+        this.patterns = group.getPaths().stream()
+                .map(path -> Arrays.stream(path.split("/")).filter(segment -> !segment.isEmpty()).toArray(String[]::new))
+                .toArray(String[][]::new);
+        this.buckets = new TokenBucketTable(group.getCapacity(), group.getRefillPerSecond(), stripes, slotsPerStripe);
+        this.rejected = meterRegistry == null ? null : Counter.builder("librishare.ratelimit.rejected")
+                .description("Requisições recusadas com 429 pelo limite do grupo")
+                .tag("group", name)
+                .register(meterRegistry);
+    }
+
+    String name() {
+        return name;
+    }
+
+    TokenBucketTable buckets() {
+        return buckets;
+    }
+
+    void recordRejection() {
+        if (rejected != null) {
+            rejected.increment();
+        }
+    }
+
+    boolean matches(String path) {
+        for (String[] pattern : patterns) {
+            if (matches(pattern, path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Percorre o caminho por índices, sem quebrá-lo em strings
+    private static boolean matches(String[] pattern, String path) {
+        int length = path.length();
+        int position = 0;
+        for (String segment : pattern) {
+            if (segment.equals("**")) {
+                return true;
+            }
+            if (position >= length || path.charAt(position) != '/') {
+                return false;
+            }
+            int start = position + 1;
+            int end = path.indexOf('/', start);
+            if (end < 0) {
+                end = length;
+            }
+            boolean matched = segment.equals("*")
+                    ? end > start
+                    : end - start == segment.length() && path.regionMatches(start, segment, 0, segment.length());
+            if (!matched) {
+                return false;
+            }
+            position = end;
+        }
+        return position == length || (position == length - 1 && path.charAt(position) == '/');
+    }
+}
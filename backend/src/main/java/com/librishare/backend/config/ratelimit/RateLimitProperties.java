@@ -0,0 +1,39 @@
+package com.librishare.backend.config.ratelimit;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Grupos de rotas com limite de requisições. Cada requisição cai no primeiro
+ * grupo, na ordem declarada, com algum padrão que case com o caminho; sem
+ * grupo, não há limite.
+ */
+@Data
+@ConfigurationProperties(prefix = "librishare.ratelimit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    private int stripes = 64;
+
+    private int slotsPerStripe = 1024;
+
+    private List<Group> groups = new ArrayList<>();
+
+    @Data
+    public static class Group {
+
+        private String name;
+
+        // Segmentos literais, "*" para um segmento e "**" no fim para o restante
+        private List<String> paths = new ArrayList<>();
+
+        // Rajada máxima por usuário ou IP
+        private int capacity;
+
+        private double refillPerSecond;
+    }
+}
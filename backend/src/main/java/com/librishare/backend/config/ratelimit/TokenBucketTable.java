@@ -0,0 +1,116 @@
+package com.librishare.backend.config.ratelimit;
+
+/**
+ * Baldes de tokens por chave numérica, guardados em arrays primitivos e
+ * divididos em {@code stripes} faixas, cada uma com o seu próprio monitor:
+ * chaves em faixas diferentes não disputam o mesmo lock, e uma consulta não
+ * aloca nada.
+ *
+ * <p>O reabastecimento é preguiçoso: o saldo só é recalculado quando a chave é
+ * consultada, pelo tempo decorrido desde a última consulta. Cada faixa tem
+ * {@code slotsPerStripe} posições; uma chave ocupa uma das {@value #PROBES}
+ * posições a partir do seu hash. Sem posição livre, reaproveita a de um balde
+ * que já estaria cheio (equivale a não existir) ou, em último caso, a do balde
+ * consultado há mais tempo.</p>
+ */
+public class TokenBucketTable {
+
+    private static final int PROBES = 8;
+
+    private final Stripe[] stripes;
+    private final int stripeMask;
+    private final double capacity;
+    private final double tokensPerNano;
+
+    public TokenBucketTable(int capacity, double refillPerSecond, int stripes, int slotsPerStripe) {
+        if (capacity < 1 || refillPerSecond <= 0) {
+            throw new IllegalArgumentException("Capacidade e reabastecimento do balde devem ser positivos.");
+        }
+        this.capacity = capacity;
+        this.tokensPerNano = refillPerSecond / 1_000_000_000d;
+        int stripeCount = powerOfTwo(stripes);
+        int slots = Math.max(powerOfTwo(slotsPerStripe), PROBES);
+        this.stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            this.stripes[i] = new Stripe(slots);
+        }
+        this.stripeMask = stripeCount - 1;
+    }
+
+    /**
+     * Consome um token da chave. Devolve 0 se havia token ou, se não havia, os
+     * nanossegundos até o próximo.
+     */
+    public long tryAcquire(long key, long nowNanos) {
+        long hash = mix(key);
+        Stripe stripe = stripes[(int) hash & stripeMask];
+        synchronized (stripe) {
+            int slot = stripe.slotFor(key, (int) (hash >>> 32), nowNanos);
+            double tokens = Math.min(capacity,
+                    stripe.tokens[slot] + (nowNanos - stripe.stamps[slot]) * tokensPerNano);
+            stripe.stamps[slot] = nowNanos;
+            if (tokens >= 1) {
+                stripe.tokens[slot] = tokens - 1;
+                return 0;
+            }
+            stripe.tokens[slot] = tokens;
+            return (long) Math.ceil((1 - tokens) / tokensPerNano);
+        }
+    }
+
+    private static int powerOfTwo(int value) {
+        return value <= 1 ? 1 : Integer.highestOneBit(value - 1) << 1;
+    }
+
+    private static long mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return h ^ (h >>> 29);
+    }
+
+    private final class Stripe {
+        private final long[] keys;
+        private final double[] tokens;
+        private final long[] stamps;
+        private final boolean[] used;
+        private final int mask;
+
+        Stripe(int slots) {
+            this.keys = new long[slots];
+            this.tokens = new double[slots];
+            this.stamps = new long[slots];
+            this.used = new boolean[slots];
+            this.mask = slots - 1;
+        }
+
+        // Chamado com o monitor da faixa
+        int slotFor(long key, int home, long nowNanos) {
+            int free = -1;
+            int oldest = -1;
+            for (int probe = 0; probe < PROBES; probe++) {
+                int i = (home + probe) & mask;
+                if (!used[i]) {
+                    if (free < 0) {
+                        free = i;
+                    }
+                    continue;
+                }
+                if (keys[i] == key) {
+                    return i;
+                }
+                if (free < 0 && tokens[i] + (nowNanos - stamps[i]) * tokensPerNano >= capacity) {
+                    free = i;
+                }
+                if (oldest < 0 || stamps[i] - stamps[oldest] < 0) {
+                    oldest = i;
+                }
+            }
+
+            int slot = free >= 0 ? free : oldest;
+            used[slot] = true;
+            keys[slot] = key;
+            tokens[slot] = capacity;
+            stamps[slot] = nowNanos;
+            return slot;
+        }
+    }
+}
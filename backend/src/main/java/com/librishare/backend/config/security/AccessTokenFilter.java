@@ -0,0 +1,77 @@
+package com.librishare.backend.config.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.security.web.context.RequestAttributeSecurityContextRepository;
+import org.springframework.security.web.context.SecurityContextRepository;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Lê o token do cabeçalho {@code Authorization: Bearer} e coloca o usuário no
+ * contexto de segurança. Requisições sem token seguem anônimas; um token
+ * inválido, expirado ou de uma conta já excluída recebe 401 na hora.
+ *
+ * <p>A conta é conferida por {@code activeUsers}, que lê o cache de perfis: a
+ * exclusão invalida o perfil, e o token deixa de valer antes de expirar.</p>
+ */
+@RequiredArgsConstructor
+public class AccessTokenFilter extends OncePerRequestFilter {
+
+    private static final String PREFIX = AccessTokenService.TOKEN_TYPE + " ";
+    private static final List<SimpleGrantedAuthority> AUTHORITIES = List.of(new SimpleGrantedAuthority("ROLE_USER"));
+    private static final List<SimpleGrantedAuthority> ADMIN_AUTHORITIES = List.of(new SimpleGrantedAuthority("ROLE_USER"),
+            new SimpleGrantedAuthority("ROLE_ADMIN"));
+
+    private final AccessTokenService tokens;
+    private final Predicate<Long> activeUsers;
+    // Mantém o contexto nos despachos assíncronos (SSE) da mesma requisição
+    private final SecurityContextRepository contextRepository = new RequestAttributeSecurityContextRepository();
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (header == null || !header.regionMatches(true, 0, PREFIX, 0, PREFIX.length())) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        AuthenticatedUser user;
+        try {
+            user = tokens.verify(header.substring(PREFIX.length()).trim());
+        } catch (JwtException e) {
+            reject(response, "Token de acesso inválido ou expirado.");
+            return;
+        }
+        if (!activeUsers.test(user.id())) {
+            reject(response, "Token de acesso de uma conta excluída.");
+            return;
+        }
+
+        SecurityContext context = SecurityContextHolder.createEmptyContext();
+        context.setAuthentication(UsernamePasswordAuthenticationToken.authenticated(user, null,
+                user.admin() ? ADMIN_AUTHORITIES : AUTHORITIES));
+        SecurityContextHolder.setContext(context);
+        contextRepository.saveContext(context, request, response);
+        chain.doFilter(request, response);
+    }
+
+    private static void reject(HttpServletResponse response, String message) throws IOException {
+        SecurityContextHolder.clearContext();
+        response.setHeader(HttpHeaders.WWW_AUTHENTICATE, "Bearer error=\"invalid_token\"");
+        response.sendError(HttpServletResponse.SC_UNAUTHORIZED, message);
+    }
+}
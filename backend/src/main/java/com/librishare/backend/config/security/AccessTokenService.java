@@ -0,0 +1,106 @@
+package com.librishare.backend.config.security;
+
+import com.nimbusds.jose.jwk.source.ImmutableSecret;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Emite e confere tokens de acesso JWT assinados com HMAC-SHA256 por uma chave
+ * local ({@code librishare.security.token.secret}, em Base64, com pelo menos 32
+ * bytes). Sem chave configurada, a aplicação não sobe; só com
+ * {@code librishare.security.token.allow-ephemeral-secret=true}, para
+ * desenvolvimento, uma chave é sorteada na inicialização: os tokens deixam de
+ * valer ao reiniciar e não são aceitos por outras instâncias.
+ */
+@Slf4j
+@Component
+public class AccessTokenService {
+
+    public static final String TOKEN_TYPE = "Bearer";
+    private static final String ISSUER = "librishare";
+    private static final String EMAIL_CLAIM = "email";
+    private static final String ADMIN_CLAIM = "admin";
+    private static final int MIN_KEY_BYTES = 32;
+
+    private final JwtEncoder encoder;
+    private final JwtDecoder decoder;
+    private final Duration ttl;
+
+    public AccessTokenService(@Value("${librishare.security.token.secret:}") String secret,
+                              @Value("${librishare.security.token.allow-ephemeral-secret:false}") boolean allowEphemeralSecret,
+                              @Value("${librishare.security.token.ttl-minutes:60}") long ttlMinutes) {
+        SecretKey key = new SecretKeySpec(keyBytes(secret, allowEphemeralSecret), "HmacSHA256");
+        this.encoder = new NimbusJwtEncoder(new ImmutableSecret<>(key));
+        NimbusJwtDecoder nimbusDecoder = NimbusJwtDecoder.withSecretKey(key).macAlgorithm(MacAlgorithm.HS256).build();
+        nimbusDecoder.setJwtValidator(JwtValidators.createDefaultWithIssuer(ISSUER));
+        this.decoder = nimbusDecoder;
+        this.ttl = Duration.ofMinutes(ttlMinutes);
+    }
+
+    private static byte[] keyBytes(String secret, boolean allowEphemeralSecret) {
+        if (secret == null || secret.isBlank()) {
+            if (!allowEphemeralSecret) {
+                throw new IllegalStateException("librishare.security.token.secret não configurado; defina TOKEN_SECRET "
+                        + "ou, só em desenvolvimento, librishare.security.token.allow-ephemeral-secret=true");
+            }
+            log.warn("librishare.security.token.secret não configurado; usando chave temporária");
+            byte[] generated = new byte[MIN_KEY_BYTES];
+            new SecureRandom().nextBytes(generated);
+            return generated;
+        }
+        byte[] decoded = Base64.getDecoder().decode(secret.trim());
+        if (decoded.length < MIN_KEY_BYTES) {
+            throw new IllegalStateException("librishare.security.token.secret precisa ter ao menos " + MIN_KEY_BYTES + " bytes");
+        }
+        return decoded;
+    }
+
+    public IssuedToken issue(Long userId, String email, boolean admin) {
+        Instant now = Instant.now();
+        JwtClaimsSet.Builder claims = JwtClaimsSet.builder()
+                .issuer(ISSUER)
+                .subject(userId.toString())
+                .claim(EMAIL_CLAIM, email)
+                .issuedAt(now)
+                .expiresAt(now.plus(ttl));
+        if (admin) {
+            claims.claim(ADMIN_CLAIM, true);
+        }
+        JwsHeader header = JwsHeader.with(MacAlgorithm.HS256).build();
+        String value = encoder.encode(JwtEncoderParameters.from(header, claims.build())).getTokenValue();
+        return new IssuedToken(value, ttl.toSeconds());
+    }
+
+    /** Confere assinatura, emissor e validade; lança {@link JwtException} se o token não servir. */
+    public AuthenticatedUser verify(String token) {
+        Jwt jwt = decoder.decode(token);
+        try {
+            return new AuthenticatedUser(Long.valueOf(jwt.getSubject()), jwt.getClaimAsString(EMAIL_CLAIM),
+                    Boolean.TRUE.equals(jwt.getClaimAsBoolean(ADMIN_CLAIM)));
+        } catch (NumberFormatException e) {
+            throw new JwtException("Token sem usuário válido", e);
+        }
+    }
+
+    public record IssuedToken(String value, long expiresInSeconds) {
+    }
+}
@@ -0,0 +1,31 @@
+package com.librishare.backend.config.security;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.Optional;
+
+/**
+ * Usuário identificado pelo token de acesso. Vem das claims assinadas; o
+ * {@link AccessTokenFilter} já recusou tokens de contas excluídas. O papel de
+ * administrador vale como estava no login, até o token expirar.
+ */
+public record AuthenticatedUser(Long id, String email, boolean admin) {
+
+    public static Optional<AuthenticatedUser> current() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof AuthenticatedUser user) {
+            return Optional.of(user);
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Indica se a requisição foi autenticada como {@code userId}. Nesse caso a
+     * existência do usuário já foi conferida pelo {@link AccessTokenFilter}, e os
+     * serviços dispensam a consulta.
+     */
+    public static boolean is(Long userId) {
+        return userId != null && current().map(user -> userId.equals(user.id())).orElse(false);
+    }
+}
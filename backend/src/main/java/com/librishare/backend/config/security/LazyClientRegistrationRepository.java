@@ -0,0 +1,57 @@
+package com.librishare.backend.config.security;
+
+import org.springframework.security.oauth2.client.registration.ClientRegistration;
+import org.springframework.security.oauth2.client.registration.ClientRegistrationRepository;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Registros OAuth2 montados só no primeiro uso. Carregar os metadados do provedor
+ * (arquivo local ou discovery pela rede) fica fora da inicialização; uma falha
+ * não é guardada e a próxima consulta tenta de novo.
+ */
+public class LazyClientRegistrationRepository implements ClientRegistrationRepository, Iterable<ClientRegistration> {
+
+    private final Map<String, Loader> registrations = new LinkedHashMap<>();
+
+    public LazyClientRegistrationRepository(Map<String, Supplier<ClientRegistration>> loaders) {
+        loaders.forEach((registrationId, loader) -> registrations.put(registrationId, new Loader(loader)));
+    }
+
+    @Override
+    public ClientRegistration findByRegistrationId(String registrationId) {
+        Loader loader = registrations.get(registrationId);
+        return loader != null ? loader.get() : null;
+    }
+
+    @Override
+    public Iterator<ClientRegistration> iterator() {
+        return registrations.values().stream().map(Loader::get).iterator();
+    }
+
+    private static final class Loader {
+        private final Supplier<ClientRegistration> supplier;
+        private volatile ClientRegistration registration;
+
+        Loader(Supplier<ClientRegistration> supplier) {
+            this.supplier = supplier;
+        }
+
+        ClientRegistration get() {
+            ClientRegistration loaded = registration;
+            if (loaded == null) {
+                synchronized (this) {
+                    loaded = registration;
+                    if (loaded == null) {
+                        loaded = supplier.get();
+                        registration = loaded;
+                    }
+                }
+            }
+            return loaded;
+        }
+    }
+}
@@ -4,8 +4,10 @@ import com.librishare.backend.exception.ResourceNotFoundException;
 import com.librishare.backend.modules.book.dto.BookRequestDTO;
 import com.librishare.backend.modules.book.dto.BookResponseDTO;
 import com.librishare.backend.modules.book.service.BookService;
+import com.librishare.backend.modules.idempotency.filter.IdempotencyFilter;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.enums.ParameterIn;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -40,6 +42,7 @@ public class BookController {
             @ApiResponse(responseCode = "409", description = "Livro já existe no catálogo (ISBN ou Google ID duplicado)",
                     content = @Content)
     })
+    @Parameter(in = ParameterIn.HEADER, name = IdempotencyFilter.HEADER, description = IdempotencyFilter.HEADER_DESCRIPTION)
     @PostMapping
     public ResponseEntity<BookResponseDTO> createBookInCatalog(
             @Valid @RequestBody BookRequestDTO requestDTO) {
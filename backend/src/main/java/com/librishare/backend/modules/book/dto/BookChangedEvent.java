@@ -0,0 +1,15 @@
+package com.librishare.backend.modules.book.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** Publicado no outbox quando um livro do catálogo é criado ou alterado. */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BookChangedEvent {
+    public static final String TYPE = "book.changed";
+
+    private Long bookId;
+}
@@ -1,12 +1,15 @@
 package com.librishare.backend.modules.book.service.impl;
 
+import com.librishare.backend.config.cache.TwoTierCache;
 import com.librishare.backend.exception.DuplicateResourceException;
 import com.librishare.backend.exception.ResourceNotFoundException;
+import com.librishare.backend.modules.book.dto.BookChangedEvent;
 import com.librishare.backend.modules.book.dto.BookRequestDTO;
 import com.librishare.backend.modules.book.dto.BookResponseDTO;
 import com.librishare.backend.modules.book.entity.Book;
 import com.librishare.backend.modules.book.repository.BookRepository;
 import com.librishare.backend.modules.book.service.BookService;
+import com.librishare.backend.modules.outbox.service.OutboxService;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.modelmapper.ModelMapper;
@@ -23,21 +26,27 @@ public class BookServiceImpl implements BookService {
 
     private final BookRepository bookRepository;
     private final ModelMapper modelMapper;
+    private final OutboxService outbox;
+    private final TwoTierCache<Long, BookResponseDTO> bookCache;
 
     @Override
+    @Transactional
     public BookResponseDTO createBookInCatalog(BookRequestDTO requestDTO) {
         validateBookUniqueness(requestDTO.getIsbn(), requestDTO.getGoogleBooksId());
 
         Book book = modelMapper.map(requestDTO, Book.class);
         Book savedBook = bookRepository.save(book);
+        outbox.publish(BookChangedEvent.TYPE, new BookChangedEvent(savedBook.getId()));
         return modelMapper.map(savedBook, BookResponseDTO.class);
     }
 
     @Override
     public BookResponseDTO findBookById(Long bookId) {
-        Book book = bookRepository.findById(bookId)
-                .orElseThrow(() -> new ResourceNotFoundException("Livro não encontrado no catálogo com ID: " + bookId));
-        return modelMapper.map(book, BookResponseDTO.class);
+        return bookCache.get(bookId, () -> {
+            Book book = bookRepository.findById(bookId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Livro não encontrado no catálogo com ID: " + bookId));
+            return modelMapper.map(book, BookResponseDTO.class);
+        });
     }
 
     @Override
@@ -102,6 +111,8 @@ public class BookServiceImpl implements BookService {
         }
 
         Book updatedBook = bookRepository.save(book);
+        outbox.publish(BookChangedEvent.TYPE, new BookChangedEvent(updatedBook.getId()));
+        bookCache.evict(updatedBook.getId());
         return modelMapper.map(updatedBook, BookResponseDTO.class);
 
     }
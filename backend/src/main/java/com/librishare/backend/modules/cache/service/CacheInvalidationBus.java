@@ -0,0 +1,23 @@
+package com.librishare.backend.modules.cache.service;
+
+/**
+ * Avisa as outras instâncias da aplicação que uma entrada de cache local ficou
+ * desatualizada. A instância que faz a alteração cuida do próprio cache; o
+ * barramento só leva a chave às demais.
+ */
+public interface CacheInvalidationBus {
+
+    String BOOK = "book";
+    String USER = "user";
+    String USER_EMAIL = "user-email";
+    String LIBRARY = "library";
+    String HISTORY = "history";
+    String LOANS = "loans";
+    String IDEMPOTENCY = "idempotency";
+
+    /**
+     * Publica a chave alterada. Dentro de uma transação, o aviso só é entregue
+     * após o commit e é descartado em caso de rollback.
+     */
+    void broadcast(String region, Object key);
+}
@@ -0,0 +1,18 @@
+package com.librishare.backend.modules.cache.service;
+
+/**
+ * Cache local que descarta entradas quando outra instância avisa que os dados
+ * mudaram.
+ */
+public interface InvalidationListener {
+
+    boolean listensTo(String region);
+
+    void evict(String region, String key);
+
+    /**
+     * Chamado quando avisos podem ter sido perdidos, por exemplo após a conexão
+     * de escuta cair; o cache deve descartar tudo.
+     */
+    void evictAll();
+}
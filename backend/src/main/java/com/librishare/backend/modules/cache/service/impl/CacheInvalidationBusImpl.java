@@ -0,0 +1,54 @@
+package com.librishare.backend.modules.cache.service.impl;
+
+import com.librishare.backend.modules.cache.service.CacheInvalidationBus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.UUID;
+
+/**
+ * Publica os avisos com {@code pg_notify}. Como o NOTIFY do PostgreSQL é
+ * transacional, o aviso emitido dentro de uma transação só chega às outras
+ * instâncias depois do commit, junto com os dados.
+ *
+ * <p>Sem {@code librishare.cache.invalidation.enabled} (instância única, ou H2
+ * nos testes), não há para quem avisar e nada é enviado.</p>
+ */
+@Service
+public class CacheInvalidationBusImpl implements CacheInvalidationBus {
+
+    static final char SEPARATOR = '|';
+
+    // Identifica esta instância, para que ela ignore os próprios avisos
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String channel;
+    private final boolean enabled;
+
+    public CacheInvalidationBusImpl(JdbcTemplate jdbcTemplate,
+                                    @Value("${librishare.cache.invalidation.channel:librishare_cache}") String channel,
+                                    @Value("${librishare.cache.invalidation.enabled:false}") boolean enabled) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.channel = channel;
+        this.enabled = enabled;
+    }
+
+    public String nodeId() {
+        return nodeId;
+    }
+
+    @Override
+    public void broadcast(String region, Object key) {
+        if (!enabled) {
+            return;
+        }
+        // pg_notify devolve void; o resultado é descartado
+        jdbcTemplate.query("SELECT pg_notify(?, ?)", rs -> null, channel, encode(nodeId, region, key));
+    }
+
+    public static String encode(String nodeId, String region, Object key) {
+        return nodeId + SEPARATOR + region + SEPARATOR + key;
+    }
+}
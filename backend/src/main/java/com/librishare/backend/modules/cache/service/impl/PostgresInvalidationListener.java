@@ -0,0 +1,191 @@
+package com.librishare.backend.modules.cache.service.impl;
+
+import com.librishare.backend.modules.cache.service.InvalidationListener;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Escuta os avisos de invalidação das outras instâncias e os repassa aos caches
+ * locais ({@link InvalidationListener}).
+ *
+ * <p>Usa uma conexão própria, aberta fora do pool: um LISTEN prende a conexão
+ * enquanto a instância estiver no ar. Se ela cair, os avisos enviados nesse
+ * intervalo se perdem; por isso, ao reconectar, todos os caches são esvaziados.</p>
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "librishare.cache.invalidation.enabled", havingValue = "true")
+public class PostgresInvalidationListener {
+
+    private static final Pattern CHANNEL_NAME = Pattern.compile("[a-z_][a-z0-9_]*");
+    private static final int VALIDATION_TIMEOUT_SECONDS = 5;
+
+    private final CacheInvalidationBusImpl bus;
+    private final List<InvalidationListener> listeners;
+    private final DataSourceProperties dataSource;
+    private final String channel;
+    private final int pollMillis;
+    private final long reconnectDelayMillis;
+    private final long validateIntervalMillis;
+
+    private final Counter receivedCounter;
+    private final Counter resyncCounter;
+
+    private volatile boolean running = true;
+    private Thread worker;
+
+    public PostgresInvalidationListener(CacheInvalidationBusImpl bus,
+                                        List<InvalidationListener> listeners,
+                                        DataSourceProperties dataSource,
+                                        ObjectProvider<MeterRegistry> meterRegistry,
+                                        @Value("${librishare.cache.invalidation.channel:librishare_cache}") String channel,
+                                        @Value("${librishare.cache.invalidation.poll-ms:500}") int pollMillis,
+                                        @Value("${librishare.cache.invalidation.reconnect-delay-ms:2000}") long reconnectDelayMillis,
+                                        @Value("${librishare.cache.invalidation.validate-interval-ms:30000}") long validateIntervalMillis) {
+        // O nome do canal não pode ser parâmetro no LISTEN
+        if (!CHANNEL_NAME.matcher(channel).matches()) {
+            throw new IllegalArgumentException("Canal de invalidação inválido: " + channel);
+        }
+        this.bus = bus;
+        this.listeners = listeners;
+        this.dataSource = dataSource;
+        this.channel = channel;
+        this.pollMillis = pollMillis;
+        this.reconnectDelayMillis = reconnectDelayMillis;
+        this.validateIntervalMillis = validateIntervalMillis;
+
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        if (registry != null) {
+            this.receivedCounter = Counter.builder("librishare.cache.invalidation.received")
+                    .description("Avisos de invalidação recebidos de outras instâncias")
+                    .register(registry);
+            this.resyncCounter = Counter.builder("librishare.cache.invalidation.resyncs")
+                    .description("Caches esvaziados após reconexão do LISTEN")
+                    .register(registry);
+        } else {
+            this.receivedCounter = null;
+            this.resyncCounter = null;
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        worker = new Thread(this::listenLoop, "cache-invalidation");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    private void listenLoop() {
+        boolean connectedBefore = false;
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(
+                    dataSource.determineUrl(), dataSource.determineUsername(), dataSource.determinePassword())) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + channel);
+                }
+                if (connectedBefore) {
+                    resync();
+                }
+                connectedBefore = true;
+                log.info("Escutando invalidações de cache no canal {}", channel);
+                receive(connection);
+            } catch (SQLException e) {
+                log.warn("Conexão de escuta de invalidações perdida; nova tentativa em {} ms", reconnectDelayMillis, e);
+                sleep(reconnectDelayMillis);
+            } catch (RuntimeException e) {
+                log.error("Falha inesperada na escuta de invalidações", e);
+                sleep(reconnectDelayMillis);
+            }
+        }
+    }
+
+    private void receive(Connection connection) throws SQLException {
+        PGConnection pgConnection = connection.unwrap(PGConnection.class);
+        long lastValidated = System.nanoTime();
+        while (running) {
+            PGNotification[] notifications = pgConnection.getNotifications(pollMillis);
+            if (notifications != null) {
+                for (PGNotification notification : notifications) {
+                    dispatch(notification.getParameter());
+                }
+            }
+            // Sem tráfego, uma conexão morta só é percebida ao usá-la
+            if (System.nanoTime() - lastValidated > TimeUnit.MILLISECONDS.toNanos(validateIntervalMillis)) {
+                if (!connection.isValid(VALIDATION_TIMEOUT_SECONDS)) {
+                    throw new SQLException("Conexão de escuta inválida");
+                }
+                lastValidated = System.nanoTime();
+            }
+        }
+    }
+
+    public void dispatch(String payload) {
+        int first = payload.indexOf(CacheInvalidationBusImpl.SEPARATOR);
+        int second = first < 0 ? -1 : payload.indexOf(CacheInvalidationBusImpl.SEPARATOR, first + 1);
+        if (second < 0) {
+            log.warn("Aviso de invalidação ignorado, formato desconhecido: {}", payload);
+            return;
+        }
+        if (payload.substring(0, first).equals(bus.nodeId())) {
+            return;
+        }
+        String region = payload.substring(first + 1, second);
+        String key = payload.substring(second + 1);
+        if (receivedCounter != null) {
+            receivedCounter.increment();
+        }
+        for (InvalidationListener listener : listeners) {
+            if (listener.listensTo(region)) {
+                try {
+                    listener.evict(region, key);
+                } catch (RuntimeException e) {
+                    log.error("Falha ao invalidar {}:{} em {}", region, key, listener.getClass().getSimpleName(), e);
+                }
+            }
+        }
+    }
+
+    public void resync() {
+        log.info("Reconectado ao canal {}; esvaziando os caches locais", channel);
+        if (resyncCounter != null) {
+            resyncCounter.increment();
+        }
+        listeners.forEach(InvalidationListener::evictAll);
+    }
+
+    private void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        if (worker != null) {
+            worker.interrupt();
+            worker.join(TimeUnit.SECONDS.toMillis(5));
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.librishare.backend.modules.event.controller;
+
+import com.librishare.backend.modules.event.service.UserEventService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/api/v1/users/{userId}/events")
+@Tag(name = "Eventos em Tempo Real", description = "Fluxo SSE com as mudanças de histórico, empréstimos e estante do usuário")
+@RequiredArgsConstructor
+public class UserEventController {
+
+    private final UserEventService userEventService;
+
+    @Operation(
+            summary = "Abre o fluxo de eventos do usuário",
+            description = "Server-Sent Events substituindo o polling de /history e /loans. Eventos: 'ready' ao conectar, " +
+                    "'history', 'loan', 'library' e 'library-removed' a cada mudança confirmada, e 'resync' quando eventos " +
+                    "foram descartados por lentidão do cliente, indicando que o estado deve ser recarregado pelos endpoints REST."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Fluxo aberto",
+                    content = @Content(mediaType = MediaType.TEXT_EVENT_STREAM_VALUE)),
+            @ApiResponse(responseCode = "404", description = "Usuário não encontrado", content = @Content)
+    })
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamEvents(
+            @Parameter(description = "ID do usuário", example = "1") @PathVariable Long userId) {
+        return userEventService.subscribe(userId);
+    }
+}
@@ -0,0 +1,16 @@
+package com.librishare.backend.modules.event.service;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+public interface UserEventService {
+
+    String HISTORY = "history";
+    String LOAN = "loan";
+    String LIBRARY = "library";
+    String LIBRARY_REMOVED = "library-removed";
+
+    SseEmitter subscribe(Long userId);
+
+    // Entregue às conexões do usuário após o commit da transação corrente
+    void publish(Long userId, String eventName, Object data);
+}
@@ -0,0 +1,228 @@
+package com.librishare.backend.modules.event.service.impl;
+
+import com.librishare.backend.config.security.AuthenticatedUser;
+import com.librishare.backend.exception.ResourceNotFoundException;
+import com.librishare.backend.modules.event.service.UserEventService;
+import com.librishare.backend.modules.user.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Barramento em memória que entrega as mudanças de cada usuário às suas conexões
+ * SSE. A conexão usa o suporte assíncrono do servlet: enquanto ociosa, não ocupa
+ * nenhuma thread.
+ *
+ * <p>Cada conexão tem um buffer limitado a {@code buffer-size} eventos, esvaziado
+ * por um pool pequeno e compartilhado, de modo que um cliente lento não atrasa os
+ * demais nem quem publicou. Se o buffer encher, os eventos pendentes são
+ * descartados e o cliente recebe {@code resync}, sinal para recarregar o estado
+ * pelos endpoints REST.</p>
+ */
+@Slf4j
+@Service
+public class UserEventServiceImpl implements UserEventService {
+
+    static final String READY = "ready";
+    static final String RESYNC = "resync";
+
+    private final UserRepository userRepository;
+    private final Map<Long, List<Subscription>> subscriptions = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicInteger connections = new AtomicInteger();
+    private final ExecutorService dispatcher;
+    private final long timeoutMillis;
+    private final int bufferSize;
+    private final int maxConnectionsPerUser;
+
+    private final Counter droppedCounter;
+
+    public UserEventServiceImpl(UserRepository userRepository,
+                                ObjectProvider<MeterRegistry> meterRegistry,
+                                @Value("${librishare.events.timeout-ms:1800000}") long timeoutMillis,
+                                @Value("${librishare.events.buffer-size:256}") int bufferSize,
+                                @Value("${librishare.events.max-connections-per-user:5}") int maxConnectionsPerUser,
+                                @Value("${librishare.events.dispatcher-threads:4}") int dispatcherThreads) {
+        this.userRepository = userRepository;
+        this.timeoutMillis = timeoutMillis;
+        this.bufferSize = bufferSize;
+        this.maxConnectionsPerUser = maxConnectionsPerUser;
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.dispatcher = Executors.newFixedThreadPool(dispatcherThreads, runnable -> {
+            Thread thread = new Thread(runnable, "user-events-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        if (registry != null) {
+            Gauge.builder("librishare.events.connections", connections, AtomicInteger::get)
+                    .description("Conexões SSE abertas")
+                    .register(registry);
+            this.droppedCounter = Counter.builder("librishare.events.dropped")
+                    .description("Eventos descartados por buffer cheio em conexões lentas")
+                    .register(registry);
+        } else {
+            this.droppedCounter = null;
+        }
+    }
+
+    @Override
+    public SseEmitter subscribe(Long userId) {
+        if (!AuthenticatedUser.is(userId) && !userRepository.existsById(userId)) {
+            throw new ResourceNotFoundException("Usuário não encontrado com ID: " + userId);
+        }
+
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscription subscription = new Subscription(userId, emitter);
+        emitter.onCompletion(subscription::close);
+        emitter.onTimeout(subscription::close);
+        emitter.onError(error -> subscription.close());
+
+        List<Subscription> userSubscriptions = subscriptions.compute(userId, (id, existing) -> {
+            List<Subscription> list = existing != null ? existing : new CopyOnWriteArrayList<>();
+            list.add(subscription);
+            return list;
+        });
+        connections.incrementAndGet();
+
+        // Abas esquecidas abertas não acumulam conexões: a mais antiga dá lugar à nova
+        while (userSubscriptions.size() > maxConnectionsPerUser) {
+            Subscription oldest = userSubscriptions.get(0);
+            oldest.close();
+            oldest.emitter.complete();
+        }
+
+        subscription.offer(SseEmitter.event().name(READY).data(userId));
+        return emitter;
+    }
+
+    @Override
+    public void publish(Long userId, String eventName, Object data) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    deliver(userId, eventName, data);
+                }
+            });
+        } else {
+            deliver(userId, eventName, data);
+        }
+    }
+
+    private void deliver(Long userId, String eventName, Object data) {
+        List<Subscription> userSubscriptions = subscriptions.get(userId);
+        if (userSubscriptions == null || userSubscriptions.isEmpty()) {
+            return;
+        }
+        long id = sequence.incrementAndGet();
+        for (Subscription subscription : userSubscriptions) {
+            subscription.offer(SseEmitter.event().id(Long.toString(id)).name(eventName).data(data));
+        }
+    }
+
+    // Mantém proxies sem fechar conexões ociosas e revela clientes que já foram embora
+    @Scheduled(fixedDelayString = "${librishare.events.heartbeat-ms:25000}")
+    public void heartbeat() {
+        subscriptions.values().forEach(userSubscriptions ->
+                userSubscriptions.forEach(subscription -> subscription.offer(SseEmitter.event().comment("ping"))));
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        subscriptions.values().forEach(userSubscriptions -> userSubscriptions.forEach(subscription -> {
+            subscription.close();
+            subscription.emitter.complete();
+        }));
+        dispatcher.shutdown();
+        dispatcher.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    private final class Subscription {
+        private final Long userId;
+        private final SseEmitter emitter;
+        private final BlockingQueue<SseEmitter.SseEventBuilder> buffer = new ArrayBlockingQueue<>(bufferSize);
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private volatile boolean overflowed;
+
+        Subscription(Long userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+        }
+
+        void offer(SseEmitter.SseEventBuilder event) {
+            if (closed.get()) {
+                return;
+            }
+            if (!buffer.offer(event)) {
+                int dropped = buffer.size();
+                buffer.clear();
+                overflowed = true;
+                if (droppedCounter != null) {
+                    droppedCounter.increment(dropped + 1);
+                }
+            }
+            if (scheduled.compareAndSet(false, true)) {
+                dispatcher.execute(this::drain);
+            }
+        }
+
+        // Um único dreno por conexão de cada vez preserva a ordem dos eventos
+        private void drain() {
+            do {
+                try {
+                    if (overflowed) {
+                        overflowed = false;
+                        emitter.send(SseEmitter.event().name(RESYNC).data(userId));
+                    }
+                    SseEmitter.SseEventBuilder event;
+                    while (!closed.get() && (event = buffer.poll()) != null) {
+                        emitter.send(event);
+                    }
+                } catch (IOException | IllegalStateException e) {
+                    log.debug("Conexão SSE do usuário {} encerrada: {}", userId, e.getMessage());
+                    close();
+                    emitter.completeWithError(e);
+                }
+                scheduled.set(false);
+            } while (!closed.get() && (!buffer.isEmpty() || overflowed) && scheduled.compareAndSet(false, true));
+        }
+
+        void close() {
+            if (closed.compareAndSet(false, true)) {
+                buffer.clear();
+                connections.decrementAndGet();
+                subscriptions.computeIfPresent(userId, (id, userSubscriptions) -> {
+                    userSubscriptions.remove(this);
+                    return userSubscriptions.isEmpty() ? null : userSubscriptions;
+                });
+            }
+        }
+    }
+}
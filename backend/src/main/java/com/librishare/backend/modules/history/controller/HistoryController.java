@@ -1,10 +1,13 @@
 package com.librishare.backend.modules.history.controller;
 
+import com.librishare.backend.modules.history.dto.HistoryPageDTO;
 import com.librishare.backend.modules.history.dto.HistoryResponseDTO;
+import com.librishare.backend.modules.history.enums.HistoryEventType;
 import com.librishare.backend.modules.history.service.HistoryService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.headers.Header;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -15,6 +18,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.List;
@@ -25,25 +29,43 @@ import java.util.List;
 @RequiredArgsConstructor
 public class HistoryController {
 
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final HistoryService historyService;
 
     @Operation(
             summary = "Lista o histórico completo de um usuário",
-            description = "Retorna uma lista cronológica de todas as interações (empréstimos, devoluções, etc.) realizadas por um usuário específico."
+            description = "Retorna as interações (empréstimos, devoluções, etc.) de um usuário, da mais recente para a mais antiga, em páginas. " +
+                    "Rótulo e descrição vêm no idioma do cabeçalho Accept-Language (português por padrão). " +
+                    "Quando há mais itens, o cabeçalho X-Next-Cursor traz o valor a ser enviado em 'before' para buscar a próxima página."
     )
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Histórico retornado com sucesso",
+                    headers = @Header(name = NEXT_CURSOR_HEADER, description = "Cursor da próxima página, ausente na última"),
                     content = @Content(mediaType = "application/json",
                             array = @ArraySchema(schema = @Schema(implementation = HistoryResponseDTO.class)))),
+            @ApiResponse(responseCode = "400", description = "Cursor ou limite inválido",
+                    content = @Content),
             @ApiResponse(responseCode = "404", description = "Usuário não encontrado",
                     content = @Content)
     })
     @GetMapping
     public ResponseEntity<List<HistoryResponseDTO>> getUserHistory(
             @Parameter(description = "ID do usuário proprietário do histórico", example = "1")
-            @PathVariable Long userId) {
+            @PathVariable Long userId,
+            @Parameter(description = "Filtra por tipo de evento (ex: LOAN_CREATED); omitido traz todos")
+            @RequestParam(required = false) HistoryEventType type,
+            @Parameter(description = "Cursor recebido em X-Next-Cursor; omitido na primeira página")
+            @RequestParam(required = false) String before,
+            @Parameter(description = "Quantidade de itens por página (1 a 100)", example = "20")
+            @RequestParam(defaultValue = "3") int limit) {
+
+        HistoryPageDTO page = historyService.getUserHistory(userId, type, before, limit);
 
-        List<HistoryResponseDTO> history = historyService.getUserHistory(userId);
-        return ResponseEntity.ok(history);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getItems());
     }
 }
\ No newline at end of file
@@ -0,0 +1,39 @@
+package com.librishare.backend.modules.history.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Posição de paginação por keyset em listas ordenadas por (createdAt, id)
+ * decrescentes. Trafega como base64url opaco de {@code instante|id}.
+ */
+@Getter
+@AllArgsConstructor
+public class HistoryCursor {
+    private final OffsetDateTime createdAt;
+    private final Long id;
+
+    public static String encode(OffsetDateTime createdAt, Long id) {
+        String position = createdAt.toInstant() + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static HistoryCursor decode(String cursor) {
+        try {
+            String position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = position.indexOf('|');
+            return new HistoryCursor(
+                    OffsetDateTime.ofInstant(Instant.parse(position.substring(0, separator)), ZoneOffset.UTC),
+                    Long.parseLong(position.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException | StringIndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Cursor de paginação inválido.");
+        }
+    }
+}
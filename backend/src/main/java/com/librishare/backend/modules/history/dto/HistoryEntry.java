@@ -0,0 +1,29 @@
+package com.librishare.backend.modules.history.dto;
+
+import com.librishare.backend.modules.history.enums.HistoryEventType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Entrada de histórico como está no banco, com os nomes já resolvidos, antes da
+ * tradução para o idioma da requisição. Registros anteriores aos eventos
+ * tipados não têm {@code eventType} e trazem o texto gravado em
+ * {@code actionType} e {@code description}.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class HistoryEntry {
+    private Long id;
+    private HistoryEventType eventType;
+    private Long bookId;
+    private String bookTitle;
+    private Long loanId;
+    private String borrowerName;
+    private String actionType;
+    private String description;
+    private OffsetDateTime createdAt;
+}
@@ -1,11 +1,19 @@
 package com.librishare.backend.modules.history.dto;
 
+import com.librishare.backend.modules.history.enums.HistoryEventType;
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
+
 import java.time.OffsetDateTime;
 
 @Data
+@AllArgsConstructor
+@NoArgsConstructor
 public class HistoryResponseDTO {
+    private Long id;
+    private HistoryEventType eventType;
     private String actionType;
     private String description;
     private OffsetDateTime createdAt;
-}
\ No newline at end of file
+}
@@ -0,0 +1,26 @@
+package com.librishare.backend.modules.history.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Livro e empréstimo a que um evento de histórico se refere. Apenas os ids são
+ * gravados; título e nome de quem pegou emprestado servem para a atividade
+ * recente em memória, sem nova consulta.
+ */
+@Data
+@AllArgsConstructor
+public class HistorySubject {
+    private Long bookId;
+    private String bookTitle;
+    private Long loanId;
+    private String borrowerName;
+
+    public static HistorySubject ofBook(Long bookId, String bookTitle) {
+        return new HistorySubject(bookId, bookTitle, null, null);
+    }
+
+    public static HistorySubject ofLoan(Long bookId, String bookTitle, Long loanId, String borrowerName) {
+        return new HistorySubject(bookId, bookTitle, loanId, borrowerName);
+    }
+}
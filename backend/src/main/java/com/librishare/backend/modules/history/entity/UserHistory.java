@@ -1,9 +1,9 @@
 package com.librishare.backend.modules.history.entity;
 
+import com.librishare.backend.modules.history.enums.HistoryEventType;
 import com.librishare.backend.modules.user.entity.User;
 import jakarta.persistence.*;
 import lombok.*;
-import org.hibernate.annotations.CreationTimestamp;
 import java.time.OffsetDateTime;
 
 @Entity
@@ -17,14 +17,30 @@ public class UserHistory {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
     private User user;
 
+    @Enumerated(EnumType.STRING)
+    private HistoryEventType eventType;
+
+    // Sem FK: o evento continua no histórico depois que o livro ou o empréstimo é removido
+    private Long bookId;
+
+    private Long loanId;
+
+    // Texto pré-formatado, presente apenas em registros anteriores aos eventos tipados
     private String actionType;
 
     private String description;
 
-    @CreationTimestamp
+    // Momento da ação, informado por quem a registra; sem ele, o da gravação
     private OffsetDateTime createdAt;
+
+    @PrePersist
+    void defaultCreatedAt() {
+        if (createdAt == null) {
+            createdAt = OffsetDateTime.now();
+        }
+    }
 }
\ No newline at end of file
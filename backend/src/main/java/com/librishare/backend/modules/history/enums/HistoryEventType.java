@@ -0,0 +1,9 @@
+package com.librishare.backend.modules.history.enums;
+
+public enum HistoryEventType {
+    LIBRARY_ADDED,
+    WISHLIST_ADDED,
+    READING_STARTED,
+    LOAN_CREATED,
+    LOAN_RETURNED
+}
@@ -1,9 +1,53 @@
 package com.librishare.backend.modules.history.repository;
 
+import com.librishare.backend.modules.history.dto.HistoryEntry;
 import com.librishare.backend.modules.history.entity.UserHistory;
+import com.librishare.backend.modules.history.enums.HistoryEventType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.OffsetDateTime;
 import java.util.List;
 
 public interface UserHistoryRepository extends JpaRepository<UserHistory, Long> {
-    List<UserHistory> findTop3ByUserIdOrderByCreatedAtDesc(Long userId);
-}
\ No newline at end of file
+
+    // Título e pessoa são resolvidos na leitura; livro ou empréstimo removidos vêm nulos
+    String SELECT_ENTRY = "SELECT new com.librishare.backend.modules.history.dto.HistoryEntry(" +
+            "h.id, h.eventType, h.bookId, b.title, h.loanId, l.borrowerName, h.actionType, h.description, h.createdAt) " +
+            "FROM UserHistory h LEFT JOIN Book b ON b.id = h.bookId LEFT JOIN Loan l ON l.id = h.loanId " +
+            "WHERE h.user.id = :userId AND h.createdAt >= :since ";
+
+    // Keyset: continua estritamente depois do último item já entregue. Os limites
+    // simples em created_at permitem ao PostgreSQL descartar as partições fora da faixa.
+    String BEFORE_CURSOR = "AND h.createdAt <= :createdAt AND (h.createdAt, h.id) < (:createdAt, :id) ";
+
+    String NEWEST_FIRST = "ORDER BY h.createdAt DESC, h.id DESC";
+
+    @Query(SELECT_ENTRY + NEWEST_FIRST)
+    List<HistoryEntry> findPageByUserId(@Param("userId") Long userId,
+                                        @Param("since") OffsetDateTime since,
+                                        Limit limit);
+
+    @Query(SELECT_ENTRY + BEFORE_CURSOR + NEWEST_FIRST)
+    List<HistoryEntry> findPageByUserIdBefore(@Param("userId") Long userId,
+                                              @Param("since") OffsetDateTime since,
+                                              @Param("createdAt") OffsetDateTime createdAt,
+                                              @Param("id") Long id,
+                                              Limit limit);
+
+    @Query(SELECT_ENTRY + "AND h.eventType = :eventType " + NEWEST_FIRST)
+    List<HistoryEntry> findPageByUserIdAndEventType(@Param("userId") Long userId,
+                                                    @Param("eventType") HistoryEventType eventType,
+                                                    @Param("since") OffsetDateTime since,
+                                                    Limit limit);
+
+    @Query(SELECT_ENTRY + "AND h.eventType = :eventType " + BEFORE_CURSOR + NEWEST_FIRST)
+    List<HistoryEntry> findPageByUserIdAndEventTypeBefore(@Param("userId") Long userId,
+                                                          @Param("eventType") HistoryEventType eventType,
+                                                          @Param("since") OffsetDateTime since,
+                                                          @Param("createdAt") OffsetDateTime createdAt,
+                                                          @Param("id") Long id,
+                                                          Limit limit);
+}
@@ -1,10 +1,23 @@
 package com.librishare.backend.modules.history.service;
 
-import com.librishare.backend.modules.history.dto.HistoryResponseDTO;
+import com.librishare.backend.modules.history.dto.HistoryPageDTO;
+import com.librishare.backend.modules.history.dto.HistorySubject;
+import com.librishare.backend.modules.history.enums.HistoryEventType;
 import com.librishare.backend.modules.user.entity.User;
+
+import java.time.OffsetDateTime;
 import java.util.List;
 
 public interface HistoryService {
-    void logAction(User user, String actionType, String description);
-    List<HistoryResponseDTO> getUserHistory(Long userId);
+    void logAction(User user, HistoryEventType eventType, HistorySubject subject);
+    void logActions(User user, HistoryEventType eventType, List<HistorySubject> subjects);
+
+    /**
+     * Grava as ações na transação corrente com a data em que ocorreram, mesmo com o
+     * gravador assíncrono ligado. Usado pelos handlers do outbox, cuja entrega só é
+     * confirmada junto com o histórico.
+     */
+    void recordActions(User user, HistoryEventType eventType, List<HistorySubject> subjects, OffsetDateTime occurredAt);
+    HistoryPageDTO getUserHistory(Long userId, HistoryEventType eventType, String before, int limit);
+    void evictRecentActivity(Long userId);
 }
\ No newline at end of file
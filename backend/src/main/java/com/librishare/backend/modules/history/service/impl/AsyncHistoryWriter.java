@@ -0,0 +1,307 @@
+package com.librishare.backend.modules.history.service.impl;
+
+import com.librishare.backend.modules.cache.service.CacheInvalidationBus;
+import com.librishare.backend.modules.history.entity.UserHistory;
+import com.librishare.backend.modules.social.service.TimelineService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Grava o histórico de atividades fora da thread da requisição. As entradas vão
+ * para uma fila limitada e uma única thread as insere em lote, a cada
+ * {@code batch-size} entradas ou {@code flush-interval-ms}, o que ocorrer antes.
+ *
+ * <p>Com a fila cheia, quem registra a ação espera até {@code offer-timeout-ms};
+ * se ainda assim não houver espaço, grava o próprio lote de forma síncrona.
+ * O que estiver na fila é gravado no desligamento.</p>
+ *
+ * <p>Cada lote é gravado em uma transação. Se falhar, é tentado de novo com espera
+ * crescente a partir de {@code retry-backoff-ms}, até {@code max-attempts} vezes;
+ * depois disso as entradas são gravadas uma a uma, e só as que falharem de novo
+ * são descartadas, registradas no log e contadas em {@code librishare.history.dropped}.</p>
+ *
+ * <p>Como os ids gerados não voltam do lote, a atividade recente em memória dos
+ * usuários afetados é descartada após cada gravação e recarregada na próxima leitura,
+ * e o fan-out da linha do tempo parte da entrada mais antiga de cada autor no lote.</p>
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "librishare.history.async.enabled", havingValue = "true")
+public class AsyncHistoryWriter {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO user_history (user_id, event_type, book_id, loan_id, action_type, description, created_at) " +
+                    "VALUES (?, ?, ?, ?, ?, ?, ?)";
+    private static final long MAX_RETRY_BACKOFF_MILLIS = 5000;
+    // Espera máxima entre verificações do desligamento, qualquer que seja o flush-interval-ms
+    private static final long SHUTDOWN_CHECK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final RecentActivityCache recentActivity;
+    private final TimelineService timelineService;
+    private final CacheInvalidationBus invalidationBus;
+    private final BlockingQueue<UserHistory> queue;
+    private final int batchSize;
+    private final long flushIntervalMillis;
+    private final long offerTimeoutMillis;
+    private final int maxAttempts;
+    private final long retryBackoffMillis;
+    private final Thread worker;
+
+    private final Timer flushTimer;
+    private final Counter callerRunsCounter;
+    private final Counter retryCounter;
+    private final Counter droppedCounter;
+
+    private volatile boolean running = true;
+
+    public AsyncHistoryWriter(JdbcTemplate jdbcTemplate,
+                              TransactionTemplate transactionTemplate,
+                              RecentActivityCache recentActivity,
+                              TimelineService timelineService,
+                              CacheInvalidationBus invalidationBus,
+                              ObjectProvider<MeterRegistry> meterRegistry,
+                              @Value("${librishare.history.async.queue-capacity:10000}") int queueCapacity,
+                              @Value("${librishare.history.async.batch-size:200}") int batchSize,
+                              @Value("${librishare.history.async.flush-interval-ms:50}") long flushIntervalMillis,
+                              @Value("${librishare.history.async.offer-timeout-ms:100}") long offerTimeoutMillis,
+                              @Value("${librishare.history.async.max-attempts:5}") int maxAttempts,
+                              @Value("${librishare.history.async.retry-backoff-ms:200}") long retryBackoffMillis) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.recentActivity = recentActivity;
+        this.timelineService = timelineService;
+        this.invalidationBus = invalidationBus;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.offerTimeoutMillis = offerTimeoutMillis;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.retryBackoffMillis = retryBackoffMillis;
+
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        if (registry != null) {
+            Gauge.builder("librishare.history.queue.depth", queue, BlockingQueue::size)
+                    .description("Entradas de histórico aguardando gravação")
+                    .register(registry);
+            this.flushTimer = Timer.builder("librishare.history.flush")
+                    .description("Tempo de gravação de cada lote de histórico")
+                    .register(registry);
+            this.callerRunsCounter = Counter.builder("librishare.history.caller.runs")
+                    .description("Lotes gravados pela própria requisição por falta de espaço na fila")
+                    .register(registry);
+            this.retryCounter = Counter.builder("librishare.history.flush.retries")
+                    .description("Novas tentativas de gravar um lote de histórico após falha")
+                    .register(registry);
+            this.droppedCounter = Counter.builder("librishare.history.dropped")
+                    .description("Entradas de histórico descartadas por falharem mesmo gravadas uma a uma")
+                    .register(registry);
+        } else {
+            this.flushTimer = null;
+            this.callerRunsCounter = null;
+            this.retryCounter = null;
+            this.droppedCounter = null;
+        }
+
+        this.worker = new Thread(this::drainLoop, "history-writer");
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    public void submit(List<UserHistory> entries) {
+        List<UserHistory> overflow = null;
+        for (UserHistory entry : entries) {
+            if (entry.getCreatedAt() == null) {
+                entry.setCreatedAt(OffsetDateTime.now());
+            }
+            if (overflow != null || !offer(entry)) {
+                if (overflow == null) {
+                    overflow = new ArrayList<>();
+                }
+                overflow.add(entry);
+            }
+        }
+
+        if (overflow != null) {
+            if (callerRunsCounter != null) {
+                callerRunsCounter.increment();
+            }
+            flush(overflow);
+        }
+    }
+
+    private boolean offer(UserHistory entry) {
+        if (!running) {
+            return false;
+        }
+        try {
+            return queue.offer(entry, offerTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void drainLoop() {
+        List<UserHistory> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                UserHistory first = queue.poll(
+                        Math.min(TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis), SHUTDOWN_CHECK_NANOS),
+                        TimeUnit.NANOSECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0 || !running) {
+                        break;
+                    }
+                    UserHistory next = queue.poll(Math.min(remaining, SHUTDOWN_CHECK_NANOS), TimeUnit.NANOSECONDS);
+                    if (next != null) {
+                        batch.add(next);
+                    }
+                }
+
+                afterInsert(insertWithRetry(batch));
+            } catch (InterruptedException e) {
+                // O que já saiu da fila é gravado antes de a thread terminar
+                Thread.currentThread().interrupt();
+                afterInsert(insertWithRetry(batch));
+                break;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    // Devolve as entradas gravadas; as demais já foram contadas como descartadas
+    private List<UserHistory> insertWithRetry(List<UserHistory> batch) {
+        if (batch.isEmpty()) {
+            return batch;
+        }
+        long backoff = retryBackoffMillis;
+        for (int attempt = 1; attempt <= maxAttempts; attempt++) {
+            try {
+                insert(batch);
+                return batch;
+            } catch (RuntimeException e) {
+                log.warn("Falha ao gravar {} entradas de histórico (tentativa {} de {})",
+                        batch.size(), attempt, maxAttempts, e);
+                if (attempt == maxAttempts || !sleep(backoff)) {
+                    break;
+                }
+                if (retryCounter != null) {
+                    retryCounter.increment();
+                }
+                backoff = Math.min(backoff * 2, MAX_RETRY_BACKOFF_MILLIS);
+            }
+        }
+        return insertOneByOne(batch);
+    }
+
+    // Isola a linha problemática para não perder o lote inteiro
+    private List<UserHistory> insertOneByOne(List<UserHistory> batch) {
+        List<UserHistory> written = new ArrayList<>(batch.size());
+        for (UserHistory entry : batch) {
+            try {
+                insert(List.of(entry));
+                written.add(entry);
+            } catch (RuntimeException e) {
+                log.error("Entrada de histórico descartada: usuário {}, evento {}, em {}",
+                        entry.getUser().getId(), entry.getEventType(), entry.getCreatedAt(), e);
+                if (droppedCounter != null) {
+                    droppedCounter.increment();
+                }
+            }
+        }
+        return written;
+    }
+
+    private static boolean sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void flush(List<UserHistory> batch) {
+        insert(batch);
+        afterInsert(batch);
+    }
+
+    // Em uma transação, para que a nova tentativa não duplique linhas já gravadas
+    private void insert(List<UserHistory> batch) {
+        long start = System.nanoTime();
+        transactionTemplate.executeWithoutResult(status ->
+                jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (ps, entry) -> {
+                    ps.setLong(1, entry.getUser().getId());
+                    ps.setString(2, entry.getEventType() != null ? entry.getEventType().name() : null);
+                    ps.setObject(3, entry.getBookId(), Types.BIGINT);
+                    ps.setObject(4, entry.getLoanId(), Types.BIGINT);
+                    ps.setString(5, entry.getActionType());
+                    ps.setString(6, entry.getDescription());
+                    ps.setTimestamp(7, Timestamp.from(entry.getCreatedAt().toInstant()));
+                }));
+        if (flushTimer != null) {
+            flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void afterInsert(List<UserHistory> batch) {
+        Map<Long, OffsetDateTime> oldestByAuthor = new HashMap<>();
+        for (UserHistory entry : batch) {
+            oldestByAuthor.merge(entry.getUser().getId(), entry.getCreatedAt(),
+                    (current, candidate) -> candidate.isBefore(current) ? candidate : current);
+        }
+        // As linhas já estão gravadas: uma falha aqui não pode levar a gravá-las de novo
+        oldestByAuthor.forEach((authorId, from) -> {
+            try {
+                recentActivity.evict(authorId);
+                invalidationBus.broadcast(CacheInvalidationBus.HISTORY, authorId);
+                timelineService.fanOut(authorId, from);
+            } catch (RuntimeException e) {
+                log.error("Falha ao atualizar caches e linha do tempo do usuário {} após gravar o histórico", authorId, e);
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        worker.join(TimeUnit.SECONDS.toMillis(10));
+
+        List<UserHistory> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        afterInsert(insertWithRetry(remaining));
+    }
+}
@@ -0,0 +1,131 @@
+package com.librishare.backend.modules.history.service.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Mantém as partições mensais de user_history (criadas em V9, só no PostgreSQL):
+ * cria as dos próximos meses e remove as que saíram da janela de retenção.
+ * Em outros bancos a tabela não é particionada e nada é feito.
+ *
+ * <p>Várias instâncias podem rodar a manutenção ao mesmo tempo: cada passo
+ * tolera o que já foi feito por outra, e uma falha é registrada sem interromper
+ * os demais passos nem a inicialização da aplicação.</p>
+ */
+@Slf4j
+@Component
+public class HistoryPartitionMaintenance {
+
+    static final String PARTITION_PREFIX = "user_history_p";
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int monthsAhead;
+    private final int retentionMonths;
+
+    private Boolean partitioned;
+
+    public HistoryPartitionMaintenance(JdbcTemplate jdbcTemplate,
+                                       @Value("${librishare.history.partitions.months-ahead:3}") int monthsAhead,
+                                       @Value("${librishare.history.retention-months:24}") int retentionMonths) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.monthsAhead = monthsAhead;
+        this.retentionMonths = retentionMonths;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        try {
+            maintainPartitions();
+        } catch (DataAccessException e) {
+            log.error("Falha na manutenção das partições de histórico ao iniciar", e);
+        }
+    }
+
+    @Scheduled(cron = "${librishare.history.partitions.cron:0 30 3 * * *}", zone = "UTC")
+    public synchronized void maintainPartitions() {
+        if (!isPartitioned()) {
+            return;
+        }
+
+        YearMonth current = YearMonth.now(ZoneOffset.UTC);
+        for (int i = 0; i <= monthsAhead; i++) {
+            try {
+                createPartition(current.plusMonths(i));
+            } catch (DataAccessException e) {
+                log.error("Falha ao criar a partição de histórico de {}", current.plusMonths(i), e);
+            }
+        }
+
+        if (retentionMonths > 0) {
+            dropExpiredPartitions(current.minusMonths(retentionMonths));
+        }
+    }
+
+    private void dropExpiredPartitions(YearMonth oldestKept) {
+        List<String> partitions;
+        try {
+            partitions = existingPartitions();
+        } catch (DataAccessException e) {
+            log.error("Falha ao listar as partições de histórico", e);
+            return;
+        }
+        for (String partition : partitions) {
+            YearMonth month = YearMonth.parse(partition.substring(PARTITION_PREFIX.length()), SUFFIX);
+            if (month.isBefore(oldestKept)) {
+                try {
+                    dropPartition(partition);
+                } catch (DataAccessException e) {
+                    // Em geral outra instância já está removendo a mesma partição
+                    log.warn("Falha ao remover a partição de histórico {}", partition, e);
+                }
+            }
+        }
+    }
+
+    private boolean isPartitioned() {
+        if (partitioned == null) {
+            boolean postgres = Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) connection ->
+                    "PostgreSQL".equalsIgnoreCase(connection.getMetaData().getDatabaseProductName())));
+            partitioned = postgres && Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                    "SELECT EXISTS (SELECT 1 FROM pg_partitioned_table WHERE partrelid = to_regclass('user_history'))",
+                    Boolean.class));
+        }
+        return partitioned;
+    }
+
+    private void createPartition(YearMonth month) {
+        LocalDate from = month.atDay(1);
+        LocalDate to = month.plusMonths(1).atDay(1);
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + PARTITION_PREFIX + month.format(SUFFIX)
+                + " PARTITION OF user_history FOR VALUES FROM ('" + from + " 00:00:00+00') TO ('" + to + " 00:00:00+00')");
+    }
+
+    private List<String> existingPartitions() {
+        return jdbcTemplate.queryForList(
+                "SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid " +
+                        "WHERE i.inhparent = to_regclass('user_history') AND c.relname ~ '^user_history_p[0-9]{6}$' " +
+                        "ORDER BY c.relname",
+                String.class);
+    }
+
+    // DETACH CONCURRENTLY evita bloquear leituras e escritas na tabela principal durante a remoção
+    private void dropPartition(String partition) {
+        log.info("Removendo partição de histórico fora da retenção: {}", partition);
+        jdbcTemplate.execute("ALTER TABLE user_history DETACH PARTITION " + partition + " CONCURRENTLY");
+        jdbcTemplate.execute("DROP TABLE IF EXISTS " + partition);
+    }
+}
@@ -0,0 +1,43 @@
+package com.librishare.backend.modules.history.service.impl;
+
+import com.librishare.backend.modules.history.dto.HistoryEntry;
+import com.librishare.backend.modules.history.dto.HistoryResponseDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.MessageSource;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+
+/**
+ * Monta o rótulo e a frase de cada evento de histórico a partir de
+ * {@code messages*.properties}, no idioma pedido. As chaves seguem
+ * {@code history.<EVENTO>.label} e {@code history.<EVENTO>.description}, com o
+ * título do livro em {0} e o nome de quem pegou emprestado em {1}.
+ */
+@Component
+@RequiredArgsConstructor
+public class HistoryRenderer {
+
+    private final MessageSource messageSource;
+
+    public HistoryResponseDTO render(HistoryEntry entry, Locale locale) {
+        if (entry.getEventType() == null) {
+            return new HistoryResponseDTO(entry.getId(), null, entry.getActionType(), entry.getDescription(), entry.getCreatedAt());
+        }
+
+        String key = "history." + entry.getEventType().name();
+        String bookTitle = entry.getBookTitle() != null
+                ? entry.getBookTitle()
+                : messageSource.getMessage("history.unknown.book", null, locale);
+        String borrowerName = entry.getBorrowerName() != null
+                ? entry.getBorrowerName()
+                : messageSource.getMessage("history.unknown.borrower", null, locale);
+
+        return new HistoryResponseDTO(
+                entry.getId(),
+                entry.getEventType(),
+                messageSource.getMessage(key + ".label", null, locale),
+                messageSource.getMessage(key + ".description", new Object[]{bookTitle, borrowerName}, locale),
+                entry.getCreatedAt());
+    }
+}
@@ -1,46 +1,235 @@
 package com.librishare.backend.modules.history.service.impl;
 
+import com.librishare.backend.config.security.AuthenticatedUser;
 import com.librishare.backend.exception.ResourceNotFoundException;
+import com.librishare.backend.modules.cache.service.CacheInvalidationBus;
+import com.librishare.backend.modules.event.service.UserEventService;
+import com.librishare.backend.modules.history.dto.HistoryCursor;
+import com.librishare.backend.modules.history.dto.HistoryEntry;
+import com.librishare.backend.modules.history.dto.HistoryPageDTO;
 import com.librishare.backend.modules.history.dto.HistoryResponseDTO;
+import com.librishare.backend.modules.history.dto.HistorySubject;
 import com.librishare.backend.modules.history.entity.UserHistory;
+import com.librishare.backend.modules.history.enums.HistoryEventType;
 import com.librishare.backend.modules.history.repository.UserHistoryRepository;
 import com.librishare.backend.modules.history.service.HistoryService;
+import com.librishare.backend.modules.outbox.service.OutboxService;
+import com.librishare.backend.modules.social.dto.TimelineFanOutEvent;
 import com.librishare.backend.modules.user.entity.User;
-import com.librishare.backend.modules.user.repository.UserRepository;
+import com.librishare.backend.modules.user.service.UserProfileLookup;
 import lombok.RequiredArgsConstructor;
-import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.OffsetDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class HistoryServiceImpl implements HistoryService {
 
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final OffsetDateTime NO_LOWER_BOUND = OffsetDateTime.of(1970, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+
     private final UserHistoryRepository repository;
-    private final UserRepository userRepository;
-    private final ModelMapper mapper;
+    private final UserProfileLookup userProfiles;
+    private final RecentActivityCache recentActivity;
+    private final HistoryRenderer renderer;
+    private final UserEventService userEvents;
+    private final OutboxService outbox;
+    private final CacheInvalidationBus invalidationBus;
+
+    // Presente apenas com librishare.history.async.enabled=true
+    @Autowired(required = false)
+    private AsyncHistoryWriter asyncWriter;
+
+    // Mesma janela usada por HistoryPartitionMaintenance; 0 mantém tudo
+    @Value("${librishare.history.retention-months:24}")
+    private int retentionMonths;
+
+    @Override
+    public void logAction(User user, HistoryEventType eventType, HistorySubject subject) {
+        logActions(user, eventType, List.of(subject));
+    }
 
     @Override
-    public void logAction(User user, String actionType, String description) {
-        UserHistory history = UserHistory.builder()
-                .user(user)
-                .actionType(actionType)
-                .description(description)
-                .build();
-        repository.save(history);
+    public void logActions(User user, HistoryEventType eventType, List<HistorySubject> subjects) {
+        List<UserHistory> entries = newEntries(user, eventType, subjects, OffsetDateTime.now());
+        if (asyncWriter != null) {
+            submitAfterCommit(entries);
+            publishEvents(user.getId(), toEntries(entries, subjects));
+            return;
+        }
+        save(user, entries, subjects);
     }
 
     @Override
-    public List<HistoryResponseDTO> getUserHistory(Long userId) {
-        if (!userRepository.existsById(userId)) {
+    public void recordActions(User user, HistoryEventType eventType, List<HistorySubject> subjects, OffsetDateTime occurredAt) {
+        save(user, newEntries(user, eventType, subjects, occurredAt), subjects);
+    }
+
+    // Na precisão do banco, para que o fan-out a partir desta data encontre a própria entrada
+    private List<UserHistory> newEntries(User user, HistoryEventType eventType, List<HistorySubject> subjects,
+                                         OffsetDateTime occurredAt) {
+        OffsetDateTime createdAt = occurredAt.truncatedTo(ChronoUnit.MICROS);
+        return subjects.stream()
+                .map(subject -> UserHistory.builder()
+                        .user(user)
+                        .eventType(eventType)
+                        .bookId(subject.getBookId())
+                        .loanId(subject.getLoanId())
+                        .createdAt(createdAt)
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    private void save(User user, List<UserHistory> entries, List<HistorySubject> subjects) {
+        List<UserHistory> saved = repository.saveAll(entries);
+        if (saved == null || saved.size() != subjects.size()) {
+            return;
+        }
+        List<HistoryEntry> savedEntries = toEntries(saved, subjects);
+        // O fan-out para autores com muitos seguidores é caro; vai pelo outbox, fora desta transação
+        savedEntries.stream()
+                .map(HistoryEntry::getCreatedAt)
+                .filter(Objects::nonNull)
+                .min(Comparator.naturalOrder())
+                .ifPresent(from -> outbox.publish(TimelineFanOutEvent.TYPE, new TimelineFanOutEvent(user.getId(), from)));
+        afterCommit(() -> recentActivity.append(user.getId(), savedEntries));
+        invalidationBus.broadcast(CacheInvalidationBus.HISTORY, user.getId());
+        publishEvents(user.getId(), savedEntries);
+    }
+
+    @Override
+    public HistoryPageDTO getUserHistory(Long userId, HistoryEventType eventType, String before, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("O limite deve ser entre 1 e " + MAX_PAGE_SIZE + ".");
+        }
+        boolean firstPage = before == null || before.isBlank();
+        if (firstPage && eventType == null && limit <= recentActivity.capacity()) {
+            HistoryPageDTO page = recentPage(userId, limit);
+            if (page != null) {
+                return page;
+            }
+        }
+
+        if (!AuthenticatedUser.is(userId) && !userProfiles.exists(userId)) {
             throw new ResourceNotFoundException("Usuário não encontrado");
         }
 
-        return repository.findTop3ByUserIdOrderByCreatedAtDesc(userId)
-                .stream()
-                .map(h -> mapper.map(h, HistoryResponseDTO.class))
+        // Um item a mais indica se existe próxima página
+        Limit fetchLimit = Limit.of(limit + 1);
+        OffsetDateTime since = retentionStart();
+        List<HistoryEntry> items;
+        if (firstPage) {
+            items = eventType == null
+                    ? repository.findPageByUserId(userId, since, fetchLimit)
+                    : repository.findPageByUserIdAndEventType(userId, eventType, since, fetchLimit);
+        } else {
+            HistoryCursor cursor = HistoryCursor.decode(before);
+            items = eventType == null
+                    ? repository.findPageByUserIdBefore(userId, since, cursor.getCreatedAt(), cursor.getId(), fetchLimit)
+                    : repository.findPageByUserIdAndEventTypeBefore(
+                            userId, eventType, since, cursor.getCreatedAt(), cursor.getId(), fetchLimit);
+        }
+
+        if (items.size() <= limit) {
+            return toPage(items, null);
+        }
+        List<HistoryEntry> page = items.subList(0, limit);
+        return toPage(page, encodeCursor(page.get(limit - 1)));
+    }
+
+    @Override
+    public void evictRecentActivity(Long userId) {
+        recentActivity.evict(userId);
+    }
+
+    // Primeira página servida do buffer em memória; null quando ele não basta para responder
+    private HistoryPageDTO recentPage(Long userId, int limit) {
+        RecentActivityCache.Snapshot recent = recentActivity.get(userId, rows -> {
+            if (!AuthenticatedUser.is(userId) && !userProfiles.exists(userId)) {
+                throw new ResourceNotFoundException("Usuário não encontrado");
+            }
+            return repository.findPageByUserId(userId, retentionStart(), Limit.of(rows));
+        });
+
+        List<HistoryEntry> items = recent.items();
+        if (items.size() < limit) {
+            return recent.hasMore() ? null : toPage(items, null);
+        }
+        List<HistoryEntry> page = items.subList(0, limit);
+        boolean hasNext = items.size() > limit || recent.hasMore();
+        return toPage(page, hasNext ? encodeCursor(page.get(limit - 1)) : null);
+    }
+
+    // O texto é montado a cada leitura, no idioma da requisição
+    private HistoryPageDTO toPage(List<HistoryEntry> entries, String nextCursor) {
+        Locale locale = LocaleContextHolder.getLocale();
+        List<HistoryResponseDTO> items = entries.stream()
+                .map(entry -> renderer.render(entry, locale))
                 .collect(Collectors.toList());
+        return new HistoryPageDTO(items, nextCursor);
+    }
+
+    private OffsetDateTime retentionStart() {
+        if (retentionMonths <= 0) {
+            return NO_LOWER_BOUND;
+        }
+        return YearMonth.now(ZoneOffset.UTC).minusMonths(retentionMonths).atDay(1).atStartOfDay().atOffset(ZoneOffset.UTC);
+    }
+
+    private String encodeCursor(HistoryEntry last) {
+        return HistoryCursor.encode(last.getCreatedAt(), last.getId());
+    }
+
+    // saveAll devolve as entidades na ordem recebida, alinhadas com os assuntos
+    private List<HistoryEntry> toEntries(List<UserHistory> histories, List<HistorySubject> subjects) {
+        List<HistoryEntry> entries = new ArrayList<>(histories.size());
+        for (int i = 0; i < histories.size(); i++) {
+            UserHistory history = histories.get(i);
+            HistorySubject subject = subjects.get(i);
+            entries.add(new HistoryEntry(history.getId(), history.getEventType(),
+                    history.getBookId(), subject.getBookTitle(), history.getLoanId(), subject.getBorrowerName(),
+                    null, null, history.getCreatedAt()));
+        }
+        return entries;
+    }
+
+    // Pelo gravador assíncrono o id ainda não existe e vai nulo no evento
+    private void publishEvents(Long userId, List<HistoryEntry> entries) {
+        Locale locale = LocaleContextHolder.getLocale();
+        entries.forEach(entry -> userEvents.publish(userId, UserEventService.HISTORY, renderer.render(entry, locale)));
+    }
+
+    // Ações desfeitas por rollback não devem aparecer no histórico
+    private void submitAfterCommit(List<UserHistory> entries) {
+        afterCommit(() -> asyncWriter.submit(entries));
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
     }
 }
\ No newline at end of file
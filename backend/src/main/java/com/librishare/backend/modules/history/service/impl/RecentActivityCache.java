@@ -0,0 +1,180 @@
+package com.librishare.backend.modules.history.service.impl;
+
+import com.librishare.backend.modules.cache.service.CacheInvalidationBus;
+import com.librishare.backend.modules.cache.service.InvalidationListener;
+import com.librishare.backend.modules.history.dto.HistoryEntry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.IntFunction;
+
+/**
+ * Últimas entradas de histórico de cada usuário ativo, mantidas em memória para
+ * o widget de atividade recente. Cada usuário tem um buffer circular com no
+ * máximo {@code size} itens, do mais recente para o mais antigo, e o conjunto de
+ * usuários é um LRU limitado a {@code max-users}.
+ *
+ * <p>O buffer é preenchido pelas gravações já confirmadas e carregado do banco
+ * na primeira leitura. Entradas registradas enquanto a carga está em andamento
+ * ficam pendentes e são mescladas ao resultado, para não se perderem.</p>
+ *
+ * <p>Gravações feitas em outra instância chegam como invalidação: o buffer do
+ * usuário é descartado e recarregado na próxima leitura.</p>
+ */
+@Component
+public class RecentActivityCache implements InvalidationListener {
+
+    private final int capacity;
+    private final Map<Long, Buffer> buffers;
+
+    public RecentActivityCache(@Value("${librishare.history.recent.size:10}") int capacity,
+                               @Value("${librishare.history.recent.max-users:10000}") int maxUsers) {
+        this.capacity = capacity;
+        this.buffers = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Buffer> eldest) {
+                return size() > maxUsers;
+            }
+        };
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Devolve as entradas recentes do usuário, carregando-as com {@code loader} se
+     * ainda não estiverem em memória. O loader recebe a quantidade de linhas a
+     * buscar (uma a mais que a capacidade, para saber se há entradas mais antigas).
+     */
+    public Snapshot get(Long userId, IntFunction<List<HistoryEntry>> loader) {
+        Buffer buffer;
+        synchronized (this) {
+            buffer = buffers.get(userId);
+            if (buffer == null) {
+                buffer = new Buffer();
+                buffers.put(userId, buffer);
+            } else if (buffer.loaded) {
+                return buffer.snapshot();
+            }
+        }
+
+        List<HistoryEntry> loaded;
+        try {
+            loaded = loader.apply(capacity + 1);
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                buffers.remove(userId, buffer);
+            }
+            throw e;
+        }
+
+        synchronized (this) {
+            if (!buffer.loaded) {
+                buffer.fill(loaded);
+            }
+            return buffer.snapshot();
+        }
+    }
+
+    /** Acrescenta entradas já gravadas, em ordem cronológica, ao buffer do usuário, se houver. */
+    public synchronized void append(Long userId, List<HistoryEntry> entries) {
+        Buffer buffer = buffers.get(userId);
+        if (buffer == null) {
+            return;
+        }
+        for (HistoryEntry entry : entries) {
+            if (buffer.loaded) {
+                buffer.push(entry);
+            } else {
+                buffer.pending.add(entry);
+            }
+        }
+    }
+
+    public synchronized void evict(Long userId) {
+        buffers.remove(userId);
+    }
+
+    @Override
+    public boolean listensTo(String region) {
+        return CacheInvalidationBus.HISTORY.equals(region) || CacheInvalidationBus.USER.equals(region);
+    }
+
+    @Override
+    public void evict(String region, String key) {
+        evict(Long.valueOf(key));
+    }
+
+    @Override
+    public synchronized void evictAll() {
+        buffers.clear();
+    }
+
+    public record Snapshot(List<HistoryEntry> items, boolean hasMore) {
+    }
+
+    private final class Buffer {
+        private final Deque<HistoryEntry> items = new ArrayDeque<>(capacity + 1);
+        private final List<HistoryEntry> pending = new ArrayList<>();
+        private boolean loaded;
+        private boolean hasMore;
+
+        void fill(List<HistoryEntry> newestFirst) {
+            Set<Long> ids = new HashSet<>();
+            for (HistoryEntry entry : newestFirst) {
+                if (items.size() == capacity) {
+                    hasMore = true;
+                    break;
+                }
+                items.addLast(entry);
+                ids.add(entry.getId());
+            }
+            // O que foi confirmado durante a carga pode ou não ter sido lido
+            for (HistoryEntry entry : pending) {
+                if (!ids.contains(entry.getId())) {
+                    push(entry);
+                }
+            }
+            pending.clear();
+            loaded = true;
+        }
+
+        // Entregas do outbox podem chegar fora de ordem: a entrada vai para a posição da sua data
+        void push(HistoryEntry entry) {
+            Deque<HistoryEntry> newer = new ArrayDeque<>();
+            while (!items.isEmpty() && isOlder(entry, items.peekFirst())) {
+                newer.push(items.pollFirst());
+            }
+            items.addFirst(entry);
+            while (!newer.isEmpty()) {
+                items.addFirst(newer.pop());
+            }
+            if (items.size() > capacity) {
+                items.removeLast();
+                hasMore = true;
+            }
+        }
+
+        private boolean isOlder(HistoryEntry entry, HistoryEntry other) {
+            if (entry.getCreatedAt() == null || other.getCreatedAt() == null) {
+                return false;
+            }
+            int byDate = entry.getCreatedAt().compareTo(other.getCreatedAt());
+            return byDate < 0 || (byDate == 0 && entry.getId() != null && other.getId() != null
+                    && entry.getId() < other.getId());
+        }
+
+        Snapshot snapshot() {
+            return new Snapshot(List.copyOf(items), hasMore);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.librishare.backend.modules.idempotency.dto;
+
+/**
+ * Resultado da tentativa de reservar uma chave: {@code response} só vem em
+ * {@link Outcome#REPLAY}.
+ */
+public record IdempotencyClaim(Outcome outcome, IdempotentResponse response) {
+
+    public enum Outcome {
+        // Chave reservada: a requisição segue e o resultado deve ser concluído ou liberado
+        ACQUIRED,
+        // Já concluída com o mesmo corpo: devolver a resposta guardada
+        REPLAY,
+        // Outra requisição com a mesma chave ainda não terminou
+        IN_PROGRESS,
+        // Mesma chave com outro corpo
+        MISMATCH
+    }
+
+    public static IdempotencyClaim of(Outcome outcome) {
+        return new IdempotencyClaim(outcome, null);
+    }
+}
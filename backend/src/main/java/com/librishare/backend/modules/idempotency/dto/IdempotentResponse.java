@@ -0,0 +1,22 @@
+package com.librishare.backend.modules.idempotency.dto;
+
+import com.librishare.backend.modules.idempotency.entity.IdempotencyKey;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Resposta concluída de uma requisição idempotente, como é devolvida nas
+ * repetições. Imutável, para ser compartilhada pelo cache.
+ */
+public record IdempotentResponse(String requestHash,
+                                 int status,
+                                 String contentType,
+                                 String location,
+                                 String body,
+                                 OffsetDateTime expiresAt) {
+
+    public static IdempotentResponse of(IdempotencyKey key) {
+        return new IdempotentResponse(key.getRequestHash(), key.getStatusCode(), key.getContentType(),
+                key.getLocation(), key.getResponseBody(), key.getExpiresAt());
+    }
+}
@@ -0,0 +1,38 @@
+package com.librishare.backend.modules.idempotency.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Resposta guardada para uma {@code Idempotency-Key}. O id é o SHA-256 da chave
+ * junto com quem a enviou e a rota, para que clientes diferentes não colidam.
+ */
+@Entity
+@Table(name = "idempotency_keys")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class IdempotencyKey {
+    @Id
+    private String id;
+
+    // SHA-256 do corpo da requisição original; a chave não pode ser reutilizada com outro corpo
+    private String requestHash;
+
+    // Nulo enquanto a requisição original está em andamento
+    private Integer statusCode;
+
+    private String contentType;
+
+    private String location;
+
+    private String responseBody;
+
+    private OffsetDateTime createdAt;
+
+    // Reserva ou resposta expirada: a chave pode ser usada de novo
+    private OffsetDateTime expiresAt;
+}
@@ -0,0 +1,235 @@
+package com.librishare.backend.modules.idempotency.filter;
+
+import com.librishare.backend.config.security.AuthenticatedUser;
+import com.librishare.backend.modules.idempotency.dto.IdempotencyClaim;
+import com.librishare.backend.modules.idempotency.dto.IdempotentResponse;
+import com.librishare.backend.modules.idempotency.service.IdempotencyService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Set;
+
+/**
+ * Suporte ao cabeçalho {@code Idempotency-Key} nos POST da API. A primeira
+ * requisição com uma chave executa normalmente e tem a resposta guardada; as
+ * repetições com o mesmo corpo recebem essa resposta, com
+ * {@code Idempotent-Replayed: true}, sem passar pelo controller.
+ *
+ * <p>A chave vale por usuário e por rota. Sem token, vale pelo IP e pelo
+ * cabeçalho {@code X-Client-Id}, se enviado, para que clientes anônimos não
+ * recebam as respostas uns dos outros. Reutilizá-la com outro corpo dá 422;
+ * repeti-la enquanto a original não terminou dá 409. Erros 5xx e 429 não são
+ * guardados, para que a nova tentativa execute de novo.</p>
+ *
+ * <p>O corpo é lido inteiro para o hash, então corpos acima de
+ * {@code librishare.idempotency.max-body-bytes} recebem 413.</p>
+ */
+@Slf4j
+@Component
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    public static final String CLIENT_HEADER = "X-Client-Id";
+    public static final String HEADER_DESCRIPTION = "Chave única da operação (até 255 caracteres). " +
+            "Repetições com a mesma chave e o mesmo corpo recebem a resposta original, sem executar de novo. " +
+            "Sem token, a chave vale pelo IP e pelo cabeçalho " + CLIENT_HEADER + ", se enviado";
+
+    private static final int MAX_KEY_LENGTH = 255;
+    // Repetir o login devolveria um token de acesso guardado no banco
+    private static final Set<String> EXCLUDED_PATHS = Set.of("/api/v1/users/login");
+
+    private final IdempotencyService idempotency;
+    private final int maxBodyBytes;
+
+    public IdempotencyFilter(IdempotencyService idempotency,
+                             @Value("${librishare.idempotency.max-body-bytes:1048576}") int maxBodyBytes) {
+        this.idempotency = idempotency;
+        this.maxBodyBytes = maxBodyBytes;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !HttpMethod.POST.matches(request.getMethod())
+                || request.getHeader(HEADER) == null
+                || !request.getRequestURI().startsWith("/api/")
+                || EXCLUDED_PATHS.contains(request.getRequestURI());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String key = request.getHeader(HEADER).trim();
+        if (key.isEmpty() || key.length() > MAX_KEY_LENGTH) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST,
+                    HEADER + " deve ter entre 1 e " + MAX_KEY_LENGTH + " caracteres.");
+            return;
+        }
+
+        // Content-Length pode faltar (chunked); a leitura para um byte depois do limite
+        byte[] body = request.getContentLengthLong() > maxBodyBytes
+                ? null
+                : request.getInputStream().readNBytes(maxBodyBytes + 1);
+        if (body == null || body.length > maxBodyBytes) {
+            response.sendError(HttpStatus.PAYLOAD_TOO_LARGE.value(),
+                    "Corpo acima de " + maxBodyBytes + " bytes não é aceito com " + HEADER + ".");
+            return;
+        }
+        String id = sha256((scope(request) + "\n" + key).getBytes(StandardCharsets.UTF_8));
+        IdempotencyClaim claim = idempotency.claim(id, sha256(body));
+
+        switch (claim.outcome()) {
+            case ACQUIRED -> execute(id, new CachedBodyRequest(request, body), response, chain);
+            case REPLAY -> replay(claim.response(), response);
+            case IN_PROGRESS -> {
+                response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+                response.sendError(HttpServletResponse.SC_CONFLICT,
+                        "Uma requisição com esta " + HEADER + " ainda está em andamento.");
+            }
+            case MISMATCH -> response.sendError(HttpStatus.UNPROCESSABLE_ENTITY.value(),
+                    HEADER + " já usada com outro corpo de requisição.");
+        }
+    }
+
+    private void execute(String id, HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        ContentCachingResponseWrapper captured = new ContentCachingResponseWrapper(response);
+        try {
+            chain.doFilter(request, captured);
+        } catch (ServletException | IOException | RuntimeException e) {
+            release(id);
+            throw e;
+        }
+
+        int status = captured.getStatus();
+        if (status < 500 && status != HttpStatus.TOO_MANY_REQUESTS.value()) {
+            idempotency.complete(id, status, captured.getContentType(), captured.getHeader(HttpHeaders.LOCATION),
+                    new String(captured.getContentAsByteArray(), StandardCharsets.UTF_8));
+        } else {
+            release(id);
+        }
+        captured.copyBodyToResponse();
+    }
+
+    private void release(String id) {
+        try {
+            idempotency.release(id);
+        } catch (RuntimeException e) {
+            // A reserva expira sozinha em lease-seconds
+            log.warn("Falha ao liberar a chave de idempotência {}", id, e);
+        }
+    }
+
+    private static void replay(IdempotentResponse stored, HttpServletResponse response) throws IOException {
+        response.setStatus(stored.status());
+        response.setHeader(REPLAYED_HEADER, "true");
+        if (stored.contentType() != null) {
+            response.setContentType(stored.contentType());
+        }
+        if (stored.location() != null) {
+            response.setHeader(HttpHeaders.LOCATION, stored.location());
+        }
+        if (stored.body() != null && !stored.body().isEmpty()) {
+            byte[] bytes = stored.body().getBytes(StandardCharsets.UTF_8);
+            response.setContentLength(bytes.length);
+            response.getOutputStream().write(bytes);
+        }
+    }
+
+    private static String scope(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        String caller = authentication != null && authentication.getPrincipal() instanceof AuthenticatedUser user
+                ? "user:" + user.id()
+                : anonymousCaller(request);
+        String query = request.getQueryString();
+        return caller + " " + request.getMethod() + " " + request.getRequestURI() + (query == null ? "" : "?" + query);
+    }
+
+    // Sem token não há identidade confiável: IP e, quando houver, o id que o próprio cliente envia
+    private static String anonymousCaller(HttpServletRequest request) {
+        String clientId = request.getHeader(CLIENT_HEADER);
+        return "anonymous:" + request.getRemoteAddr()
+                + (clientId == null || clientId.isBlank() ? "" : ":" + clientId.trim());
+    }
+
+    private static String sha256(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // O corpo já foi lido para o hash; o controller lê a cópia
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    throw new UnsupportedOperationException();
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            return new BufferedReader(new InputStreamReader(getInputStream(),
+                    encoding == null ? StandardCharsets.UTF_8 : Charset.forName(encoding)));
+        }
+    }
+}
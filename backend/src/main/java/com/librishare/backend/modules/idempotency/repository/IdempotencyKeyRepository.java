@@ -0,0 +1,58 @@
+package com.librishare.backend.modules.idempotency.repository;
+
+import com.librishare.backend.modules.idempotency.entity.IdempotencyKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+
+@Repository
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKey, String> {
+
+    // 0 quando a chave já existe; a unicidade do id resolve requisições simultâneas
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO idempotency_keys (id, request_hash, expires_at) " +
+            "VALUES (:id, :requestHash, :expiresAt) ON CONFLICT DO NOTHING",
+            nativeQuery = true)
+    int insertPending(@Param("id") String id,
+                      @Param("requestHash") String requestHash,
+                      @Param("expiresAt") OffsetDateTime expiresAt);
+
+    // Reaproveita uma chave expirada, concluída ou abandonada por uma instância que caiu
+    @Transactional
+    @Modifying
+    @Query("UPDATE IdempotencyKey k SET k.requestHash = :requestHash, k.statusCode = NULL, k.contentType = NULL, " +
+            "k.location = NULL, k.responseBody = NULL, k.createdAt = :now, k.expiresAt = :expiresAt " +
+            "WHERE k.id = :id AND k.expiresAt <= :now")
+    int takeOverExpired(@Param("id") String id,
+                        @Param("requestHash") String requestHash,
+                        @Param("now") OffsetDateTime now,
+                        @Param("expiresAt") OffsetDateTime expiresAt);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE IdempotencyKey k SET k.statusCode = :statusCode, k.contentType = :contentType, " +
+            "k.location = :location, k.responseBody = :body, k.expiresAt = :expiresAt " +
+            "WHERE k.id = :id AND k.statusCode IS NULL")
+    int complete(@Param("id") String id,
+                 @Param("statusCode") int statusCode,
+                 @Param("contentType") String contentType,
+                 @Param("location") String location,
+                 @Param("body") String body,
+                 @Param("expiresAt") OffsetDateTime expiresAt);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM IdempotencyKey k WHERE k.id = :id AND k.statusCode IS NULL")
+    int deletePending(@Param("id") String id);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM IdempotencyKey k WHERE k.expiresAt <= :now")
+    int deleteExpired(@Param("now") OffsetDateTime now);
+}
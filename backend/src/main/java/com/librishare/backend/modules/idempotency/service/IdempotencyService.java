@@ -0,0 +1,23 @@
+package com.librishare.backend.modules.idempotency.service;
+
+import com.librishare.backend.modules.idempotency.dto.IdempotencyClaim;
+
+/**
+ * Reserva e conclusão das chaves de idempotência. O {@code id} já identifica a
+ * chave, quem a enviou e a rota; {@code requestHash} identifica o corpo.
+ */
+public interface IdempotencyService {
+
+    /**
+     * Reserva a chave para a requisição atual ou informa o que já existe para ela.
+     * Depois de {@link IdempotencyClaim.Outcome#ACQUIRED}, a requisição deve
+     * terminar com {@link #complete} ou {@link #release}.
+     */
+    IdempotencyClaim claim(String id, String requestHash);
+
+    /** Guarda a resposta para as repetições até o fim do TTL. */
+    void complete(String id, int status, String contentType, String location, String body);
+
+    /** Desfaz a reserva sem guardar resposta; uma nova tentativa executa de novo. */
+    void release(String id);
+}
@@ -0,0 +1,102 @@
+package com.librishare.backend.modules.idempotency.service.impl;
+
+import com.librishare.backend.config.cache.TwoTierCache;
+import com.librishare.backend.modules.idempotency.dto.IdempotencyClaim;
+import com.librishare.backend.modules.idempotency.dto.IdempotencyClaim.Outcome;
+import com.librishare.backend.modules.idempotency.dto.IdempotentResponse;
+import com.librishare.backend.modules.idempotency.entity.IdempotencyKey;
+import com.librishare.backend.modules.idempotency.repository.IdempotencyKeyRepository;
+import com.librishare.backend.modules.idempotency.service.IdempotencyService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+
+/**
+ * Chaves de idempotência na tabela {@code idempotency_keys}, com as respostas
+ * concluídas também em {@code idempotencyCache}: uma repetição encontrada no
+ * cache não consulta o banco.
+ *
+ * <p>A reserva é um INSERT que depende da chave primária, então requisições
+ * simultâneas com a mesma chave não executam duas vezes. Ela vale por
+ * {@code lease-seconds}; se a instância cair antes de concluir, a chave volta a
+ * ficar disponível. Respostas concluídas valem por {@code ttl-hours}.</p>
+ */
+@Slf4j
+@Service
+public class IdempotencyServiceImpl implements IdempotencyService {
+
+    private final IdempotencyKeyRepository repository;
+    private final TwoTierCache<String, IdempotentResponse> responses;
+    private final Duration ttl;
+    private final Duration lease;
+
+    public IdempotencyServiceImpl(IdempotencyKeyRepository repository,
+                                  TwoTierCache<String, IdempotentResponse> idempotencyCache,
+                                  @Value("${librishare.idempotency.ttl-hours:24}") long ttlHours,
+                                  @Value("${librishare.idempotency.lease-seconds:60}") long leaseSeconds) {
+        this.repository = repository;
+        this.responses = idempotencyCache;
+        this.ttl = Duration.ofHours(ttlHours);
+        this.lease = Duration.ofSeconds(leaseSeconds);
+    }
+
+    @Override
+    public IdempotencyClaim claim(String id, String requestHash) {
+        OffsetDateTime now = OffsetDateTime.now();
+        // Só olha o cache: o loader nulo não guarda nada
+        IdempotentResponse cached = responses.get(id, () -> null);
+        if (cached != null && cached.expiresAt().isAfter(now)) {
+            return replay(cached, requestHash);
+        }
+
+        OffsetDateTime leaseUntil = now.plus(lease);
+        if (repository.insertPending(id, requestHash, leaseUntil) == 1
+                || repository.takeOverExpired(id, requestHash, now, leaseUntil) == 1) {
+            return IdempotencyClaim.of(Outcome.ACQUIRED);
+        }
+
+        IdempotencyKey current = repository.findById(id).orElse(null);
+        if (current == null) {
+            // Liberada entre o INSERT e a leitura; o cliente tenta de novo
+            return IdempotencyClaim.of(Outcome.IN_PROGRESS);
+        }
+        if (!current.getRequestHash().equals(requestHash)) {
+            return IdempotencyClaim.of(Outcome.MISMATCH);
+        }
+        if (current.getStatusCode() == null) {
+            return IdempotencyClaim.of(Outcome.IN_PROGRESS);
+        }
+        return replay(responses.get(id, () -> IdempotentResponse.of(current)), requestHash);
+    }
+
+    private static IdempotencyClaim replay(IdempotentResponse response, String requestHash) {
+        if (!response.requestHash().equals(requestHash)) {
+            return IdempotencyClaim.of(Outcome.MISMATCH);
+        }
+        return new IdempotencyClaim(Outcome.REPLAY, response);
+    }
+
+    @Override
+    public void complete(String id, int status, String contentType, String location, String body) {
+        if (repository.complete(id, status, contentType, location, body, OffsetDateTime.now().plus(ttl)) == 0) {
+            log.warn("Reserva da chave de idempotência {} expirou antes da resposta; ela não será repetida", id);
+        }
+    }
+
+    @Override
+    public void release(String id) {
+        repository.deletePending(id);
+    }
+
+    @Scheduled(fixedDelayString = "${librishare.idempotency.cleanup-interval-ms:3600000}")
+    public void deleteExpired() {
+        int deleted = repository.deleteExpired(OffsetDateTime.now());
+        if (deleted > 0) {
+            log.debug("{} chaves de idempotência expiradas removidas", deleted);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.librishare.backend.modules.library.controller;
 
+import com.librishare.backend.modules.idempotency.filter.IdempotencyFilter;
 import com.librishare.backend.modules.library.dto.AddBookRequest;
 import com.librishare.backend.modules.library.dto.UserBookResponse;
 import com.librishare.backend.modules.library.dto.UserLibraryStatsDTO;
@@ -7,6 +8,7 @@ import com.librishare.backend.modules.library.enums.ReadingStatus;
 import com.librishare.backend.modules.library.service.LibraryService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.enums.ParameterIn;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.ExampleObject;
@@ -42,6 +44,7 @@ public class LibraryController {
             @ApiResponse(responseCode = "404", description = "Usuário ou Livro não encontrado", content = @Content),
             @ApiResponse(responseCode = "409", description = "Livro já existe na biblioteca deste usuário", content = @Content)
     })
+    @Parameter(in = ParameterIn.HEADER, name = IdempotencyFilter.HEADER, description = IdempotencyFilter.HEADER_DESCRIPTION)
     @PostMapping
     public ResponseEntity<UserBookResponse> addBookToLibrary(
             @Parameter(description = "ID do usuário", example = "1") @PathVariable Long userId,
@@ -0,0 +1,19 @@
+package com.librishare.backend.modules.library.dto;
+
+import com.librishare.backend.modules.library.enums.ReadingStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** Publicado no outbox quando um livro entra na biblioteca do usuário. */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class LibraryBookAddedEvent {
+    public static final String TYPE = "library.book-added";
+
+    private Long userId;
+    private Long bookId;
+    private String bookTitle;
+    private ReadingStatus status;
+}
@@ -3,8 +3,11 @@ package com.librishare.backend.modules.library.repository;
 import com.librishare.backend.modules.library.entity.UserBook;
 import com.librishare.backend.modules.library.enums.ReadingStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,6 +18,10 @@ public interface UserBookRepository extends JpaRepository<UserBook, Long> {
 
     Optional<UserBook> findByUserIdAndBookId(Long userId, Long bookId);
 
+    @Query("SELECT ub FROM UserBook ub JOIN FETCH ub.book b WHERE ub.user.id = :userId AND b.id IN :bookIds")
+    List<UserBook> findWithBookByUserIdAndBookIdIn(@Param("userId") Long userId,
+                                                   @Param("bookIds") Collection<Long> bookIds);
+
     Optional<UserBook> findByIdAndUserId(Long id, Long userId);
 
     long countByUserId(Long userId);
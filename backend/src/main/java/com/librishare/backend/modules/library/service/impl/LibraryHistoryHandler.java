@@ -0,0 +1,48 @@
+package com.librishare.backend.modules.library.service.impl;
+
+import com.librishare.backend.modules.history.dto.HistorySubject;
+import com.librishare.backend.modules.history.enums.HistoryEventType;
+import com.librishare.backend.modules.history.service.HistoryService;
+import com.librishare.backend.modules.library.dto.LibraryBookAddedEvent;
+import com.librishare.backend.modules.library.enums.ReadingStatus;
+import com.librishare.backend.modules.outbox.dto.OutboxMessage;
+import com.librishare.backend.modules.outbox.service.OutboxHandler;
+import com.librishare.backend.modules.user.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/** Registra no histórico os livros adicionados à biblioteca. */
+@Component
+@RequiredArgsConstructor
+public class LibraryHistoryHandler implements OutboxHandler {
+
+    private final HistoryService historyService;
+    private final UserRepository userRepository;
+
+    @Override
+    public String key() {
+        return "library-history";
+    }
+
+    @Override
+    public boolean handles(String eventType) {
+        return LibraryBookAddedEvent.TYPE.equals(eventType);
+    }
+
+    @Override
+    public void handle(OutboxMessage message) {
+        LibraryBookAddedEvent event = message.payload(LibraryBookAddedEvent.class);
+
+        HistoryEventType eventType = HistoryEventType.LIBRARY_ADDED;
+        if (event.getStatus() == ReadingStatus.WANT_TO_READ) {
+            eventType = HistoryEventType.WISHLIST_ADDED;
+        } else if (event.getStatus() == ReadingStatus.READING) {
+            eventType = HistoryEventType.READING_STARTED;
+        }
+
+        historyService.recordActions(userRepository.getReferenceById(event.getUserId()), eventType,
+                List.of(HistorySubject.ofBook(event.getBookId(), event.getBookTitle())), message.getOccurredAt());
+    }
+}
@@ -1,11 +1,14 @@
 package com.librishare.backend.modules.library.service.impl;
 
+import com.librishare.backend.config.cache.TwoTierCache;
+import com.librishare.backend.config.security.AuthenticatedUser;
 import com.librishare.backend.exception.DuplicateResourceException;
 import com.librishare.backend.exception.ResourceNotFoundException;
 import com.librishare.backend.modules.book.entity.Book;
 import com.librishare.backend.modules.book.repository.BookRepository;
-import com.librishare.backend.modules.history.service.HistoryService;
+import com.librishare.backend.modules.event.service.UserEventService;
 import com.librishare.backend.modules.library.dto.AddBookRequest;
+import com.librishare.backend.modules.library.dto.LibraryBookAddedEvent;
 import com.librishare.backend.modules.library.dto.UserBookResponse;
 import com.librishare.backend.modules.library.dto.UserLibraryStatsDTO;
 import com.librishare.backend.modules.library.entity.UserBook;
@@ -13,8 +16,12 @@ import com.librishare.backend.modules.library.enums.ReadingStatus;
 import com.librishare.backend.modules.library.repository.UserBookRepository;
 import com.librishare.backend.modules.library.service.LibraryService;
 import com.librishare.backend.modules.loan.repository.LoanRepository;
+import com.librishare.backend.modules.loan.service.LoanChangeTracker;
+import com.librishare.backend.modules.outbox.service.OutboxService;
 import com.librishare.backend.modules.user.entity.User;
 import com.librishare.backend.modules.user.repository.UserRepository;
+import com.librishare.backend.modules.user.service.UserProfileLookup;
+import jakarta.transaction.Transactional;
 import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -32,6 +39,9 @@ public class LibraryServiceImpl implements LibraryService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private UserProfileLookup userProfiles;
+
     @Autowired
     private BookRepository bookRepository;
 
@@ -42,12 +52,25 @@ public class LibraryServiceImpl implements LibraryService {
     private ModelMapper mapper;
 
     @Autowired
-    private HistoryService historyService;
+    private LoanChangeTracker loanChangeTracker;
+
+    @Autowired
+    private UserEventService userEvents;
+
+    @Autowired
+    private OutboxService outbox;
+
+    @Autowired
+    private TwoTierCache<Long, UserLibraryStatsDTO> libraryStatsCache;
 
     @Override
+    @Transactional
     public UserBookResponse addBookToLibrary(Long userId, AddBookRequest request) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("Usuário não encontrado com ID: " + userId));
+        // Autenticado pelo token, basta a referência para a chave estrangeira
+        User user = AuthenticatedUser.is(userId)
+                ? userRepository.getReferenceById(userId)
+                : userRepository.findById(userId)
+                        .orElseThrow(() -> new ResourceNotFoundException("Usuário não encontrado com ID: " + userId));
 
         Book book = bookRepository.findById(request.getBookId())
                 .orElseThrow(() -> new ResourceNotFoundException("Livro não encontrado com ID: " + request.getBookId()));
@@ -65,20 +88,10 @@ public class LibraryServiceImpl implements LibraryService {
 
         UserBook savedUserBook = userBookRepository.save(newUserBook);
 
-        String actionType = "BIBLIOTECA";
-        String description = "Adicionou '" + book.getTitle() + "' à estante.";
+        outbox.publish(LibraryBookAddedEvent.TYPE,
+                new LibraryBookAddedEvent(userId, book.getId(), book.getTitle(), request.getStatus()));
 
-        if (request.getStatus() == ReadingStatus.WANT_TO_READ) {
-            actionType = "LISTA DE DESEJOS";
-            description = "Adicionou '" + book.getTitle() + "' à lista de desejos.";
-        } else if (request.getStatus() == ReadingStatus.READING) {
-            actionType = "LEITURA";
-            description = "Começou a ler '" + book.getTitle() + "'.";
-        }
-
-        historyService.logAction(user, actionType, description);
-
-        return mapToResponse(savedUserBook);
+        return publishChange(userId, mapToResponse(savedUserBook));
     }
 
     @Override
@@ -87,11 +100,15 @@ public class LibraryServiceImpl implements LibraryService {
                 .orElseThrow(() -> new ResourceNotFoundException(
                         "Entrada da biblioteca não encontrada com ID: " + userBookId + " para este usuário."));
         userBookRepository.delete(userBook);
+        // Os empréstimos do livro são removidos em cascata
+        loanChangeTracker.markChanged(userId);
+        libraryStatsCache.evict(userId);
+        userEvents.publish(userId, UserEventService.LIBRARY_REMOVED, userBookId);
     }
 
     @Override
     public List<UserBookResponse> getUserLibrary(Long userId) {
-        if (!userRepository.existsById(userId)) {
+        if (!AuthenticatedUser.is(userId) && !userProfiles.exists(userId)) {
             throw new ResourceNotFoundException("Usuário não encontrado com ID: " + userId);
         }
 
@@ -116,7 +133,7 @@ public class LibraryServiceImpl implements LibraryService {
         }
 
         UserBook updatedUserBook = userBookRepository.save(userBook);
-        return mapToResponse(updatedUserBook);
+        return publishChange(userId, mapToResponse(updatedUserBook));
     }
 
     @Override
@@ -133,7 +150,7 @@ public class LibraryServiceImpl implements LibraryService {
         }
 
         UserBook updated = userBookRepository.save(userBook);
-        return mapToResponse(updated);
+        return publishChange(userId, mapToResponse(updated));
     }
 
     @Override
@@ -148,7 +165,7 @@ public class LibraryServiceImpl implements LibraryService {
 
         userBook.setRating(rating);
         UserBook updated = userBookRepository.save(userBook);
-        return mapToResponse(updated);
+        return publishChange(userId, mapToResponse(updated));
     }
 
     @Override
@@ -158,20 +175,28 @@ public class LibraryServiceImpl implements LibraryService {
 
         userBook.setReview(review);
         UserBook updated = userBookRepository.save(userBook);
-        return mapToResponse(updated);
+        return publishChange(userId, mapToResponse(updated));
     }
 
     @Override
     public UserLibraryStatsDTO getUserLibraryStats(Long userId) {
-        long read = userBookRepository.countByUserIdAndStatus(userId, ReadingStatus.READ);
-        long reading = userBookRepository.countByUserIdAndStatus(userId, ReadingStatus.READING);
-        long tbr = userBookRepository.countByUserIdAndStatus(userId, ReadingStatus.TO_READ);
-        long wishlist = userBookRepository.countByUserIdAndStatus(userId, ReadingStatus.WANT_TO_READ);
+        return libraryStatsCache.get(userId, () -> {
+            long read = userBookRepository.countByUserIdAndStatus(userId, ReadingStatus.READ);
+            long reading = userBookRepository.countByUserIdAndStatus(userId, ReadingStatus.READING);
+            long tbr = userBookRepository.countByUserIdAndStatus(userId, ReadingStatus.TO_READ);
+            long wishlist = userBookRepository.countByUserIdAndStatus(userId, ReadingStatus.WANT_TO_READ);
 
-        long totalOwned = read + reading + tbr;
-        long activeLoans = loanRepository.countByUserBook_User_IdAndStatus(userId, "ACTIVE");
+            long totalOwned = read + reading + tbr;
+            long activeLoans = loanRepository.countByUserBook_User_IdAndStatus(userId, "ACTIVE");
 
-        return new UserLibraryStatsDTO(totalOwned, read, reading, wishlist, activeLoans);
+            return new UserLibraryStatsDTO(totalOwned, read, reading, wishlist, activeLoans);
+        });
+    }
+
+    private UserBookResponse publishChange(Long userId, UserBookResponse response) {
+        libraryStatsCache.evict(userId);
+        userEvents.publish(userId, UserEventService.LIBRARY, response);
+        return response;
     }
 
     private UserBookResponse mapToResponse(UserBook userBook) {
@@ -1,22 +1,36 @@
 package com.librishare.backend.modules.loan.controller;
 
+import com.librishare.backend.modules.idempotency.filter.IdempotencyFilter;
+import com.librishare.backend.modules.loan.dto.BorrowerResponseDTO;
+import com.librishare.backend.modules.loan.dto.LoanAnalyticsDTO;
+import com.librishare.backend.modules.loan.dto.LoanBatchRequestDTO;
 import com.librishare.backend.modules.loan.dto.LoanRequestDTO;
 import com.librishare.backend.modules.loan.dto.LoanResponseDTO;
+import com.librishare.backend.modules.loan.dto.LoanReturnBatchRequestDTO;
+import com.librishare.backend.modules.loan.service.BorrowerService;
+import com.librishare.backend.modules.loan.service.LoanAnalyticsService;
+import com.librishare.backend.modules.loan.service.LoanChangeTracker;
 import com.librishare.backend.modules.loan.service.LoanService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.enums.ParameterIn;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.IOException;
 import java.util.List;
 
 @RestController
@@ -26,6 +40,9 @@ import java.util.List;
 public class LoanController {
 
     private final LoanService loanService;
+    private final LoanAnalyticsService loanAnalyticsService;
+    private final LoanChangeTracker loanChangeTracker;
+    private final BorrowerService borrowerService;
 
     @Operation(
             summary = "Registra um novo empréstimo",
@@ -39,6 +56,7 @@ public class LoanController {
             @ApiResponse(responseCode = "404", description = "Livro não encontrado na biblioteca do usuário",
                     content = @Content)
     })
+    @Parameter(in = ParameterIn.HEADER, name = IdempotencyFilter.HEADER, description = IdempotencyFilter.HEADER_DESCRIPTION)
     @PostMapping
     public ResponseEntity<LoanResponseDTO> createLoan(
             @Parameter(description = "ID do usuário que está emprestando o livro", example = "1")
@@ -48,6 +66,31 @@ public class LoanController {
         return ResponseEntity.status(HttpStatus.CREATED).body(newLoan);
     }
 
+    @Operation(
+            summary = "Registra vários empréstimos de uma vez",
+            description = "Cria em uma única requisição os empréstimos de vários livros da biblioteca do usuário. A operação é atômica: se algum livro for inválido, nenhum empréstimo é registrado."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Empréstimos registrados com sucesso",
+                    content = @Content(mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(implementation = LoanResponseDTO.class)))),
+            @ApiResponse(responseCode = "400", description = "Lote vazio, livro repetido ou livro que não pode ser emprestado",
+                    content = @Content),
+            @ApiResponse(responseCode = "404", description = "Algum livro não foi encontrado na biblioteca do usuário",
+                    content = @Content),
+            @ApiResponse(responseCode = "409", description = "Algum livro já está emprestado",
+                    content = @Content)
+    })
+    @Parameter(in = ParameterIn.HEADER, name = IdempotencyFilter.HEADER, description = IdempotencyFilter.HEADER_DESCRIPTION)
+    @PostMapping("/batch")
+    public ResponseEntity<List<LoanResponseDTO>> createLoans(
+            @Parameter(description = "ID do usuário que está emprestando os livros", example = "1")
+            @PathVariable Long userId,
+            @Valid @RequestBody LoanBatchRequestDTO batchRequestDTO) {
+        List<LoanResponseDTO> newLoans = loanService.createLoans(userId, batchRequestDTO.getLoans());
+        return ResponseEntity.status(HttpStatus.CREATED).body(newLoans);
+    }
+
     @Operation(
             summary = "Histórico de empréstimos do usuário",
             description = "Retorna uma lista com todos os empréstimos (ativos e finalizados) realizados pelo usuário."
@@ -74,7 +117,7 @@ public class LoanController {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Devolução registrada com sucesso",
                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = LoanResponseDTO.class))),
-            @ApiResponse(responseCode = "404", description = "Empréstimo não encontrado",
+            @ApiResponse(responseCode = "404", description = "Empréstimo não encontrado, não pertence ao usuário ou já foi devolvido",
                     content = @Content)
     })
     @PatchMapping("/{loanId}/return")
@@ -84,7 +127,116 @@ public class LoanController {
             @Parameter(description = "ID do empréstimo a ser finalizado", example = "50")
             @PathVariable Long loanId) {
 
-        LoanResponseDTO returnedLoan = loanService.returnLoan(loanId);
+        LoanResponseDTO returnedLoan = loanService.returnLoan(userId, loanId);
         return ResponseEntity.ok(returnedLoan);
     }
+
+    @Operation(
+            summary = "Registra a devolução de vários livros",
+            description = "Marca vários empréstimos ativos do usuário como 'devolvidos' (RETURNED) em uma única operação atômica."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Devoluções registradas com sucesso",
+                    content = @Content(mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(implementation = LoanResponseDTO.class)))),
+            @ApiResponse(responseCode = "400", description = "Lote vazio ou inválido",
+                    content = @Content),
+            @ApiResponse(responseCode = "404", description = "Algum empréstimo não foi encontrado, não pertence ao usuário ou já foi devolvido",
+                    content = @Content)
+    })
+    @PatchMapping("/batch/return")
+    public ResponseEntity<List<LoanResponseDTO>> returnLoans(
+            @Parameter(description = "ID do usuário (dono dos livros)", example = "1")
+            @PathVariable Long userId,
+            @Valid @RequestBody LoanReturnBatchRequestDTO returnBatchRequestDTO) {
+        List<LoanResponseDTO> returnedLoans = loanService.returnLoans(userId, returnBatchRequestDTO.getLoanIds());
+        return ResponseEntity.ok(returnedLoans);
+    }
+
+    @Operation(
+            summary = "Estatísticas de empréstimos",
+            description = "Retorna a duração média dos empréstimos, a taxa de devolução no prazo e as pessoas que mais pegam livros emprestados, calculadas a partir do consolidado mensal."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Estatísticas calculadas com sucesso",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = LoanAnalyticsDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Período inválido",
+                    content = @Content)
+    })
+    @GetMapping("/analytics")
+    public ResponseEntity<LoanAnalyticsDTO> getLoanAnalytics(
+            @Parameter(description = "ID do usuário (dono dos livros)", example = "1")
+            @PathVariable Long userId,
+            @Parameter(description = "Quantidade de meses considerados, incluindo o atual", example = "12")
+            @RequestParam(defaultValue = "12") int months) {
+        LoanAnalyticsDTO analytics = loanAnalyticsService.getAnalytics(userId, months);
+        return ResponseEntity.ok(analytics);
+    }
+
+    @Operation(
+            summary = "Calendário de devoluções (iCalendar)",
+            description = "Feed .ics com as datas de devolução dos empréstimos ativos, para assinatura em aplicativos de calendário. Usa ETag: se o calendário não mudou desde a última consulta (If-None-Match), responde 304 sem acessar o banco."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Calendário gerado com sucesso",
+                    content = @Content(mediaType = "text/calendar")),
+            @ApiResponse(responseCode = "304", description = "Calendário não foi alterado desde a última consulta",
+                    content = @Content)
+    })
+    @GetMapping(value = "/calendar.ics", produces = "text/calendar")
+    public void getLoanCalendar(
+            @Parameter(description = "ID do usuário (dono dos livros)", example = "1")
+            @PathVariable Long userId,
+            WebRequest request,
+            HttpServletResponse response) throws IOException {
+        String etag = loanChangeTracker.etag(userId);
+        if (request.checkNotModified(etag)) {
+            return;
+        }
+
+        response.setContentType("text/calendar;charset=UTF-8");
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().getHeaderValue());
+        loanService.writeDueDateCalendar(userId, response.getWriter());
+    }
+
+    @Operation(
+            summary = "Sugere pessoas para empréstimo (autocomplete)",
+            description = "Busca, pelo início do nome (sem diferenciar acentos e maiúsculas) ou do email, as pessoas para quem o usuário já emprestou livros. Retorna no máximo 10 sugestões."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Sugestões encontradas",
+                    content = @Content(mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(implementation = BorrowerResponseDTO.class))))
+    })
+    @GetMapping("/borrowers")
+    public ResponseEntity<List<BorrowerResponseDTO>> searchBorrowers(
+            @Parameter(description = "ID do usuário (dono dos livros)", example = "1")
+            @PathVariable Long userId,
+            @Parameter(description = "Início do nome ou do email", example = "jo")
+            @RequestParam(required = false) String query) {
+        List<BorrowerResponseDTO> borrowers = borrowerService.searchBorrowers(userId, query);
+        return ResponseEntity.ok(borrowers);
+    }
+
+    @Operation(
+            summary = "Lista os empréstimos feitos a uma pessoa",
+            description = "Retorna todos os empréstimos (ativos e devolvidos) do usuário para a pessoa informada, do mais recente para o mais antigo."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Empréstimos encontrados",
+                    content = @Content(mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(implementation = LoanResponseDTO.class)))),
+            @ApiResponse(responseCode = "404", description = "Pessoa não encontrada para este usuário",
+                    content = @Content)
+    })
+    @GetMapping("/borrowers/{borrowerId}")
+    public ResponseEntity<List<LoanResponseDTO>> getLoansByBorrower(
+            @Parameter(description = "ID do usuário (dono dos livros)", example = "1")
+            @PathVariable Long userId,
+            @Parameter(description = "ID da pessoa", example = "3")
+            @PathVariable Long borrowerId) {
+        List<LoanResponseDTO> loans = loanService.getLoansByBorrower(userId, borrowerId);
+        return ResponseEntity.ok(loans);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,14 @@
+package com.librishare.backend.modules.loan.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BorrowerResponseDTO {
+    private Long id;
+    private String name;
+    private String email;
+}
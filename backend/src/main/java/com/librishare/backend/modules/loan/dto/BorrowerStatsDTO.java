@@ -0,0 +1,22 @@
+package com.librishare.backend.modules.loan.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+public class BorrowerStatsDTO {
+    private String borrowerName;
+    private String borrowerEmail;
+    private long totalLoans;
+    private long totalReturns;
+    private double onTimeReturnRate;
+
+    public BorrowerStatsDTO(String borrowerName, String borrowerEmail, Long totalLoans, Long totalReturns, Long onTimeReturns) {
+        this.borrowerName = borrowerName;
+        this.borrowerEmail = borrowerEmail;
+        this.totalLoans = totalLoans;
+        this.totalReturns = totalReturns;
+        this.onTimeReturnRate = totalReturns > 0 ? (double) onTimeReturns / totalReturns : 0.0;
+    }
+}
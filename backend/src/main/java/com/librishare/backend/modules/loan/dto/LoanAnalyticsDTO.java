@@ -0,0 +1,27 @@
+package com.librishare.backend.modules.loan.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class LoanAnalyticsDTO {
+    private LocalDate since;
+    private long totalLoans;
+    private long totalReturns;
+    private double averageLoanDurationDays;
+    private double onTimeReturnRate;
+    private List<BorrowerStatsDTO> topBorrowers;
+
+    public LoanAnalyticsDTO(Long totalLoans, Long totalReturns, Long onTimeReturns, Long totalLoanDays) {
+        this.totalLoans = totalLoans;
+        this.totalReturns = totalReturns;
+        this.averageLoanDurationDays = totalReturns > 0 ? (double) totalLoanDays / totalReturns : 0.0;
+        this.onTimeReturnRate = totalReturns > 0 ? (double) onTimeReturns / totalReturns : 0.0;
+    }
+}
@@ -0,0 +1,21 @@
+package com.librishare.backend.modules.loan.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class LoanBatchRequestDTO {
+
+    @Valid
+    @NotEmpty(message = "Informe ao menos um empréstimo")
+    @Size(max = 100, message = "Um lote pode ter no máximo 100 empréstimos")
+    private List<LoanRequestDTO> loans;
+}
@@ -0,0 +1,19 @@
+package com.librishare.backend.modules.loan.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/** Publicado no outbox quando empréstimos são criados ou devolvidos, um evento por operação. */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class LoanEvent {
+    public static final String CREATED = "loan.created";
+    public static final String RETURNED = "loan.returned";
+
+    private Long userId;
+    private List<LoanResponseDTO> loans;
+}
@@ -0,0 +1,20 @@
+package com.librishare.backend.modules.loan.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class LoanReturnBatchRequestDTO {
+
+    @NotEmpty(message = "Informe ao menos um empréstimo para devolução")
+    @Size(max = 100, message = "Um lote pode ter no máximo 100 devoluções")
+    private List<@NotNull Long> loanIds;
+}
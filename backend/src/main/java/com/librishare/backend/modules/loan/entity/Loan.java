@@ -21,6 +21,10 @@ public class Loan {
     @JoinColumn(name = "user_book_id", nullable = false)
     private UserBook userBook;
 
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "borrower_id")
+    private Borrower borrower;
+
     @Column(name = "borrower_name", nullable = false)
     private String borrowerName;
 
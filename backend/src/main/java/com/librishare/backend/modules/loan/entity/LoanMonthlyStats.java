@@ -0,0 +1,39 @@
+package com.librishare.backend.modules.loan.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Consolidado mensal dos empréstimos de um usuário para uma mesma pessoa.
+ * Mantido incrementalmente a cada empréstimo e devolução, para que as
+ * estatísticas não precisem varrer a tabela de empréstimos.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Entity
+@Builder
+@Table(name = "loan_monthly_stats")
+public class LoanMonthlyStats {
+    @EmbeddedId
+    private LoanMonthlyStatsId id;
+
+    @Column(name = "borrower_name", nullable = false)
+    private String borrowerName;
+
+    @Column(name = "borrower_email")
+    private String borrowerEmail;
+
+    @Column(name = "loans_count", nullable = false)
+    private Integer loansCount;
+
+    @Column(name = "returns_count", nullable = false)
+    private Integer returnsCount;
+
+    @Column(name = "on_time_returns", nullable = false)
+    private Integer onTimeReturns;
+
+    @Column(name = "total_loan_days", nullable = false)
+    private Long totalLoanDays;
+}
@@ -0,0 +1,26 @@
+package com.librishare.backend.modules.loan.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+@Embeddable
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoanMonthlyStatsId implements Serializable {
+
+    @Column(name = "owner_user_id", nullable = false)
+    private Long ownerUserId;
+
+    @Column(name = "borrower_key", nullable = false)
+    private String borrowerKey;
+
+    @Column(name = "stats_month", nullable = false)
+    private LocalDate statsMonth;
+}
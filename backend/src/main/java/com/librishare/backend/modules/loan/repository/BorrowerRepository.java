@@ -0,0 +1,36 @@
+package com.librishare.backend.modules.loan.repository;
+
+import com.librishare.backend.modules.loan.dto.BorrowerResponseDTO;
+import com.librishare.backend.modules.loan.entity.Borrower;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface BorrowerRepository extends JpaRepository<Borrower, Long> {
+
+    // Cria a pessoa se ainda não existir; em concorrência, a outra transação vence e a linha é reaproveitada
+    @Modifying
+    @Query(value = "INSERT INTO borrowers (owner_user_id, borrower_key, name, email) " +
+            "VALUES (:ownerUserId, :borrowerKey, :name, :email) ON CONFLICT DO NOTHING",
+            nativeQuery = true)
+    int insertIfAbsent(@Param("ownerUserId") Long ownerUserId,
+                       @Param("borrowerKey") String borrowerKey,
+                       @Param("name") String name,
+                       @Param("email") String email);
+
+    @Query("SELECT b FROM Borrower b WHERE b.owner.id = :ownerUserId AND b.borrowerKey = :borrowerKey")
+    Optional<Borrower> findByOwnerAndKey(@Param("ownerUserId") Long ownerUserId,
+                                         @Param("borrowerKey") String borrowerKey);
+
+    @Query("SELECT new com.librishare.backend.modules.loan.dto.BorrowerResponseDTO(b.id, b.name, b.email) " +
+            "FROM Borrower b WHERE b.owner.id = :ownerUserId ORDER BY b.name, b.id")
+    List<BorrowerResponseDTO> findResponsesByOwnerId(@Param("ownerUserId") Long ownerUserId);
+
+    boolean existsByIdAndOwnerId(Long id, Long ownerId);
+}
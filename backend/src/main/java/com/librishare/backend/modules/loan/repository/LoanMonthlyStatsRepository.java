@@ -0,0 +1,57 @@
+package com.librishare.backend.modules.loan.repository;
+
+import com.librishare.backend.modules.loan.dto.BorrowerStatsDTO;
+import com.librishare.backend.modules.loan.dto.LoanAnalyticsDTO;
+import com.librishare.backend.modules.loan.entity.LoanMonthlyStats;
+import com.librishare.backend.modules.loan.entity.LoanMonthlyStatsId;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface LoanMonthlyStatsRepository extends JpaRepository<LoanMonthlyStats, LoanMonthlyStatsId> {
+
+    // Garante a linha do mês sem falhar em concorrência; os contadores são incrementados em seguida
+    @Modifying
+    @Query(value = "INSERT INTO loan_monthly_stats (owner_user_id, borrower_key, stats_month, borrower_name, borrower_email) " +
+            "VALUES (:ownerUserId, :borrowerKey, :statsMonth, :borrowerName, :borrowerEmail) ON CONFLICT DO NOTHING",
+            nativeQuery = true)
+    int insertIfAbsent(@Param("ownerUserId") Long ownerUserId,
+                       @Param("borrowerKey") String borrowerKey,
+                       @Param("statsMonth") LocalDate statsMonth,
+                       @Param("borrowerName") String borrowerName,
+                       @Param("borrowerEmail") String borrowerEmail);
+
+    @Modifying
+    @Query("UPDATE LoanMonthlyStats s SET s.loansCount = s.loansCount + 1, s.borrowerName = :borrowerName " +
+            "WHERE s.id = :id")
+    int incrementLoans(@Param("id") LoanMonthlyStatsId id, @Param("borrowerName") String borrowerName);
+
+    @Modifying
+    @Query("UPDATE LoanMonthlyStats s SET s.returnsCount = s.returnsCount + 1, " +
+            "s.onTimeReturns = s.onTimeReturns + :onTime, s.totalLoanDays = s.totalLoanDays + :loanDays " +
+            "WHERE s.id = :id")
+    int incrementReturns(@Param("id") LoanMonthlyStatsId id,
+                         @Param("onTime") int onTime,
+                         @Param("loanDays") long loanDays);
+
+    @Query("SELECT new com.librishare.backend.modules.loan.dto.LoanAnalyticsDTO(" +
+            "COALESCE(SUM(s.loansCount), 0L), COALESCE(SUM(s.returnsCount), 0L), " +
+            "COALESCE(SUM(s.onTimeReturns), 0L), COALESCE(SUM(s.totalLoanDays), 0L)) " +
+            "FROM LoanMonthlyStats s WHERE s.id.ownerUserId = :ownerUserId AND s.id.statsMonth >= :since")
+    LoanAnalyticsDTO summarize(@Param("ownerUserId") Long ownerUserId, @Param("since") LocalDate since);
+
+    @Query("SELECT new com.librishare.backend.modules.loan.dto.BorrowerStatsDTO(" +
+            "MAX(s.borrowerName), MAX(s.borrowerEmail), SUM(s.loansCount), SUM(s.returnsCount), SUM(s.onTimeReturns)) " +
+            "FROM LoanMonthlyStats s WHERE s.id.ownerUserId = :ownerUserId AND s.id.statsMonth >= :since " +
+            "GROUP BY s.id.borrowerKey ORDER BY SUM(s.loansCount) DESC, MAX(s.borrowerName)")
+    List<BorrowerStatsDTO> findTopBorrowers(@Param("ownerUserId") Long ownerUserId,
+                                            @Param("since") LocalDate since,
+                                            Pageable pageable);
+}
@@ -1,11 +1,17 @@
 package com.librishare.backend.modules.loan.repository;
 
+import com.librishare.backend.modules.loan.dto.LoanResponseDTO;
 import com.librishare.backend.modules.loan.entity.Loan;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface LoanRepository extends JpaRepository<Loan, Long> {
@@ -16,4 +22,43 @@ public interface LoanRepository extends JpaRepository<Loan, Long> {
     long countByUserBook_User_IdAndStatus(Long userId, String status);
 
     boolean existsByUserBookIdAndStatus(Long userBookId, String status);
+
+    @Query("SELECT l.userBook.id FROM Loan l WHERE l.userBook.id IN :userBookIds AND l.status = :status")
+    List<Long> findUserBookIdsByStatus(@Param("userBookIds") Collection<Long> userBookIds,
+                                       @Param("status") String status);
+
+    @Modifying
+    @Query("UPDATE Loan l SET l.status = 'RETURNED', l.returnDate = :returnDate " +
+            "WHERE l.id IN :loanIds AND l.status = 'ACTIVE' " +
+            "AND l.userBook.id IN (SELECT ub.id FROM UserBook ub WHERE ub.user.id = :userId)")
+    int markReturned(@Param("userId") Long userId,
+                     @Param("loanIds") Collection<Long> loanIds,
+                     @Param("returnDate") LocalDate returnDate);
+
+    @Query("SELECT new com.librishare.backend.modules.loan.dto.LoanResponseDTO(" +
+            "l.id, b.id, b.title, b.author, b.coverImageUrl, l.borrowerName, l.borrowerEmail, " +
+            "l.loanDate, l.dueDate, l.returnDate, l.status, l.notes) " +
+            "FROM Loan l JOIN l.userBook ub JOIN ub.book b WHERE l.id IN :loanIds")
+    List<LoanResponseDTO> findResponsesByIdIn(@Param("loanIds") Collection<Long> loanIds);
+
+    @Query("SELECT new com.librishare.backend.modules.loan.dto.LoanResponseDTO(" +
+            "l.id, b.id, b.title, b.author, b.coverImageUrl, l.borrowerName, l.borrowerEmail, " +
+            "l.loanDate, l.dueDate, l.returnDate, l.status, l.notes) " +
+            "FROM Loan l JOIN l.userBook ub JOIN ub.book b WHERE l.id = :loanId")
+    Optional<LoanResponseDTO> findResponseById(@Param("loanId") Long loanId);
+
+    @Query("SELECT new com.librishare.backend.modules.loan.dto.LoanResponseDTO(" +
+            "l.id, b.id, b.title, b.author, b.coverImageUrl, l.borrowerName, l.borrowerEmail, " +
+            "l.loanDate, l.dueDate, l.returnDate, l.status, l.notes) " +
+            "FROM Loan l JOIN l.userBook ub JOIN ub.book b " +
+            "WHERE ub.user.id = :userId AND l.status = 'ACTIVE' ORDER BY l.dueDate, l.id")
+    List<LoanResponseDTO> findActiveResponsesByUserId(@Param("userId") Long userId);
+
+    @Query("SELECT new com.librishare.backend.modules.loan.dto.LoanResponseDTO(" +
+            "l.id, b.id, b.title, b.author, b.coverImageUrl, l.borrowerName, l.borrowerEmail, " +
+            "l.loanDate, l.dueDate, l.returnDate, l.status, l.notes) " +
+            "FROM Loan l JOIN l.userBook ub JOIN ub.book b " +
+            "WHERE ub.user.id = :userId AND l.borrower.id = :borrowerId ORDER BY l.loanDate DESC, l.id DESC")
+    List<LoanResponseDTO> findResponsesByUserIdAndBorrowerId(@Param("userId") Long userId,
+                                                             @Param("borrowerId") Long borrowerId);
 }
\ No newline at end of file
@@ -0,0 +1,11 @@
+package com.librishare.backend.modules.loan.service;
+
+import com.librishare.backend.modules.loan.dto.BorrowerResponseDTO;
+import com.librishare.backend.modules.loan.entity.Borrower;
+
+import java.util.List;
+
+public interface BorrowerService {
+    Borrower resolveBorrower(Long ownerUserId, String name, String email);
+    List<BorrowerResponseDTO> searchBorrowers(Long ownerUserId, String query);
+}
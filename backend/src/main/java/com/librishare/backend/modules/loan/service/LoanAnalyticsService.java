@@ -0,0 +1,10 @@
+package com.librishare.backend.modules.loan.service;
+
+import com.librishare.backend.modules.loan.dto.LoanAnalyticsDTO;
+import com.librishare.backend.modules.loan.dto.LoanResponseDTO;
+
+public interface LoanAnalyticsService {
+    void recordLoan(Long ownerUserId, LoanResponseDTO loan);
+    void recordReturn(Long ownerUserId, LoanResponseDTO loan);
+    LoanAnalyticsDTO getAnalytics(Long ownerUserId, int months);
+}
@@ -0,0 +1,79 @@
+package com.librishare.backend.modules.loan.service;
+
+import com.librishare.backend.modules.cache.service.CacheInvalidationBus;
+import com.librishare.backend.modules.cache.service.InvalidationListener;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Contador de alterações de empréstimos por usuário, usado para gerar ETags
+ * sem consultar o banco. O epoch muda a cada inicialização, invalidando as
+ * ETags emitidas antes de um restart.
+ *
+ * <p>Cada instância tem seu próprio contador; alterações feitas nas outras
+ * chegam pelo barramento de invalidação e também avançam o contador local. Se
+ * avisos podem ter se perdido, o epoch é trocado.</p>
+ */
+@Component
+@RequiredArgsConstructor
+public class LoanChangeTracker implements InvalidationListener {
+
+    private final CacheInvalidationBus invalidationBus;
+
+    private volatile String epoch = newEpoch();
+    private final Map<Long, AtomicLong> versions = new ConcurrentHashMap<>();
+
+    public String etag(Long userId) {
+        AtomicLong version = versions.get(userId);
+        return "\"" + epoch + "-" + (version != null ? version.get() : 0L) + "\"";
+    }
+
+    /**
+     * Registra uma alteração nos empréstimos do usuário. Dentro de uma transação,
+     * o contador só avança após o commit, para que nenhuma ETag nova seja
+     * associada a dados ainda não visíveis.
+     */
+    public void markChanged(Long userId) {
+        invalidationBus.broadcast(CacheInvalidationBus.LOANS, userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    increment(userId);
+                }
+            });
+        } else {
+            increment(userId);
+        }
+    }
+
+    @Override
+    public boolean listensTo(String region) {
+        return CacheInvalidationBus.LOANS.equals(region);
+    }
+
+    @Override
+    public void evict(String region, String key) {
+        increment(Long.valueOf(key));
+    }
+
+    @Override
+    public void evictAll() {
+        epoch = newEpoch();
+    }
+
+    private static String newEpoch() {
+        return Long.toString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE, 36);
+    }
+
+    private void increment(Long userId) {
+        versions.computeIfAbsent(userId, id -> new AtomicLong()).incrementAndGet();
+    }
+}
@@ -3,10 +3,16 @@ package com.librishare.backend.modules.loan.service;
 import com.librishare.backend.modules.loan.dto.LoanRequestDTO;
 import com.librishare.backend.modules.loan.dto.LoanResponseDTO;
 
+import java.io.IOException;
+import java.io.Writer;
 import java.util.List;
 
 public interface LoanService {
     LoanResponseDTO createLoan(Long userId, LoanRequestDTO loanRequestDTO);
+    List<LoanResponseDTO> createLoans(Long userId, List<LoanRequestDTO> loanRequests);
     List<LoanResponseDTO> getLoansByUserId(Long userId);
-    LoanResponseDTO returnLoan(Long loanId);
-}
\ No newline at end of file
+    List<LoanResponseDTO> getLoansByBorrower(Long userId, Long borrowerId);
+    LoanResponseDTO returnLoan(Long userId, Long loanId);
+    List<LoanResponseDTO> returnLoans(Long userId, List<Long> loanIds);
+    void writeDueDateCalendar(Long userId, Writer writer) throws IOException;
+}
@@ -0,0 +1,148 @@
+package com.librishare.backend.modules.loan.service.impl;
+
+import com.librishare.backend.modules.loan.dto.BorrowerResponseDTO;
+import com.librishare.backend.modules.loan.entity.Borrower;
+import com.librishare.backend.modules.loan.repository.BorrowerRepository;
+import com.librishare.backend.modules.loan.service.BorrowerService;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+@Service
+@RequiredArgsConstructor
+public class BorrowerServiceImpl implements BorrowerService {
+
+    private static final int MAX_CACHED_USERS = 500;
+    private static final long CACHE_TTL_MILLIS = 5 * 60 * 1000L;
+    private static final int MAX_SUGGESTIONS = 10;
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+
+    private final BorrowerRepository borrowerRepository;
+
+    // Lista de pessoas por usuário, em ordem de acesso (LRU)
+    private final Map<Long, CachedBorrowers> cache = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, CachedBorrowers> eldest) {
+            return size() > MAX_CACHED_USERS;
+        }
+    };
+
+    @Override
+    @Transactional
+    public Borrower resolveBorrower(Long ownerUserId, String name, String email) {
+        String displayName = name.trim();
+        String normalizedEmail = normalizeEmail(email);
+        String key = borrowerKey(displayName, normalizedEmail);
+
+        boolean created = borrowerRepository.insertIfAbsent(ownerUserId, key, displayName, normalizedEmail) > 0;
+
+        Borrower borrower = borrowerRepository.findByOwnerAndKey(ownerUserId, key)
+                .orElseThrow(() -> new IllegalStateException("Pessoa não encontrada após o cadastro: " + key));
+
+        boolean renamed = !created && !borrower.getName().equals(displayName);
+        if (renamed) {
+            borrower.setName(displayName);
+        }
+        if (created || renamed) {
+            evictAfterCommit(ownerUserId);
+        }
+        return borrower;
+    }
+
+    @Override
+    public List<BorrowerResponseDTO> searchBorrowers(Long ownerUserId, String query) {
+        String term = query != null ? searchable(query.trim()) : "";
+
+        List<BorrowerResponseDTO> suggestions = new ArrayList<>();
+        for (CachedBorrower candidate : cachedBorrowers(ownerUserId)) {
+            if (candidate.matches(term)) {
+                suggestions.add(candidate.borrower());
+                if (suggestions.size() == MAX_SUGGESTIONS) {
+                    break;
+                }
+            }
+        }
+        return suggestions;
+    }
+
+    private List<CachedBorrower> cachedBorrowers(Long ownerUserId) {
+        long now = System.currentTimeMillis();
+        synchronized (cache) {
+            CachedBorrowers cached = cache.get(ownerUserId);
+            if (cached != null && now - cached.loadedAt() < CACHE_TTL_MILLIS) {
+                return cached.borrowers();
+            }
+        }
+
+        List<CachedBorrower> borrowers = borrowerRepository.findResponsesByOwnerId(ownerUserId).stream()
+                .map(dto -> new CachedBorrower(dto, searchable(dto.getName()), dto.getEmail()))
+                .toList();
+
+        synchronized (cache) {
+            cache.put(ownerUserId, new CachedBorrowers(borrowers, now));
+        }
+        return borrowers;
+    }
+
+    private void evictAfterCommit(Long ownerUserId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(ownerUserId);
+                }
+            });
+        } else {
+            evict(ownerUserId);
+        }
+    }
+
+    private void evict(Long ownerUserId) {
+        synchronized (cache) {
+            cache.remove(ownerUserId);
+        }
+    }
+
+    static String normalizeEmail(String email) {
+        if (email == null || email.isBlank()) {
+            return null;
+        }
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    static String borrowerKey(String borrowerName, String normalizedEmail) {
+        if (normalizedEmail != null) {
+            return normalizedEmail;
+        }
+        return "name:" + borrowerName.trim().toLowerCase(Locale.ROOT);
+    }
+
+    // Minúsculo e sem acentos, para que "joao" encontre "João"
+    private static String searchable(String text) {
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        return DIACRITICS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    private record CachedBorrowers(List<CachedBorrower> borrowers, long loadedAt) {
+    }
+
+    private record CachedBorrower(BorrowerResponseDTO borrower, String searchableName, String email) {
+
+        boolean matches(String term) {
+            if (term.isEmpty() || searchableName.startsWith(term) || searchableName.contains(" " + term)) {
+                return true;
+            }
+            return email != null && email.startsWith(term);
+        }
+    }
+}
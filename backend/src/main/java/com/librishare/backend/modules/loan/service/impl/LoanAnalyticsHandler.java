@@ -0,0 +1,40 @@
+package com.librishare.backend.modules.loan.service.impl;
+
+import com.librishare.backend.modules.loan.dto.LoanEvent;
+import com.librishare.backend.modules.loan.dto.LoanResponseDTO;
+import com.librishare.backend.modules.loan.service.LoanAnalyticsService;
+import com.librishare.backend.modules.outbox.dto.OutboxMessage;
+import com.librishare.backend.modules.outbox.service.OutboxHandler;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/** Atualiza os contadores mensais de empréstimos usados nas estatísticas. */
+@Component
+@RequiredArgsConstructor
+public class LoanAnalyticsHandler implements OutboxHandler {
+
+    private final LoanAnalyticsService analyticsService;
+
+    @Override
+    public String key() {
+        return "loan-analytics";
+    }
+
+    @Override
+    public boolean handles(String eventType) {
+        return LoanEvent.CREATED.equals(eventType) || LoanEvent.RETURNED.equals(eventType);
+    }
+
+    @Override
+    public void handle(OutboxMessage message) {
+        LoanEvent event = message.payload(LoanEvent.class);
+        boolean created = LoanEvent.CREATED.equals(message.getEventType());
+        for (LoanResponseDTO loan : event.getLoans()) {
+            if (created) {
+                analyticsService.recordLoan(event.getUserId(), loan);
+            } else {
+                analyticsService.recordReturn(event.getUserId(), loan);
+            }
+        }
+    }
+}
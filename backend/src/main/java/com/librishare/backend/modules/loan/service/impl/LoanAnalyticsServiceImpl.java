@@ -0,0 +1,64 @@
+package com.librishare.backend.modules.loan.service.impl;
+
+import com.librishare.backend.modules.loan.dto.LoanAnalyticsDTO;
+import com.librishare.backend.modules.loan.dto.LoanResponseDTO;
+import com.librishare.backend.modules.loan.entity.LoanMonthlyStatsId;
+import com.librishare.backend.modules.loan.repository.LoanMonthlyStatsRepository;
+import com.librishare.backend.modules.loan.service.LoanAnalyticsService;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+
+@Service
+@RequiredArgsConstructor
+public class LoanAnalyticsServiceImpl implements LoanAnalyticsService {
+
+    private static final int MAX_MONTHS = 120;
+    private static final int TOP_BORROWERS = 5;
+
+    private final LoanMonthlyStatsRepository statsRepository;
+
+    @Override
+    @Transactional
+    public void recordLoan(Long ownerUserId, LoanResponseDTO loan) {
+        LoanMonthlyStatsId id = ensureRow(ownerUserId, loan, loan.getLoanDate());
+        statsRepository.incrementLoans(id, loan.getBorrowerName());
+    }
+
+    @Override
+    @Transactional
+    public void recordReturn(Long ownerUserId, LoanResponseDTO loan) {
+        LoanMonthlyStatsId id = ensureRow(ownerUserId, loan, loan.getReturnDate());
+        int onTime = !loan.getReturnDate().isAfter(loan.getDueDate()) ? 1 : 0;
+        long loanDays = ChronoUnit.DAYS.between(loan.getLoanDate(), loan.getReturnDate());
+        statsRepository.incrementReturns(id, onTime, loanDays);
+    }
+
+    @Override
+    public LoanAnalyticsDTO getAnalytics(Long ownerUserId, int months) {
+        if (months < 1 || months > MAX_MONTHS) {
+            throw new IllegalArgumentException("O período deve ser entre 1 e " + MAX_MONTHS + " meses.");
+        }
+
+        LocalDate since = LocalDate.now().withDayOfMonth(1).minusMonths(months - 1L);
+
+        LoanAnalyticsDTO analytics = statsRepository.summarize(ownerUserId, since);
+        analytics.setSince(since);
+        analytics.setTopBorrowers(statsRepository.findTopBorrowers(ownerUserId, since, PageRequest.of(0, TOP_BORROWERS)));
+        return analytics;
+    }
+
+    private LoanMonthlyStatsId ensureRow(Long ownerUserId, LoanResponseDTO loan, LocalDate eventDate) {
+        String email = BorrowerServiceImpl.normalizeEmail(loan.getBorrowerEmail());
+        LoanMonthlyStatsId id = new LoanMonthlyStatsId(
+                ownerUserId, BorrowerServiceImpl.borrowerKey(loan.getBorrowerName(), email), eventDate.withDayOfMonth(1));
+
+        statsRepository.insertIfAbsent(id.getOwnerUserId(), id.getBorrowerKey(), id.getStatsMonth(),
+                loan.getBorrowerName(), email);
+        return id;
+    }
+}
@@ -0,0 +1,76 @@
+package com.librishare.backend.modules.loan.service.impl;
+
+import com.librishare.backend.modules.loan.entity.Loan;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Component;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Insere os empréstimos de um lote com um único batch JDBC. O id de {@link Loan}
+ * vem de uma coluna IDENTITY, e com ela o Hibernate grava cada entidade em um
+ * INSERT próprio, mesmo com {@code saveAll}.
+ *
+ * <p>Roda na transação de quem chama. Os ids gerados são copiados para as entidades
+ * recebidas, na mesma ordem, e as entidades não passam a ser gerenciadas pelo
+ * Hibernate.</p>
+ */
+@Component
+@RequiredArgsConstructor
+public class LoanBatchWriter {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO loans (user_book_id, borrower_id, borrower_name, borrower_email, loan_date, due_date, " +
+                    "return_date, status, notes) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public List<Loan> insertAll(List<Loan> loans) {
+        if (loans.isEmpty()) {
+            return loans;
+        }
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+                connection -> connection.prepareStatement(INSERT_SQL, new String[] {"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        Loan loan = loans.get(i);
+                        ps.setLong(1, loan.getUserBook().getId());
+                        ps.setObject(2, loan.getBorrower() != null ? loan.getBorrower().getId() : null, Types.BIGINT);
+                        ps.setString(3, loan.getBorrowerName());
+                        ps.setString(4, loan.getBorrowerEmail());
+                        ps.setDate(5, Date.valueOf(loan.getLoanDate()));
+                        ps.setDate(6, Date.valueOf(loan.getDueDate()));
+                        ps.setDate(7, loan.getReturnDate() != null ? Date.valueOf(loan.getReturnDate()) : null);
+                        ps.setString(8, loan.getStatus());
+                        ps.setString(9, loan.getNotes());
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return loans.size();
+                    }
+                },
+                keyHolder);
+
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        if (keys.size() != loans.size()) {
+            throw new IllegalStateException("O banco devolveu " + keys.size() + " ids para "
+                    + loans.size() + " empréstimos inseridos.");
+        }
+        for (int i = 0; i < loans.size(); i++) {
+            loans.get(i).setId(((Number) keys.get(i).get("id")).longValue());
+        }
+        return loans;
+    }
+}
@@ -0,0 +1,89 @@
+package com.librishare.backend.modules.loan.service.impl;
+
+import com.librishare.backend.modules.loan.dto.LoanResponseDTO;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Escreve empréstimos no formato iCalendar (RFC 5545). A saída depende apenas
+ * dos dados dos empréstimos, para que o mesmo conteúdo gere sempre os mesmos bytes.
+ */
+class LoanCalendarWriter {
+
+    private static final String CRLF = "\r\n";
+    private static final int MAX_LINE_OCTETS = 75;
+    private static final DateTimeFormatter ICS_DATE = DateTimeFormatter.BASIC_ISO_DATE;
+    private static final DateTimeFormatter DISPLAY_DATE = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
+    private final Writer writer;
+
+    LoanCalendarWriter(Writer writer) {
+        this.writer = writer;
+    }
+
+    void begin() throws IOException {
+        line("BEGIN:VCALENDAR");
+        line("VERSION:2.0");
+        line("PRODID:-//LibriShare//Emprestimos//PT");
+        line("CALSCALE:GREGORIAN");
+        line("METHOD:PUBLISH");
+        line("X-WR-CALNAME:" + escape("LibriShare - Devoluções"));
+    }
+
+    void event(LoanResponseDTO loan) throws IOException {
+        line("BEGIN:VEVENT");
+        line("UID:loan-" + loan.getId() + "@librishare");
+        line("DTSTAMP:" + ICS_DATE.format(loan.getLoanDate()) + "T000000Z");
+        line("DTSTART;VALUE=DATE:" + ICS_DATE.format(loan.getDueDate()));
+        line("DTEND;VALUE=DATE:" + ICS_DATE.format(loan.getDueDate().plusDays(1)));
+        line("SUMMARY:" + escape("Devolução de '" + loan.getBookTitle() + "' (" + loan.getBorrowerName() + ")"));
+        line("DESCRIPTION:" + escape("Emprestado para " + loan.getBorrowerName()
+                + " em " + DISPLAY_DATE.format(loan.getLoanDate()) + "."));
+        line("TRANSP:TRANSPARENT");
+        line("END:VEVENT");
+    }
+
+    void end() throws IOException {
+        line("END:VCALENDAR");
+        writer.flush();
+    }
+
+    private String escape(String text) {
+        return text.replace("\\", "\\\\")
+                .replace(";", "\\;")
+                .replace(",", "\\,")
+                .replace("\r\n", "\\n")
+                .replace("\n", "\\n");
+    }
+
+    // Linhas com mais de 75 octetos são quebradas e continuadas com um espaço
+    private void line(String content) throws IOException {
+        int octets = 0;
+        int i = 0;
+        while (i < content.length()) {
+            int codePoint = content.codePointAt(i);
+            int width = utf8Width(codePoint);
+            if (octets + width > MAX_LINE_OCTETS) {
+                writer.write(CRLF);
+                writer.write(' ');
+                octets = 1;
+            }
+            writer.write(Character.toChars(codePoint));
+            octets += width;
+            i += Character.charCount(codePoint);
+        }
+        writer.write(CRLF);
+    }
+
+    private static int utf8Width(int codePoint) {
+        if (codePoint < 0x80) {
+            return 1;
+        }
+        if (codePoint < 0x800) {
+            return 2;
+        }
+        return codePoint < 0x10000 ? 3 : 4;
+    }
+}
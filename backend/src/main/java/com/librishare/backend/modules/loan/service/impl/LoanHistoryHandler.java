@@ -0,0 +1,47 @@
+package com.librishare.backend.modules.loan.service.impl;
+
+import com.librishare.backend.modules.history.dto.HistorySubject;
+import com.librishare.backend.modules.history.enums.HistoryEventType;
+import com.librishare.backend.modules.history.service.HistoryService;
+import com.librishare.backend.modules.loan.dto.LoanEvent;
+import com.librishare.backend.modules.outbox.dto.OutboxMessage;
+import com.librishare.backend.modules.outbox.service.OutboxHandler;
+import com.librishare.backend.modules.user.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/** Registra no histórico os empréstimos criados e devolvidos. */
+@Component
+@RequiredArgsConstructor
+public class LoanHistoryHandler implements OutboxHandler {
+
+    private final HistoryService historyService;
+    private final UserRepository userRepository;
+
+    @Override
+    public String key() {
+        return "loan-history";
+    }
+
+    @Override
+    public boolean handles(String eventType) {
+        return LoanEvent.CREATED.equals(eventType) || LoanEvent.RETURNED.equals(eventType);
+    }
+
+    @Override
+    public void handle(OutboxMessage message) {
+        LoanEvent event = message.payload(LoanEvent.class);
+        HistoryEventType eventType = LoanEvent.CREATED.equals(message.getEventType())
+                ? HistoryEventType.LOAN_CREATED
+                : HistoryEventType.LOAN_RETURNED;
+
+        List<HistorySubject> subjects = event.getLoans().stream()
+                .map(loan -> HistorySubject.ofLoan(loan.getBookId(), loan.getBookTitle(), loan.getId(), loan.getBorrowerName()))
+                .collect(Collectors.toList());
+        historyService.recordActions(userRepository.getReferenceById(event.getUserId()), eventType, subjects,
+                message.getOccurredAt());
+    }
+}
@@ -1,22 +1,40 @@
 package com.librishare.backend.modules.loan.service.impl;
 
+import com.librishare.backend.config.cache.TwoTierCache;
 import com.librishare.backend.exception.DuplicateResourceException; // Importe para erro de conflito
 import com.librishare.backend.exception.ResourceNotFoundException;
-import com.librishare.backend.modules.history.service.HistoryService;
+import com.librishare.backend.modules.event.service.UserEventService;
+import com.librishare.backend.modules.library.dto.UserLibraryStatsDTO;
 import com.librishare.backend.modules.library.entity.UserBook;
 import com.librishare.backend.modules.library.enums.ReadingStatus; // Importe o Enum
 import com.librishare.backend.modules.library.repository.UserBookRepository;
+import com.librishare.backend.modules.loan.dto.LoanEvent;
 import com.librishare.backend.modules.loan.dto.LoanRequestDTO;
 import com.librishare.backend.modules.loan.dto.LoanResponseDTO;
+import com.librishare.backend.modules.loan.entity.Borrower;
 import com.librishare.backend.modules.loan.entity.Loan;
+import com.librishare.backend.modules.loan.repository.BorrowerRepository;
 import com.librishare.backend.modules.loan.repository.LoanRepository;
+import com.librishare.backend.modules.loan.service.BorrowerService;
+import com.librishare.backend.modules.loan.service.LoanChangeTracker;
 import com.librishare.backend.modules.loan.service.LoanService;
+import com.librishare.backend.modules.outbox.service.OutboxService;
+import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.modelmapper.ModelMapper;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.io.Writer;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -24,43 +42,92 @@ import java.util.stream.Collectors;
 public class LoanServiceImpl implements LoanService {
 
     private final LoanRepository loanRepository;
+    private final LoanBatchWriter loanBatchWriter;
     private final UserBookRepository userBookRepository;
     private final ModelMapper mapper;
-    private final HistoryService historyService;
+    private final LoanChangeTracker changeTracker;
+    private final BorrowerService borrowerService;
+    private final BorrowerRepository borrowerRepository;
+    private final UserEventService userEvents;
+    private final OutboxService outbox;
+    private final TwoTierCache<Long, UserLibraryStatsDTO> libraryStatsCache;
 
     @Override
+    @Transactional
     public LoanResponseDTO createLoan(Long userId, LoanRequestDTO dto) {
         UserBook userBook = userBookRepository.findByUserIdAndBookId(userId, dto.getBookId())
                 .orElseThrow(() -> new ResourceNotFoundException("Livro não encontrado na biblioteca do usuário."));
 
-        if (userBook.getStatus() != ReadingStatus.READ && userBook.getStatus() != ReadingStatus.TO_READ) {
-            throw new IllegalArgumentException("Você só pode emprestar livros que já leu ou que estão na estante 'Para Ler'.");
-        }
+        validateLendable(userBook);
 
         boolean isAlreadyLent = loanRepository.existsByUserBookIdAndStatus(userBook.getId(), "ACTIVE");
         if (isAlreadyLent) {
             throw new DuplicateResourceException("Este livro já está emprestado e não foi devolvido.");
         }
 
-        Loan loan = Loan.builder()
-                .userBook(userBook)
-                .borrowerName(dto.getBorrowerName())
-                .borrowerEmail(dto.getBorrowerEmail())
-                .loanDate(LocalDate.now())
-                .dueDate(dto.getDueDate() != null ? dto.getDueDate() : LocalDate.now().plusDays(14))
-                .status("ACTIVE")
-                .notes(dto.getNotes())
-                .build();
+        Borrower borrower = borrowerService.resolveBorrower(userId, dto.getBorrowerName(), dto.getBorrowerEmail());
+        Loan savedLoan = loanRepository.save(buildLoan(userBook, borrower, dto));
 
-        Loan savedLoan = loanRepository.save(loan);
+        LoanResponseDTO response = mapToDTO(savedLoan);
+        outbox.publish(LoanEvent.CREATED, new LoanEvent(userId, List.of(response)));
+        changeTracker.markChanged(userId);
+        libraryStatsCache.evict(userId);
+        userEvents.publish(userId, UserEventService.LOAN, response);
+        return response;
+    }
 
-        historyService.logAction(
-                userBook.getUser(),
-                "EMPRÉSTIMO",
-                "Emprestou '" + userBook.getBook().getTitle() + "' para " + dto.getBorrowerName()
-        );
+    @Override
+    @Transactional
+    public List<LoanResponseDTO> createLoans(Long userId, List<LoanRequestDTO> loanRequests) {
+        Set<Long> bookIds = new LinkedHashSet<>();
+        for (LoanRequestDTO dto : loanRequests) {
+            if (!bookIds.add(dto.getBookId())) {
+                throw new IllegalArgumentException("O livro " + dto.getBookId() + " aparece mais de uma vez no lote.");
+            }
+        }
 
-        return mapToDTO(savedLoan);
+        Map<Long, UserBook> userBooksByBookId = userBookRepository.findWithBookByUserIdAndBookIdIn(userId, bookIds)
+                .stream()
+                .collect(Collectors.toMap(userBook -> userBook.getBook().getId(), Function.identity()));
+
+        List<Long> missingBookIds = bookIds.stream()
+                .filter(bookId -> !userBooksByBookId.containsKey(bookId))
+                .collect(Collectors.toList());
+        if (!missingBookIds.isEmpty()) {
+            throw new ResourceNotFoundException("Livros não encontrados na biblioteca do usuário: " + missingBookIds);
+        }
+
+        userBooksByBookId.values().forEach(this::validateLendable);
+
+        Set<Long> lentUserBookIds = new HashSet<>(loanRepository.findUserBookIdsByStatus(
+                userBooksByBookId.values().stream().map(UserBook::getId).collect(Collectors.toList()), "ACTIVE"));
+        if (!lentUserBookIds.isEmpty()) {
+            List<String> lentTitles = userBooksByBookId.values().stream()
+                    .filter(userBook -> lentUserBookIds.contains(userBook.getId()))
+                    .map(userBook -> userBook.getBook().getTitle())
+                    .collect(Collectors.toList());
+            throw new DuplicateResourceException("Livros já emprestados e não devolvidos: " + lentTitles);
+        }
+
+        Map<String, Borrower> borrowersByKey = new HashMap<>();
+        List<Loan> loans = new ArrayList<>();
+        for (LoanRequestDTO dto : loanRequests) {
+            UserBook userBook = userBooksByBookId.get(dto.getBookId());
+            String borrowerKey = BorrowerServiceImpl.borrowerKey(
+                    dto.getBorrowerName(), BorrowerServiceImpl.normalizeEmail(dto.getBorrowerEmail()));
+            Borrower borrower = borrowersByKey.computeIfAbsent(borrowerKey,
+                    key -> borrowerService.resolveBorrower(userId, dto.getBorrowerName(), dto.getBorrowerEmail()));
+            loans.add(buildLoan(userBook, borrower, dto));
+        }
+
+        List<Loan> savedLoans = loanBatchWriter.insertAll(loans);
+
+        List<LoanResponseDTO> responses = savedLoans.stream().map(this::mapToDTO).collect(Collectors.toList());
+        outbox.publish(LoanEvent.CREATED, new LoanEvent(userId, responses));
+        changeTracker.markChanged(userId);
+        libraryStatsCache.evict(userId);
+        responses.forEach(response -> userEvents.publish(userId, UserEventService.LOAN, response));
+        return responses;
     }
 
     @Override
@@ -70,15 +137,79 @@ public class LoanServiceImpl implements LoanService {
     }
 
     @Override
-    public LoanResponseDTO returnLoan(Long loanId) {
-        Loan loan = loanRepository.findById(loanId)
+    public List<LoanResponseDTO> getLoansByBorrower(Long userId, Long borrowerId) {
+        if (!borrowerRepository.existsByIdAndOwnerId(borrowerId, userId)) {
+            throw new ResourceNotFoundException("Pessoa não encontrada com ID: " + borrowerId);
+        }
+        return loanRepository.findResponsesByUserIdAndBorrowerId(userId, borrowerId);
+    }
+
+    @Override
+    @Transactional
+    public LoanResponseDTO returnLoan(Long userId, Long loanId) {
+        int returned = loanRepository.markReturned(userId, List.of(loanId), LocalDate.now());
+        if (returned == 0) {
+            throw new ResourceNotFoundException("Empréstimo não encontrado, não pertence ao usuário ou já foi devolvido.");
+        }
+
+        LoanResponseDTO returnedLoan = loanRepository.findResponseById(loanId)
                 .orElseThrow(() -> new ResourceNotFoundException("Empréstimo não encontrado."));
 
-        loan.setStatus("RETURNED");
-        loan.setReturnDate(LocalDate.now());
+        outbox.publish(LoanEvent.RETURNED, new LoanEvent(userId, List.of(returnedLoan)));
+        changeTracker.markChanged(userId);
+        libraryStatsCache.evict(userId);
+        userEvents.publish(userId, UserEventService.LOAN, returnedLoan);
+        return returnedLoan;
+    }
+
+    @Override
+    @Transactional
+    public List<LoanResponseDTO> returnLoans(Long userId, List<Long> loanIds) {
+        Set<Long> ids = new LinkedHashSet<>(loanIds);
+
+        int returned = loanRepository.markReturned(userId, ids, LocalDate.now());
+        if (returned != ids.size()) {
+            throw new ResourceNotFoundException(
+                    "Um ou mais empréstimos não foram encontrados, não pertencem ao usuário ou já foram devolvidos.");
+        }
+
+        List<LoanResponseDTO> returnedLoans = loanRepository.findResponsesByIdIn(ids);
+
+        outbox.publish(LoanEvent.RETURNED, new LoanEvent(userId, returnedLoans));
+        changeTracker.markChanged(userId);
+        libraryStatsCache.evict(userId);
+        returnedLoans.forEach(loan -> userEvents.publish(userId, UserEventService.LOAN, loan));
+
+        return returnedLoans;
+    }
+
+    @Override
+    public void writeDueDateCalendar(Long userId, Writer writer) throws IOException {
+        LoanCalendarWriter calendar = new LoanCalendarWriter(writer);
+        calendar.begin();
+        for (LoanResponseDTO loan : loanRepository.findActiveResponsesByUserId(userId)) {
+            calendar.event(loan);
+        }
+        calendar.end();
+    }
 
-        Loan savedLoan = loanRepository.save(loan);
-        return mapToDTO(savedLoan);
+    private void validateLendable(UserBook userBook) {
+        if (userBook.getStatus() != ReadingStatus.READ && userBook.getStatus() != ReadingStatus.TO_READ) {
+            throw new IllegalArgumentException("Você só pode emprestar livros que já leu ou que estão na estante 'Para Ler'.");
+        }
+    }
+
+    private Loan buildLoan(UserBook userBook, Borrower borrower, LoanRequestDTO dto) {
+        return Loan.builder()
+                .userBook(userBook)
+                .borrower(borrower)
+                .borrowerName(dto.getBorrowerName())
+                .borrowerEmail(dto.getBorrowerEmail())
+                .loanDate(LocalDate.now())
+                .dueDate(dto.getDueDate() != null ? dto.getDueDate() : LocalDate.now().plusDays(14))
+                .status("ACTIVE")
+                .notes(dto.getNotes())
+                .build();
     }
 
     private LoanResponseDTO mapToDTO(Loan loan) {
@@ -102,4 +233,4 @@ public class LoanServiceImpl implements LoanService {
 
         return dto;
     }
-}
\ No newline at end of file
+}
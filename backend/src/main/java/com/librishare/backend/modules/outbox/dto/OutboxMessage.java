@@ -0,0 +1,39 @@
+package com.librishare.backend.modules.outbox.dto;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Evento entregue a um {@code OutboxHandler}. O payload é desserializado pelo
+ * handler, no tipo que ele espera para o evento.
+ */
+@RequiredArgsConstructor
+public class OutboxMessage {
+
+    // Nulo na entrega imediata, quando o outbox está desligado
+    @Getter
+    private final Long id;
+
+    @Getter
+    private final String eventType;
+
+    // Quando o evento foi publicado, não quando é entregue
+    @Getter
+    private final OffsetDateTime occurredAt;
+
+    private final String payload;
+
+    private final ObjectMapper objectMapper;
+
+    public <T> T payload(Class<T> type) {
+        try {
+            return objectMapper.readValue(payload, type);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Payload inválido para o evento " + eventType + ".", e);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.librishare.backend.modules.outbox.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Evento de domínio gravado na mesma transação da alteração que o originou e
+ * entregue depois aos handlers pelo {@code OutboxDispatcher}.
+ */
+@Entity
+@Table(name = "outbox_events")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private String eventType;
+
+    // JSON do payload, lido por cada handler com o tipo que conhece
+    private String payload;
+
+    @CreationTimestamp
+    private OffsetDateTime createdAt;
+
+    // Antes disso o evento não é entregue: reservado por um poller ou aguardando nova tentativa
+    private OffsetDateTime availableAt;
+
+    private int attempts;
+
+    private String lastError;
+
+    private OffsetDateTime processedAt;
+
+    // Esgotou as tentativas; fica na tabela para inspeção e não é mais entregue
+    private OffsetDateTime failedAt;
+}
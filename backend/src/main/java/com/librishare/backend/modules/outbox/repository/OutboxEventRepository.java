@@ -0,0 +1,49 @@
+package com.librishare.backend.modules.outbox.repository;
+
+import com.librishare.backend.modules.outbox.entity.OutboxEvent;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    // SKIP LOCKED (timeout -2): pollers em outras instâncias pegam os próximos eventos em vez de esperar
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT e FROM OutboxEvent e " +
+            "WHERE e.processedAt IS NULL AND e.failedAt IS NULL AND e.availableAt <= :now " +
+            "ORDER BY e.id")
+    List<OutboxEvent> findDue(@Param("now") OffsetDateTime now, Limit limit);
+
+    // 0 quando o handler já tratou o evento, em uma entrega anterior
+    @Modifying
+    @Query(value = "INSERT INTO outbox_handled (event_id, handler_key) VALUES (:eventId, :handlerKey) ON CONFLICT DO NOTHING",
+            nativeQuery = true)
+    int markHandled(@Param("eventId") Long eventId, @Param("handlerKey") String handlerKey);
+
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.processedAt = :now, e.lastError = NULL WHERE e.id = :id")
+    int markProcessed(@Param("id") Long id, @Param("now") OffsetDateTime now);
+
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.attempts = e.attempts + 1, e.lastError = :error, " +
+            "e.availableAt = :retryAt, e.failedAt = :failedAt WHERE e.id = :id")
+    int markFailedAttempt(@Param("id") Long id, @Param("error") String error,
+                          @Param("retryAt") OffsetDateTime retryAt, @Param("failedAt") OffsetDateTime failedAt);
+
+    // As chaves de idempotência saem junto, pela cascata
+    @Modifying
+    @Query("DELETE FROM OutboxEvent e WHERE e.processedAt < :before")
+    int deleteProcessedBefore(@Param("before") OffsetDateTime before);
+}
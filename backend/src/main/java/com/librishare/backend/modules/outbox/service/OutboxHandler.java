@@ -0,0 +1,19 @@
+package com.librishare.backend.modules.outbox.service;
+
+import com.librishare.backend.modules.outbox.dto.OutboxMessage;
+
+/**
+ * Efeito colateral de um evento de domínio, executado pelo outbox fora da
+ * requisição que o originou. A entrega é "ao menos uma vez": a chave do handler,
+ * gravada com o id do evento na mesma transação de {@link #handle}, impede que
+ * ele rode de novo quando o evento é reentregue.
+ */
+public interface OutboxHandler {
+
+    /** Identificador estável; mudá-lo faz eventos ainda pendentes serem tratados como novos. */
+    String key();
+
+    boolean handles(String eventType);
+
+    void handle(OutboxMessage message);
+}
@@ -0,0 +1,10 @@
+package com.librishare.backend.modules.outbox.service;
+
+public interface OutboxService {
+
+    /**
+     * Registra um evento na transação corrente. Ele só é entregue aos handlers
+     * depois do commit, e é descartado junto com a transação em caso de rollback.
+     */
+    void publish(String eventType, Object payload);
+}
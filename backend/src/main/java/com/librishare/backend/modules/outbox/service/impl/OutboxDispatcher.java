@@ -0,0 +1,186 @@
+package com.librishare.backend.modules.outbox.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.librishare.backend.modules.outbox.dto.OutboxMessage;
+import com.librishare.backend.modules.outbox.entity.OutboxEvent;
+import com.librishare.backend.modules.outbox.repository.OutboxEventRepository;
+import com.librishare.backend.modules.outbox.service.OutboxHandler;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entrega os eventos do outbox aos handlers, em lotes de até {@code batch-size}
+ * a cada {@code poll-interval-ms}.
+ *
+ * <p>Cada lote é reservado em uma transação curta: as linhas são lidas com
+ * {@code FOR UPDATE SKIP LOCKED} e ficam indisponíveis por {@code lease-seconds},
+ * de modo que várias instâncias podem consumir a mesma tabela. Se uma instância
+ * cair no meio do lote, os eventos voltam a ser entregues quando a reserva expira.</p>
+ *
+ * <p>Cada handler roda em sua própria transação, junto com o registro da sua
+ * chave para o evento; numa reentrega, os handlers que já concluíram são pulados.
+ * Uma falha adia o evento com espera exponencial a partir de {@code retry-base-ms};
+ * após {@code max-attempts} tentativas ele é marcado como falho e não é mais entregue.</p>
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "librishare.outbox.enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxDispatcher {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+    private static final int MAX_BACKOFF_SHIFT = 16;
+
+    private final OutboxEventRepository repository;
+    private final List<OutboxHandler> handlers;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Duration lease;
+    private final int maxAttempts;
+    private final long retryBaseMillis;
+    private final Duration retention;
+
+    private final Timer batchTimer;
+    private final Counter dispatchedCounter;
+    private final Counter retriedCounter;
+    private final Counter failedCounter;
+
+    public OutboxDispatcher(OutboxEventRepository repository,
+                            List<OutboxHandler> handlers,
+                            ObjectMapper objectMapper,
+                            TransactionTemplate transactionTemplate,
+                            ObjectProvider<MeterRegistry> meterRegistry,
+                            @Value("${librishare.outbox.batch-size:100}") int batchSize,
+                            @Value("${librishare.outbox.lease-seconds:60}") long leaseSeconds,
+                            @Value("${librishare.outbox.max-attempts:10}") int maxAttempts,
+                            @Value("${librishare.outbox.retry-base-ms:1000}") long retryBaseMillis,
+                            @Value("${librishare.outbox.retention-hours:72}") long retentionHours) {
+        this.repository = repository;
+        this.handlers = handlers;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.lease = Duration.ofSeconds(leaseSeconds);
+        this.maxAttempts = maxAttempts;
+        this.retryBaseMillis = retryBaseMillis;
+        this.retention = Duration.ofHours(retentionHours);
+
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        if (registry != null) {
+            this.batchTimer = Timer.builder("librishare.outbox.batch")
+                    .description("Tempo de entrega de cada lote do outbox")
+                    .register(registry);
+            this.dispatchedCounter = Counter.builder("librishare.outbox.dispatched")
+                    .description("Eventos entregues a todos os seus handlers")
+                    .register(registry);
+            this.retriedCounter = Counter.builder("librishare.outbox.retried")
+                    .description("Entregas que falharam e foram reagendadas")
+                    .register(registry);
+            this.failedCounter = Counter.builder("librishare.outbox.failed")
+                    .description("Eventos que esgotaram as tentativas de entrega")
+                    .register(registry);
+        } else {
+            this.batchTimer = null;
+            this.dispatchedCounter = null;
+            this.retriedCounter = null;
+            this.failedCounter = null;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${librishare.outbox.poll-interval-ms:200}")
+    public void poll() {
+        List<OutboxEvent> batch;
+        do {
+            batch = claim();
+            if (batch.isEmpty()) {
+                return;
+            }
+            long start = System.nanoTime();
+            batch.forEach(this::dispatch);
+            if (batchTimer != null) {
+                batchTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        } while (batch.size() == batchSize);
+    }
+
+    private List<OutboxEvent> claim() {
+        return transactionTemplate.execute(status -> {
+            OffsetDateTime now = OffsetDateTime.now();
+            List<OutboxEvent> due = repository.findDue(now, Limit.of(batchSize));
+            OffsetDateTime leasedUntil = now.plus(lease);
+            due.forEach(event -> event.setAvailableAt(leasedUntil));
+            return due;
+        });
+    }
+
+    private void dispatch(OutboxEvent event) {
+        OutboxMessage message = new OutboxMessage(event.getId(), event.getEventType(), event.getCreatedAt(),
+                event.getPayload(), objectMapper);
+        try {
+            for (OutboxHandler handler : handlers) {
+                if (handler.handles(event.getEventType())) {
+                    transactionTemplate.executeWithoutResult(status -> {
+                        if (repository.markHandled(event.getId(), handler.key()) == 1) {
+                            handler.handle(message);
+                        }
+                    });
+                }
+            }
+            transactionTemplate.executeWithoutResult(status -> repository.markProcessed(event.getId(), OffsetDateTime.now()));
+            if (dispatchedCounter != null) {
+                dispatchedCounter.increment();
+            }
+        } catch (RuntimeException e) {
+            reschedule(event, e);
+        }
+    }
+
+    private void reschedule(OutboxEvent event, RuntimeException error) {
+        int attempts = event.getAttempts() + 1;
+        OffsetDateTime now = OffsetDateTime.now();
+        boolean exhausted = attempts >= maxAttempts;
+        OffsetDateTime retryAt = now.plus(Duration.ofMillis(retryBaseMillis << Math.min(attempts - 1, MAX_BACKOFF_SHIFT)));
+
+        String message = error.toString();
+        if (message.length() > MAX_ERROR_LENGTH) {
+            message = message.substring(0, MAX_ERROR_LENGTH);
+        }
+        String lastError = message;
+
+        if (exhausted) {
+            log.error("Evento {} ({}) descartado após {} tentativas", event.getId(), event.getEventType(), attempts, error);
+        } else {
+            log.warn("Falha ao entregar o evento {} ({}), tentativa {}; nova tentativa em {}",
+                    event.getId(), event.getEventType(), attempts, retryAt, error);
+        }
+
+        transactionTemplate.executeWithoutResult(status ->
+                repository.markFailedAttempt(event.getId(), lastError, retryAt, exhausted ? now : null));
+
+        Counter counter = exhausted ? failedCounter : retriedCounter;
+        if (counter != null) {
+            counter.increment();
+        }
+    }
+
+    @Scheduled(cron = "${librishare.outbox.prune-cron:0 45 3 * * *}", zone = "UTC")
+    public void pruneProcessed() {
+        Integer removed = transactionTemplate.execute(status ->
+                repository.deleteProcessedBefore(OffsetDateTime.now().minus(retention)));
+        log.info("Outbox: {} eventos entregues removidos", removed);
+    }
+}
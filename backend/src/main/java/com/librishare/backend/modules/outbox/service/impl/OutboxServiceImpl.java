@@ -0,0 +1,64 @@
+package com.librishare.backend.modules.outbox.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.librishare.backend.modules.outbox.dto.OutboxMessage;
+import com.librishare.backend.modules.outbox.entity.OutboxEvent;
+import com.librishare.backend.modules.outbox.repository.OutboxEventRepository;
+import com.librishare.backend.modules.outbox.service.OutboxHandler;
+import com.librishare.backend.modules.outbox.service.OutboxService;
+import jakarta.transaction.Transactional;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Com {@code librishare.outbox.enabled=false} os handlers rodam na hora, dentro
+ * da transação de quem publicou, como antes do outbox.
+ */
+@Service
+public class OutboxServiceImpl implements OutboxService {
+
+    private final OutboxEventRepository repository;
+    // Sob demanda: handlers que publicam eventos dependem deste serviço
+    private final ObjectProvider<OutboxHandler> handlers;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+
+    public OutboxServiceImpl(OutboxEventRepository repository,
+                             ObjectProvider<OutboxHandler> handlers,
+                             ObjectMapper objectMapper,
+                             @Value("${librishare.outbox.enabled:true}") boolean enabled) {
+        this.repository = repository;
+        this.handlers = handlers;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+    }
+
+    @Override
+    @Transactional(Transactional.TxType.MANDATORY)
+    public void publish(String eventType, Object payload) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Não foi possível serializar o evento " + eventType + ".", e);
+        }
+
+        if (!enabled) {
+            OutboxMessage message = new OutboxMessage(null, eventType, OffsetDateTime.now(), json, objectMapper);
+            handlers.orderedStream()
+                    .filter(handler -> handler.handles(eventType))
+                    .forEach(handler -> handler.handle(message));
+            return;
+        }
+
+        repository.save(OutboxEvent.builder()
+                .eventType(eventType)
+                .payload(json)
+                .availableAt(OffsetDateTime.now())
+                .build());
+    }
+}
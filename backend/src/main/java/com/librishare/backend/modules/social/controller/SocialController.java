@@ -0,0 +1,95 @@
+package com.librishare.backend.modules.social.controller;
+
+import com.librishare.backend.modules.social.dto.TimelineItemDTO;
+import com.librishare.backend.modules.social.dto.TimelinePageDTO;
+import com.librishare.backend.modules.social.service.FollowService;
+import com.librishare.backend.modules.social.service.TimelineService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.headers.Header;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+import static com.librishare.backend.modules.history.controller.HistoryController.NEXT_CURSOR_HEADER;
+
+@RestController
+@RequestMapping("/api/v1/users/{userId}")
+@Tag(name = "Rede Social", description = "Seguir outros leitores e acompanhar a atividade deles")
+@RequiredArgsConstructor
+public class SocialController {
+
+    private final FollowService followService;
+    private final TimelineService timelineService;
+
+    @Operation(summary = "Segue outro usuário",
+            description = "Passa a receber na linha do tempo as atividades do usuário seguido. Repetir a chamada não tem efeito.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Usuário seguido", content = @Content),
+            @ApiResponse(responseCode = "400", description = "Tentativa de seguir a si mesmo", content = @Content),
+            @ApiResponse(responseCode = "404", description = "Usuário não encontrado", content = @Content)
+    })
+    @PutMapping("/following/{followeeId}")
+    public ResponseEntity<Void> follow(
+            @Parameter(description = "ID de quem segue", example = "1") @PathVariable Long userId,
+            @Parameter(description = "ID de quem será seguido", example = "2") @PathVariable Long followeeId) {
+        followService.follow(userId, followeeId);
+        return ResponseEntity.noContent().build();
+    }
+
+    @Operation(summary = "Deixa de seguir um usuário",
+            description = "Remove o vínculo e as atividades desse usuário da linha do tempo. Repetir a chamada não tem efeito.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Deixou de seguir", content = @Content),
+            @ApiResponse(responseCode = "404", description = "Usuário não encontrado", content = @Content)
+    })
+    @DeleteMapping("/following/{followeeId}")
+    public ResponseEntity<Void> unfollow(
+            @Parameter(description = "ID de quem segue", example = "1") @PathVariable Long userId,
+            @Parameter(description = "ID de quem deixará de ser seguido", example = "2") @PathVariable Long followeeId) {
+        followService.unfollow(userId, followeeId);
+        return ResponseEntity.noContent().build();
+    }
+
+    @Operation(summary = "Linha do tempo de quem o usuário segue",
+            description = "Atividades das pessoas seguidas, da mais recente para a mais antiga, em páginas. " +
+                    "Quando há mais itens, o cabeçalho X-Next-Cursor traz o valor a ser enviado em 'before'.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Linha do tempo retornada",
+                    headers = @Header(name = NEXT_CURSOR_HEADER, description = "Cursor da próxima página, ausente na última"),
+                    content = @Content(mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(implementation = TimelineItemDTO.class)))),
+            @ApiResponse(responseCode = "400", description = "Cursor ou limite inválido", content = @Content),
+            @ApiResponse(responseCode = "404", description = "Usuário não encontrado", content = @Content)
+    })
+    @GetMapping("/timeline")
+    public ResponseEntity<List<TimelineItemDTO>> getTimeline(
+            @Parameter(description = "ID do usuário", example = "1") @PathVariable Long userId,
+            @Parameter(description = "Cursor recebido em X-Next-Cursor; omitido na primeira página")
+            @RequestParam(required = false) String before,
+            @Parameter(description = "Quantidade de itens por página (1 a 100)", example = "20")
+            @RequestParam(defaultValue = "20") int limit) {
+
+        TimelinePageDTO page = timelineService.getTimeline(userId, before, limit);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getItems());
+    }
+}
@@ -0,0 +1,21 @@
+package com.librishare.backend.modules.social.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Publicado no outbox quando entradas de histórico são gravadas, para copiá-las
+ * às linhas do tempo dos seguidores fora da transação de quem as gravou.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TimelineFanOutEvent {
+    public static final String TYPE = "timeline.fan-out";
+
+    private Long authorId;
+    private OffsetDateTime from;
+}
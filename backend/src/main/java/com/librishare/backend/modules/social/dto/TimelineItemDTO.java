@@ -0,0 +1,15 @@
+package com.librishare.backend.modules.social.dto;
+
+import com.librishare.backend.modules.history.dto.HistoryResponseDTO;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TimelineItemDTO {
+    private Long authorId;
+    private String authorName;
+    private HistoryResponseDTO activity;
+}
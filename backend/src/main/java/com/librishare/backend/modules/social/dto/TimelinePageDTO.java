@@ -0,0 +1,15 @@
+package com.librishare.backend.modules.social.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TimelinePageDTO {
+    private List<TimelineItemDTO> items;
+    private String nextCursor;
+}
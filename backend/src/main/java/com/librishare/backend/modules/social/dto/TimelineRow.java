@@ -0,0 +1,25 @@
+package com.librishare.backend.modules.social.dto;
+
+import com.librishare.backend.modules.history.dto.HistoryEntry;
+import com.librishare.backend.modules.history.enums.HistoryEventType;
+import lombok.Getter;
+
+import java.time.OffsetDateTime;
+
+// Projeção das consultas da linha do tempo: o evento e quem o gerou
+@Getter
+public class TimelineRow {
+    private final Long authorId;
+    private final String authorName;
+    private final HistoryEntry entry;
+
+    public TimelineRow(Long authorId, String authorFirstName, String authorLastName,
+                       Long id, HistoryEventType eventType, Long bookId, String bookTitle,
+                       Long loanId, String borrowerName, String actionType, String description,
+                       OffsetDateTime createdAt) {
+        this.authorId = authorId;
+        this.authorName = authorFirstName + " " + authorLastName;
+        this.entry = new HistoryEntry(id, eventType, bookId, bookTitle, loanId, borrowerName,
+                actionType, description, createdAt);
+    }
+}
@@ -0,0 +1,30 @@
+package com.librishare.backend.modules.social.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Evento de quem o usuário segue, copiado (apenas as referências) para a linha do
+ * tempo dele no momento da gravação. {@code createdAt} repete o do histórico para
+ * que a leitura seja uma varredura única no índice do seguidor.
+ */
+@Entity
+@Table(name = "timeline_entries")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TimelineEntry {
+
+    @EmbeddedId
+    private TimelineEntryId id;
+
+    @Column(name = "author_id", nullable = false)
+    private Long authorId;
+
+    @Column(name = "created_at", nullable = false)
+    private OffsetDateTime createdAt;
+}
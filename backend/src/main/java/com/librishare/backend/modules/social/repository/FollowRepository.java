@@ -0,0 +1,36 @@
+package com.librishare.backend.modules.social.repository;
+
+import com.librishare.backend.modules.social.entity.Follow;
+import com.librishare.backend.modules.social.entity.FollowId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface FollowRepository extends JpaRepository<Follow, FollowId> {
+
+    // 0 quando já seguia: o contador só muda para quem realmente passou a seguir
+    @Modifying
+    @Query(value = "INSERT INTO follows (follower_id, followee_id) VALUES (:followerId, :followeeId) ON CONFLICT DO NOTHING",
+            nativeQuery = true)
+    int insertIfAbsent(@Param("followerId") Long followerId, @Param("followeeId") Long followeeId);
+
+    @Modifying
+    @Query("DELETE FROM Follow f WHERE f.id.followerId = :followerId AND f.id.followeeId = :followeeId")
+    int deleteByPair(@Param("followerId") Long followerId, @Param("followeeId") Long followeeId);
+
+    @Modifying
+    @Query("UPDATE User u SET u.followerCount = u.followerCount + :delta WHERE u.id = :userId")
+    int addFollowers(@Param("userId") Long userId, @Param("delta") int delta);
+
+    // Antes de remover um usuário: a cascata apagaria as linhas sem ajustar os contadores
+    @Modifying
+    @Query("UPDATE User u SET u.followerCount = u.followerCount - 1 " +
+            "WHERE u.id IN (SELECT f.id.followeeId FROM Follow f WHERE f.id.followerId = :followerId)")
+    int removeFollowerFromAll(@Param("followerId") Long followerId);
+
+    @Query("SELECT u.followerCount FROM User u WHERE u.id = :userId")
+    Integer findFollowerCount(@Param("userId") Long userId);
+}
@@ -0,0 +1,109 @@
+package com.librishare.backend.modules.social.repository;
+
+import com.librishare.backend.modules.social.dto.TimelineRow;
+import com.librishare.backend.modules.social.entity.TimelineEntry;
+import com.librishare.backend.modules.social.entity.TimelineEntryId;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+@Repository
+public interface TimelineEntryRepository extends JpaRepository<TimelineEntry, TimelineEntryId> {
+
+    String ROW = "SELECT new com.librishare.backend.modules.social.dto.TimelineRow(" +
+            "u.id, u.firstName, u.lastName, h.id, h.eventType, h.bookId, b.title, h.loanId, l.borrowerName, " +
+            "h.actionType, h.description, h.createdAt) ";
+
+    String NAMES = "LEFT JOIN Book b ON b.id = h.bookId LEFT JOIN Loan l ON l.id = h.loanId ";
+
+    // Push: varredura única de idx_timeline_follower_created; o histórico é lido pela PK (id, created_at)
+    String PUSHED = ROW +
+            "FROM TimelineEntry t " +
+            "JOIN UserHistory h ON h.id = t.id.historyId AND h.createdAt = t.createdAt " +
+            "JOIN User u ON u.id = t.authorId " + NAMES +
+            "WHERE t.id.followerId = :followerId AND t.createdAt >= :since ";
+
+    String PUSHED_ORDER = "ORDER BY t.createdAt DESC, t.id.historyId DESC";
+
+    // Pull: contas com muitos seguidores não são copiadas e são lidas direto do histórico
+    String PULLED = ROW +
+            "FROM UserHistory h JOIN h.user u " + NAMES +
+            "WHERE h.user.id IN (SELECT f.id.followeeId FROM Follow f, User fu " +
+            "WHERE fu.id = f.id.followeeId AND f.id.followerId = :followerId AND fu.followerCount >= :pullMinFollowers) " +
+            "AND h.createdAt >= :since ";
+
+    String PULLED_ORDER = "ORDER BY h.createdAt DESC, h.id DESC";
+
+    @Query(PUSHED + PUSHED_ORDER)
+    List<TimelineRow> findPushed(@Param("followerId") Long followerId,
+                                 @Param("since") OffsetDateTime since,
+                                 Limit limit);
+
+    @Query(PUSHED + "AND t.createdAt <= :createdAt AND (t.createdAt, t.id.historyId) < (:createdAt, :id) " + PUSHED_ORDER)
+    List<TimelineRow> findPushedBefore(@Param("followerId") Long followerId,
+                                       @Param("since") OffsetDateTime since,
+                                       @Param("createdAt") OffsetDateTime createdAt,
+                                       @Param("id") Long id,
+                                       Limit limit);
+
+    @Query(PULLED + PULLED_ORDER)
+    List<TimelineRow> findPulled(@Param("followerId") Long followerId,
+                                 @Param("pullMinFollowers") int pullMinFollowers,
+                                 @Param("since") OffsetDateTime since,
+                                 Limit limit);
+
+    @Query(PULLED + "AND h.createdAt <= :createdAt AND (h.createdAt, h.id) < (:createdAt, :id) " + PULLED_ORDER)
+    List<TimelineRow> findPulledBefore(@Param("followerId") Long followerId,
+                                       @Param("pullMinFollowers") int pullMinFollowers,
+                                       @Param("since") OffsetDateTime since,
+                                       @Param("createdAt") OffsetDateTime createdAt,
+                                       @Param("id") Long id,
+                                       Limit limit);
+
+    /**
+     * Fan-out em um único comando: copia para cada seguidor as entradas do autor
+     * gravadas desde {@code from}, se ele tiver menos de {@code pushMaxFollowers}
+     * seguidores. Repetir é inofensivo graças ao ON CONFLICT.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO timeline_entries (follower_id, history_id, author_id, created_at) " +
+            "SELECT f.follower_id, h.id, h.user_id, h.created_at " +
+            "FROM user_history h " +
+            "JOIN users a ON a.id = h.user_id " +
+            "JOIN follows f ON f.followee_id = h.user_id " +
+            "WHERE h.user_id = :authorId AND h.created_at >= :from AND a.follower_count < :pushMaxFollowers " +
+            "ON CONFLICT DO NOTHING",
+            nativeQuery = true)
+    int fanOut(@Param("authorId") Long authorId,
+               @Param("from") OffsetDateTime from,
+               @Param("pushMaxFollowers") int pushMaxFollowers);
+
+    // Ao começar a seguir, traz as entradas mais recentes de quem foi seguido
+    @Modifying
+    @Query(value = "INSERT INTO timeline_entries (follower_id, history_id, author_id, created_at) " +
+            "SELECT :followerId, h.id, h.user_id, h.created_at " +
+            "FROM user_history h " +
+            "WHERE h.user_id = :authorId AND h.created_at >= :since " +
+            "ORDER BY h.created_at DESC, h.id DESC " +
+            "LIMIT :size " +
+            "ON CONFLICT DO NOTHING",
+            nativeQuery = true)
+    int backfill(@Param("followerId") Long followerId,
+                 @Param("authorId") Long authorId,
+                 @Param("since") OffsetDateTime since,
+                 @Param("size") int size);
+
+    @Modifying
+    @Query("DELETE FROM TimelineEntry t WHERE t.id.followerId = :followerId AND t.authorId = :authorId")
+    int deleteByFollowerAndAuthor(@Param("followerId") Long followerId, @Param("authorId") Long authorId);
+
+    @Modifying
+    @Query("DELETE FROM TimelineEntry t WHERE t.createdAt < :before")
+    int deleteOlderThan(@Param("before") OffsetDateTime before);
+}
@@ -0,0 +1,7 @@
+package com.librishare.backend.modules.social.service;
+
+public interface FollowService {
+    void follow(Long followerId, Long followeeId);
+    void unfollow(Long followerId, Long followeeId);
+    void forgetFollower(Long followerId);
+}
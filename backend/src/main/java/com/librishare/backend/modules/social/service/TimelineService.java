@@ -0,0 +1,11 @@
+package com.librishare.backend.modules.social.service;
+
+import com.librishare.backend.modules.social.dto.TimelinePageDTO;
+
+import java.time.OffsetDateTime;
+
+public interface TimelineService {
+    void fanOut(Long authorId, OffsetDateTime from);
+    void backfill(Long followerId, Long authorId);
+    TimelinePageDTO getTimeline(Long userId, String before, int limit);
+}
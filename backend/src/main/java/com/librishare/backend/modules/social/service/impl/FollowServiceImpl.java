@@ -0,0 +1,64 @@
+package com.librishare.backend.modules.social.service.impl;
+
+import com.librishare.backend.config.security.AuthenticatedUser;
+import com.librishare.backend.exception.ResourceNotFoundException;
+import com.librishare.backend.modules.social.repository.FollowRepository;
+import com.librishare.backend.modules.social.repository.TimelineEntryRepository;
+import com.librishare.backend.modules.social.service.FollowService;
+import com.librishare.backend.modules.social.service.TimelineService;
+import com.librishare.backend.modules.user.repository.UserRepository;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+@Service
+@RequiredArgsConstructor
+public class FollowServiceImpl implements FollowService {
+
+    private final FollowRepository followRepository;
+    private final TimelineEntryRepository timelineRepository;
+    private final TimelineService timelineService;
+    private final UserRepository userRepository;
+
+    @Override
+    @Transactional
+    public void follow(Long followerId, Long followeeId) {
+        validatePair(followerId, followeeId);
+
+        if (followRepository.insertIfAbsent(followerId, followeeId) == 0) {
+            return;
+        }
+        followRepository.addFollowers(followeeId, 1);
+        timelineService.backfill(followerId, followeeId);
+    }
+
+    @Override
+    @Transactional
+    public void unfollow(Long followerId, Long followeeId) {
+        validatePair(followerId, followeeId);
+
+        if (followRepository.deleteByPair(followerId, followeeId) == 0) {
+            return;
+        }
+        followRepository.addFollowers(followeeId, -1);
+        timelineRepository.deleteByFollowerAndAuthor(followerId, followeeId);
+    }
+
+    @Override
+    @Transactional
+    public void forgetFollower(Long followerId) {
+        followRepository.removeFollowerFromAll(followerId);
+    }
+
+    private void validatePair(Long followerId, Long followeeId) {
+        if (followerId.equals(followeeId)) {
+            throw new IllegalArgumentException("Um usuário não pode seguir a si mesmo.");
+        }
+        if (!AuthenticatedUser.is(followerId) && !userRepository.existsById(followerId)) {
+            throw new ResourceNotFoundException("Usuário não encontrado com ID: " + followerId);
+        }
+        if (!userRepository.existsById(followeeId)) {
+            throw new ResourceNotFoundException("Usuário não encontrado com ID: " + followeeId);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.librishare.backend.modules.social.service.impl;
+
+import com.librishare.backend.modules.outbox.dto.OutboxMessage;
+import com.librishare.backend.modules.outbox.service.OutboxHandler;
+import com.librishare.backend.modules.social.dto.TimelineFanOutEvent;
+import com.librishare.backend.modules.social.service.TimelineService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/** Copia as novas entradas de histórico de um autor para as linhas do tempo dos seguidores. */
+@Component
+@RequiredArgsConstructor
+public class TimelineFanOutHandler implements OutboxHandler {
+
+    private final TimelineService timelineService;
+
+    @Override
+    public String key() {
+        return "timeline-fan-out";
+    }
+
+    @Override
+    public boolean handles(String eventType) {
+        return TimelineFanOutEvent.TYPE.equals(eventType);
+    }
+
+    @Override
+    public void handle(OutboxMessage message) {
+        TimelineFanOutEvent event = message.payload(TimelineFanOutEvent.class);
+        timelineService.fanOut(event.getAuthorId(), event.getFrom());
+    }
+}
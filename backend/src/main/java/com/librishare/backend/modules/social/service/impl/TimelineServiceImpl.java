@@ -0,0 +1,168 @@
+package com.librishare.backend.modules.social.service.impl;
+
+import com.librishare.backend.config.security.AuthenticatedUser;
+import com.librishare.backend.exception.ResourceNotFoundException;
+import com.librishare.backend.modules.history.dto.HistoryCursor;
+import com.librishare.backend.modules.history.service.impl.HistoryRenderer;
+import com.librishare.backend.modules.social.dto.TimelineItemDTO;
+import com.librishare.backend.modules.social.dto.TimelinePageDTO;
+import com.librishare.backend.modules.social.dto.TimelineRow;
+import com.librishare.backend.modules.social.repository.FollowRepository;
+import com.librishare.backend.modules.social.repository.TimelineEntryRepository;
+import com.librishare.backend.modules.social.service.TimelineService;
+import com.librishare.backend.modules.user.repository.UserRepository;
+import jakarta.transaction.Transactional;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.OffsetDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Linha do tempo com fan-out híbrido. Eventos de contas com menos de
+ * {@code push-max-followers} seguidores são copiados para cada seguidor na
+ * gravação; os de contas com pelo menos {@code pull-min-followers} são lidos do
+ * histórico na consulta e intercalados por data.
+ *
+ * <p>Na faixa entre os dois limites a conta é copiada e lida ao mesmo tempo, e a
+ * mesclagem descarta repetidos. Assim, quem cruza um limite não tem eventos
+ * perdidos nem duplicados, salvo se cair abaixo de {@code pull-min-followers}
+ * depois de passar de {@code push-max-followers}: os eventos do período em que
+ * não foram copiados deixam de aparecer.</p>
+ */
+@Slf4j
+@Service
+public class TimelineServiceImpl implements TimelineService {
+
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final OffsetDateTime NO_LOWER_BOUND = OffsetDateTime.of(1970, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+
+    private static final Comparator<TimelineRow> NEWEST_FIRST = Comparator
+            .comparing((TimelineRow row) -> row.getEntry().getCreatedAt())
+            .thenComparing(row -> row.getEntry().getId())
+            .reversed();
+
+    private final TimelineEntryRepository timelineRepository;
+    private final FollowRepository followRepository;
+    private final UserRepository userRepository;
+    private final HistoryRenderer renderer;
+    private final int pushMaxFollowers;
+    private final int pullMinFollowers;
+    private final int backfillSize;
+    private final int retentionMonths;
+
+    public TimelineServiceImpl(TimelineEntryRepository timelineRepository,
+                               FollowRepository followRepository,
+                               UserRepository userRepository,
+                               HistoryRenderer renderer,
+                               @Value("${librishare.timeline.push-max-followers:5000}") int pushMaxFollowers,
+                               @Value("${librishare.timeline.pull-min-followers:2500}") int pullMinFollowers,
+                               @Value("${librishare.timeline.backfill-size:50}") int backfillSize,
+                               @Value("${librishare.history.retention-months:24}") int retentionMonths) {
+        this.timelineRepository = timelineRepository;
+        this.followRepository = followRepository;
+        this.userRepository = userRepository;
+        this.renderer = renderer;
+        this.pushMaxFollowers = pushMaxFollowers;
+        this.pullMinFollowers = pullMinFollowers;
+        this.backfillSize = backfillSize;
+        this.retentionMonths = retentionMonths;
+    }
+
+    @Override
+    @Transactional
+    public void fanOut(Long authorId, OffsetDateTime from) {
+        timelineRepository.fanOut(authorId, from, pushMaxFollowers);
+    }
+
+    @Override
+    @Transactional
+    public void backfill(Long followerId, Long authorId) {
+        Integer followers = followRepository.findFollowerCount(authorId);
+        if (followers != null && followers >= pullMinFollowers) {
+            return;
+        }
+        timelineRepository.backfill(followerId, authorId, retentionStart(), backfillSize);
+    }
+
+    @Override
+    public TimelinePageDTO getTimeline(Long userId, String before, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("O limite deve ser entre 1 e " + MAX_PAGE_SIZE + ".");
+        }
+        if (!AuthenticatedUser.is(userId) && !userRepository.existsById(userId)) {
+            throw new ResourceNotFoundException("Usuário não encontrado");
+        }
+
+        Limit fetchLimit = Limit.of(limit + 1);
+        OffsetDateTime since = retentionStart();
+        List<TimelineRow> pushed;
+        List<TimelineRow> pulled;
+        if (before == null || before.isBlank()) {
+            pushed = timelineRepository.findPushed(userId, since, fetchLimit);
+            pulled = timelineRepository.findPulled(userId, pullMinFollowers, since, fetchLimit);
+        } else {
+            HistoryCursor cursor = HistoryCursor.decode(before);
+            pushed = timelineRepository.findPushedBefore(userId, since, cursor.getCreatedAt(), cursor.getId(), fetchLimit);
+            pulled = timelineRepository.findPulledBefore(
+                    userId, pullMinFollowers, since, cursor.getCreatedAt(), cursor.getId(), fetchLimit);
+        }
+
+        List<TimelineRow> merged = merge(pushed, pulled);
+        String nextCursor = null;
+        if (merged.size() > limit) {
+            merged = merged.subList(0, limit);
+            TimelineRow last = merged.get(limit - 1);
+            nextCursor = HistoryCursor.encode(last.getEntry().getCreatedAt(), last.getEntry().getId());
+        }
+
+        Locale locale = LocaleContextHolder.getLocale();
+        List<TimelineItemDTO> items = merged.stream()
+                .map(row -> new TimelineItemDTO(row.getAuthorId(), row.getAuthorName(), renderer.render(row.getEntry(), locale)))
+                .collect(Collectors.toList());
+        return new TimelinePageDTO(items, nextCursor);
+    }
+
+    // Ambas as listas já vêm ordenadas; a mesma entrada pode estar nas duas
+    private List<TimelineRow> merge(List<TimelineRow> pushed, List<TimelineRow> pulled) {
+        if (pulled.isEmpty()) {
+            return pushed;
+        }
+        Map<Long, TimelineRow> byId = new LinkedHashMap<>();
+        pushed.forEach(row -> byId.put(row.getEntry().getId(), row));
+        pulled.forEach(row -> byId.putIfAbsent(row.getEntry().getId(), row));
+        List<TimelineRow> merged = new ArrayList<>(byId.values());
+        merged.sort(NEWEST_FIRST);
+        return merged;
+    }
+
+    // As entradas apontam para o histórico; passada a retenção dele, não têm mais o que mostrar
+    @Scheduled(cron = "${librishare.timeline.prune.cron:0 0 4 * * *}", zone = "UTC")
+    @Transactional
+    public void pruneExpired() {
+        if (retentionMonths <= 0) {
+            return;
+        }
+        int removed = timelineRepository.deleteOlderThan(retentionStart());
+        log.info("Removidas {} entradas expiradas das linhas do tempo", removed);
+    }
+
+    private OffsetDateTime retentionStart() {
+        if (retentionMonths <= 0) {
+            return NO_LOWER_BOUND;
+        }
+        return YearMonth.now(ZoneOffset.UTC).minusMonths(retentionMonths).atDay(1).atStartOfDay().atOffset(ZoneOffset.UTC);
+    }
+}
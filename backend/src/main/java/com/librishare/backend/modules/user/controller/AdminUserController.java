@@ -0,0 +1,74 @@
+package com.librishare.backend.modules.user.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.librishare.backend.modules.user.dto.UserResponseDTO;
+import com.librishare.backend.modules.user.service.UserService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+@RestController
+@RequestMapping("/api/v1/admin/users")
+@Tag(name = "Administração de Usuários", description = "Ferramentas administrativas; exigem o token de um administrador")
+@RequiredArgsConstructor
+public class AdminUserController {
+
+    private final UserService userService;
+    private final ObjectMapper objectMapper;
+
+    @Operation(
+            summary = "Exporta os usuários em NDJSON",
+            description = "Transmite todos os usuários que atendem a 'q', com email, um objeto JSON por linha, " +
+                    "lidos do banco em lotes para não acumular a lista em memória. Exige o token de um administrador."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Exportação transmitida",
+                    content = @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE,
+                            schema = @Schema(implementation = UserResponseDTO.class))),
+            @ApiResponse(responseCode = "401", description = "Sem token de acesso", content = @Content),
+            @ApiResponse(responseCode = "403", description = "O usuário do token não é administrador", content = @Content)
+    })
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public StreamingResponseBody exportUsers(
+            @Parameter(description = "Início do email, nome ou sobrenome (sem diferenciar maiúsculas)", example = "bia")
+            @RequestParam(required = false) String q,
+            HttpServletResponse response) throws IOException {
+        // Cabeçalhos enviados aqui, na thread da requisição: os filtros não podem mexer
+        // neles enquanto o corpo é escrito em outra thread
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        response.flushBuffer();
+        return out -> {
+            OutputStream buffered = new BufferedOutputStream(out);
+            try {
+                userService.exportUsers(q, user -> {
+                    try {
+                        buffered.write(objectMapper.writeValueAsBytes(user));
+                        buffered.write('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            buffered.flush();
+        };
+    }
+}
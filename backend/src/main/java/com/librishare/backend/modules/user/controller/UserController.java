@@ -1,11 +1,17 @@
 package com.librishare.backend.modules.user.controller;
 
+import com.librishare.backend.modules.idempotency.filter.IdempotencyFilter;
 import com.librishare.backend.modules.user.dto.LoginRequestDTO;
+import com.librishare.backend.modules.user.dto.LoginResponseDTO;
+import com.librishare.backend.modules.user.dto.UserDeletionDTO;
+import com.librishare.backend.modules.user.dto.UserPageDTO;
 import com.librishare.backend.modules.user.dto.UserRequestDTO;
 import com.librishare.backend.modules.user.dto.UserResponseDTO;
 import com.librishare.backend.modules.user.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.enums.ParameterIn;
+import io.swagger.v3.oas.annotations.headers.Header;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -18,6 +24,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.net.URI;
 import java.util.List;
 
 @RestController
@@ -26,6 +33,8 @@ import java.util.List;
 @RequiredArgsConstructor
 public class UserController {
 
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final UserService userService;
 
     @Operation(
@@ -40,6 +49,7 @@ public class UserController {
             @ApiResponse(responseCode = "409", description = "Email ou CPF já existem no sistema",
                     content = @Content)
     })
+    @Parameter(in = ParameterIn.HEADER, name = IdempotencyFilter.HEADER, description = IdempotencyFilter.HEADER_DESCRIPTION)
     @PostMapping
     public ResponseEntity<UserResponseDTO> createUser(@Valid @RequestBody UserRequestDTO userRequestDTO) {
         UserResponseDTO createdUser = userService.createUser(userRequestDTO);
@@ -47,18 +57,33 @@ public class UserController {
     }
 
     @Operation(
-            summary = "Lista todos os usuários",
-            description = "Retorna uma lista pública com dados básicos de todos os usuários cadastrados."
+            summary = "Lista os usuários (diretório)",
+            description = "Retorna os usuários em ordem de cadastro, em páginas. 'q' filtra pelo início do email, nome ou sobrenome. " +
+                    "Quando há mais itens, o cabeçalho X-Next-Cursor traz o valor a ser enviado em 'after' para buscar a próxima página."
     )
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Lista recuperada com sucesso",
+            @ApiResponse(responseCode = "200", description = "Página recuperada com sucesso",
+                    headers = @Header(name = NEXT_CURSOR_HEADER, description = "Cursor da próxima página, ausente na última"),
                     content = @Content(mediaType = "application/json",
-                            array = @ArraySchema(schema = @Schema(implementation = UserResponseDTO.class))))
+                            array = @ArraySchema(schema = @Schema(implementation = UserResponseDTO.class)))),
+            @ApiResponse(responseCode = "400", description = "Cursor ou limite inválido",
+                    content = @Content)
     })
     @GetMapping
-    public ResponseEntity<List<UserResponseDTO>> getAllUsers() {
-        List<UserResponseDTO> users = userService.findAllUsers();
-        return ResponseEntity.ok(users);
+    public ResponseEntity<List<UserResponseDTO>> getAllUsers(
+            @Parameter(description = "Início do email, nome ou sobrenome (sem diferenciar maiúsculas)", example = "bia")
+            @RequestParam(required = false) String q,
+            @Parameter(description = "Cursor recebido em X-Next-Cursor; omitido na primeira página")
+            @RequestParam(required = false) String after,
+            @Parameter(description = "Quantidade de itens por página (1 a 100)", example = "20")
+            @RequestParam(defaultValue = "20") int limit) {
+        UserPageDTO page = userService.findUsers(q, after, limit);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getItems());
     }
 
     @Operation(
@@ -122,36 +147,57 @@ public class UserController {
 
     @Operation(
             summary = "Exclui um usuário",
-            description = "Remove permanentemente a conta do usuário do sistema."
+            description = "Marca a conta como excluída na hora e agenda a remoção dos dados (biblioteca, empréstimos, histórico, seguidores), " +
+                    "feita em segundo plano e em lotes. O cabeçalho Location aponta para o progresso da limpeza."
     )
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "204", description = "Conta excluída com sucesso",
-                    content = @Content),
+            @ApiResponse(responseCode = "202", description = "Exclusão aceita; a limpeza segue em segundo plano",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = UserDeletionDTO.class))),
             @ApiResponse(responseCode = "404", description = "Usuário não encontrado",
                     content = @Content)
     })
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> deleteUser(
+    public ResponseEntity<UserDeletionDTO> deleteUser(
             @Parameter(description = "ID do usuário a ser excluído", example = "1")
             @PathVariable Long id) {
-        userService.deleteUser(id);
-        return ResponseEntity.noContent().build();
+        UserDeletionDTO deletion = userService.deleteUser(id);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/v1/users/" + id + "/deletion"))
+                .body(deletion);
+    }
+
+    @Operation(
+            summary = "Progresso da exclusão de um usuário",
+            description = "Mostra a etapa atual da limpeza e quantas linhas já foram apagadas. A etapa DONE indica que a conta foi removida."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Progresso da exclusão",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = UserDeletionDTO.class))),
+            @ApiResponse(responseCode = "404", description = "Nenhuma exclusão registrada para o usuário",
+                    content = @Content)
+    })
+    @GetMapping("/{id}/deletion")
+    public ResponseEntity<UserDeletionDTO> getDeletionStatus(
+            @Parameter(description = "ID do usuário excluído", example = "1")
+            @PathVariable Long id) {
+        return ResponseEntity.ok(userService.getDeletionStatus(id));
     }
 
     @Operation(
             summary = "Autenticação (Login)",
-            description = "Verifica as credenciais (email e senha) e retorna os dados do usuário se forem válidas."
+            description = "Verifica as credenciais (email e senha) e retorna os dados do usuário com um token de acesso assinado. " +
+                    "O token vai no cabeçalho Authorization: Bearer das chamadas seguintes."
     )
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Autenticação bem-sucedida",
-                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = UserResponseDTO.class))),
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = LoginResponseDTO.class))),
             @ApiResponse(responseCode = "400", description = "Formato de requisição inválido", content = @Content),
             @ApiResponse(responseCode = "401", description = "Credenciais inválidas (Email inexistente ou senha incorreta)",
                     content = @Content)
     })
     @PostMapping("/login")
-    public ResponseEntity<UserResponseDTO> login(@Valid @RequestBody LoginRequestDTO loginRequestDTO) {
-        UserResponseDTO user = userService.login(loginRequestDTO);
-        return ResponseEntity.ok(user);
+    public ResponseEntity<LoginResponseDTO> login(@Valid @RequestBody LoginRequestDTO loginRequestDTO) {
+        LoginResponseDTO login = userService.login(loginRequestDTO);
+        return ResponseEntity.ok(login);
     }
 }
\ No newline at end of file
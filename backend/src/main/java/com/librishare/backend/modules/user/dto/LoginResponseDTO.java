@@ -0,0 +1,20 @@
+package com.librishare.backend.modules.user.dto;
+
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Mesmos campos de UserResponseDTO, mais o token de acesso
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class LoginResponseDTO {
+
+    @JsonUnwrapped
+    private UserResponseDTO user;
+
+    private String accessToken;
+    private String tokenType;
+    private long expiresIn;
+}
@@ -0,0 +1,20 @@
+package com.librishare.backend.modules.user.dto;
+
+import com.librishare.backend.modules.user.enums.UserDeletionStage;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.OffsetDateTime;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserDeletionDTO {
+    private Long userId;
+    private UserDeletionStage stage;
+    private long rowsDeleted;
+    private OffsetDateTime requestedAt;
+    // Nulo enquanto a limpeza não termina
+    private OffsetDateTime completedAt;
+}
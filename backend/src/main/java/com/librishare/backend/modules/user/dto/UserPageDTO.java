@@ -0,0 +1,16 @@
+package com.librishare.backend.modules.user.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserPageDTO {
+    private List<UserResponseDTO> items;
+    // Nulo quando não há mais páginas
+    private String nextCursor;
+}
@@ -0,0 +1,28 @@
+package com.librishare.backend.modules.user.dto;
+
+import com.librishare.backend.modules.user.entity.User;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Retrato imutável do perfil público de um usuário, guardado no cache e
+ * compartilhado entre threads. Cada resposta recebe a sua cópia em
+ * {@link UserResponseDTO}.
+ */
+public record UserProfile(Long id,
+                          String firstName,
+                          String lastName,
+                          String email,
+                          Integer annualReadingGoal,
+                          String avatar,
+                          OffsetDateTime createdAt) {
+
+    public static UserProfile of(User user) {
+        return new UserProfile(user.getId(), user.getFirstName(), user.getLastName(), user.getEmail(),
+                user.getAnnualReadingGoal(), user.getAvatar(), user.getCreatedAt());
+    }
+
+    public UserResponseDTO toResponse() {
+        return new UserResponseDTO(id, firstName, lastName, email, annualReadingGoal, avatar, createdAt);
+    }
+}
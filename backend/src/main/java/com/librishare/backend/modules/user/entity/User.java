@@ -3,6 +3,8 @@ package com.librishare.backend.modules.user.entity;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.SQLRestriction;
 import java.time.OffsetDateTime;
 
 @AllArgsConstructor
@@ -12,6 +14,10 @@ import java.time.OffsetDateTime;
 @Entity
 @Builder
 @Table(name = "users")
+// Contas excluídas somem das consultas na hora; a linha só sai ao fim da limpeza
+@SQLRestriction("deleted_at IS NULL")
+// UPDATE só com as colunas alteradas
+@DynamicUpdate
 public class User {
 
     @Id
@@ -24,7 +30,8 @@ public class User {
     @Column(nullable = false)
     private String lastName;
 
-    @Column(nullable = false, unique = true)
+    // Único sem diferenciar maiúsculas: índice uk_users_email_lower
+    @Column(nullable = false)
     private String email;
 
     private String password;
@@ -33,7 +40,17 @@ public class User {
 
     private Integer annualReadingGoal;
 
+    // Mantido apenas por FollowRepository, com UPDATE atômico
+    @Column(insertable = false, updatable = false)
+    private Integer followerCount;
+
+    // Concedido direto no banco (V18); vai para o token no login
+    @Column(insertable = false, updatable = false)
+    private boolean admin;
+
     @CreationTimestamp
     @Column(nullable = false, updatable = false)
     private OffsetDateTime createdAt;
+
+    private OffsetDateTime deletedAt;
 }
\ No newline at end of file
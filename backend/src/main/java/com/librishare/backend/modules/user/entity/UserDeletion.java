@@ -0,0 +1,39 @@
+package com.librishare.backend.modules.user.entity;
+
+import com.librishare.backend.modules.user.enums.UserDeletionStage;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Exclusão de usuário em andamento. Cada lote apagado pelo {@code UserPurgeJob}
+ * atualiza a etapa e o total na mesma transação, de modo que a limpeza retoma
+ * de onde parou após uma falha ou reinício.
+ */
+@Entity
+@Table(name = "user_deletions")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserDeletion {
+    @Id
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    private UserDeletionStage stage;
+
+    private long rowsDeleted;
+
+    private OffsetDateTime requestedAt;
+
+    // Antes disso a limpeza não é retomada: reservada por uma instância ou aguardando nova tentativa
+    private OffsetDateTime availableAt;
+
+    private int attempts;
+
+    private String lastError;
+
+    private OffsetDateTime completedAt;
+}
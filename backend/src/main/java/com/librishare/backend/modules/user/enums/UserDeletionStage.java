@@ -0,0 +1,22 @@
+package com.librishare.backend.modules.user.enums;
+
+/**
+ * Etapas da limpeza de um usuário excluído, na ordem em que rodam. Primeiro
+ * saem os dados visíveis a outros usuários (linhas do tempo e seguidores); a
+ * linha de {@code users} é a última.
+ */
+public enum UserDeletionStage {
+    TIMELINE,
+    FOLLOWS,
+    LOANS,
+    LIBRARY,
+    BORROWERS,
+    LOAN_STATS,
+    HISTORY,
+    USER,
+    DONE;
+
+    public UserDeletionStage next() {
+        return this == DONE ? DONE : values()[ordinal() + 1];
+    }
+}
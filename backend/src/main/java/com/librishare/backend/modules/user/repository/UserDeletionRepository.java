@@ -0,0 +1,86 @@
+package com.librishare.backend.modules.user.repository;
+
+import com.librishare.backend.modules.user.entity.UserDeletion;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+/**
+ * Exclusões pendentes e os lotes da limpeza. Cada DELETE apaga no máximo
+ * {@code limit} linhas do usuário, escolhidas por uma subconsulta, para que
+ * nenhuma transação segure muitos bloqueios.
+ */
+@Repository
+public interface UserDeletionRepository extends JpaRepository<UserDeletion, Long> {
+
+    // SKIP LOCKED (timeout -2): outras instâncias pegam a próxima exclusão em vez de esperar
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT d FROM UserDeletion d WHERE d.completedAt IS NULL AND d.availableAt <= :now ORDER BY d.requestedAt")
+    List<UserDeletion> findDue(@Param("now") OffsetDateTime now, Limit limit);
+
+    @Modifying
+    @Query("UPDATE UserDeletion d SET d.attempts = d.attempts + 1, d.lastError = :error, d.availableAt = :retryAt " +
+            "WHERE d.userId = :userId")
+    int markFailedAttempt(@Param("userId") Long userId, @Param("error") String error,
+                          @Param("retryAt") OffsetDateTime retryAt);
+
+    @Modifying
+    @Query("DELETE FROM UserDeletion d WHERE d.completedAt < :before")
+    int deleteCompletedBefore(@Param("before") OffsetDateTime before);
+
+    @Modifying
+    @Query(value = "DELETE FROM timeline_entries WHERE (follower_id, history_id) IN (" +
+            "SELECT follower_id, history_id FROM timeline_entries " +
+            "WHERE follower_id = :userId OR author_id = :userId LIMIT :limit)", nativeQuery = true)
+    int deleteTimelineBatch(@Param("userId") Long userId, @Param("limit") int limit);
+
+    @Modifying
+    @Query(value = "DELETE FROM follows WHERE (follower_id, followee_id) IN (" +
+            "SELECT follower_id, followee_id FROM follows " +
+            "WHERE follower_id = :userId OR followee_id = :userId LIMIT :limit)", nativeQuery = true)
+    int deleteFollowsBatch(@Param("userId") Long userId, @Param("limit") int limit);
+
+    @Modifying
+    @Query(value = "DELETE FROM loans WHERE id IN (" +
+            "SELECT l.id FROM loans l JOIN user_books ub ON ub.id = l.user_book_id " +
+            "WHERE ub.user_id = :userId LIMIT :limit)", nativeQuery = true)
+    int deleteLoansBatch(@Param("userId") Long userId, @Param("limit") int limit);
+
+    @Modifying
+    @Query(value = "DELETE FROM user_books WHERE id IN (" +
+            "SELECT id FROM user_books WHERE user_id = :userId LIMIT :limit)", nativeQuery = true)
+    int deleteLibraryBatch(@Param("userId") Long userId, @Param("limit") int limit);
+
+    @Modifying
+    @Query(value = "DELETE FROM borrowers WHERE id IN (" +
+            "SELECT id FROM borrowers WHERE owner_user_id = :userId LIMIT :limit)", nativeQuery = true)
+    int deleteBorrowersBatch(@Param("userId") Long userId, @Param("limit") int limit);
+
+    @Modifying
+    @Query(value = "DELETE FROM loan_monthly_stats WHERE owner_user_id = :userId AND (borrower_key, stats_month) IN (" +
+            "SELECT borrower_key, stats_month FROM loan_monthly_stats WHERE owner_user_id = :userId LIMIT :limit)",
+            nativeQuery = true)
+    int deleteLoanStatsBatch(@Param("userId") Long userId, @Param("limit") int limit);
+
+    // user_id também fora da subconsulta: no PostgreSQL a tabela é particionada e o id não é único sozinho
+    @Modifying
+    @Query(value = "DELETE FROM user_history WHERE user_id = :userId AND id IN (" +
+            "SELECT id FROM user_history WHERE user_id = :userId LIMIT :limit)", nativeQuery = true)
+    int deleteHistoryBatch(@Param("userId") Long userId, @Param("limit") int limit);
+
+    // Só a conta já marcada; as FKs em cascata levam o que tenha sido gravado durante a limpeza
+    @Modifying
+    @Query(value = "DELETE FROM users WHERE id = :userId AND deleted_at IS NOT NULL", nativeQuery = true)
+    int deleteUserRow(@Param("userId") Long userId);
+}
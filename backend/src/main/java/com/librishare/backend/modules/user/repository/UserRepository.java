@@ -1,14 +1,51 @@
 package com.librishare.backend.modules.user.repository;
 
+import com.librishare.backend.modules.user.dto.UserResponseDTO;
 import com.librishare.backend.modules.user.entity.User;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
 
+    // Diretório por keyset em id crescente, projetado direto no DTO (nada fica no contexto de persistência)
+    String SELECT_DIRECTORY = "SELECT new com.librishare.backend.modules.user.dto.UserResponseDTO(" +
+            "u.id, u.firstName, u.lastName, u.email, u.annualReadingGoal, u.avatar, u.createdAt) " +
+            "FROM User u WHERE u.id > :after ";
+    String MATCHES_PREFIX = "AND (LOWER(u.email) LIKE :prefix ESCAPE '\\' " +
+            "OR LOWER(u.firstName) LIKE :prefix ESCAPE '\\' " +
+            "OR LOWER(u.lastName) LIKE :prefix ESCAPE '\\') ";
+    String BY_ID = "ORDER BY u.id";
+
     Optional<User> findByEmail(String email);
 
+    // email já normalizado; usa o índice em lower(email)
+    @Query("SELECT u.id FROM User u WHERE LOWER(u.email) = :email ORDER BY u.id")
+    List<Long> findIdsByNormalizedEmail(@Param("email") String email, Limit limit);
+
+    @Query(SELECT_DIRECTORY + BY_ID)
+    List<UserResponseDTO> findDirectoryPage(@Param("after") Long after, Limit limit);
+
+    // prefix já em minúsculas, com %, _ e a barra invertida escapados, terminado em %
+    @Query(SELECT_DIRECTORY + MATCHES_PREFIX + BY_ID)
+    List<UserResponseDTO> findDirectoryPageByPrefix(@Param("prefix") String prefix,
+                                                    @Param("after") Long after,
+                                                    Limit limit);
+
+    // Só troca se a senha não tiver mudado desde a leitura
+    @Transactional
+    @Modifying
+    @Query("UPDATE User u SET u.password = :newPassword WHERE u.id = :id AND u.password = :oldPassword")
+    int replacePassword(@Param("id") Long id,
+                        @Param("oldPassword") String oldPassword,
+                        @Param("newPassword") String newPassword);
+
 }
\ No newline at end of file
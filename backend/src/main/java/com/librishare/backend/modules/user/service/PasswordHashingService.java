@@ -0,0 +1,24 @@
+package com.librishare.backend.modules.user.service;
+
+import java.util.function.Consumer;
+
+/**
+ * Hash de senhas fora das threads de requisição, em um pool de tamanho fixo.
+ * Com o pool e a fila cheios, as chamadas falham na hora com
+ * {@link com.librishare.backend.exception.ServiceUnavailableException}.
+ */
+public interface PasswordHashingService {
+
+    String encode(String rawPassword);
+
+    boolean matches(String rawPassword, String encodedPassword);
+
+    /** Indica se o hash foi gerado com um custo diferente do configurado. */
+    boolean needsRehash(String encodedPassword);
+
+    /**
+     * Gera um novo hash em segundo plano e o entrega a {@code onEncoded}. Se o pool
+     * estiver saturado, nada é feito; a troca fica para o próximo login.
+     */
+    void rehashLater(String rawPassword, Consumer<String> onEncoded);
+}
@@ -0,0 +1,72 @@
+package com.librishare.backend.modules.user.service;
+
+import com.librishare.backend.config.cache.TwoTierCache;
+import com.librishare.backend.modules.user.dto.UserProfile;
+import com.librishare.backend.modules.user.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Perfis de usuário lidos pelo cache, por id e por email normalizado (sem
+ * espaços nas pontas e em minúsculas). O índice de email guarda só o id; o
+ * perfil vem sempre do cache por id, de modo que uma única invalidação por id
+ * vale para as duas formas de busca.
+ *
+ * <p>Buscas sem resultado não são guardadas. Quem altera ou remove um usuário
+ * chama {@link #evict} com o id e os emails envolvidos.</p>
+ */
+@Component
+@RequiredArgsConstructor
+public class UserProfileLookup {
+
+    private final UserRepository userRepository;
+    private final TwoTierCache<Long, UserProfile> userProfileCache;
+    private final TwoTierCache<String, Long> userEmailCache;
+
+    public Optional<UserProfile> findById(Long id) {
+        return Optional.ofNullable(userProfileCache.get(id,
+                () -> userRepository.findById(id).map(UserProfile::of).orElse(null)));
+    }
+
+    /** Substitui {@code existsById} nas verificações de existência feitas a cada requisição. */
+    public boolean exists(Long id) {
+        return findById(id).isPresent();
+    }
+
+    public Optional<UserProfile> findByEmail(String email) {
+        String normalized = normalize(email);
+        Optional<UserProfile> profile = findByNormalizedEmail(normalized);
+        if (profile.isPresent() && !normalize(profile.get().email()).equals(normalized)) {
+            // O email mudou depois que o id foi guardado: descarta e consulta de novo
+            userEmailCache.evict(normalized);
+            profile = findByNormalizedEmail(normalized);
+        }
+        return profile;
+    }
+
+    public void evict(Long id, String... emails) {
+        userProfileCache.evict(id);
+        for (String email : emails) {
+            if (email != null) {
+                userEmailCache.evict(normalize(email));
+            }
+        }
+    }
+
+    public static String normalize(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private Optional<UserProfile> findByNormalizedEmail(String normalized) {
+        Long id = userEmailCache.get(normalized, () -> {
+            List<Long> ids = userRepository.findIdsByNormalizedEmail(normalized, Limit.of(1));
+            return ids.isEmpty() ? null : ids.get(0);
+        });
+        return id != null ? findById(id) : Optional.empty();
+    }
+}
@@ -1,10 +1,13 @@
 package com.librishare.backend.modules.user.service;
 
 import com.librishare.backend.modules.user.dto.LoginRequestDTO;
+import com.librishare.backend.modules.user.dto.UserDeletionDTO;
+import com.librishare.backend.modules.user.dto.LoginResponseDTO;
+import com.librishare.backend.modules.user.dto.UserPageDTO;
 import com.librishare.backend.modules.user.dto.UserRequestDTO;
 import com.librishare.backend.modules.user.dto.UserResponseDTO;
 
-import java.util.List;
+import java.util.function.Consumer;
 
 public interface UserService {
 
@@ -12,13 +15,27 @@ public interface UserService {
 
     UserResponseDTO findUserById(Long id);
 
-    List<UserResponseDTO> findAllUsers();
+    /**
+     * Página do diretório de usuários em ordem de id. {@code query} filtra pelo
+     * início do email, nome ou sobrenome, sem diferenciar maiúsculas; {@code after}
+     * é o cursor devolvido pela página anterior.
+     */
+    UserPageDTO findUsers(String query, String after, int limit);
+
+    /** Entrega ao {@code sink}, em lotes lidos por keyset, todos os usuários que atendem ao filtro. */
+    void exportUsers(String query, Consumer<UserResponseDTO> sink);
 
     UserResponseDTO updateUser(Long id, UserRequestDTO userRequestDTO);
 
-    void deleteUser(Long id);
+    /**
+     * Marca o usuário como excluído e agenda a limpeza dos seus dados, feita em
+     * lotes pelo {@code UserPurgeJob}. A conta deixa de aparecer na hora.
+     */
+    UserDeletionDTO deleteUser(Long id);
+
+    UserDeletionDTO getDeletionStatus(Long id);
 
     UserResponseDTO findUserByEmail(String email);
 
-    UserResponseDTO login(LoginRequestDTO loginRequestDTO);
+    LoginResponseDTO login(LoginRequestDTO loginRequestDTO);
 }
\ No newline at end of file
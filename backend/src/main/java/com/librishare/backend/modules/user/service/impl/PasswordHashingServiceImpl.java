@@ -0,0 +1,187 @@
+package com.librishare.backend.modules.user.service.impl;
+
+import com.librishare.backend.exception.ServiceUnavailableException;
+import com.librishare.backend.modules.user.service.PasswordHashingService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Executa o BCrypt em um pool próprio, com no máximo {@code threads} hashes
+ * simultâneos e {@code queue-capacity} à espera. Em uma rajada de logins o custo
+ * de CPU fica limitado ao pool, e as demais rotas continuam respondendo; o que
+ * não cabe na fila, ou espera mais que {@code max-wait-ms}, recebe 503.
+ *
+ * <p>Métricas: {@code librishare.password.queue} (tempo na fila),
+ * {@code librishare.password.hash} (tempo do hash), {@code librishare.password.rejected}
+ * e {@code librishare.password.pending}.</p>
+ */
+@Slf4j
+@Service
+public class PasswordHashingServiceImpl implements PasswordHashingService {
+
+    private static final Pattern BCRYPT_COST = Pattern.compile("^\\$2[abxy]?\\$(\\d{2})\\$");
+    private static final long RETRY_AFTER_SECONDS = 1;
+
+    private final PasswordEncoder passwordEncoder;
+    private final int strength;
+    private final long maxWaitMillis;
+    private final ThreadPoolExecutor executor;
+
+    private final Timer queueTimer;
+    private final Timer hashTimer;
+    private final Counter rejectedCounter;
+
+    public PasswordHashingServiceImpl(PasswordEncoder passwordEncoder,
+                                      ObjectProvider<MeterRegistry> meterRegistry,
+                                      @Value("${librishare.security.bcrypt.strength:10}") int strength,
+                                      @Value("${librishare.security.hashing.threads:2}") int threads,
+                                      @Value("${librishare.security.hashing.queue-capacity:64}") int queueCapacity,
+                                      @Value("${librishare.security.hashing.max-wait-ms:2000}") long maxWaitMillis) {
+        this.passwordEncoder = passwordEncoder;
+        this.strength = strength;
+        this.maxWaitMillis = maxWaitMillis;
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+            Thread thread = new Thread(runnable, "password-hashing-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        if (registry != null) {
+            this.queueTimer = Timer.builder("librishare.password.queue")
+                    .description("Tempo de espera na fila de hash de senhas")
+                    .register(registry);
+            this.hashTimer = Timer.builder("librishare.password.hash")
+                    .description("Tempo de cálculo do hash de senhas")
+                    .register(registry);
+            this.rejectedCounter = Counter.builder("librishare.password.rejected")
+                    .description("Operações recusadas com o pool de hash saturado")
+                    .register(registry);
+            Gauge.builder("librishare.password.pending", executor, pool -> pool.getQueue().size())
+                    .description("Operações aguardando na fila de hash")
+                    .register(registry);
+        } else {
+            this.queueTimer = null;
+            this.hashTimer = null;
+            this.rejectedCounter = null;
+        }
+    }
+
+    @Override
+    public String encode(String rawPassword) {
+        return run(() -> passwordEncoder.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(String rawPassword, String encodedPassword) {
+        return run(() -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean needsRehash(String encodedPassword) {
+        if (encodedPassword == null) {
+            return false;
+        }
+        Matcher matcher = BCRYPT_COST.matcher(encodedPassword);
+        return matcher.find() && Integer.parseInt(matcher.group(1)) != strength;
+    }
+
+    @Override
+    public void rehashLater(String rawPassword, Consumer<String> onEncoded) {
+        try {
+            executor.execute(() -> {
+                try {
+                    onEncoded.accept(timed(() -> passwordEncoder.encode(rawPassword)));
+                } catch (Exception e) {
+                    log.warn("Falha ao atualizar o hash de senha", e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            log.debug("Pool de hash saturado; atualização do hash adiada para o próximo login");
+        }
+    }
+
+    private <T> T run(Callable<T> task) {
+        long enqueuedAt = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                record(queueTimer, System.nanoTime() - enqueuedAt);
+                return timed(task);
+            });
+        } catch (RejectedExecutionException e) {
+            throw saturated();
+        }
+
+        try {
+            return future.get(maxWaitMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // Ainda na fila: libera a vaga para quem chegar depois
+            future.cancel(false);
+            if (future instanceof Runnable queued) {
+                executor.remove(queued);
+            }
+            throw saturated();
+        } catch (InterruptedException e) {
+            future.cancel(false);
+            Thread.currentThread().interrupt();
+            throw saturated();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private <T> T timed(Callable<T> task) throws Exception {
+        long start = System.nanoTime();
+        try {
+            return task.call();
+        } finally {
+            record(hashTimer, System.nanoTime() - start);
+        }
+    }
+
+    private ServiceUnavailableException saturated() {
+        if (rejectedCounter != null) {
+            rejectedCounter.increment();
+        }
+        return new ServiceUnavailableException("Servidor ocupado. Tente novamente em instantes.", RETRY_AFTER_SECONDS);
+    }
+
+    private static void record(Timer timer, long nanos) {
+        if (timer != null) {
+            timer.record(nanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
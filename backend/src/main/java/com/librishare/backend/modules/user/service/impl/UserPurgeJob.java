@@ -0,0 +1,177 @@
+package com.librishare.backend.modules.user.service.impl;
+
+import com.librishare.backend.modules.user.entity.UserDeletion;
+import com.librishare.backend.modules.user.enums.UserDeletionStage;
+import com.librishare.backend.modules.user.repository.UserDeletionRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+
+/**
+ * Apaga os dados dos usuários excluídos, em lotes de até {@code batch-size}
+ * linhas, cada um na sua transação, com {@code pause-ms} entre eles para não
+ * disputar bloqueios com as gravações dos demais usuários.
+ *
+ * <p>A etapa e o total apagado são gravados junto com cada lote em
+ * {@code user_deletions}; após uma falha ou reinício, a limpeza continua da
+ * etapa em que estava. Uma exclusão é reservada por {@code lease-seconds}
+ * (renovado a cada lote), para que só uma instância trabalhe nela; uma falha
+ * adia a próxima tentativa por {@code retry-delay-seconds}.</p>
+ *
+ * <p>Exclusões concluídas ficam disponíveis para consulta de progresso por
+ * {@code retention-days}.</p>
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "librishare.users.purge.enabled", havingValue = "true", matchIfMissing = true)
+public class UserPurgeJob {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final UserDeletionRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final long pauseMillis;
+    private final Duration lease;
+    private final Duration retryDelay;
+    private final Duration retention;
+
+    private final Counter rowsCounter;
+    private final Counter completedCounter;
+    private final Counter failedCounter;
+
+    public UserPurgeJob(UserDeletionRepository repository,
+                        TransactionTemplate transactionTemplate,
+                        ObjectProvider<MeterRegistry> meterRegistry,
+                        @Value("${librishare.users.purge.batch-size:1000}") int batchSize,
+                        @Value("${librishare.users.purge.pause-ms:50}") long pauseMillis,
+                        @Value("${librishare.users.purge.lease-seconds:120}") long leaseSeconds,
+                        @Value("${librishare.users.purge.retry-delay-seconds:60}") long retryDelaySeconds,
+                        @Value("${librishare.users.purge.retention-days:30}") long retentionDays) {
+        this.repository = repository;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.pauseMillis = pauseMillis;
+        this.lease = Duration.ofSeconds(leaseSeconds);
+        this.retryDelay = Duration.ofSeconds(retryDelaySeconds);
+        this.retention = Duration.ofDays(retentionDays);
+
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        if (registry != null) {
+            this.rowsCounter = Counter.builder("librishare.users.purge.rows")
+                    .description("Linhas apagadas pela limpeza de usuários excluídos")
+                    .register(registry);
+            this.completedCounter = Counter.builder("librishare.users.purge.completed")
+                    .description("Exclusões de usuário concluídas")
+                    .register(registry);
+            this.failedCounter = Counter.builder("librishare.users.purge.failed")
+                    .description("Tentativas de limpeza interrompidas por erro")
+                    .register(registry);
+        } else {
+            this.rowsCounter = null;
+            this.completedCounter = null;
+            this.failedCounter = null;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${librishare.users.purge.interval-ms:10000}")
+    public void run() {
+        Long userId;
+        while ((userId = claim()) != null) {
+            purge(userId);
+        }
+        transactionTemplate.executeWithoutResult(status ->
+                repository.deleteCompletedBefore(OffsetDateTime.now().minus(retention)));
+    }
+
+    private Long claim() {
+        return transactionTemplate.execute(status -> {
+            OffsetDateTime now = OffsetDateTime.now();
+            List<UserDeletion> due = repository.findDue(now, Limit.of(1));
+            if (due.isEmpty()) {
+                return null;
+            }
+            UserDeletion deletion = due.get(0);
+            deletion.setAvailableAt(now.plus(lease));
+            return deletion.getUserId();
+        });
+    }
+
+    private void purge(Long userId) {
+        try {
+            while (!Boolean.TRUE.equals(transactionTemplate.execute(status -> purgeBatch(userId)))) {
+                if (pauseMillis > 0) {
+                    Thread.sleep(pauseMillis);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            increment(failedCounter);
+            log.warn("Limpeza do usuário {} interrompida; nova tentativa em {}", userId, retryDelay, e);
+            String error = String.valueOf(e.getMessage());
+            transactionTemplate.executeWithoutResult(status -> repository.markFailedAttempt(userId,
+                    error.substring(0, Math.min(error.length(), MAX_ERROR_LENGTH)),
+                    OffsetDateTime.now().plus(retryDelay)));
+        }
+    }
+
+    // Um lote da etapa atual; true quando a exclusão terminou
+    private boolean purgeBatch(Long userId) {
+        UserDeletion deletion = repository.findById(userId).orElse(null);
+        if (deletion == null || deletion.getCompletedAt() != null) {
+            return true;
+        }
+        OffsetDateTime now = OffsetDateTime.now();
+        UserDeletionStage stage = deletion.getStage();
+        if (stage == UserDeletionStage.USER || stage == UserDeletionStage.DONE) {
+            repository.deleteUserRow(userId);
+            deletion.setStage(UserDeletionStage.DONE);
+            deletion.setCompletedAt(now);
+            increment(completedCounter);
+            log.info("Usuário {} excluído: {} linhas dependentes apagadas", userId, deletion.getRowsDeleted());
+            return true;
+        }
+
+        int deleted = deleteBatch(stage, userId);
+        deletion.setRowsDeleted(deletion.getRowsDeleted() + deleted);
+        if (deleted < batchSize) {
+            deletion.setStage(stage.next());
+        }
+        deletion.setAvailableAt(now.plus(lease));
+        if (rowsCounter != null) {
+            rowsCounter.increment(deleted);
+        }
+        return false;
+    }
+
+    private int deleteBatch(UserDeletionStage stage, Long userId) {
+        return switch (stage) {
+            case TIMELINE -> repository.deleteTimelineBatch(userId, batchSize);
+            case FOLLOWS -> repository.deleteFollowsBatch(userId, batchSize);
+            case LOANS -> repository.deleteLoansBatch(userId, batchSize);
+            case LIBRARY -> repository.deleteLibraryBatch(userId, batchSize);
+            case BORROWERS -> repository.deleteBorrowersBatch(userId, batchSize);
+            case LOAN_STATS -> repository.deleteLoanStatsBatch(userId, batchSize);
+            case HISTORY -> repository.deleteHistoryBatch(userId, batchSize);
+            case USER, DONE -> throw new IllegalStateException("Etapa sem lote: " + stage);
+        };
+    }
+
+    private static void increment(Counter counter) {
+        if (counter != null) {
+            counter.increment();
+        }
+    }
+}
@@ -1,112 +1,255 @@
 package com.librishare.backend.modules.user.service.impl;
 
+import com.librishare.backend.config.security.AccessTokenService;
 import com.librishare.backend.exception.DuplicateResourceException;
 import com.librishare.backend.exception.ResourceNotFoundException;
+import com.librishare.backend.modules.history.service.HistoryService;
+import com.librishare.backend.modules.social.service.FollowService;
 import com.librishare.backend.modules.user.dto.LoginRequestDTO;
+import com.librishare.backend.modules.user.dto.LoginResponseDTO;
+import com.librishare.backend.modules.user.dto.UserPageDTO;
 import com.librishare.backend.modules.user.dto.UserRequestDTO;
 import com.librishare.backend.modules.user.dto.UserResponseDTO;
+import com.librishare.backend.modules.user.dto.UserDeletionDTO;
 import com.librishare.backend.modules.user.entity.User;
+import com.librishare.backend.modules.user.entity.UserDeletion;
+import com.librishare.backend.modules.user.enums.UserDeletionStage;
+import com.librishare.backend.modules.user.repository.UserDeletionRepository;
 import com.librishare.backend.modules.user.repository.UserRepository;
+import com.librishare.backend.modules.user.service.PasswordHashingService;
+import com.librishare.backend.modules.user.service.UserProfileLookup;
 import com.librishare.backend.modules.user.service.UserService;
-import java.lang.reflect.Type;
+import jakarta.transaction.Transactional;
+import java.time.OffsetDateTime;
 import java.util.List;
+import java.util.Locale;
+import java.util.function.Consumer;
+import org.hibernate.exception.ConstraintViolationException;
 import org.modelmapper.ModelMapper;
-import org.modelmapper.TypeToken;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.authentication.BadCredentialsException;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @Service
 public class UserServiceImpl implements UserService {
 
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int EXPORT_BATCH_SIZE = 500;
+
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private UserDeletionRepository userDeletionRepository;
+
     @Autowired
     private ModelMapper mapper;
 
     @Autowired
-    private PasswordEncoder passwordEncoder; // Injetado
+    private PasswordHashingService passwordHasher;
+
+    @Autowired
+    private HistoryService historyService;
+
+    @Autowired
+    private FollowService followService;
+
+    @Autowired
+    private UserProfileLookup userProfiles;
+
+    @Autowired
+    private AccessTokenService accessTokenService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
 
     @Override
     public UserResponseDTO createUser(UserRequestDTO userRequestDTO) {
-        if (userRepository.findByEmail(userRequestDTO.getEmail()).isPresent()) {
-            throw new DuplicateResourceException("Erro: Email já cadastrado.");
-        }
-
         User newUser = mapper.map(userRequestDTO, User.class);
 
-        newUser.setPassword(passwordEncoder.encode(userRequestDTO.getPassword()));
+        newUser.setPassword(passwordHasher.encode(userRequestDTO.getPassword()));
 
-        User savedUser = userRepository.save(newUser);
+        User savedUser;
+        try {
+            savedUser = userRepository.save(newUser);
+        } catch (DataIntegrityViolationException e) {
+            throw duplicateEmailOr(e, "Erro: Email já cadastrado.");
+        }
 
         return mapper.map(savedUser, UserResponseDTO.class);
     }
 
     @Override
     public UserResponseDTO findUserById(Long id) {
-        User user = userRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Usuário não encontrado com o ID: " + id));
+        return userProfiles.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Usuário não encontrado com o ID: " + id))
+                .toResponse();
+    }
 
-        return mapper.map(user, UserResponseDTO.class);
+    @Override
+    public UserPageDTO findUsers(String query, String after, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("O limite deve ser entre 1 e " + MAX_PAGE_SIZE + ".");
+        }
+        // Um item a mais indica se existe próxima página
+        List<UserResponseDTO> items = directoryPage(toPrefix(query), decodeCursor(after), limit + 1);
+        if (items.size() <= limit) {
+            return new UserPageDTO(items, null);
+        }
+        List<UserResponseDTO> page = items.subList(0, limit);
+        return new UserPageDTO(page, page.get(limit - 1).getId().toString());
     }
 
     @Override
-    public List<UserResponseDTO> findAllUsers() {
-        List<User> users = userRepository.findAll();
-        Type listType = new TypeToken<List<UserResponseDTO>>() {}.getType();
-        return mapper.map(users, listType);
+    public void exportUsers(String query, Consumer<UserResponseDTO> sink) {
+        String prefix = toPrefix(query);
+        long after = 0;
+        List<UserResponseDTO> batch;
+        do {
+            batch = directoryPage(prefix, after, EXPORT_BATCH_SIZE);
+            batch.forEach(sink);
+            if (!batch.isEmpty()) {
+                after = batch.get(batch.size() - 1).getId();
+            }
+        } while (batch.size() == EXPORT_BATCH_SIZE);
+    }
+
+    private List<UserResponseDTO> directoryPage(String prefix, long after, int limit) {
+        return prefix == null
+                ? userRepository.findDirectoryPage(after, Limit.of(limit))
+                : userRepository.findDirectoryPageByPrefix(prefix, after, Limit.of(limit));
+    }
+
+    // Padrão LIKE para o índice em lower(...): curingas digitados valem como texto
+    private static String toPrefix(String query) {
+        if (query == null || query.isBlank()) {
+            return null;
+        }
+        String normalized = query.trim().toLowerCase(Locale.ROOT);
+        return normalized.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+    }
+
+    private static long decodeCursor(String after) {
+        if (after == null || after.isBlank()) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(after);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Cursor de paginação inválido.");
+        }
     }
 
     @Override
     public UserResponseDTO updateUser(Long id, UserRequestDTO userRequestDTO) {
-        User userToUpdate = userRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Usuário não encontrado com o ID: " + id));
-
-        userRepository.findByEmail(userRequestDTO.getEmail()).ifPresent(user -> {
-            if (!user.getId().equals(id)) throw new DuplicateResourceException("Erro: Email já cadastrado por outro usuário.");
-        });
+        // O hash sai antes da transação, para não segurar a conexão durante o BCrypt
+        String password = userRequestDTO.getPassword();
+        String newHash = password == null || password.isEmpty() ? null : passwordHasher.encode(password);
+
+        UserUpdate update;
+        try {
+            update = transactionTemplate.execute(status -> {
+                User user = userRepository.findById(id)
+                        .orElseThrow(() -> new ResourceNotFoundException("Usuário não encontrado com o ID: " + id));
+                String oldEmail = user.getEmail();
+
+                // Entidade gerenciada: o flush grava só as colunas que mudaram
+                user.setFirstName(userRequestDTO.getFirstName());
+                user.setLastName(userRequestDTO.getLastName());
+                user.setEmail(userRequestDTO.getEmail());
+                user.setAvatar(userRequestDTO.getAvatar());
+                user.setAnnualReadingGoal(userRequestDTO.getAnnualReadingGoal());
+                if (newHash != null) {
+                    user.setPassword(newHash);
+                }
+                userRepository.flush();
+                return new UserUpdate(oldEmail, user);
+            });
+        } catch (DataIntegrityViolationException e) {
+            throw duplicateEmailOr(e, "Erro: Email já cadastrado por outro usuário.");
+        }
 
-        String oldPassword = userToUpdate.getPassword();
+        userProfiles.evict(id, update.oldEmail(), update.user().getEmail());
+        return mapper.map(update.user(), UserResponseDTO.class);
+    }
 
-        mapper.map(userRequestDTO, userToUpdate);
+    private record UserUpdate(String oldEmail, User user) {
+    }
 
-        if (userRequestDTO.getPassword() != null && !userRequestDTO.getPassword().isEmpty()) {
-            userToUpdate.setPassword(passwordEncoder.encode(userRequestDTO.getPassword()));
-        } else {
-            userToUpdate.setPassword(oldPassword);
+    // Email repetido é barrado por uk_users_email_lower; outras violações seguem como estão
+    private static RuntimeException duplicateEmailOr(DataIntegrityViolationException e, String message) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation && violation.getConstraintName() != null
+                    && violation.getConstraintName().toLowerCase(Locale.ROOT).contains("email")) {
+                return new DuplicateResourceException(message);
+            }
         }
+        return e;
+    }
+
+    @Override
+    @Transactional
+    public UserDeletionDTO deleteUser(Long id) {
+        User user = userRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Usuário não encontrado com o ID: " + id));
 
-        User updatedUser = userRepository.save(userToUpdate);
-        return mapper.map(updatedUser, UserResponseDTO.class);
+        // A cascata de uma só vez bloquearia as tabelas por muito tempo; os dados saem em lotes, depois
+        OffsetDateTime now = OffsetDateTime.now();
+        user.setDeletedAt(now);
+        followService.forgetFollower(id);
+        UserDeletion deletion = userDeletionRepository.save(UserDeletion.builder()
+                .userId(id)
+                .stage(UserDeletionStage.values()[0])
+                .requestedAt(now)
+                .availableAt(now)
+                .build());
+
+        historyService.evictRecentActivity(id);
+        userProfiles.evict(id, user.getEmail());
+        return toDeletionDTO(deletion);
     }
 
     @Override
-    public void deleteUser(Long id) {
-        if (!userRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Usuário não encontrado com o ID: " + id);
-        }
-        userRepository.deleteById(id);
+    public UserDeletionDTO getDeletionStatus(Long id) {
+        return userDeletionRepository.findById(id)
+                .map(this::toDeletionDTO)
+                .orElseThrow(() -> new ResourceNotFoundException("Nenhuma exclusão encontrada para o usuário: " + id));
+    }
+
+    private UserDeletionDTO toDeletionDTO(UserDeletion deletion) {
+        return new UserDeletionDTO(deletion.getUserId(), deletion.getStage(), deletion.getRowsDeleted(),
+                deletion.getRequestedAt(), deletion.getCompletedAt());
     }
 
     @Override
     public UserResponseDTO findUserByEmail(String email) {
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new ResourceNotFoundException("Usuário não encontrado com o email: " + email));
-
-        return mapper.map(user, UserResponseDTO.class);
+        return userProfiles.findByEmail(email)
+                .orElseThrow(() -> new ResourceNotFoundException("Usuário não encontrado com o email: " + email))
+                .toResponse();
     }
 
+    // Lê do banco, não do cache: a senha precisa ser conferida contra o hash atual
     @Override
-    public UserResponseDTO login(LoginRequestDTO loginRequestDTO) {
+    public LoginResponseDTO login(LoginRequestDTO loginRequestDTO) {
         User user = userRepository.findByEmail(loginRequestDTO.getEmail())
                 .orElseThrow(() -> new BadCredentialsException("Email ou senha inválidos."));
 
-        if (!passwordEncoder.matches(loginRequestDTO.getPassword(), user.getPassword())) {
+        if (!passwordHasher.matches(loginRequestDTO.getPassword(), user.getPassword())) {
             throw new BadCredentialsException("Email ou senha inválidos.");
         }
 
-        return mapper.map(user, UserResponseDTO.class);
+        // Custo do BCrypt alterado: o hash novo é gravado em segundo plano
+        String storedHash = user.getPassword();
+        if (passwordHasher.needsRehash(storedHash)) {
+            passwordHasher.rehashLater(loginRequestDTO.getPassword(),
+                    newHash -> userRepository.replacePassword(user.getId(), storedHash, newHash));
+        }
+
+        AccessTokenService.IssuedToken token = accessTokenService.issue(user.getId(), user.getEmail(), user.isAdmin());
+        return new LoginResponseDTO(mapper.map(user, UserResponseDTO.class),
+                token.value(), AccessTokenService.TOKEN_TYPE, token.expiresInSeconds());
     }
 }
\ No newline at end of file
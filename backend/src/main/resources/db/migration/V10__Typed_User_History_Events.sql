@@ -0,0 +1,9 @@
+-- Histórico passa a gravar eventos tipados; o texto é montado na leitura, no idioma da requisição.
+-- action_type e description ficam apenas para os registros antigos.
+ALTER TABLE user_history ADD COLUMN event_type VARCHAR(32);
+ALTER TABLE user_history ADD COLUMN book_id BIGINT;
+ALTER TABLE user_history ADD COLUMN loan_id BIGINT;
+
+-- Sem FK para books/loans: o evento sobrevive à remoção do livro ou do empréstimo
+
+CREATE INDEX idx_user_history_user_event_created ON user_history (user_id, event_type, created_at DESC, id DESC);
@@ -0,0 +1,32 @@
+-- Grafo de seguidores e linha do tempo com fan-out híbrido.
+-- follower_count é mantido pelas operações de seguir/deixar de seguir e decide
+-- se os eventos de uma conta são copiados aos seguidores ou lidos na consulta.
+ALTER TABLE users ADD COLUMN follower_count INTEGER NOT NULL DEFAULT 0;
+
+CREATE TABLE follows (
+    follower_id BIGINT NOT NULL,
+    followee_id BIGINT NOT NULL,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+    CONSTRAINT pk_follows PRIMARY KEY (follower_id, followee_id),
+    CONSTRAINT fk_follows_follower FOREIGN KEY (follower_id) REFERENCES users(id) ON DELETE CASCADE,
+    CONSTRAINT fk_follows_followee FOREIGN KEY (followee_id) REFERENCES users(id) ON DELETE CASCADE,
+    CONSTRAINT ck_follows_not_self CHECK (follower_id <> followee_id)
+);
+
+-- Fan-out percorre os seguidores de um autor
+CREATE INDEX idx_follows_followee ON follows (followee_id, follower_id);
+
+-- Sem FK para user_history: entradas de partições já removidas somem no JOIN da leitura
+CREATE TABLE timeline_entries (
+    follower_id BIGINT NOT NULL,
+    history_id BIGINT NOT NULL,
+    author_id BIGINT NOT NULL,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL,
+
+    CONSTRAINT pk_timeline_entries PRIMARY KEY (follower_id, history_id),
+    CONSTRAINT fk_timeline_follower FOREIGN KEY (follower_id) REFERENCES users(id) ON DELETE CASCADE,
+    CONSTRAINT fk_timeline_author FOREIGN KEY (author_id) REFERENCES users(id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_timeline_follower_created ON timeline_entries (follower_id, created_at DESC, history_id DESC);
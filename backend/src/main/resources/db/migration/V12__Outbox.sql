@@ -0,0 +1,23 @@
+-- Outbox transacional: eventos de domínio gravados na transação da alteração
+-- e entregues depois aos handlers pelo poller.
+CREATE TABLE outbox_events (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    event_type VARCHAR(100) NOT NULL,
+    payload TEXT NOT NULL,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    available_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    attempts INTEGER NOT NULL DEFAULT 0,
+    last_error VARCHAR(1000),
+    processed_at TIMESTAMP WITH TIME ZONE,
+    failed_at TIMESTAMP WITH TIME ZONE
+);
+
+-- Chaves de idempotência: cada handler trata cada evento uma única vez
+CREATE TABLE outbox_handled (
+    event_id BIGINT NOT NULL,
+    handler_key VARCHAR(100) NOT NULL,
+    handled_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+    CONSTRAINT pk_outbox_handled PRIMARY KEY (event_id, handler_key),
+    CONSTRAINT fk_outbox_handled_event FOREIGN KEY (event_id) REFERENCES outbox_events(id) ON DELETE CASCADE
+);
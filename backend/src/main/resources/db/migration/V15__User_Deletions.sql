@@ -0,0 +1,20 @@
+-- Exclusão de usuários em duas fases: a conta é marcada na hora (deleted_at) e
+-- os dados dependentes são apagados em lotes pelo UserPurgeJob. As FKs com
+-- ON DELETE CASCADE continuam lá e levam o que sobrar quando a linha de users sai.
+ALTER TABLE users ADD COLUMN deleted_at TIMESTAMP WITH TIME ZONE;
+
+-- Progresso de cada exclusão; sem FK para users, a linha do usuário é a última a sair
+CREATE TABLE user_deletions (
+    user_id BIGINT PRIMARY KEY,
+    stage VARCHAR(30) NOT NULL,
+    rows_deleted BIGINT NOT NULL DEFAULT 0,
+    requested_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    available_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    attempts INTEGER NOT NULL DEFAULT 0,
+    last_error VARCHAR(1000),
+    completed_at TIMESTAMP WITH TIME ZONE
+);
+
+-- Lotes da limpeza: empréstimos pelo exemplar e linhas do tempo pelo autor
+CREATE INDEX idx_loans_user_book ON loans (user_book_id);
+CREATE INDEX idx_timeline_author ON timeline_entries (author_id);
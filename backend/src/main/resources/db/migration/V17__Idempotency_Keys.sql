@@ -0,0 +1,15 @@
+-- Respostas de POST guardadas por Idempotency-Key: uma repetição da mesma
+-- requisição recebe a resposta original, sem executar a operação de novo.
+-- Sem status_code, a chave está reservada por uma requisição em andamento.
+CREATE TABLE idempotency_keys (
+    id VARCHAR(64) PRIMARY KEY,
+    request_hash VARCHAR(64) NOT NULL,
+    status_code INTEGER,
+    content_type VARCHAR(255),
+    location VARCHAR(1000),
+    response_body TEXT,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    expires_at TIMESTAMP WITH TIME ZONE NOT NULL
+);
+
+CREATE INDEX idx_idempotency_keys_expires ON idempotency_keys (expires_at);
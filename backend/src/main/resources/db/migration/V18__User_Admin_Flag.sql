@@ -0,0 +1,3 @@
+-- Administradores acessam as rotas /api/v1/admin/**. Não há rota para conceder
+-- o papel: ele é marcado direto no banco e passa a valer no próximo login.
+ALTER TABLE users ADD COLUMN admin BOOLEAN NOT NULL DEFAULT FALSE;
@@ -0,0 +1,16 @@
+-- 6. Consolidado mensal de empréstimos (por dono, pessoa e mês)
+-- borrower_key: email normalizado (minúsculo, sem espaços) ou 'name:' + nome normalizado quando não há email
+CREATE TABLE loan_monthly_stats (
+    owner_user_id BIGINT NOT NULL,
+    borrower_key VARCHAR(255) NOT NULL,
+    stats_month DATE NOT NULL, -- primeiro dia do mês
+    borrower_name VARCHAR(255) NOT NULL,
+    borrower_email VARCHAR(255),
+    loans_count INT NOT NULL DEFAULT 0,
+    returns_count INT NOT NULL DEFAULT 0,
+    on_time_returns INT NOT NULL DEFAULT 0,
+    total_loan_days BIGINT NOT NULL DEFAULT 0,
+
+    CONSTRAINT pk_loan_monthly_stats PRIMARY KEY (owner_user_id, borrower_key, stats_month),
+    CONSTRAINT fk_loan_monthly_stats_user FOREIGN KEY (owner_user_id) REFERENCES users(id) ON DELETE CASCADE
+);
@@ -0,0 +1,18 @@
+-- 7. Pessoas que pegam livros emprestados (por dono)
+-- borrower_key segue a mesma normalização de loan_monthly_stats
+CREATE TABLE borrowers (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    owner_user_id BIGINT NOT NULL,
+    borrower_key VARCHAR(255) NOT NULL,
+    name VARCHAR(255) NOT NULL,
+    email VARCHAR(255),
+    created_at TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP,
+
+    CONSTRAINT fk_borrowers_user FOREIGN KEY (owner_user_id) REFERENCES users(id) ON DELETE CASCADE,
+    CONSTRAINT uk_borrowers_owner_key UNIQUE (owner_user_id, borrower_key)
+);
+
+ALTER TABLE loans ADD COLUMN borrower_id BIGINT;
+ALTER TABLE loans ADD CONSTRAINT fk_loans_borrower FOREIGN KEY (borrower_id) REFERENCES borrowers(id);
+
+CREATE INDEX idx_loans_borrower ON loans(borrower_id);
@@ -0,0 +1,83 @@
+package com.librishare.backend.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.librishare.backend.config.security.LazyClientRegistrationRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.security.oauth2.client.OAuth2ClientProperties;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.security.oauth2.client.registration.ClientRegistration;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OAuth2ClientConfigTest {
+
+    private final OAuth2ClientConfig config = new OAuth2ClientConfig();
+
+    private LazyClientRegistrationRepository repository(OAuth2ClientProperties properties) {
+        return config.clientRegistrationRepository(properties, new ObjectMapper(), new DefaultResourceLoader(), "classpath:oauth2/");
+    }
+
+    private static OAuth2ClientProperties.Registration registration(String provider) {
+        OAuth2ClientProperties.Registration registration = new OAuth2ClientProperties.Registration();
+        registration.setProvider(provider);
+        registration.setClientId("client");
+        registration.setClientSecret("secret");
+        registration.setScope(Set.of("openid", "email"));
+        return registration;
+    }
+
+    @Test
+    @DisplayName("Deve montar o registro do Google a partir do arquivo empacotado, sem discovery")
+    void bundledMetadata() {
+        OAuth2ClientProperties properties = new OAuth2ClientProperties();
+        properties.getRegistration().put("google", registration(null));
+        OAuth2ClientProperties.Provider provider = new OAuth2ClientProperties.Provider();
+        // Inalcançável: se fosse consultado, a montagem falharia
+        provider.setIssuerUri("http://127.0.0.1:1");
+        properties.getProvider().put("google", provider);
+
+        ClientRegistration google = repository(properties).findByRegistrationId("google");
+
+        assertEquals("https://accounts.google.com", google.getProviderDetails().getIssuerUri());
+        assertEquals("https://oauth2.googleapis.com/token", google.getProviderDetails().getTokenUri());
+        assertEquals("https://www.googleapis.com/oauth2/v3/certs", google.getProviderDetails().getJwkSetUri());
+        assertEquals("sub", google.getProviderDetails().getUserInfoEndpoint().getUserNameAttributeName());
+        assertEquals("client", google.getClientId());
+        assertEquals(Set.of("openid", "email"), google.getScopes());
+    }
+
+    @Test
+    @DisplayName("Deve adiar o discovery do issuer-uri até o primeiro uso e tentar de novo após falha")
+    void lazyDiscovery() {
+        OAuth2ClientProperties properties = new OAuth2ClientProperties();
+        properties.getRegistration().put("corp", registration("corp"));
+        OAuth2ClientProperties.Provider provider = new OAuth2ClientProperties.Provider();
+        provider.setIssuerUri("http://127.0.0.1:1/realms/corp");
+        properties.getProvider().put("corp", provider);
+
+        LazyClientRegistrationRepository repository = repository(properties);
+
+        assertThrows(RuntimeException.class, () -> repository.findByRegistrationId("corp"));
+        assertThrows(RuntimeException.class, () -> repository.findByRegistrationId("corp"));
+        assertNull(repository.findByRegistrationId("unknown"));
+    }
+
+    @Test
+    @DisplayName("Deve aceitar endpoints informados só nas propriedades")
+    void explicitEndpoints() {
+        OAuth2ClientProperties properties = new OAuth2ClientProperties();
+        properties.getRegistration().put("corp", registration("corp"));
+        OAuth2ClientProperties.Provider provider = new OAuth2ClientProperties.Provider();
+        provider.setAuthorizationUri("https://sso.example.com/authorize");
+        provider.setTokenUri("https://sso.example.com/token");
+        properties.getProvider().put("corp", provider);
+
+        ClientRegistration corp = repository(properties).iterator().next();
+
+        assertEquals("corp", corp.getRegistrationId());
+        assertEquals("https://sso.example.com/token", corp.getProviderDetails().getTokenUri());
+    }
+}
@@ -0,0 +1,227 @@
+package com.librishare.backend.config.cache;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RedisCacheTierTest {
+
+    private FakeRedisServer server;
+    private RedisCacheTier tier;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new FakeRedisServer();
+        tier = new RedisCacheTier("127.0.0.1", server.port(), "", 0, "test:",
+                Duration.ofSeconds(1), Duration.ofMinutes(1), 2);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        tier.close();
+        server.close();
+    }
+
+    @Test
+    @DisplayName("Deve gravar, ler e remover valores pelo protocolo do Redis")
+    void putGetEvict_RoundTrip() {
+        assertTrue(tier.putIfVersion("books:1", "{\"título\":\"Dom Casmurro\"}", 0, Duration.ofMinutes(5)));
+
+        assertEquals("{\"título\":\"Dom Casmurro\"}", tier.get("books:1"));
+        assertEquals(List.of("EVAL", RedisCacheTier.PUT_IF_VERSION_SCRIPT, "2", "test:books:1", "test:books:1:v",
+                "0", "{\"título\":\"Dom Casmurro\"}", "300000"), server.commands.get(0));
+
+        tier.evict("books:1");
+        assertNull(tier.get("books:1"));
+        assertEquals(1, tier.version("books:1"));
+        assertEquals(1, server.connections.get());
+    }
+
+    @Test
+    @DisplayName("Deve recusar a gravação de uma carga anterior à invalidação")
+    void putIfVersion_RejectsStaleVersion() {
+        long version = tier.version("books:3");
+        tier.evict("books:3");
+
+        assertFalse(tier.putIfVersion("books:3", "antigo", version, Duration.ofMinutes(1)));
+        assertNull(tier.get("books:3"));
+        assertTrue(tier.putIfVersion("books:3", "novo", tier.version("books:3"), Duration.ofMinutes(1)));
+        assertFalse(tier.putIfVersion("books:3", "outro", tier.version("books:3"), Duration.ofMinutes(1)));
+        assertEquals("novo", tier.get("books:3"));
+    }
+
+    @Test
+    @DisplayName("Deve manter a conexão utilizável após uma resposta de erro")
+    void errorReply_KeepsConnection() {
+        assertThrows(RemoteCacheException.class, () -> tier.get("erro"));
+
+        tier.putIfVersion("books:2", "x", 0, Duration.ofMinutes(1));
+        assertEquals("x", tier.get("books:2"));
+        assertEquals(1, server.connections.get());
+    }
+
+    @Test
+    @DisplayName("Deve falhar na hora enquanto o servidor estiver indisponível")
+    void unavailableServer_FailsFast() throws IOException {
+        server.close();
+
+        assertThrows(RemoteCacheException.class, () -> tier.get("books:1"));
+        int attempts = server.connections.get();
+        assertThrows(RemoteCacheException.class, () -> tier.get("books:1"));
+        assertEquals(attempts, server.connections.get());
+    }
+
+    /**
+     * Servidor mínimo que entende GET e os dois scripts do tier, executados aqui
+     * em Java; a chave "test:erro" gera uma resposta de erro.
+     */
+    private static final class FakeRedisServer implements AutoCloseable {
+        private final ServerSocket serverSocket = new ServerSocket(0);
+        private final Map<String, String> data = new ConcurrentHashMap<>();
+        private final List<List<String>> commands = new CopyOnWriteArrayList<>();
+        private final AtomicInteger connections = new AtomicInteger();
+        private final List<Socket> sockets = new CopyOnWriteArrayList<>();
+        private final Thread acceptor = new Thread(this::acceptLoop, "fake-redis");
+        private volatile boolean closed;
+
+        FakeRedisServer() throws IOException {
+            acceptor.setDaemon(true);
+            acceptor.start();
+        }
+
+        int port() {
+            return serverSocket.getLocalPort();
+        }
+
+        private void acceptLoop() {
+            while (!serverSocket.isClosed()) {
+                try {
+                    Socket socket = serverSocket.accept();
+                    connections.incrementAndGet();
+                    if (closed) {
+                        // O fechamento do ServerSocket pode esperar o accept em andamento
+                        socket.close();
+                        return;
+                    }
+                    sockets.add(socket);
+                    Thread handler = new Thread(() -> serve(socket), "fake-redis-conn");
+                    handler.setDaemon(true);
+                    handler.start();
+                } catch (IOException e) {
+                    return;
+                }
+            }
+        }
+
+        private void serve(Socket socket) {
+            try (socket) {
+                InputStream in = new BufferedInputStream(socket.getInputStream());
+                OutputStream out = socket.getOutputStream();
+                while (true) {
+                    List<String> command = readCommand(in);
+                    if (command == null) {
+                        return;
+                    }
+                    commands.add(command);
+                    out.write(reply(command).getBytes(StandardCharsets.UTF_8));
+                    out.flush();
+                }
+            } catch (IOException ignored) {
+                // conexão encerrada
+            }
+        }
+
+        private synchronized String reply(List<String> command) {
+            if (command.get(0).equals("GET")) {
+                String key = command.get(1);
+                if (key.equals("test:erro")) {
+                    return "-ERR chave proibida\r\n";
+                }
+                String value = data.get(key);
+                if (value == null) {
+                    return "$-1\r\n";
+                }
+                return "$" + value.getBytes(StandardCharsets.UTF_8).length + "\r\n" + value + "\r\n";
+            }
+            if (!command.get(0).equals("EVAL")) {
+                return "-ERR comando desconhecido\r\n";
+            }
+            String key = command.get(3);
+            String versionKey = command.get(4);
+            if (command.get(1).equals(RedisCacheTier.PUT_IF_VERSION_SCRIPT)) {
+                if (!data.getOrDefault(versionKey, "0").equals(command.get(5)) || data.containsKey(key)) {
+                    return ":0\r\n";
+                }
+                data.put(key, command.get(6));
+                return ":1\r\n";
+            }
+            if (command.get(1).equals(RedisCacheTier.EVICT_SCRIPT)) {
+                data.remove(key);
+                data.merge(versionKey, "1", (current, one) -> Long.toString(Long.parseLong(current) + 1));
+                return ":1\r\n";
+            }
+            return "-ERR script desconhecido\r\n";
+        }
+
+        private List<String> readCommand(InputStream in) throws IOException {
+            String header = readLine(in);
+            if (header == null) {
+                return null;
+            }
+            int count = Integer.parseInt(header.substring(1));
+            List<String> args = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                int length = Integer.parseInt(readLine(in).substring(1));
+                byte[] bytes = in.readNBytes(length + 2);
+                args.add(new String(bytes, 0, length, StandardCharsets.UTF_8));
+            }
+            return args;
+        }
+
+        private String readLine(InputStream in) throws IOException {
+            ByteArrayOutputStream line = new ByteArrayOutputStream();
+            int b;
+            while ((b = in.read()) != '\r') {
+                if (b == -1) {
+                    return null;
+                }
+                line.write(b);
+            }
+            in.read();
+            return line.toString(StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public void close() throws IOException {
+            closed = true;
+            serverSocket.close();
+            try {
+                acceptor.join(1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            for (Socket socket : sockets) {
+                socket.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package com.librishare.backend.config.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.librishare.backend.modules.cache.service.CacheInvalidationBus;
+import com.librishare.backend.modules.library.dto.UserLibraryStatsDTO;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class TwoTierCacheTest {
+
+    private final CacheInvalidationBus invalidationBus = mock(CacheInvalidationBus.class);
+
+    private TwoTierCache<Long, UserLibraryStatsDTO> cache(RemoteCacheTier remote, Duration ttl) {
+        return TwoTierCache.<Long, UserLibraryStatsDTO>builder()
+                .name("library-stats")
+                .valueType(UserLibraryStatsDTO.class)
+                .ttl(ttl)
+                .maxSize(100)
+                .remote(remote)
+                .objectMapper(new ObjectMapper())
+                .invalidationBus(invalidationBus)
+                .region(CacheInvalidationBus.LIBRARY)
+                .keyParser(Long::valueOf)
+                .build();
+    }
+
+    private UserLibraryStatsDTO stats(long totalBooks) {
+        return new UserLibraryStatsDTO(totalBooks, 0, 0, 0, 0);
+    }
+
+    @Test
+    @DisplayName("Deve servir do primeiro nível após a primeira carga")
+    void get_ServesFromLocalTier() {
+        TwoTierCache<Long, UserLibraryStatsDTO> cache = cache(null, Duration.ofMinutes(1));
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get(1L, () -> stats(loads.incrementAndGet()));
+        UserLibraryStatsDTO second = cache.get(1L, () -> stats(loads.incrementAndGet()));
+
+        assertEquals(1, second.getTotalBooks());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    @DisplayName("Deve aproveitar o segundo nível carregado por outra instância")
+    void get_SharesRemoteTierBetweenNodes() {
+        InMemoryCacheTier shared = new InMemoryCacheTier();
+        TwoTierCache<Long, UserLibraryStatsDTO> nodeA = cache(shared, Duration.ofMinutes(1));
+        TwoTierCache<Long, UserLibraryStatsDTO> nodeB = cache(shared, Duration.ofMinutes(1));
+
+        nodeA.get(1L, () -> stats(7));
+        UserLibraryStatsDTO fromB = nodeB.get(1L, () -> fail("não deveria consultar o banco"));
+
+        assertEquals(7, fromB.getTotalBooks());
+    }
+
+    @Test
+    @DisplayName("Deve fazer uma única carga para leituras simultâneas da mesma chave")
+    void get_CoalescesConcurrentLoads() throws Exception {
+        TwoTierCache<Long, UserLibraryStatsDTO> cache = cache(new InMemoryCacheTier(), Duration.ofMinutes(1));
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<UserLibraryStatsDTO>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                results.add(executor.submit(() -> cache.get(1L, () -> {
+                    loads.incrementAndGet();
+                    loading.countDown();
+                    try {
+                        release.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return stats(3);
+                })));
+            }
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+            Thread.sleep(50);
+            release.countDown();
+
+            for (Future<UserLibraryStatsDTO> result : results) {
+                assertEquals(3, result.get(5, TimeUnit.SECONDS).getTotalBooks());
+            }
+            assertEquals(1, loads.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Não deve guardar um valor carregado antes de uma invalidação")
+    void get_DiscardsValueInvalidatedDuringLoad() {
+        InMemoryCacheTier remote = new InMemoryCacheTier();
+        TwoTierCache<Long, UserLibraryStatsDTO> cache = cache(remote, Duration.ofMinutes(1));
+
+        UserLibraryStatsDTO stale = cache.get(1L, () -> {
+            cache.evict(1L);
+            return stats(1);
+        });
+        assertNull(remote.get("library-stats:1"));
+        UserLibraryStatsDTO fresh = cache.get(1L, () -> stats(2));
+
+        assertEquals(1, stale.getTotalBooks());
+        assertEquals(2, fresh.getTotalBooks());
+        verify(invalidationBus).broadcast(CacheInvalidationBus.LIBRARY, 1L);
+    }
+
+    @Test
+    @DisplayName("Invalidar outra chave não deve descartar a carga em andamento")
+    void get_KeepsValueWhenOtherKeyIsInvalidated() {
+        InMemoryCacheTier remote = new InMemoryCacheTier();
+        TwoTierCache<Long, UserLibraryStatsDTO> cache = cache(remote, Duration.ofMinutes(1));
+
+        cache.get(1L, () -> {
+            cache.evict(2L);
+            return stats(6);
+        });
+
+        assertNotNull(remote.get("library-stats:1"));
+        assertEquals(6, cache.get(1L, () -> fail("deveria vir do primeiro nível")).getTotalBooks());
+    }
+
+    @Test
+    @DisplayName("Não deve gravar no segundo nível um valor invalidado por outra instância durante a carga")
+    void get_SkipsRemotePutAfterEvictFromOtherNode() {
+        InMemoryCacheTier shared = new InMemoryCacheTier();
+        TwoTierCache<Long, UserLibraryStatsDTO> nodeA = cache(shared, Duration.ofMinutes(1));
+        TwoTierCache<Long, UserLibraryStatsDTO> nodeB = cache(shared, Duration.ofMinutes(1));
+
+        nodeA.get(1L, () -> {
+            nodeB.evict(1L);
+            return stats(1);
+        });
+
+        assertNull(shared.get("library-stats:1"));
+        assertEquals(2, nodeB.get(1L, () -> stats(2)).getTotalBooks());
+        assertNotNull(shared.get("library-stats:1"));
+    }
+
+    @Test
+    @DisplayName("Deve expirar entradas após o TTL")
+    void get_ExpiresAfterTtl() throws InterruptedException {
+        TwoTierCache<Long, UserLibraryStatsDTO> cache = cache(new InMemoryCacheTier(), Duration.ofMillis(20));
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get(1L, () -> stats(loads.incrementAndGet()));
+        Thread.sleep(40);
+        UserLibraryStatsDTO reloaded = cache.get(1L, () -> stats(loads.incrementAndGet()));
+
+        assertEquals(2, reloaded.getTotalBooks());
+    }
+
+    @Test
+    @DisplayName("Deve tratar falhas do segundo nível como ausência")
+    void get_FallsBackWhenRemoteFails() {
+        RemoteCacheTier failing = new RemoteCacheTier() {
+            @Override
+            public String get(String key) {
+                throw new RemoteCacheException("fora do ar");
+            }
+
+            @Override
+            public long version(String key) {
+                throw new RemoteCacheException("fora do ar");
+            }
+
+            @Override
+            public boolean putIfVersion(String key, String value, long version, Duration ttl) {
+                throw new RemoteCacheException("fora do ar");
+            }
+
+            @Override
+            public void evict(String key) {
+                throw new RemoteCacheException("fora do ar");
+            }
+        };
+        TwoTierCache<Long, UserLibraryStatsDTO> cache = cache(failing, Duration.ofMinutes(1));
+
+        assertEquals(4, cache.get(1L, () -> stats(4)).getTotalBooks());
+        assertEquals(4, cache.get(1L, () -> fail("deveria vir do primeiro nível")).getTotalBooks());
+    }
+
+    @Test
+    @DisplayName("Invalidação de outra instância deve limpar apenas o primeiro nível")
+    void evict_FromOtherNodeKeepsRemoteTier() {
+        InMemoryCacheTier remote = new InMemoryCacheTier();
+        TwoTierCache<Long, UserLibraryStatsDTO> cache = cache(remote, Duration.ofMinutes(1));
+        cache.get(1L, () -> stats(5));
+
+        assertTrue(cache.listensTo(CacheInvalidationBus.LIBRARY));
+        cache.evict(CacheInvalidationBus.LIBRARY, "1");
+
+        assertNotNull(remote.get("library-stats:1"));
+        assertEquals(5, cache.get(1L, () -> fail("deveria vir do segundo nível")).getTotalBooks());
+    }
+}
@@ -0,0 +1,94 @@
+package com.librishare.backend.config.concurrency;
+
+import com.librishare.backend.exception.ServiceUnavailableException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Test
+    @DisplayName("Deve recusar leituras antes de escritas ao se aproximar do limite")
+    void readsShedBeforeWrites() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 1, 100, 500, 0.5, 0.8, null);
+
+        for (int i = 0; i < 8; i++) {
+            assertTrue(limiter.tryAcquire(RequestPriority.READ));
+        }
+        assertFalse(limiter.tryAcquire(RequestPriority.READ));
+        assertTrue(limiter.tryAcquire(RequestPriority.WRITE));
+        assertTrue(limiter.tryAcquire(RequestPriority.WRITE));
+        assertFalse(limiter.tryAcquire(RequestPriority.WRITE));
+        assertEquals(10, limiter.inflight());
+    }
+
+    @Test
+    @DisplayName("Deve reduzir o limite uma vez por janela com respostas lentas ou com erro")
+    void decreasesOncePerWindow() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 2, 100, 500, 0.5, 1.0, null);
+        long now = System.nanoTime();
+
+        for (int i = 0; i < 3; i++) {
+            limiter.tryAcquire(RequestPriority.WRITE);
+        }
+        limiter.release(900 * MILLI, false, now);
+        limiter.release(900 * MILLI, false, now + MILLI);
+        assertEquals(5, limiter.limit());
+
+        limiter.release(10 * MILLI, true, now + 600 * MILLI);
+        assertEquals(2, limiter.limit());
+        assertEquals(0, limiter.inflight());
+    }
+
+    @Test
+    @DisplayName("Deve aumentar o limite só com pelo menos metade dele em uso")
+    void increasesWhenBusy() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(4, 1, 5, 500, 0.5, 1.0, null);
+        long now = System.nanoTime();
+
+        limiter.tryAcquire(RequestPriority.READ);
+        limiter.release(10 * MILLI, false, now);
+        assertEquals(4, limiter.limit());
+
+        for (int round = 0; round < 3; round++) {
+            limiter.tryAcquire(RequestPriority.READ);
+            limiter.tryAcquire(RequestPriority.READ);
+            limiter.release(10 * MILLI, false, now);
+            limiter.release(10 * MILLI, false, now);
+        }
+        assertEquals(5, limiter.limit());
+    }
+
+    @Test
+    @DisplayName("Deve responder 503 sem vaga e liberar a vaga ao terminar ou ao iniciar resposta assíncrona")
+    void interceptorShedsAndReleases() throws Exception {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1, 1, 1, 500, 0.5, 1.0, null);
+        ConcurrencyLimitInterceptor interceptor = new ConcurrencyLimitInterceptor(limiter);
+        HandlerMethod handler = new HandlerMethod(this, getClass().getDeclaredMethod("interceptorShedsAndReleases"));
+        MockHttpServletRequest first = new MockHttpServletRequest("GET", "/api/v1/users/1/library");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertTrue(interceptor.preHandle(first, response, handler));
+        ServiceUnavailableException shed = assertThrows(ServiceUnavailableException.class, () -> interceptor.preHandle(
+                new MockHttpServletRequest("POST", "/api/v1/books"), new MockHttpServletResponse(), handler));
+        assertEquals(1, shed.getRetryAfterSeconds());
+
+        interceptor.afterCompletion(first, response, handler, null);
+        assertEquals(0, limiter.inflight());
+
+        MockHttpServletRequest stream = new MockHttpServletRequest("GET", "/api/v1/users/1/events");
+        assertTrue(interceptor.preHandle(stream, response, handler));
+        interceptor.afterConcurrentHandlingStarted(stream, response, handler);
+        interceptor.afterCompletion(stream, response, handler, null);
+        assertEquals(0, limiter.inflight());
+        assertEquals(1, limiter.limit());
+    }
+}
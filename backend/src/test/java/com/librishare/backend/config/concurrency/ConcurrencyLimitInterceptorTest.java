@@ -0,0 +1,156 @@
+package com.librishare.backend.config.concurrency;
+
+import com.librishare.backend.exception.GlobalExceptionHandler;
+import jakarta.servlet.ServletException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class ConcurrencyLimitInterceptorTest {
+
+    // Limite fixo em 4; leituras só ocupam metade
+    private final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(4, 4, 4, 500, 0.5, 0.5, null);
+    private final StubController controller = new StubController();
+    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(controller)
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .addInterceptors(new ConcurrencyLimitInterceptor(limiter))
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        controller.release.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Leituras acima da sua parcela do limite devem receber 503 com Retry-After; escritas seguem")
+    void readsAboveShare_ShedWithRetryAfter() throws Exception {
+        Future<?> first = executor.submit(() -> mockMvc.perform(get("/api/stub/slow")).andReturn());
+        Future<?> second = executor.submit(() -> mockMvc.perform(get("/api/stub/slow")).andReturn());
+        assertTrue(controller.entered.await(5, TimeUnit.SECONDS));
+        assertEquals(2, limiter.inflight());
+
+        mockMvc.perform(get("/api/stub/fast"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"));
+        mockMvc.perform(post("/api/stub/write"))
+                .andExpect(status().isOk());
+
+        controller.release.countDown();
+        first.get(5, TimeUnit.SECONDS);
+        second.get(5, TimeUnit.SECONDS);
+        assertEquals(0, limiter.inflight());
+        mockMvc.perform(get("/api/stub/fast"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("Escritas devem receber 503 só com o limite inteiro em uso")
+    void writesAtCap_Shed() throws Exception {
+        for (int i = 0; i < 4; i++) {
+            assertTrue(limiter.tryAcquire(RequestPriority.WRITE));
+        }
+
+        mockMvc.perform(post("/api/stub/write"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"));
+        assertEquals(4, limiter.inflight());
+    }
+
+    @Test
+    @DisplayName("Deve liberar a vaga quando o controller lança exceção")
+    void exception_ReleasesSlot() throws Exception {
+        assertThrows(ServletException.class, () -> mockMvc.perform(post("/api/stub/fail")));
+        assertEquals(0, limiter.inflight());
+
+        mockMvc.perform(get("/api/stub/invalid"))
+                .andExpect(status().isBadRequest());
+        assertEquals(0, limiter.inflight());
+    }
+
+    @Test
+    @DisplayName("Deve liberar a vaga quando a resposta assíncrona começa, sem ocupar outra no despacho")
+    void asyncDispatch_ReleasesSlotOnce() throws Exception {
+        MvcResult started = mockMvc.perform(get("/api/stub/async"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        assertEquals(0, limiter.inflight());
+
+        controller.deferred.setResult("pronto");
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk());
+        assertEquals(0, limiter.inflight());
+        assertEquals(4, limiter.limit());
+    }
+
+    @RestController
+    @RequestMapping("/api/stub")
+    static class StubController {
+
+        private final CountDownLatch entered = new CountDownLatch(2);
+        private final CountDownLatch release = new CountDownLatch(1);
+        private final DeferredResult<String> deferred = new DeferredResult<>();
+
+        @GetMapping("/slow")
+        String slow() throws InterruptedException {
+            entered.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return "lento";
+        }
+
+        @GetMapping("/fast")
+        String fast() {
+            return "rápido";
+        }
+
+        @PostMapping("/write")
+        String write() {
+            return "gravado";
+        }
+
+        @PostMapping("/fail")
+        String fail() {
+            throw new IllegalStateException("falha inesperada");
+        }
+
+        @GetMapping("/invalid")
+        String invalid() {
+            throw new IllegalArgumentException("parâmetro inválido");
+        }
+
+        @GetMapping("/async")
+        DeferredResult<String> async() {
+            return deferred;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.librishare.backend.config.ratelimit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import java.net.URI;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import java.net.URI;
+
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import java.net.URI;
+
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "librishare.ratelimit.groups[0].name=books",
+        "librishare.ratelimit.groups[0].paths=/api/v1/books/**",
+        "librishare.ratelimit.groups[0].capacity=2",
+        "librishare.ratelimit.groups[0].refill-per-second=0.01"
+})
+class RateLimitFilterIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    @DisplayName("Deve responder 429 com Retry-After quando o IP esgota o balde do grupo")
+    void exhaustedBucket_Returns429() throws Exception {
+        mockMvc.perform(get("/api/v1/books").with(ip("10.0.0.1"))).andExpect(status().isOk());
+        mockMvc.perform(get("/api/v1/books").with(ip("10.0.0.1"))).andExpect(status().isOk());
+        mockMvc.perform(get("/api/v1/books").with(ip("10.0.0.1")))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "100"));
+
+        // Outro IP tem o seu próprio balde; rotas fora dos grupos não têm limite
+        mockMvc.perform(get("/api/v1/books").with(ip("10.0.0.2"))).andExpect(status().isOk());
+        mockMvc.perform(get("/api/v1/users").with(ip("10.0.0.1"))).andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("Caminho com segmento codificado deve gastar o mesmo balde")
+    void encodedPath_SharesBucket() throws Exception {
+        mockMvc.perform(get(URI.create("/api/v1/%62ooks")).with(ip("10.0.0.3"))).andExpect(status().isOk());
+        mockMvc.perform(get("/api/v1/books").with(ip("10.0.0.3"))).andExpect(status().isOk());
+        mockMvc.perform(get(URI.create("/api/v1/%62ooks")).with(ip("10.0.0.3")))
+                .andExpect(status().isTooManyRequests());
+    }
+
+    private static RequestPostProcessor ip(String address) {
+        return request -> {
+            request.setRemoteAddr(address);
+            return request;
+        };
+    }
+}
@@ -0,0 +1,52 @@
+package com.librishare.backend.config.ratelimit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RateLimitFilterTest {
+
+    // O firewall do Spring Security recusa ';' e '//' antes deste filtro; aqui ele é testado sozinho
+    private final RateLimitFilter filter = new RateLimitFilter(properties(), null);
+
+    private static RateLimitProperties properties() {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.getGroups().add(group("library", "/api/v1/users/*/library/**", 1));
+        properties.getGroups().add(group("api", "/api/**", 100));
+        return properties;
+    }
+
+    private static RateLimitProperties.Group group(String name, String path, int capacity) {
+        RateLimitProperties.Group group = new RateLimitProperties.Group();
+        group.setName(name);
+        group.setPaths(List.of(path));
+        group.setCapacity(capacity);
+        group.setRefillPerSecond(0.01);
+        return group;
+    }
+
+    private int status(String uri) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+        request.setRemoteAddr("10.0.0.9");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response.getStatus();
+    }
+
+    @Test
+    @DisplayName("Parâmetros ';', barras repetidas e segmentos codificados não devem escapar do grupo")
+    void pathVariants_MatchSameGroup() throws Exception {
+        assertEquals(200, status("/api/v1/users/1/library;jsessionid=abc"));
+        assertEquals(429, status("/api/v1/users/1/library"));
+        assertEquals(429, status("/api/v1/users/1/library;jsessionid=abc"));
+        assertEquals(429, status("/api/v1/users/1//library"));
+        assertEquals(429, status("/api/v1/users/1/%6Cibrary"));
+        assertEquals(200, status("/api/v1/books;jsessionid=abc"));
+    }
+}
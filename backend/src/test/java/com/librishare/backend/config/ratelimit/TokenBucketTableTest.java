@@ -0,0 +1,89 @@
+package com.librishare.backend.config.ratelimit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketTableTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    @DisplayName("Deve liberar a rajada inteira e depois informar a espera até o próximo token")
+    void burstThenWait() {
+        TokenBucketTable table = new TokenBucketTable(3, 2, 4, 16);
+
+        assertEquals(0, table.tryAcquire(7L, 0));
+        assertEquals(0, table.tryAcquire(7L, 0));
+        assertEquals(0, table.tryAcquire(7L, 0));
+        // 2 tokens por segundo: o próximo em meio segundo
+        assertEquals(SECOND / 2, table.tryAcquire(7L, 0));
+
+        assertEquals(0, table.tryAcquire(7L, SECOND / 2));
+        assertTrue(table.tryAcquire(7L, SECOND / 2) > 0);
+    }
+
+    @Test
+    @DisplayName("Deve reabastecer só até a capacidade e manter as chaves independentes")
+    void lazyRefillCappedPerKey() {
+        TokenBucketTable table = new TokenBucketTable(2, 1, 4, 16);
+
+        assertEquals(0, table.tryAcquire(1L, 0));
+        assertEquals(0, table.tryAcquire(1L, 0));
+        assertTrue(table.tryAcquire(1L, 0) > 0);
+        assertEquals(0, table.tryAcquire(2L, 0));
+
+        // Uma hora parado não acumula mais que a capacidade
+        long later = 3600 * SECOND;
+        assertEquals(0, table.tryAcquire(1L, later));
+        assertEquals(0, table.tryAcquire(1L, later));
+        assertTrue(table.tryAcquire(1L, later) > 0);
+    }
+
+    @Test
+    @DisplayName("Deve reaproveitar posições quando há mais chaves que espaço")
+    void fullTableReusesSlots() {
+        TokenBucketTable table = new TokenBucketTable(1, 1, 1, 8);
+
+        for (long key = 0; key < 100; key++) {
+            assertEquals(0, table.tryAcquire(key, 0));
+        }
+        // A última chave continua com o balde vazio
+        assertTrue(table.tryAcquire(99L, 0) > 0);
+    }
+
+    @Test
+    @DisplayName("Não deve liberar mais tokens que a capacidade sob concorrência")
+    void concurrentAcquireRespectsCapacity() throws Exception {
+        TokenBucketTable table = new TokenBucketTable(100, 0.001, 8, 64);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger granted = new AtomicInteger();
+        try {
+            for (int t = 0; t < 8; t++) {
+                executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < 50; i++) {
+                        if (table.tryAcquire(42L, 0) == 0) {
+                            granted.incrementAndGet();
+                        }
+                    }
+                    return null;
+                });
+            }
+            start.countDown();
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(100, granted.get());
+    }
+}
@@ -0,0 +1,50 @@
+package com.librishare.backend.config.security;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AccessTokenServiceTest {
+
+    private static final String SECRET = Base64.getEncoder().encodeToString(new byte[32]);
+
+    @Test
+    @DisplayName("Não deve iniciar sem a chave dos tokens")
+    void constructor_RejectsMissingSecret() {
+        IllegalStateException error = assertThrows(IllegalStateException.class,
+                () -> new AccessTokenService("  ", false, 60));
+
+        assertTrue(error.getMessage().contains("librishare.security.token.secret"));
+    }
+
+    @Test
+    @DisplayName("Deve sortear uma chave temporária só quando permitido")
+    void constructor_AllowsEphemeralSecretWhenEnabled() {
+        AccessTokenService service = new AccessTokenService("", true, 60);
+
+        AuthenticatedUser user = service.verify(service.issue(7L, "ana@email.com", false).value());
+
+        assertEquals(7L, user.id());
+    }
+
+    @Test
+    @DisplayName("Deve recusar chaves com menos de 32 bytes")
+    void constructor_RejectsShortSecret() {
+        String shortSecret = Base64.getEncoder().encodeToString(new byte[16]);
+
+        assertThrows(IllegalStateException.class, () -> new AccessTokenService(shortSecret, true, 60));
+    }
+
+    @Test
+    @DisplayName("Tokens devem valer entre instâncias com a mesma chave")
+    void verify_AcceptsTokenFromOtherInstance() {
+        String token = new AccessTokenService(SECRET, false, 60).issue(3L, "bia@email.com", true).value();
+
+        AuthenticatedUser user = new AccessTokenService(SECRET, false, 60).verify(token);
+        assertEquals(3L, user.id());
+        assertTrue(user.admin());
+    }
+}
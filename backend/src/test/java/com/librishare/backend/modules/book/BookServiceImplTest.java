@@ -1,12 +1,15 @@
 package com.librishare.backend.modules.book;
 
+import com.librishare.backend.config.cache.TwoTierCache;
 import com.librishare.backend.exception.DuplicateResourceException;
 import com.librishare.backend.exception.ResourceNotFoundException;
+import com.librishare.backend.modules.book.dto.BookChangedEvent;
 import com.librishare.backend.modules.book.dto.BookRequestDTO;
 import com.librishare.backend.modules.book.dto.BookResponseDTO;
 import com.librishare.backend.modules.book.entity.Book;
 import com.librishare.backend.modules.book.repository.BookRepository;
 import com.librishare.backend.modules.book.service.impl.BookServiceImpl;
+import com.librishare.backend.modules.outbox.service.OutboxService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -22,6 +25,7 @@ import java.lang.reflect.Type;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -38,6 +42,12 @@ class BookServiceImplTest {
     @Mock
     private ModelMapper mapper;
 
+    @Mock
+    private OutboxService outbox;
+
+    @Mock
+    private TwoTierCache<Long, BookResponseDTO> bookCache;
+
     @InjectMocks
     private BookServiceImpl bookService;
 
@@ -100,6 +110,7 @@ class BookServiceImplTest {
         assertNotNull(result);
         assertEquals(title, result.getTitle());
         verify(bookRepository).save(mappedBook);
+        verify(outbox).publish(eq(BookChangedEvent.TYPE), any(BookChangedEvent.class));
     }
 
     @Test
@@ -116,6 +127,7 @@ class BookServiceImplTest {
     void findBookById_Success() {
         when(bookRepository.findById(1L)).thenReturn(Optional.of(book));
         when(mapper.map(book, BookResponseDTO.class)).thenReturn(bookResponseDTO);
+        when(bookCache.get(eq(1L), any())).thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(1).get());
         assertNotNull(bookService.findBookById(1L));
     }
 
@@ -175,5 +187,6 @@ class BookServiceImplTest {
 
         assertEquals(newTitle, result.getTitle());
         verify(bookRepository).save(book);
+        verify(bookCache).evict(1L);
     }
 }
\ No newline at end of file
@@ -0,0 +1,115 @@
+package com.librishare.backend.modules.cache;
+
+import com.librishare.backend.modules.cache.service.CacheInvalidationBus;
+import com.librishare.backend.modules.cache.service.impl.CacheInvalidationBusImpl;
+import com.librishare.backend.modules.cache.service.impl.PostgresInvalidationListener;
+import com.librishare.backend.modules.history.dto.HistoryEntry;
+import com.librishare.backend.modules.history.service.impl.RecentActivityCache;
+import com.librishare.backend.modules.loan.service.LoanChangeTracker;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+class PostgresInvalidationListenerTest {
+
+    private CacheInvalidationBusImpl bus;
+    private RecentActivityCache recentActivity;
+    private LoanChangeTracker changeTracker;
+    private PostgresInvalidationListener listener;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        bus = new CacheInvalidationBusImpl(mock(JdbcTemplate.class), "librishare_cache", true);
+        recentActivity = new RecentActivityCache(5, 10);
+        changeTracker = new LoanChangeTracker(mock(CacheInvalidationBus.class));
+        listener = new PostgresInvalidationListener(bus, List.of(recentActivity, changeTracker),
+                new DataSourceProperties(), mock(ObjectProvider.class), "librishare_cache", 500, 2000, 30000);
+        loads = new AtomicInteger();
+    }
+
+    private void readRecent(Long userId) {
+        recentActivity.get(userId, rows -> {
+            loads.incrementAndGet();
+            return List.<HistoryEntry>of();
+        });
+    }
+
+    @Test
+    @DisplayName("Deve descartar a atividade recente quando outra instância grava histórico")
+    void dispatch_EvictsRecentActivityFromOtherNode() {
+        readRecent(1L);
+        readRecent(1L);
+        assertEquals(1, loads.get());
+
+        listener.dispatch(CacheInvalidationBusImpl.encode("outra-instancia", CacheInvalidationBus.HISTORY, 1L));
+        readRecent(1L);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    @DisplayName("Deve ignorar os avisos emitidos pela própria instância")
+    void dispatch_IgnoresOwnNotifications() {
+        readRecent(1L);
+
+        listener.dispatch(CacheInvalidationBusImpl.encode(bus.nodeId(), CacheInvalidationBus.HISTORY, 1L));
+        readRecent(1L);
+
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    @DisplayName("Deve mudar a ETag de empréstimos quando outra instância os altera")
+    void dispatch_AdvancesLoanEtag() {
+        String before = changeTracker.etag(7L);
+
+        listener.dispatch(CacheInvalidationBusImpl.encode("outra-instancia", CacheInvalidationBus.LOANS, 7L));
+
+        assertNotEquals(before, changeTracker.etag(7L));
+        assertEquals(changeTracker.etag(8L), changeTracker.etag(8L));
+    }
+
+    @Test
+    @DisplayName("Deve esvaziar os caches ao reconectar, pois avisos podem ter se perdido")
+    void resync_EvictsEverything() {
+        readRecent(1L);
+        readRecent(2L);
+        String etag = changeTracker.etag(7L);
+
+        listener.resync();
+        readRecent(1L);
+        readRecent(2L);
+
+        assertEquals(4, loads.get());
+        assertNotEquals(etag, changeTracker.etag(7L));
+    }
+
+    @Test
+    @DisplayName("Deve ignorar avisos em formato desconhecido e rejeitar canal inválido")
+    @SuppressWarnings("unchecked")
+    void invalidInput() {
+        LoanChangeTracker tracker = mock(LoanChangeTracker.class);
+        PostgresInvalidationListener strict = new PostgresInvalidationListener(bus, List.of(tracker),
+                new DataSourceProperties(), mock(ObjectProvider.class), "librishare_cache", 500, 2000, 30000);
+
+        strict.dispatch("sem-separador");
+        verifyNoInteractions(tracker);
+
+        assertThrows(IllegalArgumentException.class, () -> new PostgresInvalidationListener(bus, List.of(),
+                new DataSourceProperties(), mock(ObjectProvider.class), "canal; DROP TABLE users", 500, 2000, 30000));
+    }
+}
@@ -0,0 +1,119 @@
+package com.librishare.backend.modules.event;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.librishare.backend.modules.book.entity.Book;
+import com.librishare.backend.modules.book.repository.BookRepository;
+import com.librishare.backend.modules.event.service.UserEventService;
+import com.librishare.backend.modules.history.repository.UserHistoryRepository;
+import com.librishare.backend.modules.library.dto.AddBookRequest;
+import com.librishare.backend.modules.library.enums.ReadingStatus;
+import com.librishare.backend.modules.library.repository.UserBookRepository;
+import com.librishare.backend.modules.user.entity.User;
+import com.librishare.backend.modules.user.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Sem @Transactional: os eventos só saem depois do commit
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class UserEventIntegrationTest {
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private ObjectMapper objectMapper;
+    @Autowired private UserEventService userEventService;
+    @Autowired private UserRepository userRepository;
+    @Autowired private BookRepository bookRepository;
+    @Autowired private UserBookRepository userBookRepository;
+    @Autowired private UserHistoryRepository historyRepository;
+
+    private User user;
+    private Book book;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(User.builder().firstName("Live").lastName("User").email("live@test.com").build());
+        book = bookRepository.save(Book.builder().title("Livro ao Vivo").author("Autor").build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        userBookRepository.deleteAll(userBookRepository.findByUserId(user.getId()));
+        historyRepository.deleteAll();
+        userRepository.delete(user);
+        bookRepository.delete(book);
+    }
+
+    private String awaitContent(MockHttpServletResponse response, String expected) throws Exception {
+        long deadline = System.currentTimeMillis() + 5000;
+        String content = response.getContentAsString(StandardCharsets.UTF_8);
+        while (!content.contains(expected) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            content = response.getContentAsString(StandardCharsets.UTF_8);
+        }
+        return content;
+    }
+
+    @Test
+    @DisplayName("Deve abrir o fluxo e entregar eventos publicados ao usuário")
+    void streamEvents_DeliversPublishedEvents() throws Exception {
+        MvcResult stream = mockMvc.perform(get("/api/v1/users/" + user.getId() + "/events")
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        userEventService.publish(user.getId(), UserEventService.LOAN, Map.of("id", 42));
+        userEventService.publish(user.getId() + 1000, UserEventService.LOAN, Map.of("id", 43));
+
+        String content = awaitContent(stream.getResponse(), "\"id\":42");
+        assertTrue(content.contains("event:ready"));
+        assertTrue(content.contains("event:loan"));
+        assertFalse(content.contains("\"id\":43"));
+    }
+
+    @Test
+    @DisplayName("Deve transmitir mudanças da estante e do histórico feitas pela API")
+    void streamEvents_LibraryMutation() throws Exception {
+        MvcResult stream = mockMvc.perform(get("/api/v1/users/" + user.getId() + "/events")
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(post("/api/v1/users/" + user.getId() + "/library")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new AddBookRequest(book.getId(), ReadingStatus.READING))))
+                .andExpect(status().isCreated());
+
+        String content = awaitContent(stream.getResponse(), "Começou a ler 'Livro ao Vivo'.");
+        assertTrue(content.contains("event:library"));
+        assertTrue(content.contains("event:history"));
+        assertTrue(content.contains("Começou a ler 'Livro ao Vivo'."));
+    }
+
+    @Test
+    @DisplayName("Deve retornar 404 ao abrir o fluxo de usuário inexistente")
+    void streamEvents_UserNotFound() throws Exception {
+        mockMvc.perform(get("/api/v1/users/999999/events").accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(status().isNotFound());
+    }
+}
@@ -0,0 +1,155 @@
+package com.librishare.backend.modules.history;
+
+import com.librishare.backend.modules.cache.service.CacheInvalidationBus;
+import com.librishare.backend.modules.history.entity.UserHistory;
+import com.librishare.backend.modules.history.service.impl.AsyncHistoryWriter;
+import com.librishare.backend.modules.history.service.impl.RecentActivityCache;
+import com.librishare.backend.modules.social.service.TimelineService;
+import com.librishare.backend.modules.user.entity.User;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiPredicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AsyncHistoryWriterTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private ObjectProvider<MeterRegistry> meterRegistry;
+
+    private AsyncHistoryWriter writer;
+
+    private final User user = User.builder().id(1L).firstName("Bianca").build();
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (writer != null) {
+            writer.shutdown();
+        }
+    }
+
+    private AsyncHistoryWriter newWriter(int capacity, int batchSize, long flushIntervalMillis) {
+        return newWriter(capacity, batchSize, flushIntervalMillis, 3);
+    }
+
+    private AsyncHistoryWriter newWriter(int capacity, int batchSize, long flushIntervalMillis, int maxAttempts) {
+        return new AsyncHistoryWriter(jdbcTemplate, new TransactionTemplate(mock(PlatformTransactionManager.class)),
+                new RecentActivityCache(10, 100), mock(TimelineService.class), mock(CacheInvalidationBus.class),
+                meterRegistry, capacity, batchSize, flushIntervalMillis, 10, maxAttempts, 1);
+    }
+
+    private UserHistory entry(String description) {
+        return UserHistory.builder().user(user).actionType("LEITURA").description(description).build();
+    }
+
+    @Test
+    @DisplayName("Deve gravar as entradas em lote pela thread de gravação")
+    void submit_FlushesInBatches() {
+        writer = newWriter(100, 2, 20);
+
+        writer.submit(List.of(entry("a"), entry("b"), entry("c")));
+
+        verify(jdbcTemplate, timeout(2000).atLeast(2))
+                .batchUpdate(anyString(), anyCollection(), anyInt(), any());
+    }
+
+    @Test
+    @DisplayName("Deve gravar o que estiver na fila no desligamento")
+    void shutdown_FlushesPendingEntries() throws InterruptedException {
+        writer = newWriter(100, 200, 60_000);
+
+        writer.submit(List.of(entry("a"), entry("b")));
+        writer.shutdown();
+        writer = null;
+
+        verify(jdbcTemplate, atLeastOnce()).batchUpdate(anyString(), anyCollection(), anyInt(), any());
+    }
+
+    @Test
+    @DisplayName("Deve gravar na própria requisição quando a fila estiver cheia")
+    void submit_CallerRunsWhenQueueIsFull() throws InterruptedException {
+        CountDownLatch workerBusy = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(), any())).thenAnswer(invocation -> {
+            if ("history-writer".equals(Thread.currentThread().getName())) {
+                workerBusy.countDown();
+                release.await(5, TimeUnit.SECONDS);
+            }
+            return new int[0][];
+        });
+        writer = newWriter(1, 1, 1);
+
+        writer.submit(List.of(entry("ocupa a thread")));
+        assertTrue(workerBusy.await(2, TimeUnit.SECONDS));
+
+        writer.submit(List.of(entry("ocupa a fila"), entry("transborda")));
+
+        verify(jdbcTemplate).batchUpdate(anyString(),
+                argThat((Collection<UserHistory> batch) -> batch.size() == 1
+                        && "transborda".equals(batch.iterator().next().getDescription())),
+                anyInt(), any());
+        release.countDown();
+    }
+
+    @Test
+    @DisplayName("Deve tentar o lote de novo após falha, sem descartá-lo")
+    void drain_RetriesFailedBatch() {
+        List<List<String>> attempts = recordBatches((batch, attempt) -> attempt == 1);
+        writer = newWriter(100, 2, 20);
+
+        writer.submit(List.of(entry("a"), entry("b")));
+
+        verify(jdbcTemplate, timeout(2000).times(2)).batchUpdate(anyString(), anyCollection(), anyInt(), any());
+        assertEquals(List.of(List.of("a", "b"), List.of("a", "b")), attempts);
+    }
+
+    @Test
+    @DisplayName("Deve gravar uma a uma após esgotar as tentativas e descartar só a entrada inválida")
+    void drain_FallsBackToRowByRow() {
+        List<List<String>> attempts = recordBatches((batch, attempt) -> batch.contains("inválida"));
+        writer = newWriter(100, 3, 20, 2);
+
+        writer.submit(List.of(entry("a"), entry("inválida"), entry("b")));
+
+        verify(jdbcTemplate, timeout(2000).times(5)).batchUpdate(anyString(), anyCollection(), anyInt(), any());
+        assertEquals(List.of(List.of("a", "inválida", "b"), List.of("a", "inválida", "b"),
+                List.of("a"), List.of("inválida"), List.of("b")), attempts);
+    }
+
+    // Guarda uma cópia de cada lote (o gravador reaproveita a lista) e falha quando o teste mandar
+    private List<List<String>> recordBatches(BiPredicate<List<String>, Integer> failWhen) {
+        List<List<String>> attempts = new CopyOnWriteArrayList<>();
+        when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(), any())).thenAnswer(invocation -> {
+            Collection<UserHistory> batch = invocation.getArgument(1);
+            List<String> descriptions = batch.stream().map(UserHistory::getDescription).toList();
+            attempts.add(descriptions);
+            if (failWhen.test(descriptions, attempts.size())) {
+                throw new TransientDataAccessResourceException("falha ao gravar");
+            }
+            return new int[0][];
+        });
+        return attempts;
+    }
+}
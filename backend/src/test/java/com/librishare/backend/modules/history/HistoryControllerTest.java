@@ -2,6 +2,7 @@ package com.librishare.backend.modules.history;
 
 import com.librishare.backend.exception.ResourceNotFoundException;
 import com.librishare.backend.modules.history.controller.HistoryController;
+import com.librishare.backend.modules.history.dto.HistoryPageDTO;
 import com.librishare.backend.modules.history.dto.HistoryResponseDTO;
 import com.librishare.backend.modules.history.service.HistoryService;
 import org.junit.jupiter.api.BeforeEach;
@@ -27,6 +28,7 @@ import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -65,20 +67,35 @@ class HistoryControllerTest {
     void getUserHistory_Success() throws Exception {
         List<HistoryResponseDTO> historyList = Arrays.asList(historyItem1, historyItem2);
 
-        when(historyService.getUserHistory(1L)).thenReturn(historyList);
+        when(historyService.getUserHistory(1L, null, null, 3)).thenReturn(new HistoryPageDTO(historyList, null));
 
         mockMvc.perform(get("/api/v1/users/{userId}/history", 1L)
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$", hasSize(2)))
                 .andExpect(jsonPath("$[0].actionType", is("EMPRÉSTIMO")))
-                .andExpect(jsonPath("$[1].actionType", is("DEVOLUÇÃO")));
+                .andExpect(jsonPath("$[1].actionType", is("DEVOLUÇÃO")))
+                .andExpect(header().doesNotExist("X-Next-Cursor"));
+    }
+
+    @Test
+    @DisplayName("Deve devolver o cursor da próxima página no cabeçalho (200)")
+    void getUserHistory_WithNextCursor() throws Exception {
+        when(historyService.getUserHistory(1L, null, "abc", 1))
+                .thenReturn(new HistoryPageDTO(List.of(historyItem1), "def"));
+
+        mockMvc.perform(get("/api/v1/users/{userId}/history", 1L)
+                        .param("before", "abc")
+                        .param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(header().string("X-Next-Cursor", "def"));
     }
 
     @Test
     @DisplayName("Deve retornar lista vazia se usuário existe mas não tem histórico (200)")
     void getUserHistory_EmptyList() throws Exception {
-        when(historyService.getUserHistory(1L)).thenReturn(Collections.emptyList());
+        when(historyService.getUserHistory(1L, null, null, 3)).thenReturn(new HistoryPageDTO(Collections.emptyList(), null));
 
         mockMvc.perform(get("/api/v1/users/{userId}/history", 1L)
                         .contentType(MediaType.APPLICATION_JSON))
@@ -89,7 +106,7 @@ class HistoryControllerTest {
     @Test
     @DisplayName("Deve retornar 404 se o usuário não for encontrado")
     void getUserHistory_UserNotFound() throws Exception {
-        when(historyService.getUserHistory(99L))
+        when(historyService.getUserHistory(99L, null, null, 3))
                 .thenThrow(new ResourceNotFoundException("Usuário não encontrado"));
 
         mockMvc.perform(get("/api/v1/users/{userId}/history", 99L)
@@ -1,25 +1,36 @@
 package com.librishare.backend.modules.history;
 
+import com.librishare.backend.modules.book.entity.Book;
+import com.librishare.backend.modules.book.repository.BookRepository;
 import com.librishare.backend.modules.history.entity.UserHistory;
+import com.librishare.backend.modules.history.enums.HistoryEventType;
 import com.librishare.backend.modules.history.repository.UserHistoryRepository;
 import com.librishare.backend.modules.user.entity.User;
 import com.librishare.backend.modules.user.repository.UserRepository;
+import com.jayway.jsonpath.JsonPath;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
 import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
 
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -32,6 +43,7 @@ class HistoryIntegrationTest {
     @Autowired private MockMvc mockMvc;
     @Autowired private UserHistoryRepository historyRepository;
     @Autowired private UserRepository userRepository;
+    @Autowired private BookRepository bookRepository;
 
     private User user;
 
@@ -68,10 +80,82 @@ class HistoryIntegrationTest {
                 .andExpect(jsonPath("$[1].actionType", is("LOGIN")));
     }
 
+    @Test
+    @DisplayName("Deve montar eventos tipados na leitura, no idioma pedido e filtrados por tipo")
+    void getUserHistory_TypedEventsRenderedAtReadTime() throws Exception {
+        Book book = bookRepository.save(Book.builder().title("Memórias Póstumas").author("Machado de Assis").build());
+        historyRepository.save(UserHistory.builder()
+                .user(user)
+                .eventType(HistoryEventType.READING_STARTED)
+                .bookId(book.getId())
+                .createdAt(OffsetDateTime.now().minusHours(1))
+                .build());
+        historyRepository.save(UserHistory.builder()
+                .user(user)
+                .actionType("LOGIN")
+                .description("Login realizado")
+                .createdAt(OffsetDateTime.now())
+                .build());
+
+        MvcResult portuguese = mockMvc.perform(get("/api/v1/users/" + user.getId() + "/history")
+                        .param("type", "READING_STARTED"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].eventType", is("READING_STARTED")))
+                .andReturn();
+        assertEquals("Começou a ler 'Memórias Póstumas'.",
+                JsonPath.read(portuguese.getResponse().getContentAsString(StandardCharsets.UTF_8), "$[0].description"));
+
+        mockMvc.perform(get("/api/v1/users/" + user.getId() + "/history")
+                        .param("type", "READING_STARTED")
+                        .header(HttpHeaders.ACCEPT_LANGUAGE, "en"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].actionType", is("READING")));
+    }
+
     @Test
     @DisplayName("Deve retornar 404 se usuário não existir")
     void getUserHistory_UserNotFound() throws Exception {
         mockMvc.perform(get("/api/v1/users/99999/history"))
                 .andExpect(status().isNotFound());
     }
+
+    @Test
+    @DisplayName("Deve percorrer todo o histórico por cursor, sem repetir itens")
+    void getUserHistory_KeysetPaging() throws Exception {
+        for (int i = 1; i <= 5; i++) {
+            historyRepository.save(UserHistory.builder()
+                    .user(user)
+                    .actionType("LEITURA")
+                    .description("Ação " + i)
+                    .build());
+        }
+
+        List<String> descriptions = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            var request = get("/api/v1/users/" + user.getId() + "/history").param("limit", "2");
+            if (cursor != null) {
+                request.param("before", cursor);
+            }
+            MvcResult result = mockMvc.perform(request)
+                    .andExpect(status().isOk())
+                    .andReturn();
+            List<String> page = JsonPath.read(result.getResponse().getContentAsString(StandardCharsets.UTF_8), "$[*].description");
+            descriptions.addAll(page);
+            cursor = result.getResponse().getHeader("X-Next-Cursor");
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(3, pages);
+        assertEquals(List.of("Ação 5", "Ação 4", "Ação 3", "Ação 2", "Ação 1"), descriptions);
+    }
+
+    @Test
+    @DisplayName("Deve retornar 400 para cursor inválido")
+    void getUserHistory_InvalidCursor() throws Exception {
+        mockMvc.perform(get("/api/v1/users/" + user.getId() + "/history").param("before", "%%%"))
+                .andExpect(status().isBadRequest());
+    }
 }
\ No newline at end of file
@@ -0,0 +1,58 @@
+package com.librishare.backend.modules.history;
+
+import com.librishare.backend.modules.history.service.impl.HistoryPartitionMaintenance;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.InvalidDataAccessResourceUsageException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class HistoryPartitionMaintenanceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private HistoryPartitionMaintenance maintenance;
+
+    @BeforeEach
+    void setUp() {
+        maintenance = new HistoryPartitionMaintenance(jdbcTemplate, 0, 1);
+        when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenReturn(true);
+        when(jdbcTemplate.queryForObject(anyString(), eq(Boolean.class))).thenReturn(true);
+    }
+
+    @Test
+    @DisplayName("Deve seguir para as próximas partições quando outra instância já remove uma delas")
+    void onStartup_ContinuesAfterDropFailure() {
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class)))
+                .thenReturn(List.of("user_history_p200001", "user_history_p200002"));
+        // lenient: as demais chamadas a execute(String) não devem casar com este stub
+        lenient().doThrow(new InvalidDataAccessResourceUsageException("não é uma partição"))
+                .when(jdbcTemplate).execute("ALTER TABLE user_history DETACH PARTITION user_history_p200001 CONCURRENTLY");
+
+        assertDoesNotThrow(() -> maintenance.onStartup());
+
+        verify(jdbcTemplate, never()).execute("DROP TABLE IF EXISTS user_history_p200001");
+        verify(jdbcTemplate).execute("DROP TABLE IF EXISTS user_history_p200002");
+    }
+
+    @Test
+    @DisplayName("Não deve interromper a inicialização se a listagem das partições falhar")
+    void onStartup_ListingFailureDoesNotAbortBoot() {
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class)))
+                .thenThrow(new InvalidDataAccessResourceUsageException("sem conexão"));
+
+        assertDoesNotThrow(() -> maintenance.onStartup());
+    }
+}
@@ -1,28 +1,49 @@
 package com.librishare.backend.modules.history;
 
+import com.librishare.backend.modules.cache.service.CacheInvalidationBus;
 import com.librishare.backend.exception.ResourceNotFoundException;
+import com.librishare.backend.modules.event.service.UserEventService;
+import com.librishare.backend.modules.history.dto.HistoryEntry;
+import com.librishare.backend.modules.history.dto.HistoryPageDTO;
 import com.librishare.backend.modules.history.dto.HistoryResponseDTO;
+import com.librishare.backend.modules.history.dto.HistorySubject;
 import com.librishare.backend.modules.history.entity.UserHistory;
+import com.librishare.backend.modules.history.enums.HistoryEventType;
 import com.librishare.backend.modules.history.repository.UserHistoryRepository;
+import com.librishare.backend.modules.history.service.impl.AsyncHistoryWriter;
+import com.librishare.backend.modules.history.service.impl.HistoryRenderer;
 import com.librishare.backend.modules.history.service.impl.HistoryServiceImpl;
+import com.librishare.backend.modules.history.service.impl.RecentActivityCache;
+import com.librishare.backend.modules.outbox.service.OutboxService;
+import com.librishare.backend.modules.social.dto.TimelineFanOutEvent;
 import com.librishare.backend.modules.user.entity.User;
-import com.librishare.backend.modules.user.repository.UserRepository;
+import com.librishare.backend.modules.user.service.UserProfileLookup;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.EnumSource;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.modelmapper.ModelMapper;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.context.support.ResourceBundleMessageSource;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import java.time.OffsetDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Locale;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -36,20 +57,33 @@ class HistoryServiceImplTest {
     private UserHistoryRepository repository;
 
     @Mock
-    private UserRepository userRepository;
+    private UserProfileLookup userProfiles;
 
     @Mock
-    private ModelMapper mapper;
+    private UserEventService userEvents;
+
+    @Mock
+    private OutboxService outbox;
+
+    @Mock
+    private CacheInvalidationBus invalidationBus;
+
+    // Capacidade 2: limites maiores vão direto ao banco
+    @Spy
+    private RecentActivityCache recentActivity = new RecentActivityCache(2, 100);
+
+    @Spy
+    private HistoryRenderer renderer = new HistoryRenderer(messages());
 
     @InjectMocks
     private HistoryServiceImpl historyService;
 
     @Captor
-    private ArgumentCaptor<UserHistory> historyCaptor;
+    private ArgumentCaptor<List<UserHistory>> historyCaptor;
 
     private User user;
     private UserHistory historyEntity;
-    private HistoryResponseDTO historyDTO;
+    private HistoryEntry historyRow;
 
     @BeforeEach
     void setUp() {
@@ -62,31 +96,49 @@ class HistoryServiceImplTest {
                 .description("Usuário logou")
                 .build();
 
-        historyDTO = new HistoryResponseDTO();
-        historyDTO.setActionType("LOGIN");
-        historyDTO.setDescription("Usuário logou");
+        historyRow = legacyRow(1L, "Usuário logou", OffsetDateTime.now());
+
+        // Em requisições o idioma vem de spring.web.locale ou do Accept-Language
+        LocaleContextHolder.setLocale(Locale.forLanguageTag("pt-BR"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        LocaleContextHolder.resetLocaleContext();
+    }
+
+    private static HistoryEntry legacyRow(Long id, String description, OffsetDateTime createdAt) {
+        return new HistoryEntry(id, null, null, null, null, null, "LOGIN", description, createdAt);
+    }
+
+    private static ResourceBundleMessageSource messages() {
+        ResourceBundleMessageSource messageSource = new ResourceBundleMessageSource();
+        messageSource.setBasename("messages");
+        messageSource.setDefaultEncoding("UTF-8");
+        messageSource.setFallbackToSystemLocale(false);
+        return messageSource;
     }
 
     // --- Log Action Tests ---
 
     @ParameterizedTest
-    @CsvSource({
-            "EMPRÉSTIMO, Emprestou um livro",
-            "DEVOLUÇÃO, Devolveu o livro Dom Quixote",
-            "LOGIN, Usuário realizou login no sistema",
-            "UPDATE, Atualizou perfil"
-    })
-    @DisplayName("Deve salvar diferentes ações no histórico corretamente")
-    void logAction_Parameterized(String actionType, String description) {
-        historyService.logAction(user, actionType, description);
-
-        verify(repository, times(1)).save(historyCaptor.capture());
-        UserHistory capturedHistory = historyCaptor.getValue();
+    @EnumSource(HistoryEventType.class)
+    @DisplayName("Deve salvar diferentes eventos no histórico apenas com tipo e referências")
+    void logAction_Parameterized(HistoryEventType eventType) {
+        when(repository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        historyService.logAction(user, eventType, HistorySubject.ofLoan(3L, "Dom Quixote", 4L, "João"));
+
+        verify(repository, times(1)).saveAll(historyCaptor.capture());
+        UserHistory capturedHistory = historyCaptor.getValue().get(0);
 
         assertNotNull(capturedHistory);
         assertEquals(user, capturedHistory.getUser());
-        assertEquals(actionType, capturedHistory.getActionType());
-        assertEquals(description, capturedHistory.getDescription());
+        assertEquals(eventType, capturedHistory.getEventType());
+        assertEquals(3L, capturedHistory.getBookId());
+        assertEquals(4L, capturedHistory.getLoanId());
+        assertNull(capturedHistory.getActionType());
+        assertNull(capturedHistory.getDescription());
     }
 
     // --- Get History Tests ---
@@ -94,40 +146,183 @@ class HistoryServiceImplTest {
     @Test
     @DisplayName("Deve retornar os top 3 históricos do usuário")
     void getUserHistory_Success() {
-        when(userRepository.existsById(1L)).thenReturn(true);
-
-        List<UserHistory> historyList = Arrays.asList(historyEntity, historyEntity);
+        when(userProfiles.exists(1L)).thenReturn(true);
+        when(repository.findPageByUserId(eq(1L), any(OffsetDateTime.class), eq(Limit.of(4)))).thenReturn(Arrays.asList(historyRow, historyRow));
 
-        when(repository.findTop3ByUserIdOrderByCreatedAtDesc(1L)).thenReturn(historyList);
-        when(mapper.map(any(UserHistory.class), eq(HistoryResponseDTO.class))).thenReturn(historyDTO);
-
-        List<HistoryResponseDTO> result = historyService.getUserHistory(1L);
+        HistoryPageDTO result = historyService.getUserHistory(1L, null, null, 3);
 
         assertNotNull(result);
-        assertEquals(2, result.size());
-        verify(userRepository).existsById(1L);
-        verify(repository).findTop3ByUserIdOrderByCreatedAtDesc(1L);
+        assertEquals(2, result.getItems().size());
+        assertNull(result.getNextCursor());
+        verify(userProfiles).exists(1L);
+        verify(repository).findPageByUserId(eq(1L), any(OffsetDateTime.class), eq(Limit.of(4)));
     }
 
     @Test
     @DisplayName("Deve retornar lista vazia se não houver histórico")
     void getUserHistory_Empty() {
-        when(userRepository.existsById(1L)).thenReturn(true);
-        when(repository.findTop3ByUserIdOrderByCreatedAtDesc(1L)).thenReturn(Collections.emptyList());
+        when(userProfiles.exists(1L)).thenReturn(true);
+        when(repository.findPageByUserId(eq(1L), any(OffsetDateTime.class), eq(Limit.of(4)))).thenReturn(Collections.emptyList());
 
-        List<HistoryResponseDTO> result = historyService.getUserHistory(1L);
+        HistoryPageDTO result = historyService.getUserHistory(1L, null, null, 3);
 
         assertNotNull(result);
-        assertTrue(result.isEmpty());
+        assertTrue(result.getItems().isEmpty());
     }
 
     @Test
     @DisplayName("Deve lançar erro 404 se o usuário não existir")
     void getUserHistory_UserNotFound() {
-        when(userRepository.existsById(99L)).thenReturn(false);
+        when(userProfiles.exists(99L)).thenReturn(false);
 
         assertThrows(ResourceNotFoundException.class, () ->
-                historyService.getUserHistory(99L)
+                historyService.getUserHistory(99L, null, null, 3)
         );
     }
+
+    @Test
+    @DisplayName("Deve gerar cursor quando houver próxima página e continuar a partir dele")
+    void getUserHistory_CursorRoundTrip() {
+        OffsetDateTime createdAt = OffsetDateTime.parse("2024-05-10T12:30:00.123456Z");
+        HistoryEntry newest = legacyRow(9L, "a", createdAt.plusMinutes(1));
+        HistoryEntry last = legacyRow(8L, "b", createdAt);
+        HistoryEntry extra = legacyRow(7L, "c", createdAt.minusMinutes(1));
+        when(userProfiles.exists(1L)).thenReturn(true);
+        when(repository.findPageByUserId(eq(1L), any(OffsetDateTime.class), eq(Limit.of(3)))).thenReturn(Arrays.asList(newest, last, extra));
+
+        HistoryPageDTO firstPage = historyService.getUserHistory(1L, null, null, 2);
+
+        assertEquals(2, firstPage.getItems().size());
+        assertNotNull(firstPage.getNextCursor());
+
+        historyService.getUserHistory(1L, null, firstPage.getNextCursor(), 2);
+
+        verify(repository).findPageByUserIdBefore(eq(1L), any(OffsetDateTime.class), eq(createdAt), eq(8L), eq(Limit.of(3)));
+    }
+
+    @ParameterizedTest
+    @CsvSource({ "não-é-base64!, 3", "bG9naW4, 3", ", 0", ", 101" })
+    @DisplayName("Deve rejeitar cursor ou limite inválido")
+    void getUserHistory_InvalidArguments(String before, int limit) {
+        lenient().when(userProfiles.exists(1L)).thenReturn(true);
+
+        assertThrows(IllegalArgumentException.class, () -> historyService.getUserHistory(1L, null, before, limit));
+    }
+
+    @Test
+    @DisplayName("Deve delegar ao gravador assíncrono quando habilitado")
+    void logAction_AsyncWriterEnabled() {
+        AsyncHistoryWriter asyncWriter = mock(AsyncHistoryWriter.class);
+        ReflectionTestUtils.setField(historyService, "asyncWriter", asyncWriter);
+
+        historyService.logAction(user, HistoryEventType.READING_STARTED, HistorySubject.ofBook(2L, "Dom Casmurro"));
+
+        verify(asyncWriter).submit(argThat(entries -> entries.size() == 1
+                && entries.get(0).getEventType() == HistoryEventType.READING_STARTED));
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    @DisplayName("Deve gravar na transação corrente, com a data da ação, mesmo com o gravador assíncrono")
+    void recordActions_WritesSynchronously() {
+        AsyncHistoryWriter asyncWriter = mock(AsyncHistoryWriter.class);
+        ReflectionTestUtils.setField(historyService, "asyncWriter", asyncWriter);
+        OffsetDateTime occurredAt = OffsetDateTime.parse("2024-03-15T10:00:00.123456Z");
+        when(repository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        historyService.recordActions(user, HistoryEventType.READING_STARTED,
+                List.of(HistorySubject.ofBook(2L, "Dom Casmurro")), occurredAt);
+
+        verify(repository).saveAll(argThat((List<UserHistory> entries) -> entries.size() == 1
+                && occurredAt.equals(entries.get(0).getCreatedAt())));
+        verify(outbox).publish(TimelineFanOutEvent.TYPE, new TimelineFanOutEvent(1L, occurredAt));
+        verifyNoInteractions(asyncWriter);
+    }
+
+    @Test
+    @DisplayName("Deve limitar a consulta à janela de retenção")
+    void getUserHistory_BoundedByRetention() {
+        ReflectionTestUtils.setField(historyService, "retentionMonths", 6);
+        when(userProfiles.exists(1L)).thenReturn(true);
+
+        historyService.getUserHistory(1L, null, null, 3);
+
+        OffsetDateTime expectedSince = YearMonth.now(ZoneOffset.UTC).minusMonths(6).atDay(1).atStartOfDay().atOffset(ZoneOffset.UTC);
+        verify(repository).findPageByUserId(1L, expectedSince, Limit.of(4));
+    }
+
+    @Test
+    @DisplayName("Deve servir a atividade recente da memória após a primeira leitura")
+    void getUserHistory_RecentServedFromMemory() {
+        OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+        HistoryEntry older = legacyRow(5L, "a", now.minusMinutes(2));
+        when(userProfiles.exists(1L)).thenReturn(true);
+        when(repository.findPageByUserId(eq(1L), any(OffsetDateTime.class), eq(Limit.of(3)))).thenReturn(List.of(older));
+        when(repository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<UserHistory> saved = invocation.getArgument(0);
+            saved.get(0).setId(6L);
+            saved.get(0).setCreatedAt(now);
+            return saved;
+        });
+
+        historyService.getUserHistory(1L, null, null, 2);
+        historyService.logAction(user, HistoryEventType.LOAN_CREATED, HistorySubject.ofLoan(3L, "Dom Quixote", 4L, "João"));
+        HistoryPageDTO result = historyService.getUserHistory(1L, null, null, 2);
+
+        assertEquals(List.of(6L, 5L), result.getItems().stream().map(HistoryResponseDTO::getId).toList());
+        assertEquals("Emprestou 'Dom Quixote' para João", result.getItems().get(0).getDescription());
+        verify(outbox).publish(TimelineFanOutEvent.TYPE, new TimelineFanOutEvent(1L, now));
+        verify(invalidationBus).broadcast(CacheInvalidationBus.HISTORY, 1L);
+        assertNull(result.getNextCursor());
+        verify(repository, times(1)).findPageByUserId(eq(1L), any(OffsetDateTime.class), any(Limit.class));
+        verify(userProfiles, times(1)).exists(1L);
+    }
+
+    @Test
+    @DisplayName("Deve recarregar a atividade recente após o descarte")
+    void evictRecentActivity_ReloadsFromDatabase() {
+        when(userProfiles.exists(1L)).thenReturn(true);
+        when(repository.findPageByUserId(eq(1L), any(OffsetDateTime.class), eq(Limit.of(3)))).thenReturn(Collections.emptyList());
+
+        historyService.getUserHistory(1L, null, null, 1);
+        historyService.evictRecentActivity(1L);
+        historyService.getUserHistory(1L, null, null, 1);
+
+        verify(repository, times(2)).findPageByUserId(eq(1L), any(OffsetDateTime.class), eq(Limit.of(3)));
+    }
+
+    @Test
+    @DisplayName("Deve montar o texto do evento no idioma da requisição")
+    void getUserHistory_RendersInRequestLocale() {
+        HistoryEntry loan = new HistoryEntry(3L, HistoryEventType.LOAN_RETURNED, 2L, "Dom Casmurro", 5L, "Ana",
+                null, null, OffsetDateTime.now());
+        HistoryEntry removedBook = new HistoryEntry(2L, HistoryEventType.WISHLIST_ADDED, 9L, null, null, null,
+                null, null, OffsetDateTime.now().minusDays(1));
+        when(userProfiles.exists(1L)).thenReturn(true);
+        when(repository.findPageByUserId(eq(1L), any(OffsetDateTime.class), eq(Limit.of(3)))).thenReturn(List.of(loan, removedBook));
+
+        HistoryPageDTO portuguese = historyService.getUserHistory(1L, null, null, 2);
+        LocaleContextHolder.setLocale(Locale.ENGLISH);
+        HistoryPageDTO english = historyService.getUserHistory(1L, null, null, 2);
+
+        assertEquals("DEVOLUÇÃO", portuguese.getItems().get(0).getActionType());
+        assertEquals("Recebeu de volta 'Dom Casmurro' de Ana", portuguese.getItems().get(0).getDescription());
+        assertEquals("Adicionou 'um livro removido' à lista de desejos.", portuguese.getItems().get(1).getDescription());
+        assertEquals("RETURN", english.getItems().get(0).getActionType());
+        assertEquals("Got 'Dom Casmurro' back from Ana", english.getItems().get(0).getDescription());
+        assertEquals(HistoryEventType.LOAN_RETURNED, english.getItems().get(0).getEventType());
+    }
+
+    @Test
+    @DisplayName("Deve filtrar por tipo de evento direto no banco")
+    void getUserHistory_FilteredByEventType() {
+        when(userProfiles.exists(1L)).thenReturn(true);
+        when(repository.findPageByUserIdAndEventType(eq(1L), eq(HistoryEventType.LOAN_CREATED), any(OffsetDateTime.class), eq(Limit.of(2))))
+                .thenReturn(Collections.emptyList());
+
+        HistoryPageDTO result = historyService.getUserHistory(1L, HistoryEventType.LOAN_CREATED, null, 1);
+
+        assertTrue(result.getItems().isEmpty());
+        verify(repository, never()).findPageByUserId(any(), any(), any());
+    }
 }
\ No newline at end of file
@@ -0,0 +1,101 @@
+package com.librishare.backend.modules.history;
+
+import com.librishare.backend.modules.history.dto.HistoryEntry;
+import com.librishare.backend.modules.history.enums.HistoryEventType;
+import com.librishare.backend.modules.history.service.impl.RecentActivityCache;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RecentActivityCacheTest {
+
+    private final OffsetDateTime now = OffsetDateTime.now();
+
+    private HistoryEntry entry(long id) {
+        return new HistoryEntry(id, HistoryEventType.LIBRARY_ADDED, id, "Livro " + id, null, null, null, null, now.plusSeconds(id));
+    }
+
+    private List<Long> ids(RecentActivityCache.Snapshot snapshot) {
+        return snapshot.items().stream().map(HistoryEntry::getId).toList();
+    }
+
+    @Test
+    @DisplayName("Deve manter apenas as entradas mais recentes ao exceder a capacidade")
+    void append_DropsOldestBeyondCapacity() {
+        RecentActivityCache cache = new RecentActivityCache(3, 10);
+        cache.get(1L, rows -> List.of(entry(2), entry(1)));
+
+        cache.append(1L, List.of(entry(3), entry(4)));
+        RecentActivityCache.Snapshot snapshot = cache.get(1L, rows -> fail("não deveria recarregar"));
+
+        assertEquals(List.of(4L, 3L, 2L), ids(snapshot));
+        assertTrue(snapshot.hasMore());
+    }
+
+    @Test
+    @DisplayName("Deve posicionar pela data as entradas entregues fora de ordem")
+    void append_OutOfOrderKeepsNewestFirst() {
+        RecentActivityCache cache = new RecentActivityCache(3, 10);
+        cache.get(1L, rows -> List.of(entry(4), entry(2)));
+
+        cache.append(1L, List.of(entry(3)));
+        cache.append(1L, List.of(entry(1)));
+        RecentActivityCache.Snapshot snapshot = cache.get(1L, rows -> fail("não deveria recarregar"));
+
+        assertEquals(List.of(4L, 3L, 2L), ids(snapshot));
+        assertTrue(snapshot.hasMore());
+    }
+
+    @Test
+    @DisplayName("Deve indicar entradas mais antigas quando o banco devolver além da capacidade")
+    void get_LoadsCapacityPlusOne() {
+        RecentActivityCache cache = new RecentActivityCache(2, 10);
+        AtomicInteger requested = new AtomicInteger();
+
+        RecentActivityCache.Snapshot snapshot = cache.get(1L, rows -> {
+            requested.set(rows);
+            return List.of(entry(3), entry(2), entry(1));
+        });
+
+        assertEquals(3, requested.get());
+        assertEquals(List.of(3L, 2L), ids(snapshot));
+        assertTrue(snapshot.hasMore());
+    }
+
+    @Test
+    @DisplayName("Deve mesclar entradas confirmadas durante a carga sem duplicá-las")
+    void append_DuringLoadIsMerged() {
+        RecentActivityCache cache = new RecentActivityCache(5, 10);
+
+        RecentActivityCache.Snapshot snapshot = cache.get(1L, rows -> {
+            cache.append(1L, List.of(entry(2), entry(3)));
+            return List.of(entry(2), entry(1));
+        });
+
+        assertEquals(List.of(3L, 2L, 1L), ids(snapshot));
+        assertFalse(snapshot.hasMore());
+    }
+
+    @Test
+    @DisplayName("Deve ignorar entradas de usuários fora do cache e descartar os menos usados")
+    void lru_EvictsLeastRecentlyUsedUser() {
+        RecentActivityCache cache = new RecentActivityCache(2, 2);
+        AtomicInteger loads = new AtomicInteger();
+        cache.append(1L, List.of(entry(9)));
+
+        cache.get(1L, rows -> { loads.incrementAndGet(); return List.of(entry(1)); });
+        cache.get(2L, rows -> { loads.incrementAndGet(); return List.of(); });
+        cache.get(1L, rows -> { loads.incrementAndGet(); return List.of(); });
+        cache.get(3L, rows -> { loads.incrementAndGet(); return List.of(); });
+        RecentActivityCache.Snapshot first = cache.get(1L, rows -> { loads.incrementAndGet(); return List.of(); });
+        cache.get(2L, rows -> { loads.incrementAndGet(); return List.of(); });
+
+        assertEquals(List.of(1L), ids(first));
+        assertEquals(4, loads.get());
+    }
+}
@@ -0,0 +1,198 @@
+package com.librishare.backend.modules.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.librishare.backend.modules.book.dto.BookRequestDTO;
+import com.librishare.backend.modules.idempotency.dto.IdempotencyClaim.Outcome;
+import com.librishare.backend.modules.idempotency.filter.IdempotencyFilter;
+import com.librishare.backend.modules.idempotency.repository.IdempotencyKeyRepository;
+import com.librishare.backend.modules.idempotency.service.IdempotencyService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.OffsetDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Sem @Transactional: a reserva e a resposta são gravadas em transações próprias
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class IdempotencyIntegrationTest {
+
+    private static final String ISBN = "9780000000001";
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private ObjectMapper objectMapper;
+    @Autowired private IdempotencyService idempotency;
+    @Autowired private IdempotencyKeyRepository repository;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM books WHERE isbn = ?", ISBN);
+        repository.deleteAll();
+    }
+
+    private String book(String title) throws Exception {
+        BookRequestDTO dto = new BookRequestDTO();
+        dto.setTitle(title);
+        dto.setAuthor("Autor");
+        dto.setIsbn(ISBN);
+        return objectMapper.writeValueAsString(dto);
+    }
+
+    @Test
+    @DisplayName("Deve devolver a resposta original ao repetir o POST com a mesma chave")
+    void repeatedPost_ReplaysOriginalResponse() throws Exception {
+        String body = book("Livro Idempotente");
+
+        MvcResult first = mockMvc.perform(post("/api/v1/books")
+                        .header(IdempotencyFilter.HEADER, "chave-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isCreated())
+                .andExpect(header().doesNotExist(IdempotencyFilter.REPLAYED_HEADER))
+                .andReturn();
+
+        // Sem a chave, o mesmo ISBN daria 409
+        MvcResult replay = mockMvc.perform(post("/api/v1/books")
+                        .header(IdempotencyFilter.HEADER, "chave-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isCreated())
+                .andExpect(header().string(IdempotencyFilter.REPLAYED_HEADER, "true"))
+                .andReturn();
+
+        assertEquals(first.getResponse().getContentAsString(), replay.getResponse().getContentAsString());
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM books WHERE isbn = ?", Integer.class, ISBN));
+    }
+
+    @Test
+    @DisplayName("Deve recusar a mesma chave com outro corpo (422) e chaves longas demais (400)")
+    void invalidKeyUsage_Rejected() throws Exception {
+        mockMvc.perform(post("/api/v1/books")
+                        .header(IdempotencyFilter.HEADER, "chave-2")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(book("Primeiro")))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(post("/api/v1/books")
+                        .header(IdempotencyFilter.HEADER, "chave-2")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(book("Segundo")))
+                .andExpect(status().isUnprocessableEntity());
+
+        mockMvc.perform(post("/api/v1/books")
+                        .header(IdempotencyFilter.HEADER, "x".repeat(256))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(book("Terceiro")))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Clientes anônimos de IPs ou ids diferentes não devem compartilhar a chave")
+    void anonymousCallers_ScopedByAddressAndClientId() throws Exception {
+        String body = book("Livro Anônimo");
+
+        mockMvc.perform(post("/api/v1/books")
+                        .header(IdempotencyFilter.HEADER, "chave-3")
+                        .with(request -> {
+                            request.setRemoteAddr("10.0.0.1");
+                            return request;
+                        })
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isCreated());
+
+        // Sem replay, o ISBN repetido chega ao controller e dá 409
+        mockMvc.perform(post("/api/v1/books")
+                        .header(IdempotencyFilter.HEADER, "chave-3")
+                        .with(request -> {
+                            request.setRemoteAddr("10.0.0.2");
+                            return request;
+                        })
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isConflict())
+                .andExpect(header().doesNotExist(IdempotencyFilter.REPLAYED_HEADER));
+
+        mockMvc.perform(post("/api/v1/books")
+                        .header(IdempotencyFilter.HEADER, "chave-3")
+                        .header(IdempotencyFilter.CLIENT_HEADER, "app-2")
+                        .with(request -> {
+                            request.setRemoteAddr("10.0.0.1");
+                            return request;
+                        })
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isConflict())
+                .andExpect(header().doesNotExist(IdempotencyFilter.REPLAYED_HEADER));
+
+        mockMvc.perform(post("/api/v1/books")
+                        .header(IdempotencyFilter.HEADER, "chave-3")
+                        .with(request -> {
+                            request.setRemoteAddr("10.0.0.1");
+                            return request;
+                        })
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isCreated())
+                .andExpect(header().string(IdempotencyFilter.REPLAYED_HEADER, "true"));
+    }
+
+    @Test
+    @DisplayName("Deve recusar com 413 corpos acima do limite, sem reservar a chave")
+    void oversizedBody_Rejected() throws Exception {
+        mockMvc.perform(post("/api/v1/books")
+                        .header(IdempotencyFilter.HEADER, "chave-4")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("x".repeat(1024 * 1024 + 1)))
+                .andExpect(status().isPayloadTooLarge());
+
+        assertEquals(0, repository.count());
+    }
+
+    @Test
+    @DisplayName("Deve reservar a chave uma única vez e liberá-la ao expirar ou em caso de falha")
+    void claim_Lifecycle() {
+        assertEquals(Outcome.ACQUIRED, idempotency.claim("id-1", "hash-a").outcome());
+        assertEquals(Outcome.IN_PROGRESS, idempotency.claim("id-1", "hash-a").outcome());
+        assertEquals(Outcome.MISMATCH, idempotency.claim("id-1", "hash-b").outcome());
+
+        idempotency.release("id-1");
+        assertEquals(Outcome.ACQUIRED, idempotency.claim("id-1", "hash-a").outcome());
+
+        idempotency.complete("id-1", 201, "application/json", null, "{\"id\":1}");
+        var replay = idempotency.claim("id-1", "hash-a");
+        assertEquals(Outcome.REPLAY, replay.outcome());
+        assertEquals(201, replay.response().status());
+
+        // Reserva abandonada por uma instância que caiu
+        repository.insertPending("id-2", "hash-a", OffsetDateTime.now().minusSeconds(1));
+        assertEquals(Outcome.ACQUIRED, idempotency.claim("id-2", "hash-a").outcome());
+    }
+
+    @Test
+    @DisplayName("Não deve guardar a resposta do login")
+    void login_NotIdempotent() throws Exception {
+        mockMvc.perform(post("/api/v1/users/login")
+                        .header(IdempotencyFilter.HEADER, "chave-login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\":\"ninguem@test.com\",\"password\":\"x\"}"))
+                .andExpect(status().isUnauthorized());
+
+        assertEquals(0, repository.count());
+    }
+}
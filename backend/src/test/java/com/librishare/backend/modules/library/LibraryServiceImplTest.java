@@ -1,11 +1,13 @@
 package com.librishare.backend.modules.library;
 
+import com.librishare.backend.config.cache.TwoTierCache;
 import com.librishare.backend.exception.DuplicateResourceException;
 import com.librishare.backend.exception.ResourceNotFoundException;
 import com.librishare.backend.modules.book.entity.Book;
 import com.librishare.backend.modules.book.repository.BookRepository;
-import com.librishare.backend.modules.history.service.HistoryService;
+import com.librishare.backend.modules.event.service.UserEventService;
 import com.librishare.backend.modules.library.dto.AddBookRequest;
+import com.librishare.backend.modules.library.dto.LibraryBookAddedEvent;
 import com.librishare.backend.modules.library.dto.UserBookResponse;
 import com.librishare.backend.modules.library.dto.UserLibraryStatsDTO;
 import com.librishare.backend.modules.library.entity.UserBook;
@@ -13,8 +15,11 @@ import com.librishare.backend.modules.library.enums.ReadingStatus;
 import com.librishare.backend.modules.library.repository.UserBookRepository;
 import com.librishare.backend.modules.library.service.impl.LibraryServiceImpl;
 import com.librishare.backend.modules.loan.repository.LoanRepository;
+import com.librishare.backend.modules.loan.service.LoanChangeTracker;
+import com.librishare.backend.modules.outbox.service.OutboxService;
 import com.librishare.backend.modules.user.entity.User;
 import com.librishare.backend.modules.user.repository.UserRepository;
+import com.librishare.backend.modules.user.service.UserProfileLookup;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -31,6 +36,7 @@ import java.time.OffsetDateTime;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -44,13 +50,23 @@ class LibraryServiceImplTest {
     @Mock
     private UserRepository userRepository;
     @Mock
+    private UserProfileLookup userProfiles;
+    @Mock
     private BookRepository bookRepository;
     @Mock
     private LoanRepository loanRepository;
     @Mock
     private ModelMapper mapper;
     @Mock
-    private HistoryService historyService;
+    private OutboxService outbox;
+
+    @Mock
+    private TwoTierCache<Long, UserLibraryStatsDTO> libraryStatsCache;
+    @Mock
+    private LoanChangeTracker loanChangeTracker;
+
+    @Mock
+    private UserEventService userEvents;
 
     @InjectMocks
     private LibraryServiceImpl libraryService;
@@ -97,7 +113,8 @@ class LibraryServiceImplTest {
 
         assertNotNull(result);
         assertEquals(book.getTitle(), result.getTitle());
-        verify(historyService).logAction(any(), anyString(), anyString());
+        verify(outbox).publish(LibraryBookAddedEvent.TYPE,
+                new LibraryBookAddedEvent(1L, book.getId(), book.getTitle(), ReadingStatus.WANT_TO_READ));
     }
 
     @Test
@@ -162,6 +179,20 @@ class LibraryServiceImplTest {
         assertEquals(expectedStatus, userBook.getStatus());
     }
 
+    // --- Remove Book Tests ---
+
+    @Test
+    @DisplayName("Deve remover livro e sinalizar alteração nos empréstimos")
+    void removeBookFromLibrary_Success() {
+        when(userBookRepository.findByIdAndUserId(1L, 1L)).thenReturn(Optional.of(userBook));
+
+        libraryService.removeBookFromLibrary(1L, 1L);
+
+        verify(userBookRepository).delete(userBook);
+        verify(loanChangeTracker).markChanged(1L);
+        verify(libraryStatsCache).evict(1L);
+    }
+
     // --- Stats Tests ---
 
     @Test
@@ -172,6 +203,7 @@ class LibraryServiceImplTest {
         when(userBookRepository.countByUserIdAndStatus(1L, ReadingStatus.TO_READ)).thenReturn(3L);
         when(userBookRepository.countByUserIdAndStatus(1L, ReadingStatus.WANT_TO_READ)).thenReturn(10L);
         when(loanRepository.countByUserBook_User_IdAndStatus(1L, "ACTIVE")).thenReturn(1L);
+        when(libraryStatsCache.get(eq(1L), any())).thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(1).get());
 
         UserLibraryStatsDTO stats = libraryService.getUserLibraryStats(1L);
 
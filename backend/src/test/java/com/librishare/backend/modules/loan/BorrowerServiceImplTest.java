@@ -0,0 +1,96 @@
+package com.librishare.backend.modules.loan;
+
+import com.librishare.backend.modules.loan.dto.BorrowerResponseDTO;
+import com.librishare.backend.modules.loan.entity.Borrower;
+import com.librishare.backend.modules.loan.repository.BorrowerRepository;
+import com.librishare.backend.modules.loan.service.impl.BorrowerServiceImpl;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BorrowerServiceImplTest {
+
+    @Mock
+    private BorrowerRepository borrowerRepository;
+
+    @InjectMocks
+    private BorrowerServiceImpl borrowerService;
+
+    @Test
+    @DisplayName("Deve cadastrar a pessoa com email normalizado como chave")
+    void resolveBorrower_NewByEmail() {
+        Borrower borrower = Borrower.builder().id(3L).borrowerKey("joao@email.com").name("João").build();
+        when(borrowerRepository.insertIfAbsent(1L, "joao@email.com", "João", "joao@email.com")).thenReturn(1);
+        when(borrowerRepository.findByOwnerAndKey(1L, "joao@email.com")).thenReturn(Optional.of(borrower));
+
+        Borrower result = borrowerService.resolveBorrower(1L, " João ", " Joao@Email.com");
+
+        assertEquals(3L, result.getId());
+    }
+
+    @Test
+    @DisplayName("Deve reaproveitar a pessoa existente pelo nome quando não há email")
+    void resolveBorrower_ExistingByName() {
+        Borrower borrower = Borrower.builder().id(4L).borrowerKey("name:maria").name("Maria").build();
+        when(borrowerRepository.insertIfAbsent(1L, "name:maria", "MARIA", null)).thenReturn(0);
+        when(borrowerRepository.findByOwnerAndKey(1L, "name:maria")).thenReturn(Optional.of(borrower));
+
+        Borrower result = borrowerService.resolveBorrower(1L, "MARIA", "");
+
+        assertEquals(4L, result.getId());
+        assertEquals("MARIA", result.getName());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "jo", "JOÃO", "silva", "joao@" })
+    @DisplayName("Deve sugerir pelo início do nome, de um sobrenome ou do email, ignorando acentos")
+    void searchBorrowers_Matches(String query) {
+        when(borrowerRepository.findResponsesByOwnerId(1L)).thenReturn(List.of(
+                new BorrowerResponseDTO(3L, "João da Silva", "joao@email.com"),
+                new BorrowerResponseDTO(4L, "Maria", null)));
+
+        List<BorrowerResponseDTO> result = borrowerService.searchBorrowers(1L, query);
+
+        assertEquals(1, result.size());
+        assertEquals(3L, result.get(0).getId());
+    }
+
+    @Test
+    @DisplayName("Deve servir o autocomplete do cache após a primeira consulta")
+    void searchBorrowers_Cached() {
+        when(borrowerRepository.findResponsesByOwnerId(1L))
+                .thenReturn(List.of(new BorrowerResponseDTO(4L, "Maria", null)));
+
+        borrowerService.searchBorrowers(1L, "ma");
+        borrowerService.searchBorrowers(1L, "m");
+
+        verify(borrowerRepository, times(1)).findResponsesByOwnerId(1L);
+    }
+
+    @Test
+    @DisplayName("Deve recarregar o cache quando uma nova pessoa é cadastrada")
+    void searchBorrowers_EvictedOnNewBorrower() {
+        when(borrowerRepository.findResponsesByOwnerId(1L)).thenReturn(List.of());
+        when(borrowerRepository.insertIfAbsent(1L, "name:ana", "Ana", null)).thenReturn(1);
+        when(borrowerRepository.findByOwnerAndKey(1L, "name:ana"))
+                .thenReturn(Optional.of(Borrower.builder().id(5L).name("Ana").build()));
+
+        borrowerService.searchBorrowers(1L, "a");
+        borrowerService.resolveBorrower(1L, "Ana", null);
+        borrowerService.searchBorrowers(1L, "a");
+
+        verify(borrowerRepository, times(2)).findResponsesByOwnerId(1L);
+    }
+}
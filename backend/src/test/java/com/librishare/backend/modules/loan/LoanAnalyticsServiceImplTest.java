@@ -0,0 +1,110 @@
+package com.librishare.backend.modules.loan;
+
+import com.librishare.backend.modules.loan.dto.BorrowerStatsDTO;
+import com.librishare.backend.modules.loan.dto.LoanAnalyticsDTO;
+import com.librishare.backend.modules.loan.dto.LoanResponseDTO;
+import com.librishare.backend.modules.loan.entity.LoanMonthlyStatsId;
+import com.librishare.backend.modules.loan.repository.LoanMonthlyStatsRepository;
+import com.librishare.backend.modules.loan.service.impl.LoanAnalyticsServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LoanAnalyticsServiceImplTest {
+
+    @Mock
+    private LoanMonthlyStatsRepository statsRepository;
+
+    @InjectMocks
+    private LoanAnalyticsServiceImpl analyticsService;
+
+    private LoanResponseDTO loan;
+
+    @BeforeEach
+    void setUp() {
+        loan = new LoanResponseDTO();
+        loan.setId(1L);
+        loan.setBorrowerName("João da Silva");
+        loan.setBorrowerEmail("  Joao@Email.com ");
+        loan.setLoanDate(LocalDate.of(2024, 3, 20));
+        loan.setDueDate(LocalDate.of(2024, 4, 3));
+    }
+
+    @Test
+    @DisplayName("Deve contabilizar empréstimo no mês de saída com email normalizado")
+    void recordLoan_UsesLoanMonthAndNormalizedEmail() {
+        analyticsService.recordLoan(1L, loan);
+
+        LoanMonthlyStatsId expectedId = new LoanMonthlyStatsId(1L, "joao@email.com", LocalDate.of(2024, 3, 1));
+        verify(statsRepository).insertIfAbsent(1L, "joao@email.com", LocalDate.of(2024, 3, 1), "João da Silva", "joao@email.com");
+        verify(statsRepository).incrementLoans(expectedId, "João da Silva");
+    }
+
+    @Test
+    @DisplayName("Deve usar o nome como chave quando não há email")
+    void recordLoan_WithoutEmail() {
+        loan.setBorrowerEmail(" ");
+
+        analyticsService.recordLoan(1L, loan);
+
+        verify(statsRepository).insertIfAbsent(1L, "name:joão da silva", LocalDate.of(2024, 3, 1), "João da Silva", null);
+    }
+
+    @Test
+    @DisplayName("Deve contabilizar devolução no prazo com a duração do empréstimo")
+    void recordReturn_OnTime() {
+        loan.setReturnDate(LocalDate.of(2024, 4, 2));
+
+        analyticsService.recordReturn(1L, loan);
+
+        LoanMonthlyStatsId expectedId = new LoanMonthlyStatsId(1L, "joao@email.com", LocalDate.of(2024, 4, 1));
+        verify(statsRepository).incrementReturns(expectedId, 1, 13L);
+    }
+
+    @Test
+    @DisplayName("Deve contabilizar devolução atrasada")
+    void recordReturn_Late() {
+        loan.setReturnDate(LocalDate.of(2024, 4, 10));
+
+        analyticsService.recordReturn(1L, loan);
+
+        verify(statsRepository).incrementReturns(any(LoanMonthlyStatsId.class), eq(0), eq(21L));
+    }
+
+    @Test
+    @DisplayName("Deve montar as estatísticas apenas a partir do consolidado")
+    void getAnalytics_Success() {
+        LocalDate since = LocalDate.now().withDayOfMonth(1).minusMonths(11);
+        when(statsRepository.summarize(1L, since)).thenReturn(new LoanAnalyticsDTO(10L, 8L, 6L, 80L));
+        when(statsRepository.findTopBorrowers(eq(1L), eq(since), any(Pageable.class)))
+                .thenReturn(List.of(new BorrowerStatsDTO("João da Silva", "joao@email.com", 5L, 4L, 3L)));
+
+        LoanAnalyticsDTO result = analyticsService.getAnalytics(1L, 12);
+
+        assertEquals(since, result.getSince());
+        assertEquals(10.0, result.getAverageLoanDurationDays());
+        assertEquals(0.75, result.getOnTimeReturnRate());
+        assertEquals(0.75, result.getTopBorrowers().get(0).getOnTimeReturnRate());
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar período inválido")
+    void getAnalytics_InvalidPeriod() {
+        assertThrows(IllegalArgumentException.class, () -> analyticsService.getAnalytics(1L, 0));
+        verifyNoInteractions(statsRepository);
+    }
+}
@@ -4,8 +4,16 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.librishare.backend.exception.ResourceNotFoundException;
 import com.librishare.backend.modules.loan.controller.LoanController;
+import com.librishare.backend.modules.loan.dto.BorrowerResponseDTO;
+import com.librishare.backend.modules.loan.dto.BorrowerStatsDTO;
+import com.librishare.backend.modules.loan.dto.LoanAnalyticsDTO;
+import com.librishare.backend.modules.loan.dto.LoanBatchRequestDTO;
 import com.librishare.backend.modules.loan.dto.LoanRequestDTO;
 import com.librishare.backend.modules.loan.dto.LoanResponseDTO;
+import com.librishare.backend.modules.loan.dto.LoanReturnBatchRequestDTO;
+import com.librishare.backend.modules.loan.service.BorrowerService;
+import com.librishare.backend.modules.loan.service.LoanAnalyticsService;
+import com.librishare.backend.modules.loan.service.LoanChangeTracker;
 import com.librishare.backend.modules.loan.service.LoanService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -28,7 +36,9 @@ import java.util.List;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -43,6 +53,15 @@ class LoanControllerTest {
     @Mock
     private LoanService loanService;
 
+    @Mock
+    private LoanAnalyticsService loanAnalyticsService;
+
+    @Mock
+    private LoanChangeTracker loanChangeTracker;
+
+    @Mock
+    private BorrowerService borrowerService;
+
     @InjectMocks
     private LoanController loanController;
 
@@ -135,26 +154,120 @@ class LoanControllerTest {
         returnedDto.setId(1L);
         returnedDto.setStatus("RETURNED");
 
-        when(loanService.returnLoan(50L)).thenReturn(returnedDto);
+        when(loanService.returnLoan(1L, 50L)).thenReturn(returnedDto);
 
-        // O userId (1L) está na URL mas a service usa apenas o loanId (50L) no seu código atual
         mockMvc.perform(patch("/api/v1/users/{userId}/loans/{loanId}/return", 1L, 50L))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.status", is("RETURNED")));
         
-        verify(loanService).returnLoan(50L);
+        verify(loanService).returnLoan(1L, 50L);
     }
 
     @Test
     @DisplayName("Deve retornar 404 se empréstimo não encontrado para devolução")
     void returnLoan_NotFound() throws Exception {
-        when(loanService.returnLoan(99L))
+        when(loanService.returnLoan(1L, 99L))
                 .thenThrow(new ResourceNotFoundException("Empréstimo não encontrado"));
 
         mockMvc.perform(patch("/api/v1/users/{userId}/loans/{loanId}/return", 1L, 99L))
                 .andExpect(status().isNotFound());
     }
 
+    // --- Batch Loans ---
+
+    @Test
+    @DisplayName("Deve registrar empréstimos em lote (201)")
+    void createLoans_Success() throws Exception {
+        LoanBatchRequestDTO batch = new LoanBatchRequestDTO(List.of(loanRequestDTO));
+        when(loanService.createLoans(eq(1L), anyList())).thenReturn(List.of(loanResponseDTO));
+
+        mockMvc.perform(post("/api/v1/users/{userId}/loans/batch", 1L)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(batch)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].borrowerName", is("Amigo João")));
+    }
+
+    @Test
+    @DisplayName("Deve retornar 400 para lote vazio")
+    void createLoans_EmptyBatch() throws Exception {
+        LoanBatchRequestDTO batch = new LoanBatchRequestDTO(Collections.emptyList());
+
+        mockMvc.perform(post("/api/v1/users/{userId}/loans/batch", 1L)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(batch)))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Deve registrar devoluções em lote (200)")
+    void returnLoans_Success() throws Exception {
+        LoanResponseDTO returnedDto = new LoanResponseDTO();
+        returnedDto.setId(50L);
+        returnedDto.setStatus("RETURNED");
+        when(loanService.returnLoans(1L, List.of(50L, 51L))).thenReturn(List.of(returnedDto));
+
+        mockMvc.perform(patch("/api/v1/users/{userId}/loans/batch/return", 1L)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new LoanReturnBatchRequestDTO(List.of(50L, 51L)))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status", is("RETURNED")));
+    }
+
+    // --- Analytics ---
+
+    @Test
+    @DisplayName("Deve retornar as estatísticas de empréstimos (200)")
+    void getLoanAnalytics_Success() throws Exception {
+        LoanAnalyticsDTO analytics = new LoanAnalyticsDTO(4L, 2L, 1L, 20L);
+        analytics.setTopBorrowers(List.of(new BorrowerStatsDTO("Amigo João", "joao@email.com", 3L, 2L, 1L)));
+        when(loanAnalyticsService.getAnalytics(1L, 6)).thenReturn(analytics);
+
+        mockMvc.perform(get("/api/v1/users/{userId}/loans/analytics", 1L).param("months", "6"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalLoans", is(4)))
+                .andExpect(jsonPath("$.averageLoanDurationDays", is(10.0)))
+                .andExpect(jsonPath("$.onTimeReturnRate", is(0.5)))
+                .andExpect(jsonPath("$.topBorrowers[0].borrowerName", is("Amigo João")));
+    }
+
+    // --- Calendar ---
+
+    @Test
+    @DisplayName("Deve responder 304 sem gerar o calendário quando a ETag não mudou")
+    void getLoanCalendar_NotModified() throws Exception {
+        when(loanChangeTracker.etag(1L)).thenReturn("\"abc-3\"");
+
+        mockMvc.perform(get("/api/v1/users/{userId}/loans/calendar.ics", 1L).header("If-None-Match", "\"abc-3\""))
+                .andExpect(status().isNotModified());
+
+        verify(loanService, never()).writeDueDateCalendar(eq(1L), any());
+    }
+
+    // --- Borrowers ---
+
+    @Test
+    @DisplayName("Deve sugerir pessoas pelo início do nome (200)")
+    void searchBorrowers_Success() throws Exception {
+        when(borrowerService.searchBorrowers(1L, "jo"))
+                .thenReturn(List.of(new BorrowerResponseDTO(3L, "João da Silva", "joao@email.com")));
+
+        mockMvc.perform(get("/api/v1/users/{userId}/loans/borrowers", 1L).param("query", "jo"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].name", is("João da Silva")));
+    }
+
+    @Test
+    @DisplayName("Deve retornar 404 ao listar empréstimos de pessoa de outro usuário")
+    void getLoansByBorrower_NotFound() throws Exception {
+        when(loanService.getLoansByBorrower(1L, 3L)).thenThrow(new ResourceNotFoundException("Pessoa não encontrada"));
+
+        mockMvc.perform(get("/api/v1/users/{userId}/loans/borrowers/{borrowerId}", 1L, 3L))
+                .andExpect(status().isNotFound());
+    }
+
     /**
      * Tratamento de exceções local para o teste funcionar sem contexto Spring completo
      */
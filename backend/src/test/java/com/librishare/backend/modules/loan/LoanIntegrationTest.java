@@ -6,8 +6,11 @@ import com.librishare.backend.modules.book.repository.BookRepository;
 import com.librishare.backend.modules.library.entity.UserBook;
 import com.librishare.backend.modules.library.enums.ReadingStatus;
 import com.librishare.backend.modules.library.repository.UserBookRepository;
+import com.librishare.backend.modules.loan.dto.LoanBatchRequestDTO;
 import com.librishare.backend.modules.loan.dto.LoanRequestDTO;
+import com.librishare.backend.modules.loan.dto.LoanReturnBatchRequestDTO;
 import com.librishare.backend.modules.loan.entity.Loan;
+import com.librishare.backend.modules.loan.repository.BorrowerRepository;
 import com.librishare.backend.modules.loan.repository.LoanRepository;
 import com.librishare.backend.modules.user.entity.User;
 import com.librishare.backend.modules.user.repository.UserRepository;
@@ -20,12 +23,18 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
 
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.everyItem;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -41,6 +50,7 @@ class LoanIntegrationTest {
     @Autowired private UserBookRepository userBookRepository;
     @Autowired private UserRepository userRepository;
     @Autowired private BookRepository bookRepository;
+    @Autowired private BorrowerRepository borrowerRepository;
 
     private User user;
     private Book book;
@@ -113,4 +123,151 @@ class LoanIntegrationTest {
                 .andExpect(jsonPath("$.status", is("RETURNED")))
                 .andExpect(jsonPath("$.returnDate").exists());
     }
+
+    @Test
+    @DisplayName("Não deve devolver empréstimo de outro usuário nem devolver duas vezes")
+    void returnLoan_OwnershipAndStatus() throws Exception {
+        Loan loan = loanRepository.save(Loan.builder()
+                .userBook(userBook)
+                .borrowerName("Pedro")
+                .loanDate(LocalDate.now())
+                .dueDate(LocalDate.now().plusDays(10))
+                .status("ACTIVE")
+                .build());
+        User stranger = userRepository.save(User.builder().firstName("Other").lastName("User").email("stranger@test.com").build());
+
+        mockMvc.perform(patch("/api/v1/users/" + stranger.getId() + "/loans/" + loan.getId() + "/return"))
+                .andExpect(status().isNotFound());
+
+        mockMvc.perform(patch("/api/v1/users/" + user.getId() + "/loans/" + loan.getId() + "/return"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(patch("/api/v1/users/" + user.getId() + "/loans/" + loan.getId() + "/return"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("Deve criar e devolver empréstimos em lote")
+    void batchLoans_CreateAndReturn() throws Exception {
+        Book secondBook = bookRepository.save(Book.builder().title("Second Book").author("Author").build());
+        userBookRepository.save(UserBook.builder().user(user).book(secondBook).status(ReadingStatus.TO_READ).build());
+
+        LoanRequestDTO first = new LoanRequestDTO(book.getId(), "Ana", "ana@club.com", null, null);
+        LoanRequestDTO second = new LoanRequestDTO(secondBook.getId(), "Bruno", null, null, null);
+
+        MvcResult created = mockMvc.perform(post("/api/v1/users/" + user.getId() + "/loans/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new LoanBatchRequestDTO(List.of(first, second)))))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[*].status", everyItem(is("ACTIVE"))))
+                .andReturn();
+
+        // Os ids devolvidos são os gerados pelo banco no insert em lote
+        List<Long> loanIds = loanRepository.findByUserId(user.getId()).stream().map(Loan::getId).sorted().toList();
+        List<Long> returnedIds = new ArrayList<>();
+        objectMapper.readTree(created.getResponse().getContentAsString())
+                .forEach(loan -> returnedIds.add(loan.get("id").asLong()));
+        returnedIds.sort(null);
+        assertEquals(loanIds, returnedIds);
+
+        mockMvc.perform(patch("/api/v1/users/" + user.getId() + "/loans/batch/return")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new LoanReturnBatchRequestDTO(loanIds))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[*].status", everyItem(is("RETURNED"))));
+    }
+
+    @Test
+    @DisplayName("Não deve devolver em lote empréstimos de outro usuário")
+    void batchReturn_OtherOwner() throws Exception {
+        Loan loan = loanRepository.save(Loan.builder()
+                .userBook(userBook)
+                .borrowerName("Pedro")
+                .loanDate(LocalDate.now())
+                .dueDate(LocalDate.now().plusDays(10))
+                .status("ACTIVE")
+                .build());
+        User stranger = userRepository.save(User.builder().firstName("Other").lastName("User").email("other@test.com").build());
+
+        mockMvc.perform(patch("/api/v1/users/" + stranger.getId() + "/loans/batch/return")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new LoanReturnBatchRequestDTO(List.of(loan.getId())))))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("Deve consolidar empréstimos e devoluções nas estatísticas")
+    void loanAnalytics_FromRollups() throws Exception {
+        LoanRequestDTO request = new LoanRequestDTO(book.getId(), "Ana", " Ana@Club.com ", null, null);
+
+        mockMvc.perform(post("/api/v1/users/" + user.getId() + "/loans")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated());
+
+        Long loanId = loanRepository.findByUserId(user.getId()).get(0).getId();
+        mockMvc.perform(patch("/api/v1/users/" + user.getId() + "/loans/" + loanId + "/return"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/v1/users/" + user.getId() + "/loans/analytics"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalLoans", is(1)))
+                .andExpect(jsonPath("$.totalReturns", is(1)))
+                .andExpect(jsonPath("$.averageLoanDurationDays", is(0.0)))
+                .andExpect(jsonPath("$.onTimeReturnRate", is(1.0)))
+                .andExpect(jsonPath("$.topBorrowers", hasSize(1)))
+                .andExpect(jsonPath("$.topBorrowers[0].borrowerEmail", is("ana@club.com")));
+    }
+
+    @Test
+    @DisplayName("Deve servir o calendário com ETag e responder 304 até haver mudança")
+    void loanCalendar_ConditionalGet() throws Exception {
+        LoanRequestDTO request = new LoanRequestDTO(book.getId(), "Ana", null, LocalDate.now().plusDays(5), null);
+        mockMvc.perform(post("/api/v1/users/" + user.getId() + "/loans")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated());
+
+        MvcResult result = mockMvc.perform(get("/api/v1/users/" + user.getId() + "/loans/calendar.ics"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", containsString("text/calendar")))
+                .andExpect(content().string(containsString("SUMMARY:Devolução de 'Book to Loan' (Ana)")))
+                .andReturn();
+        String etag = result.getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/v1/users/" + user.getId() + "/loans/calendar.ics").header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    @DisplayName("Deve reaproveitar a mesma pessoa e sugeri-la no autocomplete")
+    void borrowers_ResolvedAndSuggested() throws Exception {
+        Book secondBook = bookRepository.save(Book.builder().title("Second Book").author("Author").build());
+        userBookRepository.save(UserBook.builder().user(user).book(secondBook).status(ReadingStatus.TO_READ).build());
+
+        LoanRequestDTO first = new LoanRequestDTO(book.getId(), "Joana Dias", "joana@club.com", null, null);
+        LoanRequestDTO second = new LoanRequestDTO(secondBook.getId(), "Joana", " JOANA@club.com", null, null);
+
+        mockMvc.perform(post("/api/v1/users/" + user.getId() + "/loans")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(first)))
+                .andExpect(status().isCreated());
+        mockMvc.perform(post("/api/v1/users/" + user.getId() + "/loans")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(second)))
+                .andExpect(status().isCreated());
+
+        Long borrowerId = borrowerRepository.findByOwnerAndKey(user.getId(), "joana@club.com").orElseThrow().getId();
+
+        mockMvc.perform(get("/api/v1/users/" + user.getId() + "/loans/borrowers").param("query", "jo"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].email", is("joana@club.com")));
+
+        mockMvc.perform(get("/api/v1/users/" + user.getId() + "/loans/borrowers/" + borrowerId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,95 @@
+package com.librishare.backend.modules.loan;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.librishare.backend.modules.history.dto.HistorySubject;
+import com.librishare.backend.modules.history.enums.HistoryEventType;
+import com.librishare.backend.modules.history.service.HistoryService;
+import com.librishare.backend.modules.loan.dto.LoanEvent;
+import com.librishare.backend.modules.loan.dto.LoanResponseDTO;
+import com.librishare.backend.modules.loan.service.LoanAnalyticsService;
+import com.librishare.backend.modules.loan.service.impl.LoanAnalyticsHandler;
+import com.librishare.backend.modules.loan.service.impl.LoanHistoryHandler;
+import com.librishare.backend.modules.outbox.dto.OutboxMessage;
+import com.librishare.backend.modules.user.entity.User;
+import com.librishare.backend.modules.user.repository.UserRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LoanOutboxHandlersTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    @Mock
+    private HistoryService historyService;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private LoanAnalyticsService analyticsService;
+
+    private final OffsetDateTime publishedAt = OffsetDateTime.parse("2024-03-15T10:00:00Z");
+
+    private OutboxMessage message(String eventType, LoanEvent event) throws Exception {
+        return new OutboxMessage(1L, eventType, publishedAt, objectMapper.writeValueAsString(event), objectMapper);
+    }
+
+    private LoanResponseDTO loan() {
+        LoanResponseDTO loan = new LoanResponseDTO();
+        loan.setId(7L);
+        loan.setBookId(10L);
+        loan.setBookTitle("Dom Quixote");
+        loan.setBorrowerName("João da Silva");
+        loan.setLoanDate(LocalDate.of(2024, 3, 1));
+        loan.setDueDate(LocalDate.of(2024, 3, 15));
+        return loan;
+    }
+
+    @Test
+    @DisplayName("Deve registrar no histórico os empréstimos devolvidos, com a data da publicação")
+    void historyHandler_Returned() throws Exception {
+        User user = User.builder().id(1L).build();
+        when(userRepository.getReferenceById(1L)).thenReturn(user);
+        LoanHistoryHandler handler = new LoanHistoryHandler(historyService, userRepository);
+
+        handler.handle(message(LoanEvent.RETURNED, new LoanEvent(1L, List.of(loan()))));
+
+        verify(historyService).recordActions(user, HistoryEventType.LOAN_RETURNED,
+                List.of(HistorySubject.ofLoan(10L, "Dom Quixote", 7L, "João da Silva")), publishedAt);
+    }
+
+    @Test
+    @DisplayName("Deve atualizar as estatísticas de cada empréstimo criado")
+    void analyticsHandler_Created() throws Exception {
+        LoanAnalyticsHandler handler = new LoanAnalyticsHandler(analyticsService);
+
+        handler.handle(message(LoanEvent.CREATED, new LoanEvent(1L, List.of(loan(), loan()))));
+
+        verify(analyticsService, times(2)).recordLoan(1L, loan());
+        verify(analyticsService, never()).recordReturn(anyLong(), any());
+    }
+
+    @Test
+    @DisplayName("Handlers de empréstimo devem ter chaves distintas e ignorar outros eventos")
+    void handlers_KeysAndTypes() {
+        LoanHistoryHandler history = new LoanHistoryHandler(historyService, userRepository);
+        LoanAnalyticsHandler analytics = new LoanAnalyticsHandler(analyticsService);
+
+        assertFalse(history.key().equals(analytics.key()));
+        assertTrue(history.handles(LoanEvent.CREATED));
+        assertFalse(analytics.handles("library.book-added"));
+    }
+}
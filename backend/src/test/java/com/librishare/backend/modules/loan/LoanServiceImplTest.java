@@ -1,18 +1,27 @@
 package com.librishare.backend.modules.loan;
 
+import com.librishare.backend.config.cache.TwoTierCache;
 import com.librishare.backend.exception.DuplicateResourceException;
 import com.librishare.backend.exception.ResourceNotFoundException;
 import com.librishare.backend.modules.book.entity.Book;
-import com.librishare.backend.modules.history.service.HistoryService;
+import com.librishare.backend.modules.event.service.UserEventService;
+import com.librishare.backend.modules.library.dto.UserLibraryStatsDTO;
 import com.librishare.backend.modules.library.entity.UserBook;
 import com.librishare.backend.modules.library.enums.ReadingStatus;
 import com.librishare.backend.modules.library.repository.UserBookRepository;
+import com.librishare.backend.modules.loan.dto.LoanEvent;
 import com.librishare.backend.modules.loan.dto.LoanRequestDTO;
 import com.librishare.backend.modules.loan.dto.LoanResponseDTO;
 import com.librishare.backend.modules.loan.entity.Loan;
+import com.librishare.backend.modules.loan.entity.Borrower;
+import com.librishare.backend.modules.loan.repository.BorrowerRepository;
 import com.librishare.backend.modules.loan.repository.LoanRepository;
+import com.librishare.backend.modules.loan.service.BorrowerService;
+import com.librishare.backend.modules.loan.service.LoanChangeTracker;
+import com.librishare.backend.modules.loan.service.impl.LoanBatchWriter;
 import com.librishare.backend.modules.loan.service.impl.LoanServiceImpl;
 import com.librishare.backend.modules.user.entity.User;
+import com.librishare.backend.modules.outbox.service.OutboxService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -25,10 +34,13 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.modelmapper.ModelMapper;
 
+import java.io.StringWriter;
 import java.time.LocalDate;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -40,6 +52,9 @@ class LoanServiceImplTest {
     @Mock
     private LoanRepository loanRepository;
 
+    @Mock
+    private LoanBatchWriter loanBatchWriter;
+
     @Mock
     private UserBookRepository userBookRepository;
 
@@ -47,7 +62,22 @@ class LoanServiceImplTest {
     private ModelMapper mapper;
 
     @Mock
-    private HistoryService historyService;
+    private OutboxService outbox;
+
+    @Mock
+    private LoanChangeTracker changeTracker;
+
+    @Mock
+    private BorrowerService borrowerService;
+
+    @Mock
+    private BorrowerRepository borrowerRepository;
+
+    @Mock
+    private UserEventService userEvents;
+
+    @Mock
+    private TwoTierCache<Long, UserLibraryStatsDTO> libraryStatsCache;
 
     @InjectMocks
     private LoanServiceImpl loanService;
@@ -118,8 +148,11 @@ class LoanServiceImplTest {
         // Assert
         assertNotNull(result);
         assertEquals(borrowerName, result.getBorrowerName());
-        verify(historyService).logAction(eq(user), eq("EMPRÉSTIMO"), anyString());
         verify(loanRepository).save(any(Loan.class));
+        verify(outbox).publish(LoanEvent.CREATED, new LoanEvent(1L, List.of(result)));
+        verify(borrowerService).resolveBorrower(1L, borrowerName, req.getBorrowerEmail());
+        verify(changeTracker).markChanged(1L);
+        verify(libraryStatsCache).evict(1L);
     }
 
     @Test
@@ -164,15 +197,166 @@ class LoanServiceImplTest {
     @ValueSource(longs = { 50L, 100L, 1L })
     @DisplayName("Deve finalizar empréstimo com sucesso para diferentes IDs")
     void returnLoan_Parameterized(Long loanId) {
-        Loan mockLoan = Loan.builder().id(loanId).status("ACTIVE").build();
+        LoanResponseDTO returned = new LoanResponseDTO();
+        returned.setId(loanId);
+        returned.setStatus("RETURNED");
+        returned.setReturnDate(LocalDate.now());
 
-        when(loanRepository.findById(loanId)).thenReturn(Optional.of(mockLoan));
-        when(loanRepository.save(any(Loan.class))).thenAnswer(i -> i.getArgument(0));
+        when(loanRepository.markReturned(1L, List.of(loanId), LocalDate.now())).thenReturn(1);
+        when(loanRepository.findResponseById(loanId)).thenReturn(Optional.of(returned));
 
-        LoanResponseDTO result = loanService.returnLoan(loanId);
+        LoanResponseDTO result = loanService.returnLoan(1L, loanId);
 
         assertEquals("RETURNED", result.getStatus());
         assertEquals(LocalDate.now(), result.getReturnDate());
-        verify(loanRepository).save(mockLoan);
+        verify(outbox).publish(LoanEvent.RETURNED, new LoanEvent(1L, List.of(returned)));
+        verify(changeTracker).markChanged(1L);
+        verify(libraryStatsCache).evict(1L);
+        verify(loanRepository, never()).findById(anyLong());
+        verify(loanRepository, never()).save(any(Loan.class));
+    }
+
+    @Test
+    @DisplayName("Deve lançar erro se o empréstimo não for do usuário ou já estiver devolvido")
+    void returnLoan_NotOwnedOrNotActive() {
+        when(loanRepository.markReturned(eq(2L), anyCollection(), any(LocalDate.class))).thenReturn(0);
+
+        assertThrows(ResourceNotFoundException.class, () -> loanService.returnLoan(2L, 50L));
+        verify(loanRepository, never()).findResponseById(anyLong());
+    }
+
+    // --- Batch Loan Tests ---
+
+    @Test
+    @DisplayName("Deve criar empréstimos em lote validando a posse com uma única consulta")
+    void createLoans_Success() {
+        Book otherBook = Book.builder().id(11L).title("Memórias Póstumas").build();
+        UserBook otherUserBook = UserBook.builder().id(101L).user(user).book(otherBook).status(ReadingStatus.TO_READ).build();
+
+        LoanRequestDTO otherRequest = new LoanRequestDTO();
+        otherRequest.setBookId(11L);
+        otherRequest.setBorrowerName(" joão da silva ");
+
+        when(userBookRepository.findWithBookByUserIdAndBookIdIn(eq(1L), anyCollection()))
+                .thenReturn(Arrays.asList(userBook, otherUserBook));
+        when(loanRepository.findUserBookIdsByStatus(anyCollection(), eq("ACTIVE"))).thenReturn(Collections.emptyList());
+        when(loanBatchWriter.insertAll(anyList())).thenAnswer(i -> i.getArgument(0));
+        when(borrowerService.resolveBorrower(eq(1L), anyString(), any())).thenReturn(Borrower.builder().id(3L).build());
+
+        List<LoanResponseDTO> result = loanService.createLoans(1L, Arrays.asList(loanRequestDTO, otherRequest));
+
+        assertEquals(2, result.size());
+        assertEquals("Dom Quixote", result.get(0).getBookTitle());
+        assertEquals("Memórias Póstumas", result.get(1).getBookTitle());
+        verify(outbox).publish(eq(LoanEvent.CREATED), argThat(event -> ((LoanEvent) event).getLoans().size() == 2));
+        verify(userBookRepository, never()).findByUserIdAndBookId(anyLong(), anyLong());
+        verify(borrowerService, times(1)).resolveBorrower(eq(1L), anyString(), any());
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar o lote inteiro se algum livro já estiver emprestado")
+    void createLoans_AlreadyLent() {
+        when(userBookRepository.findWithBookByUserIdAndBookIdIn(eq(1L), anyCollection()))
+                .thenReturn(Collections.singletonList(userBook));
+        when(loanRepository.findUserBookIdsByStatus(anyCollection(), eq("ACTIVE"))).thenReturn(List.of(100L));
+
+        assertThrows(DuplicateResourceException.class,
+                () -> loanService.createLoans(1L, Collections.singletonList(loanRequestDTO)));
+        verify(loanBatchWriter, never()).insertAll(anyList());
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar o lote se algum livro não estiver na biblioteca")
+    void createLoans_BookNotFound() {
+        when(userBookRepository.findWithBookByUserIdAndBookIdIn(eq(1L), anyCollection()))
+                .thenReturn(Collections.emptyList());
+
+        assertThrows(ResourceNotFoundException.class,
+                () -> loanService.createLoans(1L, Collections.singletonList(loanRequestDTO)));
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar livro repetido no mesmo lote")
+    void createLoans_DuplicateBookInBatch() {
+        assertThrows(IllegalArgumentException.class,
+                () -> loanService.createLoans(1L, Arrays.asList(loanRequestDTO, loanRequestDTO)));
+        verifyNoInteractions(userBookRepository);
+    }
+
+    @Test
+    @DisplayName("Deve devolver empréstimos em lote com uma atualização em conjunto")
+    void returnLoans_Success() {
+        LoanResponseDTO returned = new LoanResponseDTO();
+        returned.setId(1L);
+        returned.setBookTitle("Dom Quixote");
+        returned.setBorrowerName("João da Silva");
+        returned.setStatus("RETURNED");
+
+        when(loanRepository.markReturned(eq(1L), eq(Set.of(1L)), any(LocalDate.class))).thenReturn(1);
+        when(loanRepository.findResponsesByIdIn(Set.of(1L))).thenReturn(List.of(returned));
+
+        List<LoanResponseDTO> result = loanService.returnLoans(1L, List.of(1L));
+
+        assertEquals(1, result.size());
+        assertEquals("RETURNED", result.get(0).getStatus());
+        verify(outbox).publish(LoanEvent.RETURNED, new LoanEvent(1L, List.of(returned)));
+        verify(loanRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    @DisplayName("Deve falhar o lote se algum empréstimo não for do usuário ou já estiver devolvido")
+    void returnLoans_PartialMatch() {
+        when(loanRepository.markReturned(eq(1L), anyCollection(), any(LocalDate.class))).thenReturn(1);
+
+        assertThrows(ResourceNotFoundException.class, () -> loanService.returnLoans(1L, List.of(1L, 2L)));
+        verifyNoInteractions(outbox);
+    }
+
+    // --- Borrower Tests ---
+
+    @Test
+    @DisplayName("Deve listar os empréstimos de uma pessoa do usuário")
+    void getLoansByBorrower_Success() {
+        when(borrowerRepository.existsByIdAndOwnerId(3L, 1L)).thenReturn(true);
+        when(loanRepository.findResponsesByUserIdAndBorrowerId(1L, 3L)).thenReturn(List.of(new LoanResponseDTO()));
+
+        assertEquals(1, loanService.getLoansByBorrower(1L, 3L).size());
+    }
+
+    @Test
+    @DisplayName("Deve lançar erro se a pessoa não pertencer ao usuário")
+    void getLoansByBorrower_NotFound() {
+        when(borrowerRepository.existsByIdAndOwnerId(3L, 2L)).thenReturn(false);
+
+        assertThrows(ResourceNotFoundException.class, () -> loanService.getLoansByBorrower(2L, 3L));
+        verify(loanRepository, never()).findResponsesByUserIdAndBorrowerId(anyLong(), anyLong());
+    }
+
+    // --- Calendar Tests ---
+
+    @Test
+    @DisplayName("Deve gerar o calendário iCalendar dos empréstimos ativos")
+    void writeDueDateCalendar_Success() throws Exception {
+        LoanResponseDTO active = new LoanResponseDTO();
+        active.setId(7L);
+        active.setBookTitle("Dom Quixote, Vol. 1; edição especial");
+        active.setBorrowerName("João da Silva");
+        active.setLoanDate(LocalDate.of(2024, 5, 1));
+        active.setDueDate(LocalDate.of(2024, 5, 15));
+        when(loanRepository.findActiveResponsesByUserId(1L)).thenReturn(List.of(active));
+
+        StringWriter writer = new StringWriter();
+        loanService.writeDueDateCalendar(1L, writer);
+        String ics = writer.toString();
+
+        assertTrue(ics.startsWith("BEGIN:VCALENDAR\r\n"));
+        assertTrue(ics.endsWith("END:VCALENDAR\r\n"));
+        assertTrue(ics.contains("UID:loan-7@librishare\r\n"));
+        assertTrue(ics.contains("DTSTART;VALUE=DATE:20240515\r\n"));
+        assertTrue(ics.contains("DTEND;VALUE=DATE:20240516\r\n"));
+        assertTrue(ics.contains("Dom Quixote\\, Vol. 1\\; edição especial"));
+        for (String line : ics.split("\r\n")) {
+            assertTrue(line.getBytes(java.nio.charset.StandardCharsets.UTF_8).length <= 75, line);
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,198 @@
+package com.librishare.backend.modules.outbox;
+
+import com.librishare.backend.modules.book.entity.Book;
+import com.librishare.backend.modules.book.repository.BookRepository;
+import com.librishare.backend.modules.history.enums.HistoryEventType;
+import com.librishare.backend.modules.history.repository.UserHistoryRepository;
+import com.librishare.backend.modules.library.dto.AddBookRequest;
+import com.librishare.backend.modules.library.dto.LibraryBookAddedEvent;
+import com.librishare.backend.modules.library.enums.ReadingStatus;
+import com.librishare.backend.modules.library.service.LibraryService;
+import com.librishare.backend.modules.outbox.dto.OutboxMessage;
+import com.librishare.backend.modules.outbox.service.OutboxHandler;
+import com.librishare.backend.modules.outbox.service.OutboxService;
+import com.librishare.backend.modules.outbox.service.impl.OutboxDispatcher;
+import com.librishare.backend.modules.social.dto.TimelineFanOutEvent;
+import com.librishare.backend.modules.user.entity.User;
+import com.librishare.backend.modules.user.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Sem @Transactional: o poller só enxerga eventos já confirmados
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(OutboxIntegrationTest.FlakyHandlerConfig.class)
+@TestPropertySource(properties = {
+        "librishare.outbox.enabled=true",
+        "librishare.outbox.poll-interval-ms=3600000",
+        "librishare.outbox.max-attempts=2"
+})
+class OutboxIntegrationTest {
+
+    private static final String FLAKY_EVENT = "test.flaky";
+
+    @Autowired private OutboxService outboxService;
+    @Autowired private OutboxDispatcher dispatcher;
+    @Autowired private LibraryService libraryService;
+    @Autowired private UserRepository userRepository;
+    @Autowired private BookRepository bookRepository;
+    @Autowired private UserHistoryRepository historyRepository;
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private TransactionTemplate transactionTemplate;
+    @Autowired private FlakyHandler flakyHandler;
+
+    private User user;
+    private Book book;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(User.builder().firstName("Outbox").lastName("User").email("outbox@test.com").build());
+        book = bookRepository.save(Book.builder().title("Livro do Outbox").author("Autor").build());
+        flakyHandler.failuresLeft.set(0);
+        flakyHandler.handled.set(0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM outbox_events");
+        userRepository.deleteById(user.getId());
+        bookRepository.deleteById(book.getId());
+    }
+
+    private Map<String, Object> onlyEvent() {
+        return jdbcTemplate.queryForMap("SELECT * FROM outbox_events");
+    }
+
+    private Map<String, Object> event(String eventType) {
+        return jdbcTemplate.queryForMap("SELECT * FROM outbox_events WHERE event_type = ?", eventType);
+    }
+
+    private void makeDueAgain() {
+        jdbcTemplate.update("UPDATE outbox_events SET processed_at = NULL, available_at = CURRENT_TIMESTAMP - INTERVAL '1' SECOND");
+    }
+
+    @Test
+    @DisplayName("Deve gravar o evento com a alteração e aplicar o histórico só na entrega")
+    void libraryChange_DeliveredByPoller() {
+        AddBookRequest request = new AddBookRequest();
+        request.setBookId(book.getId());
+        request.setStatus(ReadingStatus.READING);
+        libraryService.addBookToLibrary(user.getId(), request);
+
+        assertEquals(0, historyRepository.findAll().size());
+        assertNull(onlyEvent().get("processed_at"));
+
+        dispatcher.poll();
+
+        assertNotNull(event(LibraryBookAddedEvent.TYPE).get("processed_at"));
+        assertEquals(1, historyRepository.findAll().size());
+        assertEquals(HistoryEventType.READING_STARTED, historyRepository.findAll().get(0).getEventType());
+        // O fan-out da linha do tempo segue como outro evento, entregue à parte
+        assertNull(event(TimelineFanOutEvent.TYPE).get("processed_at"));
+        dispatcher.poll();
+        assertNotNull(event(TimelineFanOutEvent.TYPE).get("processed_at"));
+    }
+
+    @Test
+    @DisplayName("Não deve repetir o efeito de um handler quando o evento é reentregue")
+    void redelivery_SkipsHandlersAlreadyApplied() {
+        AddBookRequest request = new AddBookRequest();
+        request.setBookId(book.getId());
+        request.setStatus(ReadingStatus.WANT_TO_READ);
+        libraryService.addBookToLibrary(user.getId(), request);
+        dispatcher.poll();
+
+        makeDueAgain();
+        dispatcher.poll();
+
+        assertNotNull(event(LibraryBookAddedEvent.TYPE).get("processed_at"));
+        assertEquals(1, historyRepository.findAll().size());
+    }
+
+    @Test
+    @DisplayName("Deve reagendar o evento após falha e marcá-lo como falho ao esgotar as tentativas")
+    void failingHandler_RetriedThenFailed() {
+        flakyHandler.failuresLeft.set(1);
+        transactionTemplate.executeWithoutResult(status -> outboxService.publish(FLAKY_EVENT, Map.of("value", 1)));
+
+        dispatcher.poll();
+        Map<String, Object> event = onlyEvent();
+        assertEquals(1, ((Number) event.get("attempts")).intValue());
+        assertTrue(((String) event.get("last_error")).contains("falha simulada"));
+        assertNull(event.get("processed_at"));
+
+        // Ainda no intervalo de espera: não é entregue
+        dispatcher.poll();
+        assertEquals(0, flakyHandler.handled.get());
+
+        makeDueAgain();
+        dispatcher.poll();
+        assertEquals(1, flakyHandler.handled.get());
+        assertNotNull(onlyEvent().get("processed_at"));
+
+        jdbcTemplate.update("DELETE FROM outbox_events");
+        flakyHandler.failuresLeft.set(5);
+        transactionTemplate.executeWithoutResult(status -> outboxService.publish(FLAKY_EVENT, Map.of("value", 2)));
+        dispatcher.poll();
+        makeDueAgain();
+        dispatcher.poll();
+        assertNotNull(onlyEvent().get("failed_at"));
+    }
+
+    @Test
+    @DisplayName("Deve exigir uma transação para publicar")
+    void publish_RequiresTransaction() {
+        assertThrows(RuntimeException.class, () -> outboxService.publish(FLAKY_EVENT, Map.of("value", 3)));
+    }
+
+    static class FlakyHandler implements OutboxHandler {
+        final AtomicInteger failuresLeft = new AtomicInteger();
+        final AtomicInteger handled = new AtomicInteger();
+
+        @Override
+        public String key() {
+            return "test-flaky";
+        }
+
+        @Override
+        public boolean handles(String eventType) {
+            return FLAKY_EVENT.equals(eventType);
+        }
+
+        @Override
+        public void handle(OutboxMessage message) {
+            if (failuresLeft.getAndUpdate(n -> Math.max(0, n - 1)) > 0) {
+                throw new IllegalStateException("falha simulada");
+            }
+            handled.incrementAndGet();
+        }
+    }
+
+    @TestConfiguration
+    static class FlakyHandlerConfig {
+        @Bean
+        FlakyHandler flakyHandler() {
+            return new FlakyHandler();
+        }
+    }
+}
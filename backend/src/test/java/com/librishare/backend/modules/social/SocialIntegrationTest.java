@@ -0,0 +1,143 @@
+package com.librishare.backend.modules.social;
+
+import com.jayway.jsonpath.JsonPath;
+import com.librishare.backend.modules.book.entity.Book;
+import com.librishare.backend.modules.book.repository.BookRepository;
+import com.librishare.backend.modules.history.dto.HistorySubject;
+import com.librishare.backend.modules.history.enums.HistoryEventType;
+import com.librishare.backend.modules.history.service.HistoryService;
+import com.librishare.backend.modules.social.repository.FollowRepository;
+import com.librishare.backend.modules.social.repository.TimelineEntryRepository;
+import com.librishare.backend.modules.user.entity.User;
+import com.librishare.backend.modules.user.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Limites baixos para exercitar as duas estratégias com poucos usuários
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Transactional
+@TestPropertySource(properties = {
+        "librishare.timeline.push-max-followers=3",
+        "librishare.timeline.pull-min-followers=2"
+})
+class SocialIntegrationTest {
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private UserRepository userRepository;
+    @Autowired private BookRepository bookRepository;
+    @Autowired private FollowRepository followRepository;
+    @Autowired private TimelineEntryRepository timelineRepository;
+    @Autowired private HistoryService historyService;
+
+    private User reader;
+    private User author;
+    private User celebrity;
+    private Book book;
+
+    @BeforeEach
+    void setUp() {
+        reader = saveUser("Leitora", "reader@social.test");
+        author = saveUser("Autora", "author@social.test");
+        celebrity = saveUser("Famosa", "famous@social.test");
+        book = bookRepository.save(Book.builder().title("Grande Sertão").author("Guimarães Rosa").build());
+    }
+
+    private User saveUser(String name, String email) {
+        return userRepository.save(User.builder().firstName(name).lastName("Teste").email(email).build());
+    }
+
+    private void follow(User follower, User followee) throws Exception {
+        mockMvc.perform(put("/api/v1/users/" + follower.getId() + "/following/" + followee.getId()))
+                .andExpect(status().isNoContent());
+    }
+
+    private void logReading(User user) {
+        historyService.logAction(user, HistoryEventType.READING_STARTED, HistorySubject.ofBook(book.getId(), book.getTitle()));
+    }
+
+    @Test
+    @DisplayName("Deve copiar eventos de contas comuns e ler os de contas populares na consulta")
+    void timeline_HybridFanOut() throws Exception {
+        logReading(author);
+        follow(reader, author);
+        follow(reader, celebrity);
+        follow(saveUser("Fã", "fan1@social.test"), celebrity);
+        follow(saveUser("Fã", "fan2@social.test"), celebrity);
+
+        logReading(celebrity);
+        logReading(author);
+
+        // Evento anterior trazido ao seguir, mais o novo; nada copiado da conta popular
+        assertEquals(2, timelineRepository.count());
+        assertEquals(3, followRepository.findFollowerCount(celebrity.getId()));
+
+        List<Long> authors = new ArrayList<>();
+        String cursor = null;
+        do {
+            var request = get("/api/v1/users/" + reader.getId() + "/timeline").param("limit", "2");
+            if (cursor != null) {
+                request.param("before", cursor);
+            }
+            MvcResult result = mockMvc.perform(request).andExpect(status().isOk()).andReturn();
+            List<Number> page = JsonPath.read(result.getResponse().getContentAsString(StandardCharsets.UTF_8), "$[*].authorId");
+            page.forEach(id -> authors.add(id.longValue()));
+            cursor = result.getResponse().getHeader("X-Next-Cursor");
+        } while (cursor != null);
+
+        assertEquals(List.of(author.getId(), celebrity.getId(), author.getId()), authors);
+    }
+
+    @Test
+    @DisplayName("Deve remover da linha do tempo os eventos de quem deixou de ser seguido")
+    void unfollow_RemovesEntries() throws Exception {
+        follow(reader, author);
+        logReading(author);
+
+        mockMvc.perform(get("/api/v1/users/" + reader.getId() + "/timeline"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].authorName", is("Autora Teste")))
+                .andExpect(jsonPath("$[0].activity.eventType", is("READING_STARTED")));
+
+        mockMvc.perform(delete("/api/v1/users/" + reader.getId() + "/following/" + author.getId()))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/api/v1/users/" + reader.getId() + "/timeline"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)));
+        assertEquals(0, followRepository.findFollowerCount(author.getId()));
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar seguir a si mesmo e usuários inexistentes")
+    void follow_InvalidPairs() throws Exception {
+        mockMvc.perform(put("/api/v1/users/" + reader.getId() + "/following/" + reader.getId()))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(put("/api/v1/users/" + reader.getId() + "/following/999999"))
+                .andExpect(status().isNotFound());
+    }
+}
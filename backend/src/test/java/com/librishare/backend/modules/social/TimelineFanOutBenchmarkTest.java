@@ -0,0 +1,113 @@
+package com.librishare.backend.modules.social;
+
+import com.librishare.backend.modules.history.dto.HistorySubject;
+import com.librishare.backend.modules.history.enums.HistoryEventType;
+import com.librishare.backend.modules.history.service.HistoryService;
+import com.librishare.backend.modules.social.service.TimelineService;
+import com.librishare.backend.modules.user.entity.User;
+import com.librishare.backend.modules.user.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Mede o fan-out na gravação para um autor com 10 mil seguidores e a leitura da
+ * linha do tempo de um deles. Não roda na suíte normal; para executar:
+ * {@code mvn test -Dtest=TimelineFanOutBenchmarkTest -Dlibrishare.benchmark=true}.
+ * Contra o H2 em memória os números servem para comparar versões, não para
+ * estimar a produção.
+ */
+@Slf4j
+@SpringBootTest
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "librishare.benchmark", matches = "true")
+@TestPropertySource(properties = "librishare.timeline.push-max-followers=1000000")
+class TimelineFanOutBenchmarkTest {
+
+    private static final int FOLLOWERS = 10_000;
+    private static final int WARMUP_EVENTS = 5;
+    private static final int MEASURED_EVENTS = 20;
+    private static final int TIMELINE_READS = 200;
+
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private UserRepository userRepository;
+    @Autowired private HistoryService historyService;
+    @Autowired private TimelineService timelineService;
+    @Autowired private TransactionTemplate transactionTemplate;
+
+    private User author;
+
+    @BeforeEach
+    void setUp() {
+        author = userRepository.save(User.builder().firstName("Bench").lastName("Autor").email("bench-author@bench.test").build());
+
+        List<Object[]> followers = new ArrayList<>(FOLLOWERS);
+        for (int i = 0; i < FOLLOWERS; i++) {
+            followers.add(new Object[]{"Bench", "Seguidor " + i, "bench-" + i + "@bench.test"});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO users (first_name, last_name, email) VALUES (?, ?, ?)", followers);
+        jdbcTemplate.update("INSERT INTO follows (follower_id, followee_id) " +
+                "SELECT id, ? FROM users WHERE email LIKE 'bench-%' AND id <> ?", author.getId(), author.getId());
+        jdbcTemplate.update("UPDATE users SET follower_count = ? WHERE id = ?", FOLLOWERS, author.getId());
+    }
+
+    @AfterEach
+    void tearDown() {
+        // A cascata leva follows, timeline_entries e user_history
+        jdbcTemplate.update("DELETE FROM users WHERE email LIKE 'bench-%'");
+    }
+
+    // Com o outbox desligado nos testes, o fan-out roda na mesma transação e entra na medida
+    private void logEvent() {
+        transactionTemplate.executeWithoutResult(status -> historyService.logAction(
+                author, HistoryEventType.READING_STARTED, HistorySubject.ofBook(null, "Livro de teste")));
+    }
+
+    @Test
+    @DisplayName("Fan-out para 10 mil seguidores e leitura da linha do tempo")
+    void fanOutTenThousandFollowers() {
+        for (int i = 0; i < WARMUP_EVENTS; i++) {
+            logEvent();
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_EVENTS; i++) {
+            logEvent();
+        }
+        long fanOutNanos = System.nanoTime() - start;
+
+        Integer rows = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM timeline_entries WHERE author_id = ?", Integer.class, author.getId());
+        assertEquals(FOLLOWERS * (WARMUP_EVENTS + MEASURED_EVENTS), rows);
+
+        Long follower = jdbcTemplate.queryForObject(
+                "SELECT MIN(follower_id) FROM follows WHERE followee_id = ?", Long.class, author.getId());
+        start = System.nanoTime();
+        for (int i = 0; i < TIMELINE_READS; i++) {
+            timelineService.getTimeline(follower, null, 20);
+        }
+        long readNanos = System.nanoTime() - start;
+
+        double perEventMillis = fanOutNanos / 1e6 / MEASURED_EVENTS;
+        log.info("[benchmark] fan-out: {} seguidores, {} ms por evento, {} linhas/s", FOLLOWERS,
+                String.format("%.1f", perEventMillis),
+                String.format("%.0f", FOLLOWERS * MEASURED_EVENTS / (fanOutNanos / 1e9)));
+        log.info("[benchmark] leitura da linha do tempo (20 itens): {} ms",
+                String.format("%.3f", TimeUnit.NANOSECONDS.toMicros(readNanos) / 1000.0 / TIMELINE_READS));
+    }
+}
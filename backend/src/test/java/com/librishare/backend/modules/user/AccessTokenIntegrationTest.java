@@ -0,0 +1,114 @@
+package com.librishare.backend.modules.user;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jayway.jsonpath.JsonPath;
+import com.librishare.backend.modules.user.dto.LoginRequestDTO;
+import com.librishare.backend.modules.user.entity.User;
+import com.librishare.backend.modules.user.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Transactional
+@TestPropertySource(properties = "librishare.security.token.required=true")
+class AccessTokenIntegrationTest {
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private ObjectMapper objectMapper;
+    @Autowired private UserRepository userRepository;
+    @Autowired private PasswordEncoder passwordEncoder;
+
+    private User owner;
+    private User other;
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.save(User.builder().firstName("Dona").lastName("Estante")
+                .email("dona@token.test").password(passwordEncoder.encode("senha123")).build());
+        other = userRepository.save(User.builder().firstName("Outra").lastName("Pessoa")
+                .email("outra@token.test").password(passwordEncoder.encode("senha456")).build());
+    }
+
+    private String login(String email, String password) throws Exception {
+        LoginRequestDTO dto = new LoginRequestDTO();
+        dto.setEmail(email);
+        dto.setPassword(password);
+        String body = mockMvc.perform(post("/api/v1/users/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.email").value(email))
+                .andExpect(jsonPath("$.tokenType").value("Bearer"))
+                .andReturn().getResponse().getContentAsString();
+        return JsonPath.read(body, "$.accessToken");
+    }
+
+    @Test
+    @DisplayName("Deve aceitar o token do próprio usuário nas rotas dele")
+    void ownToken_Allowed() throws Exception {
+        String token = login("dona@token.test", "senha123");
+
+        mockMvc.perform(get("/api/v1/users/" + owner.getId() + "/library")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("Deve recusar com 403 o token de outro usuário")
+    void otherUsersToken_Forbidden() throws Exception {
+        String token = login("outra@token.test", "senha456");
+
+        mockMvc.perform(get("/api/v1/users/" + owner.getId() + "/library")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    @DisplayName("Deve exigir token nas rotas do usuário e recusar tokens inválidos com 401")
+    void missingOrInvalidToken_Unauthorized() throws Exception {
+        mockMvc.perform(get("/api/v1/users/" + owner.getId() + "/library"))
+                .andExpect(status().isUnauthorized());
+
+        mockMvc.perform(get("/api/v1/users/" + owner.getId() + "/library")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer nao.e.um-token"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    @DisplayName("Diretório de usuários deve exigir um token qualquer")
+    void directory_RequiresToken() throws Exception {
+        mockMvc.perform(get("/api/v1/users"))
+                .andExpect(status().isUnauthorized());
+
+        mockMvc.perform(get("/api/v1/users")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + login("outra@token.test", "senha456")))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("Cadastro, login e perfil público continuam abertos")
+    void publicRoutes_StayOpen() throws Exception {
+        mockMvc.perform(get("/api/v1/users/" + other.getId()))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/v1/books"))
+                .andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,85 @@
+package com.librishare.backend.modules.user;
+
+import com.librishare.backend.exception.ServiceUnavailableException;
+import com.librishare.backend.modules.user.service.impl.PasswordHashingServiceImpl;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * Mede a vazão de logins (hash + verificação) para cada custo do BCrypt, com
+ * mais clientes simultâneos que threads no pool, e quantos foram recusados com
+ * 503. Não roda na suíte normal; para executar:
+ * {@code mvn test -Dtest=PasswordHashingBenchmarkTest -Dlibrishare.benchmark=true}.
+ */
+@Slf4j
+@EnabledIfSystemProperty(named = "librishare.benchmark", matches = "true")
+class PasswordHashingBenchmarkTest {
+
+    private static final int[] COSTS = {8, 10, 12};
+    private static final int POOL_THREADS = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+    private static final int CLIENTS = POOL_THREADS * 4;
+    private static final int LOGINS_PER_CLIENT = 20;
+
+    @SuppressWarnings("unchecked")
+    private final ObjectProvider<MeterRegistry> meterRegistry = mock(ObjectProvider.class);
+
+    @Test
+    @DisplayName("Vazão de logins por custo do BCrypt")
+    void throughputByCost() throws Exception {
+        for (int cost : COSTS) {
+            BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(cost);
+            String hash = encoder.encode("senha-de-benchmark");
+            PasswordHashingServiceImpl hasher =
+                    new PasswordHashingServiceImpl(encoder, meterRegistry, cost, POOL_THREADS, CLIENTS, 10_000);
+            ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+            AtomicInteger accepted = new AtomicInteger();
+            AtomicInteger rejected = new AtomicInteger();
+            try {
+                hasher.matches("senha-de-benchmark", hash);
+
+                long start = System.nanoTime();
+                List<Future<?>> futures = new ArrayList<>();
+                for (int c = 0; c < CLIENTS; c++) {
+                    futures.add(clients.submit(() -> {
+                        for (int i = 0; i < LOGINS_PER_CLIENT; i++) {
+                            try {
+                                hasher.matches("senha-de-benchmark", hash);
+                                accepted.incrementAndGet();
+                            } catch (ServiceUnavailableException e) {
+                                rejected.incrementAndGet();
+                            }
+                        }
+                    }));
+                }
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+                double seconds = (System.nanoTime() - start) / 1e9;
+
+                log.info("[benchmark] custo {}: {} logins/s, {} ms por login, {} recusados ({} threads, {} clientes)",
+                        cost, String.format("%.1f", accepted.get() / seconds),
+                        String.format("%.1f", seconds * 1000 * POOL_THREADS / Math.max(1, accepted.get())),
+                        rejected.get(), POOL_THREADS, CLIENTS);
+            } finally {
+                clients.shutdownNow();
+                clients.awaitTermination(5, TimeUnit.SECONDS);
+                hasher.shutdown();
+            }
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.librishare.backend.modules.user;
+
+import com.librishare.backend.exception.ServiceUnavailableException;
+import com.librishare.backend.modules.user.service.impl.PasswordHashingServiceImpl;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class PasswordHashingServiceImplTest {
+
+    @SuppressWarnings("unchecked")
+    private final ObjectProvider<MeterRegistry> meterRegistry = mock(ObjectProvider.class);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private PasswordHashingServiceImpl hasher;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        hasher.shutdown();
+    }
+
+    /** Encoder que só termina quando o teste liberar, para ocupar o pool. */
+    private final PasswordEncoder blockingEncoder = new PasswordEncoder() {
+        @Override
+        public String encode(CharSequence rawPassword) {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "hash:" + rawPassword;
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return encode(rawPassword).equals(encodedPassword);
+        }
+    };
+
+    @Test
+    @DisplayName("Deve gerar e conferir hashes e detectar custo diferente do configurado")
+    void encodeMatchesAndNeedsRehash() {
+        hasher = new PasswordHashingServiceImpl(new BCryptPasswordEncoder(4), meterRegistry, 4, 1, 4, 5000);
+
+        String hash = hasher.encode("segredo");
+
+        assertTrue(hasher.matches("segredo", hash));
+        assertFalse(hasher.matches("outra", hash));
+        assertFalse(hasher.needsRehash(hash));
+        assertTrue(hasher.needsRehash(new BCryptPasswordEncoder(5).encode("segredo")));
+        assertFalse(hasher.needsRehash(null));
+    }
+
+    @Test
+    @DisplayName("Deve recusar na hora quando o pool e a fila estiverem cheios")
+    void encode_RejectsWhenSaturated() throws Exception {
+        hasher = new PasswordHashingServiceImpl(blockingEncoder, meterRegistry, 10, 1, 1, 5000);
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> hasher.encode("a"));
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> hasher.encode("b"));
+        Thread.sleep(100);
+
+        long start = System.nanoTime();
+        ServiceUnavailableException error = assertThrows(ServiceUnavailableException.class, () -> hasher.encode("c"));
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 1000);
+        assertEquals(1, error.getRetryAfterSeconds());
+
+        release.countDown();
+        assertEquals("hash:a", running.get(5, TimeUnit.SECONDS));
+        assertEquals("hash:b", queued.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("Deve desistir após o tempo máximo de espera")
+    void encode_GivesUpAfterMaxWait() {
+        hasher = new PasswordHashingServiceImpl(blockingEncoder, meterRegistry, 10, 1, 4, 50);
+
+        assertThrows(ServiceUnavailableException.class, () -> hasher.encode("a"));
+    }
+
+    @Test
+    @DisplayName("Deve entregar o hash novo em segundo plano")
+    void rehashLater_DeliversNewHash() throws InterruptedException {
+        hasher = new PasswordHashingServiceImpl(new BCryptPasswordEncoder(4), meterRegistry, 4, 1, 4, 5000);
+        AtomicReference<String> delivered = new AtomicReference<>();
+        CountDownLatch done = new CountDownLatch(1);
+
+        hasher.rehashLater("segredo", hash -> {
+            delivered.set(hash);
+            done.countDown();
+        });
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertTrue(new BCryptPasswordEncoder(4).matches("segredo", delivered.get()));
+    }
+}
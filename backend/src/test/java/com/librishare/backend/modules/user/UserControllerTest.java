@@ -5,8 +5,12 @@ import com.librishare.backend.exception.DuplicateResourceException;
 import com.librishare.backend.exception.ResourceNotFoundException;
 import com.librishare.backend.modules.user.controller.UserController;
 import com.librishare.backend.modules.user.dto.LoginRequestDTO;
+import com.librishare.backend.modules.user.dto.LoginResponseDTO;
+import com.librishare.backend.modules.user.dto.UserDeletionDTO;
+import com.librishare.backend.modules.user.dto.UserPageDTO;
 import com.librishare.backend.modules.user.dto.UserRequestDTO;
 import com.librishare.backend.modules.user.dto.UserResponseDTO;
+import com.librishare.backend.modules.user.enums.UserDeletionStage;
 import com.librishare.backend.modules.user.service.UserService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -31,6 +35,7 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -118,14 +123,17 @@ class UserControllerTest {
     // --- LIST (GET) ---
 
     @Test
-    @DisplayName("Deve listar todos os usuários (200)")
+    @DisplayName("Deve listar uma página de usuários com o cursor da próxima (200)")
     void getAllUsers_Success() throws Exception {
         List<UserResponseDTO> users = Collections.singletonList(userResponseDTO);
-        when(userService.findAllUsers()).thenReturn(users);
+        when(userService.findUsers("bia", null, 1)).thenReturn(new UserPageDTO(users, "1"));
 
         mockMvc.perform(get("/api/v1/users")
+                        .param("q", "bia")
+                        .param("limit", "1")
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
+                .andExpect(header().string(UserController.NEXT_CURSOR_HEADER, "1"))
                 .andExpect(jsonPath("$", hasSize(1)))
                 .andExpect(jsonPath("$[0].firstName", is("Bianca")));
     }
@@ -184,13 +192,16 @@ class UserControllerTest {
     // --- DELETE ---
 
     @Test
-    @DisplayName("Deve deletar usuário (204)")
+    @DisplayName("Deve aceitar a exclusão do usuário (202)")
     void deleteUser_Success() throws Exception {
-        doNothing().when(userService).deleteUser(1L);
+        when(userService.deleteUser(1L)).thenReturn(
+                new UserDeletionDTO(1L, UserDeletionStage.TIMELINE, 0, null, null));
 
         mockMvc.perform(delete("/api/v1/users/{id}", 1L))
-                .andExpect(status().isNoContent());
-        
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "/api/v1/users/1/deletion"))
+                .andExpect(jsonPath("$.stage", is("TIMELINE")));
+
         verify(userService, times(1)).deleteUser(1L);
     }
 
@@ -199,13 +210,16 @@ class UserControllerTest {
     @Test
     @DisplayName("Deve realizar login com sucesso (200)")
     void login_Success() throws Exception {
-        when(userService.login(any(LoginRequestDTO.class))).thenReturn(userResponseDTO);
+        when(userService.login(any(LoginRequestDTO.class)))
+                .thenReturn(new LoginResponseDTO(userResponseDTO, "token-assinado", "Bearer", 3600));
 
         mockMvc.perform(post("/api/v1/users/login")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(loginRequestDTO)))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.email", is("bianca@example.com")));
+                .andExpect(jsonPath("$.email", is("bianca@example.com")))
+                .andExpect(jsonPath("$.accessToken", is("token-assinado")))
+                .andExpect(jsonPath("$.tokenType", is("Bearer")));
     }
 
     @Test
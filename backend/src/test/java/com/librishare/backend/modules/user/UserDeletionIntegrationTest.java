@@ -0,0 +1,193 @@
+package com.librishare.backend.modules.user;
+
+import com.librishare.backend.config.security.AccessTokenService;
+import com.librishare.backend.modules.book.entity.Book;
+import com.librishare.backend.modules.book.repository.BookRepository;
+import com.librishare.backend.modules.user.entity.User;
+import com.librishare.backend.modules.user.repository.UserRepository;
+import com.librishare.backend.modules.user.service.impl.UserPurgeJob;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Sem @Transactional: a limpeza roda em transações próprias, por lote
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "librishare.users.purge.enabled=true",
+        "librishare.users.purge.interval-ms=3600000",
+        "librishare.users.purge.batch-size=2",
+        "librishare.users.purge.pause-ms=0"
+})
+class UserDeletionIntegrationTest {
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private UserPurgeJob purgeJob;
+    @Autowired private UserRepository userRepository;
+    @Autowired private BookRepository bookRepository;
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private AccessTokenService accessTokenService;
+
+    private User leaving;
+    private User staying;
+    private final List<Book> books = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        leaving = userRepository.save(User.builder().firstName("Saindo").lastName("Daqui").email("saindo@test.com").build());
+        staying = userRepository.save(User.builder().firstName("Fica").lastName("Aqui").email("fica@test.com").build());
+        for (int i = 1; i <= 3; i++) {
+            books.add(bookRepository.save(Book.builder().title("Livro " + i).author("Autor").build()));
+        }
+
+        Long userId = leaving.getId();
+        for (Book book : books) {
+            jdbcTemplate.update("INSERT INTO user_books (user_id, book_id, status) VALUES (?, ?, 'READ')", userId, book.getId());
+        }
+        Long userBookId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM user_books WHERE user_id = ?", Long.class, userId);
+        jdbcTemplate.update("INSERT INTO borrowers (owner_user_id, borrower_key, name) VALUES (?, 'name:ana', 'Ana')", userId);
+        Long borrowerId = jdbcTemplate.queryForObject("SELECT id FROM borrowers WHERE owner_user_id = ?", Long.class, userId);
+        for (int i = 0; i < 3; i++) {
+            jdbcTemplate.update("INSERT INTO loans (user_book_id, borrower_id, borrower_name, loan_date, due_date) " +
+                    "VALUES (?, ?, 'Ana', CURRENT_DATE, CURRENT_DATE)", userBookId, borrowerId);
+        }
+        jdbcTemplate.update("INSERT INTO loan_monthly_stats (owner_user_id, borrower_key, stats_month, borrower_name) " +
+                "VALUES (?, 'name:ana', DATE '2026-01-01', 'Ana')", userId);
+        for (int i = 0; i < 5; i++) {
+            jdbcTemplate.update("INSERT INTO user_history (user_id, action_type, description) VALUES (?, 'LEITURA', 'Leu')", userId);
+        }
+        jdbcTemplate.update("INSERT INTO follows (follower_id, followee_id) VALUES (?, ?)", userId, staying.getId());
+        jdbcTemplate.update("INSERT INTO follows (follower_id, followee_id) VALUES (?, ?)", staying.getId(), userId);
+        jdbcTemplate.update("UPDATE users SET follower_count = 1 WHERE id IN (?, ?)", userId, staying.getId());
+        jdbcTemplate.update("INSERT INTO timeline_entries (follower_id, history_id, author_id, created_at) " +
+                "VALUES (?, 1, ?, CURRENT_TIMESTAMP)", staying.getId(), userId);
+        jdbcTemplate.update("INSERT INTO timeline_entries (follower_id, history_id, author_id, created_at) " +
+                "VALUES (?, 2, ?, CURRENT_TIMESTAMP)", userId, staying.getId());
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM user_deletions");
+        jdbcTemplate.update("DELETE FROM users WHERE id IN (?, ?)", leaving.getId(), staying.getId());
+        books.forEach(book -> bookRepository.deleteById(book.getId()));
+        books.clear();
+    }
+
+    private int count(String sql) {
+        return jdbcTemplate.queryForObject(sql, Integer.class, leaving.getId());
+    }
+
+    @Test
+    @DisplayName("Deve esconder a conta na hora e apagar os dados em lotes, registrando o progresso")
+    void deleteUser_MarkedThenPurgedInBatches() throws Exception {
+        mockMvc.perform(delete("/api/v1/users/" + leaving.getId()))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "/api/v1/users/" + leaving.getId() + "/deletion"))
+                .andExpect(jsonPath("$.stage", is("TIMELINE")));
+
+        mockMvc.perform(get("/api/v1/users/" + leaving.getId()))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(delete("/api/v1/users/" + leaving.getId()))
+                .andExpect(status().isNotFound());
+        // Nada apagado ainda, mas o contador de quem era seguido já foi ajustado
+        assertEquals(3, count("SELECT COUNT(*) FROM user_books WHERE user_id = ?"));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT follower_count FROM users WHERE id = ?", Integer.class, staying.getId()));
+
+        purgeJob.run();
+
+        assertEquals(0, count("SELECT COUNT(*) FROM users WHERE id = ?"));
+        assertEquals(0, count("SELECT COUNT(*) FROM user_books WHERE user_id = ?"));
+        assertEquals(0, count("SELECT COUNT(*) FROM borrowers WHERE owner_user_id = ?"));
+        assertEquals(0, count("SELECT COUNT(*) FROM loan_monthly_stats WHERE owner_user_id = ?"));
+        assertEquals(0, count("SELECT COUNT(*) FROM user_history WHERE user_id = ?"));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM follows WHERE follower_id = ? OR followee_id = ?",
+                Integer.class, leaving.getId(), leaving.getId()));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM timeline_entries WHERE follower_id = ? OR author_id = ?",
+                Integer.class, leaving.getId(), leaving.getId()));
+        assertTrue(userRepository.findById(staying.getId()).isPresent());
+
+        // 2 linhas do tempo + 2 seguidores + 3 empréstimos + 3 livros + 1 pessoa + 1 consolidado + 5 históricos
+        mockMvc.perform(get("/api/v1/users/" + leaving.getId() + "/deletion"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.stage", is("DONE")))
+                .andExpect(jsonPath("$.rowsDeleted", is(17)));
+    }
+
+    @Test
+    @DisplayName("Token de uma conta excluída deve ser recusado, antes e depois da limpeza")
+    void deletedUser_TokenRejected() throws Exception {
+        String bearer = "Bearer " + accessTokenService.issue(leaving.getId(), leaving.getEmail(), false).value();
+        String addBook = "{\"bookId\":" + books.get(0).getId() + ",\"status\":\"READ\"}";
+
+        mockMvc.perform(delete("/api/v1/users/" + leaving.getId()).header(HttpHeaders.AUTHORIZATION, bearer))
+                .andExpect(status().isAccepted());
+
+        mockMvc.perform(put("/api/v1/users/" + leaving.getId() + "/following/" + staying.getId())
+                        .header(HttpHeaders.AUTHORIZATION, bearer))
+                .andExpect(status().isUnauthorized());
+
+        purgeJob.run();
+
+        mockMvc.perform(post("/api/v1/users/" + leaving.getId() + "/library")
+                        .header(HttpHeaders.AUTHORIZATION, bearer)
+                        .contentType(MediaType.APPLICATION_JSON).content(addBook))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(post("/api/v1/users/" + leaving.getId() + "/library")
+                        .contentType(MediaType.APPLICATION_JSON).content(addBook))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("Cadastro com o email de uma conta ainda em exclusão deve responder 409")
+    void createUser_EmailOfDeletedUserConflicts() throws Exception {
+        mockMvc.perform(delete("/api/v1/users/" + leaving.getId()))
+                .andExpect(status().isAccepted());
+
+        mockMvc.perform(post("/api/v1/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"firstName\":\"Outra\",\"lastName\":\"Pessoa\",\"email\":\"Saindo@Test.com\",\"password\":\"segredo123\"}"))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    @DisplayName("Deve retomar a limpeza da etapa gravada")
+    void purge_ResumesFromStoredStage() throws Exception {
+        mockMvc.perform(delete("/api/v1/users/" + leaving.getId()))
+                .andExpect(status().isAccepted());
+        // Como se uma execução anterior tivesse parado depois dos empréstimos
+        jdbcTemplate.update("DELETE FROM loans WHERE user_book_id IN (SELECT id FROM user_books WHERE user_id = ?)", leaving.getId());
+        jdbcTemplate.update("UPDATE user_deletions SET stage = 'LIBRARY', rows_deleted = 7 WHERE user_id = ?", leaving.getId());
+
+        purgeJob.run();
+
+        assertEquals(0, count("SELECT COUNT(*) FROM users WHERE id = ?"));
+        mockMvc.perform(get("/api/v1/users/" + leaving.getId() + "/deletion"))
+                .andExpect(jsonPath("$.stage", is("DONE")))
+                .andExpect(jsonPath("$.rowsDeleted", is(7 + 3 + 1 + 1 + 5)));
+    }
+}
@@ -1,6 +1,7 @@
 package com.librishare.backend.modules.user;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.librishare.backend.config.security.AccessTokenService;
 import com.librishare.backend.modules.user.dto.LoginRequestDTO;
 import com.librishare.backend.modules.user.dto.UserRequestDTO;
 import com.librishare.backend.modules.user.entity.User;
@@ -11,13 +12,21 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
 import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -39,6 +48,12 @@ class UserIntegrationTest {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private AccessTokenService accessTokenService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     @BeforeEach
     void setUp() {
         userRepository.deleteAll();
@@ -62,6 +77,66 @@ class UserIntegrationTest {
                 .andExpect(jsonPath("$.password").doesNotExist());
     }
 
+    @Test
+    @DisplayName("Deve recusar email já cadastrado, sem diferenciar maiúsculas")
+    void createUser_DuplicateEmailIgnoringCase() throws Exception {
+        userRepository.save(User.builder().firstName("Maria").lastName("Silva").email("maria@email.com").password("pw").build());
+
+        UserRequestDTO dto = new UserRequestDTO();
+        dto.setFirstName("Outra");
+        dto.setLastName("Maria");
+        dto.setEmail("Maria@Email.com");
+        dto.setPassword("123456");
+
+        mockMvc.perform(post("/api/v1/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.message").value("Erro: Email já cadastrado."));
+    }
+
+    @Test
+    @DisplayName("Deve atualizar apenas o perfil, mantendo a senha")
+    void updateUser_Success() throws Exception {
+        User user = userRepository.save(User.builder()
+                .firstName("Ana").lastName("Souza").email("ana@update.com").password("hash").build());
+
+        UserRequestDTO dto = new UserRequestDTO();
+        dto.setFirstName("Ana Paula");
+        dto.setLastName("Souza");
+        dto.setEmail("ANA@update.com");
+        dto.setAnnualReadingGoal(24);
+
+        mockMvc.perform(put("/api/v1/users/" + user.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.firstName").value("Ana Paula"))
+                .andExpect(jsonPath("$.email").value("ANA@update.com"))
+                .andExpect(jsonPath("$.annualReadingGoal").value(24));
+
+        assertEquals("hash", userRepository.findById(user.getId()).orElseThrow().getPassword());
+    }
+
+    @Test
+    @DisplayName("Deve recusar atualização para o email de outro usuário")
+    void updateUser_DuplicateEmail() throws Exception {
+        userRepository.save(User.builder().firstName("Bia").lastName("Lima").email("bia@update.com").password("pw").build());
+        User user = userRepository.save(User.builder()
+                .firstName("Ana").lastName("Souza").email("ana@update.com").password("pw").build());
+
+        UserRequestDTO dto = new UserRequestDTO();
+        dto.setFirstName("Ana");
+        dto.setLastName("Souza");
+        dto.setEmail("Bia@Update.com");
+
+        mockMvc.perform(put("/api/v1/users/" + user.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.message").value("Erro: Email já cadastrado por outro usuário."));
+    }
+
     @Test
     @DisplayName("Deve realizar login com sucesso")
     void login_Success() throws Exception {
@@ -113,4 +188,101 @@ class UserIntegrationTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.firstName").value("Ana"));
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Deve percorrer o diretório por cursor e filtrar pelo prefixo")
+    void getAllUsers_KeysetPagingAndPrefix() throws Exception {
+        userRepository.save(User.builder().firstName("Bianca").lastName("Lima").email("bia@dir.com").password("pw").build());
+        userRepository.save(User.builder().firstName("Carlos").lastName("Bittencourt").email("carlos@dir.com").password("pw").build());
+        userRepository.save(User.builder().firstName("Davi").lastName("Souza").email("b_x@dir.com").password("pw").build());
+        userRepository.save(User.builder().firstName("Elisa").lastName("Rocha").email("elisa@dir.com").password("pw").build());
+
+        MvcResult first = mockMvc.perform(get("/api/v1/users").param("limit", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(3)))
+                .andExpect(header().exists("X-Next-Cursor"))
+                .andReturn();
+        mockMvc.perform(get("/api/v1/users").param("limit", "3")
+                        .param("after", first.getResponse().getHeader("X-Next-Cursor")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].email").value("elisa@dir.com"))
+                .andExpect(header().doesNotExist("X-Next-Cursor"));
+
+        // Nome, sobrenome ou email; "_" é texto, não curinga
+        mockMvc.perform(get("/api/v1/users").param("q", "BI"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)));
+        mockMvc.perform(get("/api/v1/users").param("q", "b_"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].firstName").value("Davi"));
+    }
+
+    @Test
+    @DisplayName("Deve retornar 400 para cursor ou limite inválido no diretório")
+    void getAllUsers_InvalidParameters() throws Exception {
+        mockMvc.perform(get("/api/v1/users").param("after", "abc"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/v1/users").param("limit", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Deve exportar os usuários em NDJSON, um por linha")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) // a exportação roda em outra thread e precisa ver os dados
+    void exportUsers_Ndjson() throws Exception {
+        User ana = userRepository.save(User.builder().firstName("Ana").lastName("Souza").email("ana@export.com")
+                .password(passwordEncoder.encode("senha123")).build());
+        User bruno = userRepository.save(User.builder().firstName("Bruno").lastName("Dias").email("bruno@export.com").password("pw").build());
+        jdbcTemplate.update("UPDATE users SET admin = TRUE WHERE id = ?", ana.getId());
+        try {
+            assertExported(login("ana@export.com", "senha123"));
+        } finally {
+            userRepository.deleteAll(List.of(ana, bruno));
+        }
+    }
+
+    @Test
+    @DisplayName("Exportação deve exigir o token de um administrador")
+    void exportUsers_RequiresAdmin() throws Exception {
+        User user = userRepository.save(User.builder().firstName("Caio").lastName("Lima").email("caio@export.com").password("pw").build());
+
+        mockMvc.perform(get("/api/v1/admin/users/export").accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/api/v1/admin/users/export").accept(MediaType.APPLICATION_NDJSON)
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + accessTokenService.issue(user.getId(), user.getEmail(), false).value()))
+                .andExpect(status().isForbidden());
+        // A listagem comum não transmite a exportação
+        mockMvc.perform(get("/api/v1/users").accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(status().isNotAcceptable());
+    }
+
+    private String login(String email, String password) throws Exception {
+        LoginRequestDTO loginDto = new LoginRequestDTO();
+        loginDto.setEmail(email);
+        loginDto.setPassword(password);
+        MvcResult result = mockMvc.perform(post("/api/v1/users/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(loginDto)))
+                .andExpect(status().isOk())
+                .andReturn();
+        return objectMapper.readTree(result.getResponse().getContentAsString()).get("accessToken").asText();
+    }
+
+    private void assertExported(String adminToken) throws Exception {
+        MvcResult started = mockMvc.perform(get("/api/v1/admin/users/export").accept(MediaType.APPLICATION_NDJSON)
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + adminToken))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        MvcResult result = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn();
+
+        String[] lines = result.getResponse().getContentAsString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("ana@export.com", objectMapper.readTree(lines[0]).get("email").asText());
+        assertEquals("bruno@export.com", objectMapper.readTree(lines[1]).get("email").asText());
+    }
+}
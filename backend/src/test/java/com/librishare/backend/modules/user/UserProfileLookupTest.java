@@ -0,0 +1,108 @@
+package com.librishare.backend.modules.user;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.librishare.backend.config.cache.TwoTierCache;
+import com.librishare.backend.modules.cache.service.CacheInvalidationBus;
+import com.librishare.backend.modules.user.dto.UserProfile;
+import com.librishare.backend.modules.user.entity.User;
+import com.librishare.backend.modules.user.repository.UserRepository;
+import com.librishare.backend.modules.user.service.UserProfileLookup;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class UserProfileLookupTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final CacheInvalidationBus invalidationBus = mock(CacheInvalidationBus.class);
+    private UserProfileLookup lookup;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        TwoTierCache<Long, UserProfile> profiles = TwoTierCache.<Long, UserProfile>builder()
+                .name("users").valueType(UserProfile.class).ttl(Duration.ofMinutes(10)).maxSize(100)
+                .objectMapper(new ObjectMapper()).invalidationBus(invalidationBus)
+                .region(CacheInvalidationBus.USER).keyParser(Long::valueOf)
+                .build();
+        TwoTierCache<String, Long> emails = TwoTierCache.<String, Long>builder()
+                .name("user-emails").valueType(Long.class).ttl(Duration.ofMinutes(10)).maxSize(100)
+                .objectMapper(new ObjectMapper()).invalidationBus(invalidationBus)
+                .region(CacheInvalidationBus.USER_EMAIL).keyParser(Function.identity())
+                .build();
+        lookup = new UserProfileLookup(userRepository, profiles, emails);
+
+        user = User.builder().id(7L).firstName("Ana").lastName("Souza").email("Ana@Example.com").build();
+    }
+
+    @Test
+    @DisplayName("Deve ler o usuário uma única vez para buscas repetidas por id")
+    void findById_Cached() {
+        when(userRepository.findById(7L)).thenReturn(Optional.of(user));
+
+        assertEquals("Ana", lookup.findById(7L).orElseThrow().firstName());
+        assertTrue(lookup.exists(7L));
+
+        verify(userRepository, times(1)).findById(7L);
+    }
+
+    @Test
+    @DisplayName("Deve resolver emails com caixa e espaços diferentes pela mesma entrada")
+    void findByEmail_Normalized() {
+        when(userRepository.findIdsByNormalizedEmail(eq("ana@example.com"), any(Limit.class))).thenReturn(List.of(7L));
+        when(userRepository.findById(7L)).thenReturn(Optional.of(user));
+
+        assertEquals(7L, lookup.findByEmail("ana@example.com").orElseThrow().id());
+        assertEquals(7L, lookup.findByEmail("  ANA@example.COM ").orElseThrow().id());
+        assertTrue(lookup.exists(7L));
+
+        verify(userRepository, times(1)).findIdsByNormalizedEmail(eq("ana@example.com"), any(Limit.class));
+        verify(userRepository, times(1)).findById(7L);
+    }
+
+    @Test
+    @DisplayName("Deve recarregar após a invalidação e não guardar buscas sem resultado")
+    void evict_Reloads() {
+        when(userRepository.findById(7L)).thenReturn(Optional.of(user));
+        when(userRepository.findIdsByNormalizedEmail(eq("ana@example.com"), any(Limit.class))).thenReturn(List.of(7L));
+        lookup.findByEmail("ana@example.com");
+
+        user.setEmail("ana@novo.com");
+        lookup.evict(7L, "ana@example.com", "ana@novo.com");
+        when(userRepository.findIdsByNormalizedEmail(eq("ana@example.com"), any(Limit.class))).thenReturn(List.of());
+
+        assertTrue(lookup.findByEmail("ana@example.com").isEmpty());
+        assertTrue(lookup.findByEmail("ana@example.com").isEmpty());
+        assertEquals("ana@novo.com", lookup.findById(7L).orElseThrow().email());
+
+        verify(userRepository, times(3)).findIdsByNormalizedEmail(eq("ana@example.com"), any(Limit.class));
+        verify(invalidationBus).broadcast(CacheInvalidationBus.USER, 7L);
+        verify(invalidationBus).broadcast(CacheInvalidationBus.USER_EMAIL, "ana@novo.com");
+    }
+
+    @Test
+    @DisplayName("Deve descartar o índice de email desatualizado e consultar de novo")
+    void findByEmail_StaleMapping() {
+        when(userRepository.findIdsByNormalizedEmail(eq("ana@example.com"), any(Limit.class)))
+                .thenReturn(List.of(7L), List.of());
+        when(userRepository.findById(7L)).thenReturn(Optional.of(user));
+        lookup.findByEmail("ana@example.com");
+
+        // Email trocado em outra instância; o perfil por id já foi recarregado, o índice não
+        user.setEmail("ana@novo.com");
+        lookup.evict(7L);
+
+        assertTrue(lookup.findByEmail("ana@example.com").isEmpty());
+    }
+}
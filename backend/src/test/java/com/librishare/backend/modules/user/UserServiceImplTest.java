@@ -1,12 +1,24 @@
 package com.librishare.backend.modules.user;
 
+import com.librishare.backend.config.security.AccessTokenService;
 import com.librishare.backend.exception.DuplicateResourceException;
 import com.librishare.backend.exception.ResourceNotFoundException;
+import com.librishare.backend.modules.history.service.HistoryService;
+import com.librishare.backend.modules.social.service.FollowService;
 import com.librishare.backend.modules.user.dto.LoginRequestDTO;
+import com.librishare.backend.modules.user.dto.LoginResponseDTO;
+import com.librishare.backend.modules.user.dto.UserDeletionDTO;
+import com.librishare.backend.modules.user.dto.UserPageDTO;
+import com.librishare.backend.modules.user.dto.UserProfile;
 import com.librishare.backend.modules.user.dto.UserRequestDTO;
 import com.librishare.backend.modules.user.dto.UserResponseDTO;
 import com.librishare.backend.modules.user.entity.User;
+import com.librishare.backend.modules.user.entity.UserDeletion;
+import com.librishare.backend.modules.user.enums.UserDeletionStage;
+import com.librishare.backend.modules.user.repository.UserDeletionRepository;
 import com.librishare.backend.modules.user.repository.UserRepository;
+import com.librishare.backend.modules.user.service.PasswordHashingService;
+import com.librishare.backend.modules.user.service.UserProfileLookup;
 import com.librishare.backend.modules.user.service.impl.UserServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -18,14 +30,19 @@ import org.junit.jupiter.params.provider.ValueSource;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.hibernate.exception.ConstraintViolationException;
 import org.modelmapper.ModelMapper;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.authentication.BadCredentialsException;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.lang.reflect.Type;
-import java.util.Collections;
+import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -44,7 +61,25 @@ class UserServiceImplTest {
     private ModelMapper mapper;
 
     @Mock
-    private PasswordEncoder passwordEncoder;
+    private PasswordHashingService passwordHasher;
+
+    @Mock
+    private HistoryService historyService;
+
+    @Mock
+    private FollowService followService;
+
+    @Mock
+    private UserProfileLookup userProfiles;
+
+    @Mock
+    private UserDeletionRepository userDeletionRepository;
+
+    @Mock
+    private AccessTokenService accessTokenService;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
 
     @InjectMocks
     private UserServiceImpl userService;
@@ -108,9 +143,8 @@ class UserServiceImplTest {
         expectedResponse.setFirstName(firstName);
         expectedResponse.setEmail(email);
 
-        when(userRepository.findByEmail(email)).thenReturn(Optional.empty());
         when(mapper.map(req, User.class)).thenReturn(mappedUser);
-        when(passwordEncoder.encode(password)).thenReturn("encoded_" + password);
+        when(passwordHasher.encode(password)).thenReturn("encoded_" + password);
         when(userRepository.save(any(User.class))).thenReturn(mappedUser);
         when(mapper.map(mappedUser, UserResponseDTO.class)).thenReturn(expectedResponse);
 
@@ -121,17 +155,33 @@ class UserServiceImplTest {
         assertNotNull(result);
         assertEquals(email, result.getEmail());
         assertEquals(firstName, result.getFirstName());
-        verify(passwordEncoder).encode(password);
+        verify(passwordHasher).encode(password);
         verify(userRepository).save(any(User.class));
     }
 
     @Test
     @DisplayName("Deve lançar exceção ao criar usuário com email já existente")
     void createUser_EmailAlreadyExists() {
-        when(userRepository.findByEmail(userRequestDTO.getEmail())).thenReturn(Optional.of(user));
+        when(mapper.map(userRequestDTO, User.class)).thenReturn(new User());
+        when(userRepository.save(any(User.class))).thenThrow(emailViolation());
 
         assertThrows(DuplicateResourceException.class, () -> userService.createUser(userRequestDTO));
-        verify(userRepository, never()).save(any(User.class));
+        verify(userRepository, never()).findByEmail(anyString());
+    }
+
+    @Test
+    @DisplayName("Deve repassar violações que não são de email")
+    void createUser_OtherConstraintViolation() {
+        when(mapper.map(userRequestDTO, User.class)).thenReturn(new User());
+        when(userRepository.save(any(User.class))).thenThrow(new DataIntegrityViolationException("not null",
+                new ConstraintViolationException("not null", new SQLException(), "users_first_name_not_null")));
+
+        assertThrows(DataIntegrityViolationException.class, () -> userService.createUser(userRequestDTO));
+    }
+
+    private static DataIntegrityViolationException emailViolation() {
+        return new DataIntegrityViolationException("duplicate key",
+                new ConstraintViolationException("duplicate key", new SQLException(), "uk_users_email_lower"));
     }
 
     // --- Find By ID Tests ---
@@ -141,14 +191,8 @@ class UserServiceImplTest {
     @DisplayName("Deve buscar utilizador por vários IDs válidos com sucesso")
     void findUserById_Parameterized(Long id) {
         // Arrange
-        User mockUser = new User();
-        mockUser.setId(id);
-
-        UserResponseDTO mockResponse = new UserResponseDTO();
-        mockResponse.setId(id);
-
-        when(userRepository.findById(id)).thenReturn(Optional.of(mockUser));
-        when(mapper.map(mockUser, UserResponseDTO.class)).thenReturn(mockResponse);
+        when(userProfiles.findById(id)).thenReturn(Optional.of(
+                new UserProfile(id, "John", "Doe", "john@example.com", null, null, null)));
 
         // Act
         UserResponseDTO result = userService.findUserById(id);
@@ -156,29 +200,58 @@ class UserServiceImplTest {
         // Assert
         assertNotNull(result);
         assertEquals(id, result.getId());
-        verify(userRepository).findById(id);
+        verify(userRepository, never()).findById(anyLong());
     }
 
     @Test
     @DisplayName("Deve lançar exceção ao não encontrar usuário por ID")
     void findUserById_NotFound() {
-        when(userRepository.findById(99L)).thenReturn(Optional.empty());
+        when(userProfiles.findById(99L)).thenReturn(Optional.empty());
         assertThrows(ResourceNotFoundException.class, () -> userService.findUserById(99L));
     }
 
-    // --- Find All Tests ---
+    // --- Directory Tests ---
 
     @Test
-    @DisplayName("Deve listar todos os usuários")
-    void findAllUsers_Success() {
-        List<User> userList = Collections.singletonList(user);
-        when(userRepository.findAll()).thenReturn(userList);
-        when(mapper.map(eq(userList), any(Type.class))).thenReturn(Collections.singletonList(userResponseDTO));
+    @DisplayName("Deve devolver a página do diretório com o cursor do último item")
+    void findUsers_NextCursor() {
+        UserResponseDTO other = new UserResponseDTO();
+        other.setId(2L);
+        when(userRepository.findDirectoryPage(eq(0L), any(Limit.class))).thenReturn(List.of(userResponseDTO, other));
 
-        List<UserResponseDTO> result = userService.findAllUsers();
+        UserPageDTO page = userService.findUsers(null, null, 1);
 
-        assertFalse(result.isEmpty());
-        assertEquals(1, result.size());
+        assertEquals(1, page.getItems().size());
+        assertEquals(userResponseDTO.getId().toString(), page.getNextCursor());
+    }
+
+    @Test
+    @DisplayName("Deve normalizar o prefixo e escapar curingas do LIKE")
+    void findUsers_PrefixEscaped() {
+        when(userRepository.findDirectoryPageByPrefix(eq("a\\_b%"), eq(5L), any(Limit.class))).thenReturn(List.of());
+
+        UserPageDTO page = userService.findUsers("  A_b ", "5", 20);
+
+        assertTrue(page.getItems().isEmpty());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    @DisplayName("Deve exportar em lotes até o último usuário")
+    void exportUsers_Batches() {
+        List<UserResponseDTO> fullBatch = new ArrayList<>();
+        for (long id = 1; id <= 500; id++) {
+            UserResponseDTO dto = new UserResponseDTO();
+            dto.setId(id);
+            fullBatch.add(dto);
+        }
+        when(userRepository.findDirectoryPage(eq(0L), any(Limit.class))).thenReturn(fullBatch);
+        when(userRepository.findDirectoryPage(eq(500L), any(Limit.class))).thenReturn(List.of(userResponseDTO));
+
+        List<UserResponseDTO> exported = new ArrayList<>();
+        userService.exportUsers(null, exported::add);
+
+        assertEquals(501, exported.size());
     }
 
     // --- Update Tests ---
@@ -187,51 +260,74 @@ class UserServiceImplTest {
     @DisplayName("Deve atualizar usuário com sucesso (trocando senha)")
     void updateUser_Success_NewPassword() {
         UserRequestDTO updateRequest = new UserRequestDTO();
-        updateRequest.setEmail("john.doe@example.com");
+        updateRequest.setFirstName("Johnny");
+        updateRequest.setLastName("Doe");
+        updateRequest.setEmail("johnny@example.com");
         updateRequest.setPassword("new_password");
+        updateRequest.setAnnualReadingGoal(12);
 
+        runInTransaction();
         when(userRepository.findById(1L)).thenReturn(Optional.of(user));
-        when(userRepository.findByEmail("john.doe@example.com")).thenReturn(Optional.of(user));
+        when(passwordHasher.encode("new_password")).thenReturn("new_encoded_pass");
+        when(mapper.map(any(User.class), eq(UserResponseDTO.class))).thenReturn(userResponseDTO);
 
-        doNothing().when(mapper).map(any(UserRequestDTO.class), any(User.class));
+        userService.updateUser(1L, updateRequest);
 
-        when(passwordEncoder.encode("new_password")).thenReturn("new_encoded_pass");
-        when(userRepository.save(any(User.class))).thenReturn(user);
+        assertEquals("Johnny", user.getFirstName());
+        assertEquals("johnny@example.com", user.getEmail());
+        assertEquals(12, user.getAnnualReadingGoal());
+        assertEquals("new_encoded_pass", user.getPassword());
+        verify(userRepository).flush();
+        verify(userRepository, never()).save(any());
+        verify(userRepository, never()).findByEmail(anyString());
+        verify(userProfiles).evict(1L, "john.doe@example.com", "johnny@example.com");
+    }
 
-        when(mapper.map(any(User.class), eq(UserResponseDTO.class))).thenReturn(userResponseDTO);
+    @Test
+    @DisplayName("Deve manter a senha quando ela não é enviada na atualização")
+    void updateUser_KeepsPasswordWhenBlank() {
+        UserRequestDTO updateRequest = new UserRequestDTO();
+        updateRequest.setFirstName("John");
+        updateRequest.setLastName("Doe");
+        updateRequest.setEmail("john.doe@example.com");
+        updateRequest.setPassword("");
 
-        userService.updateUser(1L, updateRequest);
+        runInTransaction();
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
 
-        verify(passwordEncoder).encode("new_password");
-        verify(userRepository).save(user);
+        userService.updateUser(1L, updateRequest);
 
-        verify(mapper).map(any(UserRequestDTO.class), any(User.class));
+        assertEquals("encoded_password_123", user.getPassword());
+        verifyNoInteractions(passwordHasher);
     }
 
     @Test
     @DisplayName("Deve lançar erro ao tentar atualizar com email de outro usuário")
     void updateUser_EmailConflict() {
-        User otherUser = new User();
-        otherUser.setId(2L); // Outro ID
-        otherUser.setEmail("jane@example.com");
-
         UserRequestDTO updateRequest = new UserRequestDTO();
-        updateRequest.setEmail("jane@example.com");
+        updateRequest.setEmail("Jane@Example.com");
 
+        runInTransaction();
         when(userRepository.findById(1L)).thenReturn(Optional.of(user));
-        when(userRepository.findByEmail("jane@example.com")).thenReturn(Optional.of(otherUser));
+        doThrow(emailViolation()).when(userRepository).flush();
 
         assertThrows(DuplicateResourceException.class, () -> userService.updateUser(1L, updateRequest));
-        verify(userRepository, never()).save(any());
+        verify(userProfiles, never()).evict(anyLong(), any(String[].class));
     }
 
     @Test
     @DisplayName("Deve lançar erro ao tentar atualizar usuário inexistente")
     void updateUser_NotFound() {
+        runInTransaction();
         when(userRepository.findById(99L)).thenReturn(Optional.empty());
         assertThrows(ResourceNotFoundException.class, () -> userService.updateUser(99L, userRequestDTO));
     }
 
+    private void runInTransaction() {
+        when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
     // --- Delete Tests ---
 
     @ParameterizedTest
@@ -239,22 +335,28 @@ class UserServiceImplTest {
     @DisplayName("Deve deletar utilizador com sucesso para diferentes IDs")
     void deleteUser_Parameterized(Long id) {
         // Arrange
-        when(userRepository.existsById(id)).thenReturn(true);
+        when(userRepository.findById(id)).thenReturn(Optional.of(user));
+        when(userDeletionRepository.save(any(UserDeletion.class))).thenAnswer(i -> i.getArgument(0));
 
         // Act
-        userService.deleteUser(id);
+        UserDeletionDTO deletion = userService.deleteUser(id);
 
-        // Assert
-        verify(userRepository).deleteById(id);
+        // Assert: só marca; a limpeza fica para o UserPurgeJob
+        assertNotNull(user.getDeletedAt());
+        assertEquals(UserDeletionStage.TIMELINE, deletion.getStage());
+        assertNull(deletion.getCompletedAt());
+        verify(followService).forgetFollower(id);
+        verify(userRepository, never()).deleteById(anyLong());
+        verify(userProfiles).evict(id, user.getEmail());
     }
 
     @Test
     @DisplayName("Deve lançar erro ao deletar usuário inexistente")
     void deleteUser_NotFound() {
-        when(userRepository.existsById(99L)).thenReturn(false);
+        when(userRepository.findById(99L)).thenReturn(Optional.empty());
 
         assertThrows(ResourceNotFoundException.class, () -> userService.deleteUser(99L));
-        verify(userRepository, never()).deleteById(anyLong());
+        verify(userDeletionRepository, never()).save(any());
     }
 
     // --- Find By Email Tests ---
@@ -264,14 +366,8 @@ class UserServiceImplTest {
     @DisplayName("Deve buscar utilizador por diferentes emails válidos")
     void findUserByEmail_Parameterized(String email) {
         // Arrange
-        User mockUser = new User();
-        mockUser.setEmail(email);
-
-        UserResponseDTO mockResponse = new UserResponseDTO();
-        mockResponse.setEmail(email);
-
-        when(userRepository.findByEmail(email)).thenReturn(Optional.of(mockUser));
-        when(mapper.map(mockUser, UserResponseDTO.class)).thenReturn(mockResponse);
+        when(userProfiles.findByEmail(email)).thenReturn(Optional.of(
+                new UserProfile(1L, "John", "Doe", email, null, null, null)));
 
         // Act
         UserResponseDTO result = userService.findUserByEmail(email);
@@ -279,13 +375,13 @@ class UserServiceImplTest {
         // Assert
         assertNotNull(result);
         assertEquals(email, result.getEmail());
-        verify(userRepository).findByEmail(email);
+        verify(userRepository, never()).findByEmail(anyString());
     }
 
     @Test
     @DisplayName("Deve lançar erro se email não encontrado")
     void findUserByEmail_NotFound() {
-        when(userRepository.findByEmail("invalid@email.com")).thenReturn(Optional.empty());
+        when(userProfiles.findByEmail("invalid@email.com")).thenReturn(Optional.empty());
         assertThrows(ResourceNotFoundException.class, () -> userService.findUserByEmail("invalid@email.com"));
     }
 
@@ -310,23 +406,44 @@ class UserServiceImplTest {
         mockResponse.setEmail(email);
 
         when(userRepository.findByEmail(email)).thenReturn(Optional.of(mockUser));
-        when(passwordEncoder.matches(password, mockUser.getPassword())).thenReturn(true);
+        when(passwordHasher.matches(password, mockUser.getPassword())).thenReturn(true);
         when(mapper.map(mockUser, UserResponseDTO.class)).thenReturn(mockResponse);
+        when(accessTokenService.issue(mockUser.getId(), email, false)).thenReturn(new AccessTokenService.IssuedToken("token", 3600));
 
         // Act
-        UserResponseDTO result = userService.login(loginReq);
+        LoginResponseDTO result = userService.login(loginReq);
 
         // Assert
         assertNotNull(result);
-        assertEquals(email, result.getEmail());
-        verify(passwordEncoder).matches(password, mockUser.getPassword());
+        assertEquals(email, result.getUser().getEmail());
+        assertEquals("token", result.getAccessToken());
+        assertEquals(3600, result.getExpiresIn());
+        verify(passwordHasher).matches(password, mockUser.getPassword());
+    }
+
+    @Test
+    @DisplayName("Deve regravar o hash em segundo plano quando o custo mudar")
+    void login_RehashesWhenCostChanged() {
+        user.setPassword("$2a$08$hashAntigo");
+        when(userRepository.findByEmail(loginRequestDTO.getEmail())).thenReturn(Optional.of(user));
+        when(passwordHasher.matches(loginRequestDTO.getPassword(), "$2a$08$hashAntigo")).thenReturn(true);
+        when(passwordHasher.needsRehash("$2a$08$hashAntigo")).thenReturn(true);
+        doAnswer(invocation -> {
+            invocation.<Consumer<String>>getArgument(1).accept("$2a$10$hashNovo");
+            return null;
+        }).when(passwordHasher).rehashLater(eq(loginRequestDTO.getPassword()), any());
+        when(accessTokenService.issue(1L, user.getEmail(), false)).thenReturn(new AccessTokenService.IssuedToken("token", 3600));
+
+        userService.login(loginRequestDTO);
+
+        verify(userRepository).replacePassword(1L, "$2a$08$hashAntigo", "$2a$10$hashNovo");
     }
 
     @Test
     @DisplayName("Deve falhar login se senha incorreta")
     void login_WrongPassword() {
         when(userRepository.findByEmail(loginRequestDTO.getEmail())).thenReturn(Optional.of(user));
-        when(passwordEncoder.matches(anyString(), anyString())).thenReturn(false);
+        when(passwordHasher.matches(anyString(), anyString())).thenReturn(false);
 
         assertThrows(BadCredentialsException.class, () -> userService.login(loginRequestDTO));
     }